@@ -0,0 +1,360 @@
+/**
+ * Proyecto:        NMP - Microservicio de Motor de Valuación
+ * Quarksoft S.A.P.I. de C.V. – Todos los derechos reservados. Para uso exclusivo de Nacional Monte de Piedad.
+ */
+package mx.com.nmp.ms.sivad.valuacion.api.ws;
+
+import mx.com.nmp.ms.sivad.valuacion.config.JournalValuacionProperties;
+import mx.com.nmp.ms.sivad.valuacion.infrastructure.escritor.EscritorAsincrono;
+import mx.com.nmp.ms.sivad.valuacion.ws.diamantes.datatypes.Avaluo;
+import mx.com.nmp.ms.sivad.valuacion.ws.diamantes.datatypes.Pieza;
+import mx.com.nmp.ms.sivad.valuacion.ws.diamantes.datatypes.Prenda;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionStatus;
+import org.springframework.transaction.support.TransactionCallbackWithoutResult;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.annotation.PostConstruct;
+import javax.inject.Inject;
+import java.math.BigDecimal;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Bitácora asíncrona de las valuaciones de prendas, escrita en las tablas {@code journal_event} y
+ * {@code journal_event_data}.
+ *
+ * Al valuar sólo se encola el evento, con referencias a la solicitud y a la respuesta, mediante
+ * {@link EscritorAsincrono}. Cada lote de hasta {@code tamanoLote} eventos se escribe en una transacción, insertando
+ * los datos de todo el lote en un solo {@code batch} de JDBC; si la cola está llena se aplica la política configurada.
+ */
+@Component
+public class JournalValuacion extends EscritorAsincrono<JournalValuacion.Evento> {
+
+    /**
+     * Tipo de los eventos registrados.
+     */
+    static final String TIPO = "VALUACION_PRENDA_BASICO";
+
+    /**
+     * Principal registrado cuando la solicitud no está autenticada.
+     */
+    private static final String PRINCIPAL_ANONIMO = "anonymousUser";
+
+    /**
+     * Longitud máxima del principal.
+     */
+    private static final int LONGITUD_PRINCIPAL = 50;
+
+    /**
+     * Longitud máxima del nombre y del valor de un dato.
+     */
+    private static final int LONGITUD_DATO = 255;
+
+    private static final String INSERTAR_EVENTO =
+        "INSERT INTO journal_event (principal, date, type) VALUES (?, ?, ?)";
+    private static final String INSERTAR_DATO =
+        "INSERT INTO journal_event_data (event, property, value) VALUES (?, ?, ?)";
+
+    /**
+     * Propiedades de la bitácora.
+     */
+    @Inject
+    private JournalValuacionProperties propiedades;
+
+    /**
+     * Utilizado para escribir los eventos.
+     */
+    @Inject
+    private JdbcTemplate jdbcTemplate;
+
+    /**
+     * Administrador de las transacciones en las que se escribe cada lote.
+     */
+    @Inject
+    private PlatformTransactionManager transactionManager;
+
+    /**
+     * Plantilla de la transacción de cada lote.
+     */
+    private TransactionTemplate transactionTemplate;
+
+
+
+    // METODOS
+
+    /**
+     * Constructor.
+     */
+    public JournalValuacion() {
+        super("journal-valuacion-");
+    }
+
+    /**
+     * Crea la plantilla de las transacciones, registra los indicadores e inicia el hilo escritor si la bitácora
+     * está habilitada.
+     */
+    @Override
+    @PostConstruct
+    public void init() {
+        transactionTemplate = new TransactionTemplate(transactionManager);
+
+        super.init();
+    }
+
+    /**
+     * Encola el evento de una valuación de prenda. No realiza operaciones en la base de datos; si la cola está
+     * llena se aplica la política configurada.
+     *
+     * La solicitud y la respuesta no se copian, por lo que no deben modificarse después de registrarse.
+     *
+     * @param solicitud Prenda solicitada.
+     * @param respuesta Prenda valuada, {@code null} si la valuación falló.
+     * @param error Falla de la valuación, {@code null} si fue exitosa.
+     * @param inicio Instante (obtenido con {@link System#nanoTime()}) en que inició la valuación.
+     * @return {@code true} si el evento se encoló.
+     */
+    public boolean registrar(Prenda solicitud, Prenda respuesta, Throwable error, long inicio) {
+        if (!propiedades.isHabilitado()) {
+            return false;
+        }
+
+        return encolar(new Evento(obtenerPrincipal(), System.currentTimeMillis(), System.nanoTime() - inicio,
+            solicitud, respuesta, error));
+    }
+
+    /**
+     * Escribe el lote en una transacción.
+     *
+     * {@inheritDoc}
+     */
+    @Override
+    protected int escribir(final List<Evento> lote) {
+        transactionTemplate.execute(new TransactionCallbackWithoutResult() {
+            @Override
+            protected void doInTransactionWithoutResult(TransactionStatus status) {
+                jdbcTemplate.execute(new ConnectionCallback<Void>() {
+                    @Override
+                    public Void doInConnection(Connection conexion) throws SQLException {
+                        insertar(conexion, lote);
+                        return null;
+                    }
+                });
+            }
+        });
+
+        return lote.size();
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    protected boolean isHabilitado() {
+        return propiedades.isHabilitado();
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    protected int getCapacidad() {
+        return propiedades.getCapacidad();
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    protected int getTamanoLote() {
+        return propiedades.getTamanoLote();
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    protected long getIntervalo() {
+        return propiedades.getIntervalo();
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    protected Politica getPolitica() {
+        return propiedades.getPolitica();
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    protected long getEsperaMaxima() {
+        return propiedades.getEsperaMaxima();
+    }
+
+    /**
+     * Inserta los eventos de un lote; cada evento se inserta para obtener su identificador y los datos de todos
+     * se insertan en un solo {@code batch}.
+     *
+     * @param conexion Conexión de la transacción.
+     * @param lote Eventos a insertar.
+     * @throws SQLException Si falla la inserción.
+     */
+    private static void insertar(Connection conexion, List<Evento> lote) throws SQLException {
+        try (PreparedStatement eventos = conexion.prepareStatement(INSERTAR_EVENTO, Statement.RETURN_GENERATED_KEYS);
+             PreparedStatement datos = conexion.prepareStatement(INSERTAR_DATO)) {
+            for (Evento evento : lote) {
+                eventos.setString(1, truncar(evento.principal, LONGITUD_PRINCIPAL));
+                eventos.setTimestamp(2, new Timestamp(evento.fecha));
+                eventos.setString(3, TIPO);
+                eventos.executeUpdate();
+
+                long id = obtenerId(eventos);
+
+                for (Map.Entry<String, String> dato : evento.getDatos().entrySet()) {
+                    datos.setLong(1, id);
+                    datos.setString(2, truncar(dato.getKey(), LONGITUD_DATO));
+                    datos.setString(3, truncar(dato.getValue(), LONGITUD_DATO));
+                    datos.addBatch();
+                }
+            }
+
+            datos.executeBatch();
+        }
+    }
+
+    /**
+     * Obtiene el identificador generado para el último evento insertado.
+     *
+     * @param eventos Sentencia con la que se insertó el evento.
+     * @return El identificador.
+     * @throws SQLException Si no se generó el identificador.
+     */
+    private static long obtenerId(PreparedStatement eventos) throws SQLException {
+        try (ResultSet llaves = eventos.getGeneratedKeys()) {
+            if (!llaves.next()) {
+                throw new SQLException("No se obtuvo el identificador del evento de la bitácora.");
+            }
+
+            return llaves.getLong(1);
+        }
+    }
+
+    /**
+     * Obtiene el principal de la solicitud en curso.
+     *
+     * @return El nombre del usuario autenticado o {@code anonymousUser}.
+     */
+    private static String obtenerPrincipal() {
+        Authentication autenticacion = SecurityContextHolder.getContext().getAuthentication();
+
+        if (autenticacion == null || autenticacion.getName() == null) {
+            return PRINCIPAL_ANONIMO;
+        }
+
+        return autenticacion.getName();
+    }
+
+    /**
+     * Recorta un texto a la longitud máxima de su columna.
+     *
+     * @param texto Texto a recortar.
+     * @param longitud Longitud máxima.
+     * @return El texto recortado.
+     */
+    private static String truncar(String texto, int longitud) {
+        return texto.length() > longitud ? texto.substring(0, longitud) : texto;
+    }
+
+    /**
+     * Evento de una valuación de prenda. Sus datos se obtienen en el hilo escritor.
+     */
+    static final class Evento {
+        private final String principal;
+        private final long fecha;
+        private final long duracion;
+        private final Prenda solicitud;
+        private final Prenda respuesta;
+        private final Throwable error;
+
+        Evento(String principal, long fecha, long duracion, Prenda solicitud, Prenda respuesta, Throwable error) {
+            this.principal = principal;
+            this.fecha = fecha;
+            this.duracion = duracion;
+            this.solicitud = solicitud;
+            this.respuesta = respuesta;
+            this.error = error;
+        }
+
+        /**
+         * Obtiene los datos del evento; se omiten los que no tienen valor.
+         *
+         * @return Datos indexados por nombre, en orden de registro.
+         */
+        Map<String, String> getDatos() {
+            Map<String, String> datos = new LinkedHashMap<>();
+
+            if (solicitud != null) {
+                agregar(datos, "prenda", solicitud.getId());
+                agregar(datos, "ramo", solicitud.getRamo());
+                agregar(datos, "subramo", solicitud.getSubramo());
+                agregar(datos, "tipo", solicitud.getTipo());
+                agregar(datos, "piezas", solicitud.getPieza().size());
+            }
+
+            agregar(datos, "duracion", TimeUnit.NANOSECONDS.toMillis(duracion));
+            agregar(datos, "resultado", error == null ? "EXITO" : "ERROR");
+
+            if (error != null) {
+                agregar(datos, "error", error.getMessage() != null ? error.getMessage() : error.getClass().getName());
+            }
+
+            if (respuesta != null) {
+                agregarAvaluo(datos, "", respuesta.getAvaluo());
+
+                List<Pieza> piezas = respuesta.getPieza();
+                for (int i = 0; i < piezas.size(); i++) {
+                    String prefijo = "pieza." + (i + 1) + ".";
+                    agregar(datos, prefijo + "id", piezas.get(i).getId());
+                    agregarAvaluo(datos, prefijo, piezas.get(i).getAvaluo());
+                }
+            }
+
+            return datos;
+        }
+
+        private static void agregarAvaluo(Map<String, String> datos, String prefijo, Avaluo avaluo) {
+            if (avaluo == null) {
+                return;
+            }
+
+            agregar(datos, prefijo + "valorMinimo", avaluo.getValorMinimo());
+            agregar(datos, prefijo + "valorPromedio", avaluo.getValorPromedio());
+            agregar(datos, prefijo + "valorMaximo", avaluo.getValorMaximo());
+        }
+
+        private static void agregar(Map<String, String> datos, String nombre, Object valor) {
+            if (valor instanceof BigDecimal) {
+                datos.put(nombre, ((BigDecimal) valor).toPlainString());
+            } else if (valor != null) {
+                datos.put(nombre, valor.toString());
+            }
+        }
+    }
+
+}
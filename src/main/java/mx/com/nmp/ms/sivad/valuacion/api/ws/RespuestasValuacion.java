@@ -0,0 +1,409 @@
+/**
+ * Proyecto:        NMP - Microservicio de Motor de Valuación
+ * Quarksoft S.A.P.I. de C.V. – Todos los derechos reservados. Para uso exclusivo de Nacional Monte de Piedad.
+ */
+package mx.com.nmp.ms.sivad.valuacion.api.ws;
+
+import com.codahale.metrics.Gauge;
+import com.codahale.metrics.Meter;
+import com.codahale.metrics.MetricRegistry;
+import mx.com.nmp.ms.sivad.valuacion.config.RespuestasValuacionProperties;
+import mx.com.nmp.ms.sivad.valuacion.infrastructure.cache.InvalidacionCache;
+import mx.com.nmp.ms.sivad.valuacion.infrastructure.cache.VersionReferencias;
+import mx.com.nmp.ms.sivad.valuacion.ws.diamantes.datatypes.Prenda;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.BeanUtils;
+import org.springframework.stereotype.Component;
+import org.springframework.util.ReflectionUtils;
+
+import javax.annotation.PostConstruct;
+import javax.inject.Inject;
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Memoria de las respuestas de valuación de prendas, acotada en número de entradas y en vigencia, que permite
+ * contestar las solicitudes repetidas sin volver a valuar la prenda.
+ *
+ * La llave de cada respuesta es la forma canónica de la prenda solicitada: el recorrido de los campos de los tipos
+ * del servicio, en orden de nombre, con cada cadena precedida de su longitud, por lo que dos solicitudes producen la
+ * misma llave sólo si tienen el mismo contenido.
+ * La respuesta se conserva con los cambios de recursos observados por {@link InvalidacionCache} (políticas de castigo
+ * y modificadores de condición) y la versión de {@link VersionReferencias} vigentes al iniciar la valuación, y sólo
+ * se conserva si ninguna cambió mientras se valuaba; se entrega mientras ambas sigan vigentes.
+ *
+ * Las prendas del servicio son mutables, por lo que se conserva una copia de la respuesta que no se entrega a ningún
+ * llamador y cada acierto recibe su propia copia. Los tipos del servicio sólo contienen cadenas, números, listas y
+ * otros tipos del servicio; si una prenda contiene un valor de otro tipo, se valúa sin memoria.
+ *
+ * Se registran los indicadores {@code aciertos}, {@code fallos} y {@code entradas}.
+ */
+@Component
+public class RespuestasValuacion {
+
+    /**
+     * Utilizada para manipular los mensajes informativos y de error.
+     */
+    private static final Logger LOGGER = LoggerFactory.getLogger(RespuestasValuacion.class);
+
+    /**
+     * Paquete de los tipos del servicio, cuyos campos se recorren.
+     */
+    private static final String PAQUETE_TIPOS = Prenda.class.getPackage().getName();
+
+    /**
+     * Campos de cada tipo del servicio, en orden de nombre.
+     */
+    private static final ConcurrentMap<Class<?>, Field[]> CAMPOS = new ConcurrentHashMap<>();
+
+    /**
+     * Orden de los campos por nombre.
+     */
+    private static final Comparator<Field> POR_NOMBRE = new Comparator<Field>() {
+        @Override
+        public int compare(Field a, Field b) {
+            return a.getName().compareTo(b.getName());
+        }
+    };
+
+    /**
+     * Respuestas indexadas por llave.
+     */
+    private final ConcurrentMap<String, Entrada> entradas = new ConcurrentHashMap<>();
+
+    /**
+     * Propiedades de la memoria de respuestas.
+     */
+    @Inject
+    private RespuestasValuacionProperties propiedades;
+
+    /**
+     * Cambios de las políticas de castigo y de los modificadores de condición.
+     */
+    @Inject
+    private InvalidacionCache invalidacionCache;
+
+    /**
+     * Versión de los datos de referencia.
+     */
+    @Inject
+    private VersionReferencias versionReferencias;
+
+    /**
+     * Registro de indicadores.
+     */
+    @Inject
+    private MetricRegistry metricRegistry;
+
+    /**
+     * Indicadores de aciertos y fallos.
+     */
+    private Meter aciertos;
+    private Meter fallos;
+
+
+
+    // METODOS
+
+    /**
+     * Constructor.
+     */
+    public RespuestasValuacion() {
+        super();
+    }
+
+    /**
+     * Registra los indicadores.
+     */
+    @PostConstruct
+    public void init() {
+        aciertos = metricRegistry.meter(MetricRegistry.name(RespuestasValuacion.class, "aciertos"));
+        fallos = metricRegistry.meter(MetricRegistry.name(RespuestasValuacion.class, "fallos"));
+        metricRegistry.register(MetricRegistry.name(RespuestasValuacion.class, "entradas"),
+            new Gauge<Integer>() {
+                @Override
+                public Integer getValue() {
+                    return entradas.size();
+                }
+            });
+    }
+
+    /**
+     * Entrega la respuesta conservada para la prenda solicitada o, si no existe, la obtiene de la valuación y la
+     * conserva. La llave se obtiene antes de valuar, ya que la valuación modifica la prenda solicitada.
+     *
+     * @param solicitud La prenda solicitada.
+     * @param valuacion La valuación de la prenda.
+     * @return La prenda valuada.
+     */
+    public Prenda valuar(Prenda solicitud, Valuacion valuacion) {
+        if (!propiedades.isHabilitada() || solicitud == null) {
+            return valuacion.valuar();
+        }
+
+        String llave = llave(solicitud);
+
+        if (llave == null) {
+            LOGGER.debug("La solicitud contiene valores que no son de los tipos del servicio; se valúa sin memoria.");
+            return valuacion.valuar();
+        }
+
+        long cambios = invalidacionCache.getCambios();
+        long referencias = versionReferencias.getVersion();
+        Entrada entrada = entradas.get(llave);
+
+        if (entrada != null && !entrada.vigente(cambios, referencias, System.currentTimeMillis())) {
+            entradas.remove(llave, entrada);
+            entrada = null;
+        }
+
+        if (entrada != null) {
+            aciertos.mark();
+            LOGGER.debug("Se entrega la respuesta conservada para la solicitud {}.", solicitud.getId());
+            return copiar(entrada.respuesta);
+        }
+
+        fallos.mark();
+        Prenda respuesta = valuacion.valuar();
+        guardar(llave, cambios, referencias, respuesta);
+
+        return respuesta;
+    }
+
+    /**
+     * Conserva la respuesta si las versiones con las que se calculó siguen vigentes y hay espacio para ella.
+     *
+     * @param llave La llave de la solicitud.
+     * @param cambios Cambios de recursos observados al iniciar la valuación.
+     * @param referencias Versión de los datos de referencia al iniciar la valuación.
+     * @param respuesta La prenda valuada.
+     */
+    private void guardar(String llave, long cambios, long referencias, Prenda respuesta) {
+        if (respuesta == null || cambios != invalidacionCache.getCambios() ||
+            referencias != versionReferencias.getVersion()) {
+            return;
+        }
+
+        if (entradas.size() >= propiedades.getMaximoEntradas() && depurar() == 0) {
+            return;
+        }
+
+        Prenda copia = copiar(respuesta);
+
+        if (copia != null) {
+            entradas.put(llave, new Entrada(copia, cambios, referencias,
+                System.currentTimeMillis() + propiedades.getVigencia()));
+        }
+    }
+
+    /**
+     * Elimina las entradas vencidas o calculadas con versiones anteriores.
+     *
+     * @return El número de entradas eliminadas.
+     */
+    private int depurar() {
+        long cambios = invalidacionCache.getCambios();
+        long referencias = versionReferencias.getVersion();
+        long ahora = System.currentTimeMillis();
+        int eliminadas = 0;
+        Iterator<Entrada> it = entradas.values().iterator();
+
+        while (it.hasNext()) {
+            if (!it.next().vigente(cambios, referencias, ahora)) {
+                it.remove();
+                eliminadas++;
+            }
+        }
+
+        return eliminadas;
+    }
+
+    /**
+     * Obtiene la forma canónica de la prenda.
+     *
+     * @param prenda La prenda.
+     * @return La forma canónica, o {@code null} si la prenda contiene valores que no son de los tipos del servicio.
+     */
+    static String llave(Prenda prenda) {
+        StringBuilder llave = new StringBuilder(256);
+        return agregar(llave, prenda) ? llave.toString() : null;
+    }
+
+    /**
+     * Agrega la forma canónica de un valor.
+     *
+     * @param llave La forma canónica en construcción.
+     * @param valor El valor; puede ser nulo.
+     * @return {@code false} si el valor no es de los tipos del servicio.
+     */
+    private static boolean agregar(StringBuilder llave, Object valor) {
+        if (valor == null) {
+            llave.append('~');
+        } else if (valor instanceof String) {
+            String cadena = (String) valor;
+            llave.append(cadena.length()).append(':').append(cadena);
+        } else if (valor instanceof Number || valor instanceof Boolean) {
+            llave.append(valor).append(';');
+        } else if (valor instanceof List) {
+            llave.append('[');
+
+            for (Object elemento : (List<?>) valor) {
+                if (!agregar(llave, elemento)) {
+                    return false;
+                }
+            }
+
+            llave.append(']');
+        } else if (esTipoServicio(valor.getClass())) {
+            llave.append('{');
+
+            for (Field campo : campos(valor.getClass())) {
+                if (!agregar(llave, ReflectionUtils.getField(campo, valor))) {
+                    return false;
+                }
+            }
+
+            llave.append('}');
+        } else {
+            return false;
+        }
+
+        return true;
+    }
+
+    /**
+     * Crea una copia profunda de la prenda.
+     *
+     * @param prenda La prenda.
+     * @return La copia, o {@code null} si la prenda contiene valores que no son de los tipos del servicio.
+     */
+    static Prenda copiar(Prenda prenda) {
+        try {
+            return (Prenda) copiarValor(prenda);
+        } catch (IllegalArgumentException e) {
+            LOGGER.warn("No fue posible copiar la respuesta; no se conserva.", e);
+            return null;
+        }
+    }
+
+    /**
+     * Crea una copia profunda de un valor; las cadenas y los números son inmutables y se comparten.
+     *
+     * @param valor El valor; puede ser nulo.
+     * @return La copia.
+     * @throws IllegalArgumentException Si el valor no es de los tipos del servicio.
+     */
+    private static Object copiarValor(Object valor) {
+        if (valor == null || valor instanceof String || valor instanceof Number || valor instanceof Boolean) {
+            return valor;
+        }
+
+        if (valor instanceof List) {
+            List<?> lista = (List<?>) valor;
+            List<Object> copia = new ArrayList<>(lista.size());
+
+            for (Object elemento : lista) {
+                copia.add(copiarValor(elemento));
+            }
+
+            return copia;
+        }
+
+        if (!esTipoServicio(valor.getClass())) {
+            throw new IllegalArgumentException("El tipo [" + valor.getClass().getName() + "] no es del servicio.");
+        }
+
+        Object copia = BeanUtils.instantiate(valor.getClass());
+
+        for (Field campo : campos(valor.getClass())) {
+            ReflectionUtils.setField(campo, copia, copiarValor(ReflectionUtils.getField(campo, valor)));
+        }
+
+        return copia;
+    }
+
+    /**
+     * Indica si la clase es uno de los tipos del servicio.
+     *
+     * @param clase La clase.
+     * @return {@code true} si pertenece al paquete de los tipos del servicio.
+     */
+    private static boolean esTipoServicio(Class<?> clase) {
+        return clase.getPackage() != null && PAQUETE_TIPOS.equals(clase.getPackage().getName());
+    }
+
+    /**
+     * Obtiene los campos de instancia de un tipo del servicio, en orden de nombre, obteniéndolos la primera vez.
+     *
+     * @param clase La clase.
+     * @return Los campos, accesibles.
+     */
+    private static Field[] campos(Class<?> clase) {
+        Field[] campos = CAMPOS.get(clase);
+
+        if (campos == null) {
+            final List<Field> encontrados = new ArrayList<>();
+
+            ReflectionUtils.doWithFields(clase, new ReflectionUtils.FieldCallback() {
+                @Override
+                public void doWith(Field campo) {
+                    ReflectionUtils.makeAccessible(campo);
+                    encontrados.add(campo);
+                }
+            }, new ReflectionUtils.FieldFilter() {
+                @Override
+                public boolean matches(Field campo) {
+                    return !Modifier.isStatic(campo.getModifiers()) && !campo.isSynthetic();
+                }
+            });
+
+            campos = encontrados.toArray(new Field[encontrados.size()]);
+            Arrays.sort(campos, POR_NOMBRE);
+            CAMPOS.putIfAbsent(clase, campos);
+        }
+
+        return campos;
+    }
+
+    /**
+     * Valuación que se invoca cuando no existe una respuesta conservada.
+     */
+    public interface Valuacion {
+        /**
+         * Valúa la prenda solicitada.
+         *
+         * @return La prenda valuada.
+         */
+        Prenda valuar();
+    }
+
+    /**
+     * Copia de la respuesta, conservada con las versiones con las que se calculó.
+     */
+    private static final class Entrada {
+        private final Prenda respuesta;
+        private final long cambios;
+        private final long referencias;
+        private final long expira;
+
+        Entrada(Prenda respuesta, long cambios, long referencias, long expira) {
+            this.respuesta = respuesta;
+            this.cambios = cambios;
+            this.referencias = referencias;
+            this.expira = expira;
+        }
+
+        boolean vigente(long cambiosVigentes, long referenciasVigentes, long ahora) {
+            return cambios == cambiosVigentes && referencias == referenciasVigentes && expira >= ahora;
+        }
+    }
+
+}
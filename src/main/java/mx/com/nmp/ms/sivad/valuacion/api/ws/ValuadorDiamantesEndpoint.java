@@ -7,6 +7,8 @@ package mx.com.nmp.ms.sivad.valuacion.api.ws;
 import com.codahale.metrics.annotation.Timed;
 import mx.com.nmp.ms.sivad.valuacion.api.ws.exception.WebServiceExceptionCodes;
 import mx.com.nmp.ms.sivad.valuacion.api.ws.exception.WebServiceExceptionFactory;
+import mx.com.nmp.ms.sivad.valuacion.config.ValuacionLoteConfiguration;
+import mx.com.nmp.ms.sivad.valuacion.dominio.exception.PoliticaCastigoNoEncontradaException;
 import mx.com.nmp.ms.sivad.valuacion.dominio.exception.ValuacionException;
 import mx.com.nmp.ms.sivad.valuacion.dominio.factory.AlhajaFactory;
 import mx.com.nmp.ms.sivad.valuacion.dominio.factory.ComplementarioFactory;
@@ -16,16 +18,30 @@ import mx.com.nmp.ms.sivad.valuacion.dominio.modelo.Complementario;
 import mx.com.nmp.ms.sivad.valuacion.dominio.modelo.dto.AlhajaDTO;
 import mx.com.nmp.ms.sivad.valuacion.dominio.modelo.dto.ComplementarioDTO;
 import mx.com.nmp.ms.sivad.valuacion.dominio.modelo.dto.DiamanteDTO;
+import mx.com.nmp.ms.sivad.valuacion.dominio.modelo.vo.CondicionPrendaVO;
+import mx.com.nmp.ms.sivad.valuacion.dominio.modelo.vo.EscenarioValuacionVO;
+import mx.com.nmp.ms.sivad.valuacion.infrastructure.jpa.repository.RegistroCartera;
 import mx.com.nmp.ms.sivad.valuacion.ws.diamantes.ValuadorDiamantesService;
 import mx.com.nmp.ms.sivad.valuacion.ws.diamantes.datatypes.*;
+import org.joda.time.DateTime;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.task.AsyncTaskExecutor;
 import org.springframework.util.ObjectUtils;
 import org.springframework.util.StringUtils;
 
 import javax.inject.Inject;
+import javax.inject.Named;
+import javax.xml.soap.SOAPFault;
+import javax.xml.ws.soap.SOAPFaultException;
 import java.math.BigDecimal;
 import java.util.*;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
 
 /**
  * Implementación de ValuadorDiamantesService, la cual expone los servicios que permitirán realizar
@@ -65,6 +81,49 @@ public class ValuadorDiamantesEndpoint implements ValuadorDiamantesService {
     @Inject
     private ComplementarioFactory complementarioFactory;
 
+    /**
+     * Pool de hilos utilizado para valuar las prendas de un lote.
+     */
+    @Inject
+    @Named(ValuacionLoteConfiguration.VALUACION_LOTE_EXECUTOR)
+    private AsyncTaskExecutor valuacionLoteExecutor;
+
+    /**
+     * Memoria de las respuestas de valuación para contestar solicitudes repetidas.
+     */
+    @Inject
+    private RespuestasValuacion respuestasValuacion;
+
+    /**
+     * Bitácora asíncrona de las valuaciones de prendas.
+     */
+    @Inject
+    private JournalValuacion journalValuacion;
+
+    /**
+     * Registro asíncrono de las prendas valuadas en la cartera.
+     */
+    @Inject
+    private RegistroCartera registroCartera;
+
+    /**
+     * Número máximo de prendas permitidas en un lote.
+     */
+    @Value("${valuacion.lote.maximoPrendas:100}")
+    private int maximoPrendasLote;
+
+    /**
+     * Tiempo máximo (en milisegundos) de espera para la valuación de un lote.
+     */
+    @Value("${valuacion.lote.tiempoMaximo:30000}")
+    private long tiempoMaximoLote;
+
+    /**
+     * Número máximo de escenarios permitidos en una valuación por escenarios.
+     */
+    @Value("${valuacion.escenarios.maximo:20}")
+    private int maximoEscenarios;
+
 
 
     // METODOS
@@ -80,85 +139,394 @@ public class ValuadorDiamantesEndpoint implements ValuadorDiamantesService {
      */
     @Override
     @Timed
-    public ValuarPrendaBasicoResponse valuarPrendaBasico(ValuarPrendaBasicoRequest parameters) {
+    public ValuarPrendaBasicoResponse valuarPrendaBasico(final ValuarPrendaBasicoRequest parameters) {
         LOGGER.info(">> valuarPrendaBasico({}).", parameters);
 
+        long inicio = System.nanoTime();
+        Prenda prenda;
+
+        try {
+            prenda = respuestasValuacion.valuar(parameters.getPrenda(), new RespuestasValuacion.Valuacion() {
+                @Override
+                public Prenda valuar() {
+                    return valuarPrenda(parameters.getPrenda());
+                }
+            });
+        } catch (RuntimeException e) {
+            journalValuacion.registrar(parameters.getPrenda(), null, e, inicio);
+            throw e;
+        }
+
+        journalValuacion.registrar(parameters.getPrenda(), prenda, null, inicio);
+
+        // SE CONSTRUYE EL RESPONSE CON LA RESPUESTA DEL SERVICIO.
+        ValuarPrendaBasicoResponse response = new ValuarPrendaBasicoResponse();
+        response.setPrendaValuada(prenda);
+
+        return response;
+    }
+
+    /**
+     * Servicio que permite valuar una pieza compuesta de alhajas, diamantes y/o complemento con base en
+     * una metodología de cálculo utilizada por NMP.
+     *
+     * @param parameters La pieza compuesta que se desea valuar.
+     * @return Se devuelve el mensaje de entrada enriquecido con los valores (mínimo, promedio y máximo)
+     * correspondientes a cada elemento valuado de la pieza (Alhaja / Diamante / Complemento); así como
+     * los valores (mínimo, promedio y máximo) correspondientes al valor total de la Prenda.
+     */
+    @Override
+    @Timed
+    public ValuarPrendaNMPResponse valuarPrendaNMP(ValuarPrendaNMPRequest parameters) {
+        LOGGER.info(">> valuarPrendaNMP({}).", parameters);
+
+        LOGGER.error("<< valuarPrendaNMP. {}",
+            WebServiceExceptionCodes.NMPMV001.getMessageException());
+
+        throw WebServiceExceptionFactory.crearWebServiceExceptionCon(
+            WebServiceExceptionCodes.NMPMV001.getCodeException(),
+            WebServiceExceptionCodes.NMPMV001.getMessageException());
+    }
+
+    /**
+     * Servicio que permite valuar un lote de prendas con base en las tablas de referencia: industriales y
+     * comerciales. Las prendas se valúan de forma concurrente y el error de una prenda no afecta al resto.
+     *
+     * @param parameters El lote de prendas que se desea valuar.
+     * @return Se devuelve un resultado por cada prenda recibida, en el mismo orden de entrada; cada resultado
+     * contiene la prenda valuada o la falla ocurrida al valuarla.
+     */
+    @Override
+    @Timed
+    public ValuarPrendasLoteResponse valuarPrendasLote(ValuarPrendasLoteRequest parameters) {
+        LOGGER.info(">> valuarPrendasLote({}).", parameters);
+
+        if (ObjectUtils.isEmpty(parameters) || ObjectUtils.isEmpty(parameters.getPrenda())) {
+            LOGGER.error("<< valuarPrendasLote. {}",
+                WebServiceExceptionCodes.NMPMV003.getMessageException());
+
+            throw WebServiceExceptionFactory.crearWebServiceExceptionCon(
+                WebServiceExceptionCodes.NMPMV003.getCodeException(),
+                WebServiceExceptionCodes.NMPMV003.getMessageException());
+        }
+
+        List<Prenda> prendas = parameters.getPrenda();
+
+        if (prendas.size() > maximoPrendasLote) {
+            LOGGER.error("<< valuarPrendasLote. {}",
+                WebServiceExceptionCodes.NMPMV011.getMessageException());
+
+            throw WebServiceExceptionFactory.crearWebServiceExceptionCon(
+                WebServiceExceptionCodes.NMPMV011.getCodeException(),
+                WebServiceExceptionCodes.NMPMV011.getMessageException(),
+                String.valueOf(maximoPrendasLote));
+        }
+
+        // SE ENVÍAN LAS PRENDAS AL POOL DE VALUACIÓN.
+        List<Future<Prenda>> valuaciones = new ArrayList<>(prendas.size());
+
+        for (final Prenda prenda : prendas) {
+            valuaciones.add(valuacionLoteExecutor.submit(new Callable<Prenda>() {
+                @Override
+                public Prenda call() {
+                    return valuarPrenda(prenda);
+                }
+            }));
+        }
+
+        // SE RECUPERAN LOS RESULTADOS EN EL ORDEN DE ENTRADA.
+        long limite = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(tiempoMaximoLote);
+        ValuarPrendasLoteResponse response = new ValuarPrendasLoteResponse();
+
+        for (int i = 0; i < valuaciones.size(); i++) {
+            response.getResultado().add(recuperarResultado(i, valuaciones.get(i), limite));
+        }
+
+        return response;
+    }
+
+    /**
+     * Servicio que permite valuar una prenda bajo varios escenarios de políticas de castigo y condición física.
+     * Las piezas de la prenda se valúan una sola vez y cada escenario sólo aplica sus factores; el error de un
+     * escenario no afecta al resto.
+     *
+     * @param parameters La prenda que se desea valuar y los escenarios de valuación.
+     * @return Se devuelve la prenda valuada con las políticas vigentes y un resultado por cada escenario recibido,
+     * en el mismo orden de entrada; cada resultado contiene el avalúo de la prenda o la falla ocurrida.
+     */
+    @Override
+    @Timed
+    public ValuarPrendaEscenariosResponse valuarPrendaEscenarios(ValuarPrendaEscenariosRequest parameters) {
+        LOGGER.info(">> valuarPrendaEscenarios({}).", parameters);
+
+        if (ObjectUtils.isEmpty(parameters) || ObjectUtils.isEmpty(parameters.getPrenda()) ||
+            ObjectUtils.isEmpty(parameters.getEscenario())) {
+            LOGGER.error("<< valuarPrendaEscenarios. {}",
+                WebServiceExceptionCodes.NMPMV003.getMessageException());
+
+            throw WebServiceExceptionFactory.crearWebServiceExceptionCon(
+                WebServiceExceptionCodes.NMPMV003.getCodeException(),
+                WebServiceExceptionCodes.NMPMV003.getMessageException());
+        }
+
+        List<EscenarioValuacion> escenarios = parameters.getEscenario();
+
+        if (escenarios.size() > maximoEscenarios) {
+            LOGGER.error("<< valuarPrendaEscenarios. {}",
+                WebServiceExceptionCodes.NMPMV013.getMessageException());
+
+            throw WebServiceExceptionFactory.crearWebServiceExceptionCon(
+                WebServiceExceptionCodes.NMPMV013.getCodeException(),
+                WebServiceExceptionCodes.NMPMV013.getMessageException(),
+                String.valueOf(maximoEscenarios));
+        }
+
+        // SE VALÚAN LAS PIEZAS UNA SOLA VEZ, CON LAS POLÍTICAS VIGENTES.
+        Prenda prenda = parameters.getPrenda();
+        Map<Pieza, mx.com.nmp.ms.sivad.valuacion.dominio.modelo.Pieza> relacionPiezas = new HashMap<>();
+        mx.com.nmp.ms.sivad.valuacion.dominio.modelo.Prenda prendaValuable =
+            crearPrendaValuable(prenda, relacionPiezas);
+        asignarAvaluos(prenda, relacionPiezas, valuarPrendaValuable(prendaValuable));
+
+        // SE APLICAN LOS FACTORES DE CADA ESCENARIO.
+        ValuarPrendaEscenariosResponse response = new ValuarPrendaEscenariosResponse();
+        response.setPrendaValuada(prenda);
+
+        for (int i = 0; i < escenarios.size(); i++) {
+            response.getResultado().add(valuarEscenario(i, prendaValuable, escenarios.get(i)));
+        }
+
+        return response;
+    }
+
+    /**
+     * Metodo auxiliar utilizado para valuar una prenda y asignar los avalúos de la prenda y de sus piezas.
+     *
+     * @param prenda La prenda que se desea valuar.
+     * @return La prenda recibida enriquecida con los avalúos.
+     */
+    private Prenda valuarPrenda(Prenda prenda) {
+        LOGGER.debug(">> valuarPrenda({}).", prenda);
+
         // MAPA UTILIZADO PARA MANTENER LA RELACIÓN DE LA PIEZA ORIGINAL CON LA PIEZA VALUADA.
         Map<Pieza, mx.com.nmp.ms.sivad.valuacion.dominio.modelo.Pieza> relacionPiezas = new HashMap<>();
 
-        // SE CONSTRUYE LA PRENDA QUE SE VA A VALUAR.
-        Prenda prenda = parameters.getPrenda();
+        mx.com.nmp.ms.sivad.valuacion.dominio.modelo.Prenda prendaValuable =
+            crearPrendaValuable(prenda, relacionPiezas);
+
+        mx.com.nmp.ms.sivad.valuacion.dominio.modelo.vo.Avaluo avaluo = valuarPrendaValuable(prendaValuable);
+        registroCartera.registrar(prenda.getId(), prendaValuable, avaluo);
+
+        return asignarAvaluos(prenda, relacionPiezas, avaluo);
+    }
+
+    /**
+     * Metodo auxiliar utilizado para construir la prenda que se va a valuar.
+     *
+     * @param prenda La prenda con la información que será utilizada para realizar la valuación.
+     * @param relacionPiezas El mapa que mantiene la relación de la pieza original con la pieza valuada.
+     * @return La prenda valuable.
+     */
+    private mx.com.nmp.ms.sivad.valuacion.dominio.modelo.Prenda crearPrendaValuable(Prenda prenda,
+        Map<Pieza, mx.com.nmp.ms.sivad.valuacion.dominio.modelo.Pieza> relacionPiezas) {
+
         String condionPrenda = recuperarCondicionFisica(prenda);
 
         List<mx.com.nmp.ms.sivad.valuacion.dominio.modelo.Pieza> piezas = crearListaPiezas(prenda, relacionPiezas);
 
-        mx.com.nmp.ms.sivad.valuacion.dominio.modelo.Prenda prendaValuable;
         try {
-            prendaValuable = prendaFactory.create(piezas, condionPrenda);
+            return prendaFactory.create(piezas, condionPrenda);
         } catch (IllegalArgumentException e) {
-            LOGGER.error("<< valuarPrendaBasico. {}",
+            LOGGER.error("<< crearPrendaValuable. {}",
                 WebServiceExceptionCodes.NMPMV003.getMessageException());
 
             throw WebServiceExceptionFactory.crearWebServiceExceptionCon(
                 WebServiceExceptionCodes.NMPMV003.getCodeException(),
                 WebServiceExceptionCodes.NMPMV003.getMessageException(), e);
         }
+    }
+
+    /**
+     * Metodo auxiliar utilizado para valuar la prenda con las políticas vigentes.
+     *
+     * @param prendaValuable La prenda valuable.
+     * @return El avalúo de la prenda.
+     */
+    private static mx.com.nmp.ms.sivad.valuacion.dominio.modelo.vo.Avaluo valuarPrendaValuable(
+        mx.com.nmp.ms.sivad.valuacion.dominio.modelo.Prenda prendaValuable) {
 
-        mx.com.nmp.ms.sivad.valuacion.dominio.modelo.vo.Avaluo avaluo;
         try {
-            avaluo = prendaValuable.valuar();
+            return prendaValuable.valuar();
         } catch (ValuacionException e) {
-            LOGGER.error("<< valuarPrendaBasico. {}",
+            LOGGER.error("<< valuarPrendaValuable. {}",
                 WebServiceExceptionCodes.NMPMV009.getMessageException());
 
             throw WebServiceExceptionFactory.crearWebServiceExceptionCon(
                 WebServiceExceptionCodes.NMPMV009.getCodeException(),
                 WebServiceExceptionCodes.NMPMV009.getMessageException(), e);
         } catch (Exception e) {
-            LOGGER.error("<< valuarPrendaBasico. {}",
+            LOGGER.error("<< valuarPrendaValuable. {}",
                 WebServiceExceptionCodes.NMPMV010.getMessageException());
 
             throw WebServiceExceptionFactory.crearWebServiceExceptionCon(
                 WebServiceExceptionCodes.NMPMV010.getCodeException(),
                 WebServiceExceptionCodes.NMPMV010.getMessageException(), e);
         }
+    }
+
+    /**
+     * Metodo auxiliar utilizado para asignar los avalúos de la prenda y de sus piezas.
+     *
+     * @param prenda La prenda original.
+     * @param relacionPiezas El mapa que mantiene la relación de la pieza original con la pieza valuada.
+     * @param avaluo El avalúo de la prenda.
+     * @return La prenda recibida enriquecida con los avalúos.
+     */
+    private Prenda asignarAvaluos(Prenda prenda,
+        Map<Pieza, mx.com.nmp.ms.sivad.valuacion.dominio.modelo.Pieza> relacionPiezas,
+        mx.com.nmp.ms.sivad.valuacion.dominio.modelo.vo.Avaluo avaluo) {
 
         // SE REALIZA LA ASIGNACIÓN DE LOS AVALÚOS POR PIEZA Y DEL AVALÚO TOTAL.
         prenda = asignarAvaluosPiezas(prenda, relacionPiezas);
+        prenda.setAvaluo(crearAvaluo(avaluo));
+
+        return prenda;
+    }
 
+    /**
+     * Metodo auxiliar utilizado para valuar la prenda en un escenario y convertir el avalúo en un resultado.
+     *
+     * @param indice La posición del escenario dentro de la solicitud.
+     * @param prendaValuable La prenda valuable, con sus piezas ya valuadas.
+     * @param escenario El escenario de valuación.
+     * @return El resultado con el avalúo de la prenda o con la falla ocurrida.
+     */
+    private static ResultadoEscenario valuarEscenario(int indice,
+        mx.com.nmp.ms.sivad.valuacion.dominio.modelo.Prenda prendaValuable, EscenarioValuacion escenario) {
+
+        ResultadoEscenario resultado = new ResultadoEscenario();
+        resultado.setIndice(indice);
+
+        try {
+            resultado.setAvaluo(crearAvaluo(prendaValuable.valuar(crearEscenario(escenario))));
+        } catch (PoliticaCastigoNoEncontradaException e) {
+            LOGGER.warn("<< valuarEscenario. Escenario [{}]: {}", indice, e.getMessage());
+            resultado.setError(crearErrorValuacion(WebServiceExceptionCodes.NMPMV014, e.getMessage()));
+        } catch (ValuacionException e) {
+            LOGGER.warn("<< valuarEscenario. Escenario [{}] con error: {}", indice, e.getMessage());
+            resultado.setError(crearErrorValuacion(WebServiceExceptionCodes.NMPMV009, e.getMessage()));
+        } catch (Exception e) {
+            LOGGER.warn("<< valuarEscenario. Escenario [{}] con error: {}", indice, e.getMessage());
+            resultado.setError(crearErrorValuacion(WebServiceExceptionCodes.NMPMV010, e.getMessage()));
+        }
+
+        return resultado;
+    }
+
+    /**
+     * Metodo auxiliar utilizado para crear el escenario de valuación con base en la información recibida.
+     *
+     * @param escenario La información del escenario.
+     * @return El escenario de valuación.
+     */
+    private static EscenarioValuacionVO crearEscenario(EscenarioValuacion escenario) {
+        DateTime fechaPoliticas = null;
+        CondicionPrendaVO condicion = null;
+
+        if (!ObjectUtils.isEmpty(escenario.getFechaPoliticas())) {
+            fechaPoliticas = new DateTime(escenario.getFechaPoliticas().toGregorianCalendar().getTimeInMillis());
+        }
+
+        if (StringUtils.hasText(escenario.getCondicion())) {
+            condicion = new CondicionPrendaVO(escenario.getCondicion());
+        }
+
+        return new EscenarioValuacionVO(fechaPoliticas, condicion);
+    }
+
+    /**
+     * Metodo auxiliar utilizado para convertir el avalúo del dominio en un {@link Avaluo} del servicio.
+     *
+     * @param avaluo El avalúo del dominio.
+     * @return El avalúo del servicio.
+     */
+    private static Avaluo crearAvaluo(mx.com.nmp.ms.sivad.valuacion.dominio.modelo.vo.Avaluo avaluo) {
         Avaluo avaluoPrenda = new Avaluo();
         avaluoPrenda.setValorMinimo(avaluo.valorMinimo());
         avaluoPrenda.setValorPromedio(avaluo.valorPromedio());
         avaluoPrenda.setValorMaximo(avaluo.valorMaximo());
-        prenda.setAvaluo(avaluoPrenda);
 
-        // SE CONSTRUYE EL RESPONSE CON LA RESPUESTA DEL SERVICIO.
-        ValuarPrendaBasicoResponse response = new ValuarPrendaBasicoResponse();
-        response.setPrendaValuada(prenda);
+        return avaluoPrenda;
+    }
 
-        return response;
+    /**
+     * Metodo auxiliar utilizado para esperar la valuación de una prenda del lote y convertirla en un resultado.
+     *
+     * @param indice La posición de la prenda dentro del lote.
+     * @param valuacion La valuación en curso de la prenda.
+     * @param limite El instante (en nanosegundos) en el que vence el tiempo máximo de espera del lote.
+     * @return El resultado con la prenda valuada o con la falla ocurrida.
+     */
+    private static ResultadoValuacion recuperarResultado(int indice, Future<Prenda> valuacion, long limite) {
+        ResultadoValuacion resultado = new ResultadoValuacion();
+        resultado.setIndice(indice);
+
+        try {
+            long espera = Math.max(0L, limite - System.nanoTime());
+            resultado.setPrendaValuada(valuacion.get(espera, TimeUnit.NANOSECONDS));
+        } catch (ExecutionException e) {
+            LOGGER.warn("<< recuperarResultado. Prenda [{}] con error: {}", indice, e.getCause().getMessage());
+            resultado.setError(crearErrorValuacion(e.getCause()));
+        } catch (TimeoutException e) {
+            LOGGER.warn("<< recuperarResultado. Prenda [{}]: {}", indice,
+                WebServiceExceptionCodes.NMPMV012.getMessageException());
+            valuacion.cancel(true);
+            resultado.setError(crearErrorValuacion(WebServiceExceptionCodes.NMPMV012, null));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            valuacion.cancel(true);
+            resultado.setError(crearErrorValuacion(WebServiceExceptionCodes.NMPMV010, e.getMessage()));
+        }
+
+        return resultado;
     }
 
     /**
-     * Servicio que permite valuar una pieza compuesta de alhajas, diamantes y/o complemento con base en
-     * una metodología de cálculo utilizada por NMP.
+     * Metodo auxiliar utilizado para convertir la excepción ocurrida al valuar una prenda en un
+     * {@link ErrorValuacion}.
      *
-     * @param parameters La pieza compuesta que se desea valuar.
-     * @return Se devuelve el mensaje de entrada enriquecido con los valores (mínimo, promedio y máximo)
-     * correspondientes a cada elemento valuado de la pieza (Alhaja / Diamante / Complemento); así como
-     * los valores (mínimo, promedio y máximo) correspondientes al valor total de la Prenda.
+     * @param causa La excepción ocurrida.
+     * @return El error de valuación.
      */
-    @Override
-    @Timed
-    public ValuarPrendaNMPResponse valuarPrendaNMP(ValuarPrendaNMPRequest parameters) {
-        LOGGER.info(">> valuarPrendaNMP({}).", parameters);
+    private static ErrorValuacion crearErrorValuacion(Throwable causa) {
+        if (causa instanceof SOAPFaultException && !ObjectUtils.isEmpty(((SOAPFaultException) causa).getFault())) {
+            SOAPFault falla = ((SOAPFaultException) causa).getFault();
 
-        LOGGER.error("<< valuarPrendaNMP. {}",
-            WebServiceExceptionCodes.NMPMV001.getMessageException());
+            ErrorValuacion error = new ErrorValuacion();
+            error.setCodigo(falla.getFaultCodeAsQName().getLocalPart());
+            error.setMensaje(falla.getFaultString());
+            error.setDetalle(falla.getFaultActor());
 
-        throw WebServiceExceptionFactory.crearWebServiceExceptionCon(
-            WebServiceExceptionCodes.NMPMV001.getCodeException(),
-            WebServiceExceptionCodes.NMPMV001.getMessageException());
+            return error;
+        }
+
+        return crearErrorValuacion(WebServiceExceptionCodes.NMPMV010, causa.getMessage());
+    }
+
+    /**
+     * Metodo auxiliar utilizado para crear un {@link ErrorValuacion} a partir de un código de error.
+     *
+     * @param codigo El código de error.
+     * @param detalle Información adicional del error.
+     * @return El error de valuación.
+     */
+    private static ErrorValuacion crearErrorValuacion(WebServiceExceptionCodes codigo, String detalle) {
+        ErrorValuacion error = new ErrorValuacion();
+        error.setCodigo(codigo.getCodeException());
+        error.setMensaje(codigo.getMessageException());
+        error.setDetalle(detalle);
+
+        return error;
     }
 
     /**
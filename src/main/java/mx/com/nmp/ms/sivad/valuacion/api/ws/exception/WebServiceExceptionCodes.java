@@ -22,7 +22,12 @@ public enum WebServiceExceptionCodes {
     NMPMV008("NMP-MV-008", "Error en datos de entrada. La información de la pieza está incorrecta. " +
         "Debe contener la información de solamente una pieza valuable (alhaja, diamante o complemento)."),
     NMPMV009("NMP-MV-009", "Ocurrió un error al realizar la valuación de la prenda."),
-    NMPMV010("NMP-MV-010", "Ocurrió un error inesperado al momento de realizar la valuación de la prenda."),;
+    NMPMV010("NMP-MV-010", "Ocurrió un error inesperado al momento de realizar la valuación de la prenda."),
+    NMPMV011("NMP-MV-011", "Error en datos de entrada. El lote excede el número máximo de prendas permitido."),
+    NMPMV012("NMP-MV-012", "Se excedió el tiempo máximo de espera para la valuación de la prenda."),
+    NMPMV013("NMP-MV-013", "Error en datos de entrada. " +
+        "La solicitud excede el número máximo de escenarios permitido."),
+    NMPMV014("NMP-MV-014", "No existen políticas de castigo para la fecha del escenario."),;
 
     /**
      * Código de error de la excepción.
@@ -0,0 +1,269 @@
+/**
+ * Proyecto:        NMP - Microservicio de Motor de Valuación
+ * Quarksoft S.A.P.I. de C.V. – Todos los derechos reservados. Para uso exclusivo de Nacional Monte de Piedad.
+ */
+package mx.com.nmp.ms.sivad.valuacion.conector;
+
+import com.codahale.metrics.Gauge;
+import com.codahale.metrics.MetricRegistry;
+import mx.com.nmp.ms.sivad.valuacion.config.BandasQuilatesProperties;
+import mx.com.nmp.ms.sivad.valuacion.conector.consumidor.ValorComercialConsumidor;
+import mx.com.nmp.ms.sivad.valuacion.conector.llave.LlaveReferencia;
+import mx.com.nmp.ms.sivad.valuacion.conector.provedor.CaracteristicasDiamanteProveedor;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PostConstruct;
+import javax.inject.Inject;
+import java.math.BigDecimal;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Índice de bandas de quilates del valor comercial de diamantes.
+ *
+ * La tabla de referencia de diamantes define el valor comercial por quilate para una banda de quilates
+ * ({@code quilatesDesde} - {@code quilatesHasta}), por lo que cualquier peso dentro de la banda obtiene el mismo
+ * valor. El índice agrupa las bandas ya consultadas por corte, subcorte, color y claridad, ordenadas por su límite
+ * inferior, y responde localmente las consultas cuyo peso cae dentro de una banda vigente. Si la consulta indica su
+ * propia banda, sólo se responde con una banda idéntica; las consultas sin banda (sin límites, o con los límites en
+ * cero que el servicio recibe por omisión) se responden con la banda que contiene su peso, pero no se registran, ya
+ * que la respuesta remota no indica su banda. El refresco anticipado de una consulta descarta su banda, para que la
+ * consulta llegue al servicio remoto en lugar de volver a leer la banda.
+ *
+ * Se registran los indicadores {@code aciertos}, {@code fallos} y {@code bandas}.
+ */
+@Component
+public class BandasQuilates {
+
+    /**
+     * Bandas consultadas, indexadas por características del diamante y límite inferior de la banda.
+     */
+    private final ConcurrentMap<LlaveReferencia, NavigableMap<BigDecimal, Banda>> indice =
+        new ConcurrentHashMap<>();
+
+    /**
+     * Número de bandas en el índice.
+     */
+    private final AtomicInteger total = new AtomicInteger();
+
+    /**
+     * Propiedades del índice.
+     */
+    @Inject
+    private BandasQuilatesProperties propiedades;
+
+    /**
+     * Registro de indicadores.
+     */
+    @Inject
+    private MetricRegistry metricRegistry;
+
+
+
+    // METODOS
+
+    /**
+     * Constructor.
+     */
+    public BandasQuilates() {
+        super();
+    }
+
+    /**
+     * Registra el indicador del número de bandas.
+     */
+    @PostConstruct
+    public void init() {
+        metricRegistry.register(MetricRegistry.name(BandasQuilates.class, "bandas"), new Gauge<Integer>() {
+            @Override
+            public Integer getValue() {
+                return total.get();
+            }
+        });
+    }
+
+    /**
+     * Recupera el valor comercial de la banda vigente que contiene el peso del diamante.
+     *
+     * @param proveedor Características del diamante.
+     * @return El valor comercial, o {@code null} si ninguna banda vigente lo contiene.
+     */
+    public ValorComercialConsumidor consultar(CaracteristicasDiamanteProveedor proveedor) {
+        if (!propiedades.isHabilitado() || proveedor.getQuilates() == null) {
+            return null;
+        }
+
+        ValorComercialConsumidor valor = buscar(proveedor);
+        metricRegistry.meter(MetricRegistry.name(BandasQuilates.class, (valor == null) ? "fallos" : "aciertos"))
+            .mark();
+
+        return valor;
+    }
+
+    /**
+     * Registra el valor comercial de la banda indicada en la consulta. Se ignoran las consultas sin banda o cuyo
+     * peso no cae dentro de ella.
+     *
+     * @param proveedor Características del diamante consultadas.
+     * @param valor El valor comercial obtenido.
+     */
+    public void registrar(CaracteristicasDiamanteProveedor proveedor, ValorComercialConsumidor valor) {
+        if (!propiedades.isHabilitado() || valor == null || !tieneBanda(proveedor) ||
+            !contiene(proveedor.getQuilatesDesde(), proveedor.getQuilatesHasta(), proveedor.getQuilates())) {
+            return;
+        }
+
+        if (total.get() >= propiedades.getMaximoBandas() && depurar() == 0) {
+            return;
+        }
+
+        LlaveReferencia llave = LlaveReferencia.bandaDiamante(proveedor);
+        NavigableMap<BigDecimal, Banda> bandas = indice.get(llave);
+
+        if (bandas == null) {
+            NavigableMap<BigDecimal, Banda> nuevas = new ConcurrentSkipListMap<>();
+            bandas = indice.putIfAbsent(llave, nuevas);
+
+            if (bandas == null) {
+                bandas = nuevas;
+            }
+        }
+
+        Banda banda = new Banda(proveedor.getQuilatesDesde(), proveedor.getQuilatesHasta(), valor,
+            System.currentTimeMillis() + propiedades.getVigencia());
+
+        if (bandas.put(banda.desde, banda) == null) {
+            total.incrementAndGet();
+        }
+    }
+
+    /**
+     * Descarta la banda que contiene el peso del diamante, de modo que la siguiente consulta con ese peso llegue al
+     * servicio remoto y registre la banda vigente.
+     *
+     * @param proveedor Características del diamante.
+     */
+    public void descartar(CaracteristicasDiamanteProveedor proveedor) {
+        if (proveedor.getQuilates() == null) {
+            return;
+        }
+
+        NavigableMap<BigDecimal, Banda> bandas = indice.get(LlaveReferencia.bandaDiamante(proveedor));
+
+        if (bandas == null) {
+            return;
+        }
+
+        Map.Entry<BigDecimal, Banda> entrada = bandas.floorEntry(proveedor.getQuilates());
+
+        if (entrada != null && contiene(entrada.getValue().desde, entrada.getValue().hasta, proveedor.getQuilates())
+            && bandas.remove(entrada.getKey(), entrada.getValue())) {
+            total.decrementAndGet();
+        }
+    }
+
+    /**
+     * Busca la banda vigente que contiene el peso del diamante.
+     *
+     * @param proveedor Características del diamante.
+     * @return El valor comercial, o {@code null} si ninguna banda vigente lo contiene.
+     */
+    private ValorComercialConsumidor buscar(CaracteristicasDiamanteProveedor proveedor) {
+        NavigableMap<BigDecimal, Banda> bandas = indice.get(LlaveReferencia.bandaDiamante(proveedor));
+
+        if (bandas == null) {
+            return null;
+        }
+
+        Map.Entry<BigDecimal, Banda> entrada = bandas.floorEntry(proveedor.getQuilates());
+
+        if (entrada == null) {
+            return null;
+        }
+
+        Banda banda = entrada.getValue();
+
+        if (banda.expira < System.currentTimeMillis()) {
+            if (bandas.remove(entrada.getKey(), banda)) {
+                total.decrementAndGet();
+            }
+
+            return null;
+        }
+
+        if (!contiene(banda.desde, banda.hasta, proveedor.getQuilates())) {
+            return null;
+        }
+
+        if (tieneBanda(proveedor) && (banda.desde.compareTo(proveedor.getQuilatesDesde()) != 0 ||
+            banda.hasta.compareTo(proveedor.getQuilatesHasta()) != 0)) {
+            return null;
+        }
+
+        return banda.valor;
+    }
+
+    /**
+     * Elimina las bandas vencidas.
+     *
+     * @return El número de bandas eliminadas.
+     */
+    private int depurar() {
+        long ahora = System.currentTimeMillis();
+        int eliminadas = 0;
+
+        for (NavigableMap<BigDecimal, Banda> bandas : indice.values()) {
+            Iterator<Banda> it = bandas.values().iterator();
+
+            while (it.hasNext()) {
+                if (it.next().expira < ahora) {
+                    it.remove();
+                    total.decrementAndGet();
+                    eliminadas++;
+                }
+            }
+        }
+
+        return eliminadas;
+    }
+
+    /**
+     * Indica si la consulta define una banda de quilates válida.
+     */
+    private static boolean tieneBanda(CaracteristicasDiamanteProveedor proveedor) {
+        BigDecimal desde = proveedor.getQuilatesDesde();
+        BigDecimal hasta = proveedor.getQuilatesHasta();
+
+        return desde != null && hasta != null && hasta.signum() > 0 && desde.compareTo(hasta) <= 0;
+    }
+
+    /**
+     * Indica si el peso cae dentro de la banda, incluyendo sus límites.
+     */
+    private static boolean contiene(BigDecimal desde, BigDecimal hasta, BigDecimal quilates) {
+        return quilates != null && desde.compareTo(quilates) <= 0 && hasta.compareTo(quilates) >= 0;
+    }
+
+    /**
+     * Banda de quilates con su valor comercial.
+     */
+    private static final class Banda {
+        private final BigDecimal desde;
+        private final BigDecimal hasta;
+        private final ValorComercialConsumidor valor;
+        private final long expira;
+
+        Banda(BigDecimal desde, BigDecimal hasta, ValorComercialConsumidor valor, long expira) {
+            this.desde = desde;
+            this.hasta = hasta;
+            this.valor = valor;
+            this.expira = expira;
+        }
+    }
+
+}
@@ -0,0 +1,360 @@
+/**
+ * Proyecto:        NMP - Microservicio de Motor de Valuación
+ * Quarksoft S.A.P.I. de C.V. – Todos los derechos reservados. Para uso exclusivo de Nacional Monte de Piedad.
+ */
+package mx.com.nmp.ms.sivad.valuacion.conector;
+
+import com.codahale.metrics.Gauge;
+import com.codahale.metrics.Meter;
+import com.codahale.metrics.MetricRegistry;
+import mx.com.nmp.ms.sivad.valuacion.config.InterruptorReferenciaProperties;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+
+import javax.inject.Inject;
+import javax.xml.ws.WebServiceException;
+import javax.xml.ws.soap.SOAPFaultException;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Interruptor de circuito y límite de consultas concurrentes por operación hacia el Micro Servicio de Tablas de
+ * Referencia.
+ *
+ * Tras un número de fallas de comunicación consecutivas el circuito se abre y las consultas dejan de enviarse al
+ * servicio remoto: se entrega el último valor conocido de la llave, si existe y no es demasiado antiguo, o se
+ * falla de inmediato. El último valor conocido se entrega mediante {@link ValorObsoletoException}, de modo que el
+ * caché de la consulta no lo almacene como vigente. Transcurrido el tiempo de apertura, una sola consulta de prueba decide si el circuito se
+ * cierra o vuelve a abrirse. Los SOAP Fault no se consideran fallas, ya que el servicio sí respondió.
+ *
+ * Por cada operación se registran el indicador {@code <consulta>.estado} (0 cerrado, 1 abierto, 2 semiabierto) y
+ * los indicadores {@code aperturas}, {@code semiaperturas}, {@code cierres}, {@code rechazadas},
+ * {@code obsoletas} y {@code antiguedad}.
+ */
+@Component
+public class InterruptorConsultas {
+
+    /**
+     * Utilizada para manipular los mensajes informativos y de error.
+     */
+    private static final Logger LOGGER = LoggerFactory.getLogger(InterruptorConsultas.class);
+
+    /**
+     * Estados del circuito.
+     */
+    enum Estado {
+        CERRADO, ABIERTO, SEMIABIERTO
+    }
+
+    /**
+     * Circuitos, indexados por nombre de consulta.
+     */
+    private final ConcurrentMap<String, Circuito> circuitos = new ConcurrentHashMap<>();
+
+    /**
+     * Último valor conocido, indexado por nombre de consulta y llave, en orden de acceso; al superar el número
+     * máximo de valores se descarta el usado menos recientemente. El acceso se sincroniza sobre el mapa.
+     */
+    private final Map<List<Object>, ValorConocido> ultimosValores =
+        new LinkedHashMap<List<Object>, ValorConocido>(16, 0.75f, true) {
+            private static final long serialVersionUID = 1L;
+
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<List<Object>, ValorConocido> eldest) {
+                return size() > propiedades.getMaximoValores();
+            }
+        };
+
+    /**
+     * Propiedades del interruptor.
+     */
+    @Inject
+    private InterruptorReferenciaProperties propiedades;
+
+    /**
+     * Registro de indicadores.
+     */
+    @Inject
+    private MetricRegistry metricRegistry;
+
+
+
+    // METODOS
+
+    /**
+     * Constructor.
+     */
+    public InterruptorConsultas() {
+        super();
+    }
+
+    /**
+     * Ejecuta la llamada hacia el servicio remoto si el circuito de la consulta lo permite y hay capacidad
+     * disponible; en caso contrario entrega el último valor conocido de la llave o falla de inmediato.
+     *
+     * @param consulta Nombre de la consulta.
+     * @param llave Llave de la consulta; debe implementar {@code equals} y {@code hashCode}.
+     * @param llamada Llamada hacia el servicio remoto.
+     * @param <T> Tipo del resultado.
+     * @return El resultado de la consulta.
+     * @throws ValorObsoletoException Si la consulta se rechaza y existe un último valor conocido de la llave.
+     * @throws WebServiceException Si la consulta se rechaza sin un último valor conocido, o si la llamada lanza
+     *                             una excepción verificada; las demás excepciones de la llamada se relanzan.
+     */
+    public <T> T ejecutar(String consulta, Object llave, Callable<T> llamada) {
+        if (!propiedades.isHabilitado()) {
+            return llamar(llamada);
+        }
+
+        Circuito circuito = getCircuito(consulta);
+        List<Object> id = Arrays.asList(consulta, llave);
+
+        if (!circuito.permitir()) {
+            return respaldo(circuito, id, "el circuito está abierto");
+        }
+
+        if (!circuito.capacidad.tryAcquire()) {
+            circuito.rechazadas.mark();
+            circuito.liberarPrueba();
+            return respaldo(circuito, id, "se alcanzó el límite de consultas concurrentes");
+        }
+
+        try {
+            T valor = llamar(llamada);
+            circuito.registrarExito();
+            recordar(id, valor);
+
+            return valor;
+        } catch (SOAPFaultException e) {
+            circuito.registrarExito();
+            throw e;
+        } catch (RuntimeException e) {
+            circuito.registrarFalla();
+            throw e;
+        } finally {
+            circuito.capacidad.release();
+        }
+    }
+
+    /**
+     * Ejecuta la llamada, envolviendo sus excepciones verificadas en {@link WebServiceException}.
+     *
+     * @param llamada Llamada hacia el servicio remoto.
+     * @param <T> Tipo del resultado.
+     * @return El resultado de la llamada.
+     */
+    private static <T> T llamar(Callable<T> llamada) {
+        try {
+            return llamada.call();
+        } catch (RuntimeException e) {
+            throw e;
+        } catch (Exception e) {
+            throw new WebServiceException(e);
+        }
+    }
+
+    /**
+     * Recupera el estado del circuito de la consulta.
+     *
+     * @param consulta Nombre de la consulta.
+     * @return El estado del circuito.
+     */
+    Estado getEstado(String consulta) {
+        return getCircuito(consulta).estado.get();
+    }
+
+    /**
+     * Recupera el circuito de la consulta, creándolo si no existe.
+     *
+     * @param consulta Nombre de la consulta.
+     * @return El circuito.
+     */
+    private Circuito getCircuito(String consulta) {
+        Circuito circuito = circuitos.get(consulta);
+
+        if (circuito == null) {
+            synchronized (circuitos) {
+                circuito = circuitos.get(consulta);
+
+                if (circuito == null) {
+                    circuito = new Circuito(consulta);
+                    circuitos.put(consulta, circuito);
+                }
+            }
+        }
+
+        return circuito;
+    }
+
+    /**
+     * Entrega el último valor conocido de la llave mediante {@link ValorObsoletoException}, o falla si no existe o
+     * es demasiado antiguo.
+     *
+     * @param circuito El circuito de la consulta.
+     * @param id Nombre de la consulta y llave.
+     * @param motivo Motivo por el que no se consulta el servicio remoto.
+     * @param <T> Tipo del resultado.
+     * @return Nunca regresa.
+     */
+    private <T> T respaldo(Circuito circuito, List<Object> id, String motivo) {
+        ValorConocido conocido = null;
+
+        if (propiedades.isUltimoValor()) {
+            synchronized (ultimosValores) {
+                conocido = ultimosValores.get(id);
+            }
+        }
+
+        if (conocido != null) {
+            long antiguedad = System.currentTimeMillis() - conocido.momento;
+
+            if (antiguedad <= propiedades.getMaximoObsoleto()) {
+                circuito.obsoletas.mark();
+                metricRegistry.histogram(MetricRegistry.name(InterruptorConsultas.class, circuito.consulta,
+                    "antiguedad")).update(TimeUnit.MILLISECONDS.toSeconds(antiguedad));
+                LOGGER.warn("No se consulta [{}] porque {}; se entrega el último valor conocido con antigüedad de " +
+                    "[{}] ms", id, motivo, antiguedad);
+
+                throw new ValorObsoletoException("No se consulta [" + circuito.consulta + "] porque " + motivo + ".",
+                    conocido.valor);
+            }
+        }
+
+        throw new WebServiceException("No se consulta [" + circuito.consulta + "] porque " + motivo + ".");
+    }
+
+    /**
+     * Almacena el último valor conocido de la llave; si se supera el número máximo de valores se descarta el
+     * usado menos recientemente.
+     *
+     * @param id Nombre de la consulta y llave.
+     * @param valor El valor.
+     */
+    private void recordar(List<Object> id, Object valor) {
+        if (!propiedades.isUltimoValor() || valor == null) {
+            return;
+        }
+
+        ValorConocido conocido = new ValorConocido(valor, System.currentTimeMillis());
+
+        synchronized (ultimosValores) {
+            ultimosValores.put(id, conocido);
+        }
+    }
+
+    /**
+     * Último valor conocido de una llave y el momento en que se obtuvo.
+     */
+    private static final class ValorConocido {
+        private final Object valor;
+        private final long momento;
+
+        ValorConocido(Object valor, long momento) {
+            this.valor = valor;
+            this.momento = momento;
+        }
+    }
+
+    /**
+     * Circuito y límite de consultas concurrentes de una operación.
+     */
+    private final class Circuito {
+        private final String consulta;
+        private final AtomicReference<Estado> estado = new AtomicReference<>(Estado.CERRADO);
+        private final AtomicInteger fallas = new AtomicInteger();
+        private final Semaphore capacidad;
+        private volatile long abiertoDesde;
+
+        private final Meter aperturas;
+        private final Meter semiaperturas;
+        private final Meter cierres;
+        private final Meter rechazadas;
+        private final Meter obsoletas;
+
+        Circuito(String consulta) {
+            this.consulta = consulta;
+            this.capacidad = new Semaphore(propiedades.getMaximoConcurrentes());
+
+            this.aperturas = metricRegistry.meter(MetricRegistry.name(InterruptorConsultas.class, consulta,
+                "aperturas"));
+            this.semiaperturas = metricRegistry.meter(MetricRegistry.name(InterruptorConsultas.class, consulta,
+                "semiaperturas"));
+            this.cierres = metricRegistry.meter(MetricRegistry.name(InterruptorConsultas.class, consulta,
+                "cierres"));
+            this.rechazadas = metricRegistry.meter(MetricRegistry.name(InterruptorConsultas.class, consulta,
+                "rechazadas"));
+            this.obsoletas = metricRegistry.meter(MetricRegistry.name(InterruptorConsultas.class, consulta,
+                "obsoletas"));
+
+            String nombreEstado = MetricRegistry.name(InterruptorConsultas.class, consulta, "estado");
+            metricRegistry.remove(nombreEstado);
+            metricRegistry.register(nombreEstado, new Gauge<Integer>() {
+                @Override
+                public Integer getValue() {
+                    return estado.get().ordinal();
+                }
+            });
+        }
+
+        /**
+         * Indica si la consulta puede enviarse al servicio remoto; con el circuito abierto sólo se permite una
+         * consulta de prueba una vez transcurrido el tiempo de apertura.
+         */
+        boolean permitir() {
+            switch (estado.get()) {
+                case CERRADO:
+                    return true;
+                case ABIERTO:
+                    if (System.currentTimeMillis() - abiertoDesde >= propiedades.getTiempoAbierto() &&
+                        estado.compareAndSet(Estado.ABIERTO, Estado.SEMIABIERTO)) {
+                        semiaperturas.mark();
+                        LOGGER.info("Circuito [{}] semiabierto, se envía una consulta de prueba", consulta);
+                        return true;
+                    }
+
+                    return false;
+                default:
+                    return false;
+            }
+        }
+
+        /**
+         * Regresa el circuito a abierto si la consulta de prueba no pudo ejecutarse.
+         */
+        void liberarPrueba() {
+            estado.compareAndSet(Estado.SEMIABIERTO, Estado.ABIERTO);
+        }
+
+        void registrarExito() {
+            fallas.set(0);
+
+            if (estado.getAndSet(Estado.CERRADO) != Estado.CERRADO) {
+                cierres.mark();
+                LOGGER.info("Circuito [{}] cerrado", consulta);
+            }
+        }
+
+        void registrarFalla() {
+            if (estado.get() == Estado.SEMIABIERTO ||
+                (fallas.incrementAndGet() >= propiedades.getUmbralFallas() && estado.get() == Estado.CERRADO)) {
+                abiertoDesde = System.currentTimeMillis();
+
+                if (estado.getAndSet(Estado.ABIERTO) != Estado.ABIERTO) {
+                    aperturas.mark();
+                    LOGGER.warn("Circuito [{}] abierto tras [{}] fallas de comunicación", consulta, fallas.get());
+                }
+            }
+        }
+    }
+
+}
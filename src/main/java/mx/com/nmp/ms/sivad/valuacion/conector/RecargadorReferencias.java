@@ -0,0 +1,80 @@
+/**
+ * Proyecto:        NMP - Microservicio de Motor de Valuación
+ * Quarksoft S.A.P.I. de C.V. – Todos los derechos reservados. Para uso exclusivo de Nacional Monte de Piedad.
+ */
+package mx.com.nmp.ms.sivad.valuacion.conector;
+
+import mx.com.nmp.ms.sivad.valuacion.conector.llave.LlaveReferencia;
+import mx.com.nmp.ms.sivad.valuacion.infrastructure.cache.RefrescoAnticipadoCache;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.stereotype.Component;
+
+import javax.inject.Inject;
+
+/**
+ * Repite las consultas a las tablas de referencia para el refresco anticipado de sus cachés.
+ *
+ * Cada consulta se repite a través del proxy de {@link TablasDeReferenciaAlhajas} o
+ * {@link TablasDeReferenciaDiamantes}, usando la {@link LlaveReferencia} como proveedor de criterios, de modo que el
+ * hilo de refresco pasa por los mismos interceptores que una petición y no reutiliza la invocación de otro hilo.
+ * Antes de repetir una consulta de valor comercial se descarta su banda de quilates, ya que de otro modo la consulta
+ * se respondería con la banda y no llegaría al servicio remoto.
+ */
+@Component
+public class RecargadorReferencias implements RefrescoAnticipadoCache.Recargador {
+
+    /**
+     * Proxy de las tablas de referencia de alhajas; se resuelve al primer refresco, ya que depende de los cachés.
+     */
+    @Lazy
+    @Inject
+    private TablasDeReferenciaAlhajas tablasDeReferenciaAlhajas;
+
+    /**
+     * Proxy de las tablas de referencia de diamantes; se resuelve al primer refresco, ya que depende de los cachés.
+     */
+    @Lazy
+    @Inject
+    private TablasDeReferenciaDiamantes tablasDeReferenciaDiamantes;
+
+    /**
+     * Índice de bandas de quilates del valor comercial.
+     */
+    @Inject
+    private BandasQuilates bandasQuilates;
+
+
+
+    // METODOS
+
+    /**
+     * Constructor.
+     */
+    public RecargadorReferencias() {
+        super();
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public boolean recargar(Object key) {
+        if (key instanceof LlaveReferencia.ValorGramoOro) {
+            tablasDeReferenciaAlhajas.obtenerValorGramoOro((LlaveReferencia.ValorGramoOro) key);
+        } else if (key instanceof LlaveReferencia.Factor) {
+            tablasDeReferenciaAlhajas.obtenerFactor((LlaveReferencia.Factor) key);
+        } else if (key instanceof LlaveReferencia.ValorGramoMetal) {
+            tablasDeReferenciaAlhajas.obtenerValorGramoMetal((LlaveReferencia.ValorGramoMetal) key);
+        } else if (key instanceof LlaveReferencia.Modificador) {
+            tablasDeReferenciaDiamantes.obtenerModificador((LlaveReferencia.Modificador) key);
+        } else if (key instanceof LlaveReferencia.ValorComercial) {
+            bandasQuilates.descartar((LlaveReferencia.ValorComercial) key);
+            tablasDeReferenciaDiamantes.obtenerValorComercial((LlaveReferencia.ValorComercial) key);
+        } else {
+            return false;
+        }
+
+        return true;
+    }
+
+}
@@ -16,6 +16,9 @@ import mx.com.nmp.ms.sivad.referencia.ws.alhajas.datatypes.ObtenerValorGramoMeta
 import mx.com.nmp.ms.sivad.referencia.ws.alhajas.datatypes.ObtenerValorGramoOroRequest;
 import mx.com.nmp.ms.sivad.referencia.ws.alhajas.datatypes.ObtenerValorGramoOroResponse;
 import mx.com.nmp.ms.sivad.valuacion.conector.consumidor.BigDecimalConsumidor;
+import mx.com.nmp.ms.sivad.valuacion.conector.llave.LlaveReferencia;
+import mx.com.nmp.ms.sivad.valuacion.conector.llave.LlaveReferenciaGenerator;
+import mx.com.nmp.ms.sivad.valuacion.conector.referencia.TablasDeReferenciaLocales;
 import mx.com.nmp.ms.sivad.valuacion.conector.referencia.alhaja.factory.ReferenciaAlhajaFactory;
 import mx.com.nmp.ms.sivad.valuacion.conector.referencia.alhaja.ReferenciaAlhajasConector;
 import mx.com.nmp.ms.sivad.valuacion.conector.provedor.CaracteristicasGramoOroProveedor;
@@ -26,6 +29,7 @@ import org.springframework.cache.annotation.Cacheable;
 import org.springframework.stereotype.Component;
 
 import javax.inject.Inject;
+import java.util.concurrent.Callable;
 
 import static mx.com.nmp.ms.sivad.valuacion.conector.consumidor.ConsumidorFactory.crearBigDecimalConsumidor;
 
@@ -37,6 +41,10 @@ import static mx.com.nmp.ms.sivad.valuacion.conector.consumidor.ConsumidorFactor
 @Component("tablasDeReferenciaAlhajas")
 @SuppressWarnings("SpringAutowiredFieldsWarningInspection")
 public class TablasDeReferenciaAlhajasProxy implements TablasDeReferenciaAlhajas {
+    private static final String CACHE_VALOR_GRAMO_ORO = "TablasDeReferenciaAlhajas.obtenerValorGramoOro.cache";
+    private static final String CACHE_FACTOR = "TablasDeReferenciaAlhajas.obtenerFactor.cache";
+    private static final String CACHE_VALOR_GRAMO_METAL = "TablasDeReferenciaAlhajas.obtenerValorGramoMetal.cache";
+
     private Logger LOGGER = LoggerFactory.getLogger(TablasDeReferenciaAlhajasProxy.class);
 
     /**
@@ -51,6 +59,17 @@ public class TablasDeReferenciaAlhajasProxy implements TablasDeReferenciaAlhajas
     @Inject
     private ReferenciaAlhajaFactory referenciaAlhajaFactory;
 
+    /**
+     * Referencia a las tablas de referencia precargadas en memoria.
+     */
+    @Inject
+    private TablasDeReferenciaLocales tablasDeReferenciaLocales;
+
+    /**
+     * Interruptor de circuito de las consultas remotas.
+     */
+    @Inject
+    private InterruptorConsultas interruptorConsultas;
 
 
     /**
@@ -65,16 +84,27 @@ public class TablasDeReferenciaAlhajasProxy implements TablasDeReferenciaAlhajas
      */
     @Timed
     @Override
-    @Cacheable(value = "TablasDeReferenciaAlhajas.obtenerValorGramoOro.cache", condition = "#proveedor != null ",
-        key = "T(java.util.Objects).hash(#proveedor.color, #proveedor.calidad)")
+    @Cacheable(value = CACHE_VALOR_GRAMO_ORO, sync = true, keyGenerator = LlaveReferenciaGenerator.NOMBRE)
     public BigDecimalConsumidor obtenerValorGramoOro(@NotNull final CaracteristicasGramoOroProveedor proveedor) {
         LOGGER.info(">> obtenerValorGramoOro({})", proveedor);
 
-        ObtenerValorGramoOroRequest gramoOro = referenciaAlhajaFactory.crearObtenerValorGramoOroRequest(proveedor);
-        ObtenerValorGramoOroResponse respuesta = referenciaAlhajasConector.getWsReferenciaAlhaja()
-            .obtenerValorGramoOro(gramoOro);
-
-        return crearBigDecimalConsumidor(respuesta.getPrecioPorGramo());
+        BigDecimalConsumidor local = tablasDeReferenciaLocales.obtenerValorGramoOro(proveedor);
+
+        if (local != null) {
+            return local;
+        }
+
+        final ObtenerValorGramoOroRequest gramoOro =
+            referenciaAlhajaFactory.crearObtenerValorGramoOroRequest(proveedor);
+        return interruptorConsultas.ejecutar("obtenerValorGramoOro", LlaveReferencia.valorGramoOro(proveedor),
+            new Callable<BigDecimalConsumidor>() {
+                @Override
+                public BigDecimalConsumidor call() {
+                    ObtenerValorGramoOroResponse respuesta =
+                        referenciaAlhajasConector.getWsReferenciaAlhaja().obtenerValorGramoOro(gramoOro);
+                    return crearBigDecimalConsumidor(respuesta.getPrecioPorGramo());
+                }
+            });
     }
 
     /**
@@ -82,15 +112,26 @@ public class TablasDeReferenciaAlhajasProxy implements TablasDeReferenciaAlhajas
      */
     @Timed
     @Override
-    @Cacheable(value = "TablasDeReferenciaAlhajas.obtenerFactor.cache", condition = "#proveedor != null ",
-        key = "T(java.util.Objects).hash(#proveedor.metal, #proveedor.calidad, #proveedor.rango)")
+    @Cacheable(value = CACHE_FACTOR, sync = true, keyGenerator = LlaveReferenciaGenerator.NOMBRE)
     public BigDecimalConsumidor obtenerFactor(@NotNull final MetalCalidadRangoProveedor proveedor) {
         LOGGER.info(">> obtenerFactor({})", proveedor);
 
-        ObtenerFactorRequest factor = referenciaAlhajaFactory.crearObtenerFactorRequest(proveedor);
-        ObtenerFactorResponse respuesta = referenciaAlhajasConector.getWsReferenciaAlhaja().obtenerFactor(factor);
-
-        return crearBigDecimalConsumidor(respuesta.getFactor());
+        BigDecimalConsumidor local = tablasDeReferenciaLocales.obtenerFactor(proveedor);
+
+        if (local != null) {
+            return local;
+        }
+
+        final ObtenerFactorRequest factor = referenciaAlhajaFactory.crearObtenerFactorRequest(proveedor);
+        return interruptorConsultas.ejecutar("obtenerFactor", LlaveReferencia.factor(proveedor),
+            new Callable<BigDecimalConsumidor>() {
+                @Override
+                public BigDecimalConsumidor call() {
+                    ObtenerFactorResponse respuesta =
+                        referenciaAlhajasConector.getWsReferenciaAlhaja().obtenerFactor(factor);
+                    return crearBigDecimalConsumidor(respuesta.getFactor());
+                }
+            });
     }
 
     /**
@@ -98,16 +139,26 @@ public class TablasDeReferenciaAlhajasProxy implements TablasDeReferenciaAlhajas
      */
     @Timed
     @Override
-    @Cacheable(value = "TablasDeReferenciaAlhajas.obtenerValorGramoMetal.cache", condition = "#proveedor != null ",
-        key = "T(java.util.Objects).hash(#proveedor.metal, #proveedor.calidad)")
+    @Cacheable(value = CACHE_VALOR_GRAMO_METAL, sync = true, keyGenerator = LlaveReferenciaGenerator.NOMBRE)
     public BigDecimalConsumidor obtenerValorGramoMetal(@NotNull final MetalCalidadRangoProveedor proveedor) {
         LOGGER.info(">> obtenerValorGramoMetal({})", proveedor);
 
-        ObtenerValorGramoMetalRequest gramoMetal =
-            referenciaAlhajaFactory.crearObtenerValorGramoMetalRequest(proveedor);
-        ObtenerValorGramoMetalResponse respuesta = referenciaAlhajasConector.getWsReferenciaAlhaja()
-            .obtenerValorGramoMetal(gramoMetal);
+        BigDecimalConsumidor local = tablasDeReferenciaLocales.obtenerValorGramoMetal(proveedor);
+
+        if (local != null) {
+            return local;
+        }
 
-        return crearBigDecimalConsumidor(respuesta.getPrecioPorGramo());
+        final ObtenerValorGramoMetalRequest gramoMetal =
+            referenciaAlhajaFactory.crearObtenerValorGramoMetalRequest(proveedor);
+        return interruptorConsultas.ejecutar("obtenerValorGramoMetal", LlaveReferencia.valorGramoMetal(proveedor),
+            new Callable<BigDecimalConsumidor>() {
+                @Override
+                public BigDecimalConsumidor call() {
+                    ObtenerValorGramoMetalResponse respuesta =
+                        referenciaAlhajasConector.getWsReferenciaAlhaja().obtenerValorGramoMetal(gramoMetal);
+                    return crearBigDecimalConsumidor(respuesta.getPrecioPorGramo());
+                }
+            });
     }
 }
@@ -12,12 +12,14 @@ import mx.com.nmp.ms.arquetipo.annotation.validation.NotNull;
 import mx.com.nmp.ms.sivad.referencia.ws.diamantes.datatypes.ObtenerModificadorRequest;
 import mx.com.nmp.ms.sivad.referencia.ws.diamantes.datatypes.ObtenerModificadorResponse;
 import mx.com.nmp.ms.sivad.referencia.ws.diamantes.datatypes.ObtenerValorComercialRequest;
-import mx.com.nmp.ms.sivad.referencia.ws.diamantes.datatypes.ObtenerValorComercialResponse;
 import mx.com.nmp.ms.sivad.referencia.ws.diamantes.datatypes.ValorComercial;
 import mx.com.nmp.ms.sivad.valuacion.conector.consumidor.BigDecimalConsumidor;
 import mx.com.nmp.ms.sivad.valuacion.conector.consumidor.ValorComercialConsumidor;
+import mx.com.nmp.ms.sivad.valuacion.conector.llave.LlaveReferencia;
+import mx.com.nmp.ms.sivad.valuacion.conector.llave.LlaveReferenciaGenerator;
 import mx.com.nmp.ms.sivad.valuacion.conector.provedor.CaracteristicasDiamanteProveedor;
 import mx.com.nmp.ms.sivad.valuacion.conector.provedor.CertificadoDiamanteProveedor;
+import mx.com.nmp.ms.sivad.valuacion.conector.referencia.TablasDeReferenciaLocales;
 import mx.com.nmp.ms.sivad.valuacion.conector.referencia.diamante.ReferenciaDiamantesConector;
 import mx.com.nmp.ms.sivad.valuacion.conector.referencia.diamante.factory.ReferenciaDiamanteFactory;
 import org.slf4j.Logger;
@@ -26,6 +28,7 @@ import org.springframework.cache.annotation.Cacheable;
 import org.springframework.stereotype.Component;
 
 import javax.inject.Inject;
+import java.util.concurrent.Callable;
 
 import static mx.com.nmp.ms.sivad.valuacion.conector.consumidor.ConsumidorFactory.crearBigDecimalConsumidor;
 import static mx.com.nmp.ms.sivad.valuacion.conector.consumidor.ConsumidorFactory.crearValorComercialConsumidor;
@@ -36,6 +39,9 @@ import static mx.com.nmp.ms.sivad.valuacion.conector.consumidor.ConsumidorFactor
 @Component("tablasDeReferenciaDiamantes")
 @SuppressWarnings("SpringAutowiredFieldsWarningInspection")
 public class TablasDeReferenciaDiamantesProxy implements TablasDeReferenciaDiamantes {
+    private static final String CACHE_MODIFICADOR = "TablasDeReferenciaDiamantes.obtenerModificador.cache";
+    private static final String CACHE_VALOR_COMERCIAL = "TablasDeReferenciaDiamantes.obtenerValorComercial.cache";
+
     private Logger LOGGER = LoggerFactory.getLogger(TablasDeReferenciaDiamantesProxy.class);
 
     /**
@@ -50,6 +56,24 @@ public class TablasDeReferenciaDiamantesProxy implements TablasDeReferenciaDiama
     @Inject
     private ReferenciaDiamanteFactory referenciaDiamanteFactory;
 
+    /**
+     * Referencia a las tablas de referencia precargadas en memoria.
+     */
+    @Inject
+    private TablasDeReferenciaLocales tablasDeReferenciaLocales;
+
+    /**
+     * Interruptor de circuito de las consultas remotas.
+     */
+    @Inject
+    private InterruptorConsultas interruptorConsultas;
+
+    /**
+     * Índice de bandas de quilates del valor comercial.
+     */
+    @Inject
+    private BandasQuilates bandasQuilates;
+
     /**
      * Constructor.
      */
@@ -62,16 +86,27 @@ public class TablasDeReferenciaDiamantesProxy implements TablasDeReferenciaDiama
      */
     @Timed
     @Override
-    @Cacheable(value = "TablasDeReferenciaDiamantes.obtenerModificador.cache", condition = "#proveedor != null ",
-        key = "#proveedor.certificadoDiamante")
+    @Cacheable(value = CACHE_MODIFICADOR, sync = true, keyGenerator = LlaveReferenciaGenerator.NOMBRE)
     public BigDecimalConsumidor obtenerModificador(@NotNull final CertificadoDiamanteProveedor proveedor) {
         LOGGER.info(">> obtenerModificador({})", proveedor);
 
-        ObtenerModificadorRequest certificado = referenciaDiamanteFactory.crearObtenerModificadorRequest(proveedor);
-        ObtenerModificadorResponse respuesta = referenciaDiamantesConector.getWsReferenciaDiamante()
-            .obtenerModificador(certificado);
+        BigDecimalConsumidor local = tablasDeReferenciaLocales.obtenerModificador(proveedor);
 
-        return crearBigDecimalConsumidor(respuesta.getFactor());
+        if (local != null) {
+            return local;
+        }
+
+        final ObtenerModificadorRequest certificado =
+            referenciaDiamanteFactory.crearObtenerModificadorRequest(proveedor);
+        return interruptorConsultas.ejecutar("obtenerModificador", LlaveReferencia.modificador(proveedor),
+            new Callable<BigDecimalConsumidor>() {
+                @Override
+                public BigDecimalConsumidor call() {
+                    ObtenerModificadorResponse respuesta =
+                        referenciaDiamantesConector.getWsReferenciaDiamante().obtenerModificador(certificado);
+                    return crearBigDecimalConsumidor(respuesta.getFactor());
+                }
+            });
     }
 
     /**
@@ -79,18 +114,35 @@ public class TablasDeReferenciaDiamantesProxy implements TablasDeReferenciaDiama
      */
     @Timed
     @Override
-    @Cacheable(value = "TablasDeReferenciaDiamantes.obtenerValorComercial.cache", condition = "#proveedor != null ",
-        key = "T(java.util.Objects).hash(#proveedor.corte, #proveedor.subcorte, #proveedor.color, #proveedor.claridad, #proveedor.quilates," +
-            "#proveedor.quilatesDesde, #proveedor.quilatesHasta)")
+    @Cacheable(value = CACHE_VALOR_COMERCIAL, sync = true, keyGenerator = LlaveReferenciaGenerator.NOMBRE)
     public ValorComercialConsumidor obtenerValorComercial(@NotNull final CaracteristicasDiamanteProveedor proveedor) {
         LOGGER.info(">> obtenerValorComercial({})", proveedor);
 
-        ObtenerValorComercialRequest valorComercial = referenciaDiamanteFactory
+        ValorComercialConsumidor local = tablasDeReferenciaLocales.obtenerValorComercial(proveedor);
+
+        if (local == null) {
+            local = bandasQuilates.consultar(proveedor);
+        }
+
+        if (local != null) {
+            return local;
+        }
+
+        final ObtenerValorComercialRequest valorComercial = referenciaDiamanteFactory
             .crearObtenerValorComercialRequest(proveedor);
-        ObtenerValorComercialResponse respuesta = referenciaDiamantesConector.getWsReferenciaDiamante()
-            .obtenerValorComercial(valorComercial);
-        ValorComercial vc = respuesta.getValorComercial();
+        ValorComercialConsumidor valor = interruptorConsultas.ejecutar("obtenerValorComercial",
+            LlaveReferencia.valorComercial(proveedor),
+            new Callable<ValorComercialConsumidor>() {
+                @Override
+                public ValorComercialConsumidor call() {
+                    ValorComercial vc = referenciaDiamantesConector.getWsReferenciaDiamante()
+                        .obtenerValorComercial(valorComercial).getValorComercial();
+                    return crearValorComercialConsumidor(vc.getValorMinimo(), vc.getValorMedio(),
+                        vc.getValorMaximo());
+                }
+            });
+        bandasQuilates.registrar(proveedor, valor);
 
-        return crearValorComercialConsumidor(vc.getValorMinimo(), vc.getValorMedio(), vc.getValorMaximo());
+        return valor;
     }
 }
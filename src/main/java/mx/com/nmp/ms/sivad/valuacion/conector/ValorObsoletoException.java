@@ -0,0 +1,48 @@
+/**
+ * Proyecto:        NMP - Microservicio de Motor de Valuación
+ * Quarksoft S.A.P.I. de C.V. – Todos los derechos reservados. Para uso exclusivo de Nacional Monte de Piedad.
+ */
+package mx.com.nmp.ms.sivad.valuacion.conector;
+
+/**
+ * Se lanza cuando {@link InterruptorConsultas} no envía una consulta al servicio remoto y cuenta con el último valor
+ * conocido de la llave.
+ *
+ * El valor se entrega como excepción para que atraviese el caché de la consulta sin almacenarse como si fuera
+ * vigente; {@link mx.com.nmp.ms.sivad.valuacion.infrastructure.aop.ValorObsoletoAspect} lo recupera fuera del caché
+ * y lo regresa como resultado de la consulta.
+ */
+public class ValorObsoletoException extends RuntimeException {
+
+    private static final long serialVersionUID = -3409172658841295530L;
+
+    /**
+     * Último valor conocido de la llave.
+     */
+    private final transient Object valor;
+
+
+
+    // METODOS
+
+    /**
+     * Constructor.
+     *
+     * @param mensaje Motivo por el que no se consultó el servicio remoto.
+     * @param valor Último valor conocido de la llave.
+     */
+    public ValorObsoletoException(String mensaje, Object valor) {
+        super(mensaje, null, false, false);
+
+        this.valor = valor;
+    }
+
+
+
+    // GETTERS Y SETTERS
+
+    public Object getValor() {
+        return valor;
+    }
+
+}
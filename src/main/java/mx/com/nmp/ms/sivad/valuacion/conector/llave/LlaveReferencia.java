@@ -0,0 +1,325 @@
+/**
+ * Proyecto:        NMP - Microservicio de Motor de Valuación
+ * Quarksoft S.A.P.I. de C.V. – Todos los derechos reservados. Para uso exclusivo de Nacional Monte de Piedad.
+ */
+package mx.com.nmp.ms.sivad.valuacion.conector.llave;
+
+import mx.com.nmp.ms.sivad.valuacion.conector.provedor.CaracteristicasDiamanteProveedor;
+import mx.com.nmp.ms.sivad.valuacion.conector.provedor.CaracteristicasGramoOroProveedor;
+import mx.com.nmp.ms.sivad.valuacion.conector.provedor.CertificadoDiamanteProveedor;
+import mx.com.nmp.ms.sivad.valuacion.conector.provedor.MetalCalidadRangoProveedor;
+
+import java.io.Serializable;
+import java.math.BigDecimal;
+import java.util.Arrays;
+
+/**
+ * Llave inmutable de una consulta a las tablas de referencia, utilizada por los cachés, el interruptor de circuito
+ * y la resolución de referencias de las piezas.
+ *
+ * Cada consulta tiene su propio tipo de llave, por lo que llaves de consultas distintas nunca son iguales. La
+ * igualdad compara todos los criterios de la consulta y el hash se calcula una sola vez al construir la llave. Los
+ * quilates se normalizan para que {@code 0.92} y {@code 0.920} compartan la misma llave. Las llaves de las consultas
+ * implementan el proveedor de criterios de su consulta, por lo que la consulta puede repetirse a partir de la llave.
+ */
+public abstract class LlaveReferencia implements Serializable {
+
+    private static final long serialVersionUID = 6190373574829178372L;
+
+    /**
+     * Criterios de la consulta.
+     */
+    private final Object[] criterios;
+
+    /**
+     * Hash precalculado.
+     */
+    private final int hash;
+
+
+
+    // METODOS
+
+    /**
+     * Constructor.
+     *
+     * @param criterios Criterios de la consulta.
+     */
+    protected LlaveReferencia(Object... criterios) {
+        super();
+
+        this.criterios = criterios;
+        this.hash = 31 * getClass().getName().hashCode() + Arrays.hashCode(criterios);
+    }
+
+    /**
+     * Crea la llave de la consulta del valor por gramo de oro.
+     *
+     * @param proveedor Criterios de la consulta.
+     * @return La llave.
+     */
+    public static ValorGramoOro valorGramoOro(CaracteristicasGramoOroProveedor proveedor) {
+        return new ValorGramoOro(proveedor.getColor(), proveedor.getCalidad());
+    }
+
+    /**
+     * Crea la llave de la consulta del factor Metal-Calidad-Rango.
+     *
+     * @param proveedor Criterios de la consulta.
+     * @return La llave.
+     */
+    public static Factor factor(MetalCalidadRangoProveedor proveedor) {
+        return new Factor(proveedor.getMetal(), proveedor.getCalidad(), proveedor.getRango());
+    }
+
+    /**
+     * Crea la llave de la consulta del valor por gramo de metales distintos a oro.
+     *
+     * @param proveedor Criterios de la consulta.
+     * @return La llave.
+     */
+    public static ValorGramoMetal valorGramoMetal(MetalCalidadRangoProveedor proveedor) {
+        return new ValorGramoMetal(proveedor.getMetal(), proveedor.getCalidad());
+    }
+
+    /**
+     * Crea la llave de la consulta del modificador por certificado de diamante.
+     *
+     * @param proveedor Criterios de la consulta.
+     * @return La llave.
+     */
+    public static Modificador modificador(CertificadoDiamanteProveedor proveedor) {
+        return new Modificador(proveedor.getCertificadoDiamante());
+    }
+
+    /**
+     * Crea la llave de la consulta del valor comercial de un diamante.
+     *
+     * @param proveedor Criterios de la consulta.
+     * @return La llave.
+     */
+    public static ValorComercial valorComercial(CaracteristicasDiamanteProveedor proveedor) {
+        return new ValorComercial(proveedor.getCorte(), proveedor.getSubcorte(), proveedor.getColor(),
+            proveedor.getClaridad(), normalizar(proveedor.getQuilates()), normalizar(proveedor.getQuilatesDesde()),
+            normalizar(proveedor.getQuilatesHasta()));
+    }
+
+    /**
+     * Crea la llave de las bandas de quilates de un diamante: las características sin el peso ni la banda.
+     *
+     * @param proveedor Criterios de la consulta.
+     * @return La llave.
+     */
+    public static BandaDiamante bandaDiamante(CaracteristicasDiamanteProveedor proveedor) {
+        return new BandaDiamante(proveedor.getCorte(), proveedor.getSubcorte(), proveedor.getColor(),
+            proveedor.getClaridad());
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+
+        if (o == null || getClass() != o.getClass()) {
+            return false;
+        }
+
+        LlaveReferencia that = (LlaveReferencia) o;
+
+        return hash == that.hash && Arrays.equals(criterios, that.criterios);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public int hashCode() {
+        return hash;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public String toString() {
+        return getClass().getSimpleName() + Arrays.toString(criterios);
+    }
+
+    /**
+     * Recupera un criterio de la consulta.
+     *
+     * @param indice Posición del criterio.
+     * @param <T> Tipo del criterio.
+     * @return El criterio.
+     */
+    @SuppressWarnings("unchecked")
+    protected <T> T criterio(int indice) {
+        return (T) criterios[indice];
+    }
+
+    /**
+     * Normaliza la escala de un valor decimal.
+     *
+     * @param valor El valor, puede ser nulo.
+     * @return El valor sin ceros a la derecha.
+     */
+    private static BigDecimal normalizar(BigDecimal valor) {
+        if (valor == null) {
+            return null;
+        }
+
+        return (valor.signum() == 0) ? BigDecimal.ZERO : valor.stripTrailingZeros();
+    }
+
+    /**
+     * Llave de la consulta del valor por gramo de oro: color y calidad.
+     */
+    public static final class ValorGramoOro extends LlaveReferencia implements CaracteristicasGramoOroProveedor {
+        private static final long serialVersionUID = -2803981153358624905L;
+
+        ValorGramoOro(String color, String calidad) {
+            super(color, calidad);
+        }
+
+        @Override
+        public String getColor() {
+            return criterio(0);
+        }
+
+        @Override
+        public String getCalidad() {
+            return criterio(1);
+        }
+    }
+
+    /**
+     * Llave de la consulta del factor: metal, calidad y rango.
+     */
+    public static final class Factor extends LlaveReferencia implements MetalCalidadRangoProveedor {
+        private static final long serialVersionUID = 4419264853212875761L;
+
+        Factor(String metal, String calidad, String rango) {
+            super(metal, calidad, rango);
+        }
+
+        @Override
+        public String getMetal() {
+            return criterio(0);
+        }
+
+        @Override
+        public String getCalidad() {
+            return criterio(1);
+        }
+
+        @Override
+        public String getRango() {
+            return criterio(2);
+        }
+    }
+
+    /**
+     * Llave de la consulta del valor por gramo de metal: metal y calidad. La consulta no utiliza el rango.
+     */
+    public static final class ValorGramoMetal extends LlaveReferencia implements MetalCalidadRangoProveedor {
+        private static final long serialVersionUID = -6172541290356482314L;
+
+        ValorGramoMetal(String metal, String calidad) {
+            super(metal, calidad);
+        }
+
+        @Override
+        public String getMetal() {
+            return criterio(0);
+        }
+
+        @Override
+        public String getCalidad() {
+            return criterio(1);
+        }
+
+        @Override
+        public String getRango() {
+            return null;
+        }
+    }
+
+    /**
+     * Llave de la consulta del modificador: certificado del diamante.
+     */
+    public static final class Modificador extends LlaveReferencia implements CertificadoDiamanteProveedor {
+        private static final long serialVersionUID = 2530170736829416857L;
+
+        Modificador(String certificado) {
+            super(certificado);
+        }
+
+        @Override
+        public String getCertificadoDiamante() {
+            return criterio(0);
+        }
+    }
+
+    /**
+     * Llave de la consulta del valor comercial: corte, subcorte, color, claridad y quilates del diamante.
+     */
+    public static final class ValorComercial extends LlaveReferencia implements CaracteristicasDiamanteProveedor {
+        private static final long serialVersionUID = -4902148116359177053L;
+
+        ValorComercial(String corte, String subcorte, String color, String claridad, BigDecimal quilates,
+                       BigDecimal quilatesDesde, BigDecimal quilatesHasta) {
+            super(corte, subcorte, color, claridad, quilates, quilatesDesde, quilatesHasta);
+        }
+
+        @Override
+        public String getCorte() {
+            return criterio(0);
+        }
+
+        @Override
+        public String getSubcorte() {
+            return criterio(1);
+        }
+
+        @Override
+        public String getColor() {
+            return criterio(2);
+        }
+
+        @Override
+        public String getClaridad() {
+            return criterio(3);
+        }
+
+        @Override
+        public BigDecimal getQuilates() {
+            return criterio(4);
+        }
+
+        @Override
+        public BigDecimal getQuilatesDesde() {
+            return criterio(5);
+        }
+
+        @Override
+        public BigDecimal getQuilatesHasta() {
+            return criterio(6);
+        }
+    }
+
+    /**
+     * Llave de las bandas de quilates de un diamante: corte, subcorte, color y claridad.
+     */
+    public static final class BandaDiamante extends LlaveReferencia {
+        private static final long serialVersionUID = 7745019846573349176L;
+
+        BandaDiamante(String corte, String subcorte, String color, String claridad) {
+            super(corte, subcorte, color, claridad);
+        }
+    }
+
+}
@@ -0,0 +1,67 @@
+/**
+ * Proyecto:        NMP - Microservicio de Motor de Valuación
+ * Quarksoft S.A.P.I. de C.V. – Todos los derechos reservados. Para uso exclusivo de Nacional Monte de Piedad.
+ */
+package mx.com.nmp.ms.sivad.valuacion.conector.llave;
+
+import mx.com.nmp.ms.sivad.valuacion.conector.provedor.CaracteristicasDiamanteProveedor;
+import mx.com.nmp.ms.sivad.valuacion.conector.provedor.CaracteristicasGramoOroProveedor;
+import mx.com.nmp.ms.sivad.valuacion.conector.provedor.CertificadoDiamanteProveedor;
+import mx.com.nmp.ms.sivad.valuacion.conector.provedor.MetalCalidadRangoProveedor;
+import org.springframework.cache.interceptor.KeyGenerator;
+import org.springframework.cache.interceptor.SimpleKeyGenerator;
+import org.springframework.stereotype.Component;
+
+import java.lang.reflect.Method;
+
+/**
+ * Generador de llaves de los cachés de las tablas de referencia. Construye la {@link LlaveReferencia} de la
+ * consulta a partir del proveedor de criterios, sin evaluar expresiones SpEL en cada invocación.
+ */
+@Component(LlaveReferenciaGenerator.NOMBRE)
+public class LlaveReferenciaGenerator implements KeyGenerator {
+
+    /**
+     * Nombre del bean, utilizado en {@code @Cacheable(keyGenerator = ...)}.
+     */
+    public static final String NOMBRE = "llaveReferenciaGenerator";
+
+
+
+    // METODOS
+
+    /**
+     * Constructor.
+     */
+    public LlaveReferenciaGenerator() {
+        super();
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public Object generate(Object target, Method method, Object... params) {
+        Object proveedor = (params.length == 1) ? params[0] : null;
+
+        if (proveedor != null) {
+            switch (method.getName()) {
+                case "obtenerValorGramoOro":
+                    return LlaveReferencia.valorGramoOro((CaracteristicasGramoOroProveedor) proveedor);
+                case "obtenerFactor":
+                    return LlaveReferencia.factor((MetalCalidadRangoProveedor) proveedor);
+                case "obtenerValorGramoMetal":
+                    return LlaveReferencia.valorGramoMetal((MetalCalidadRangoProveedor) proveedor);
+                case "obtenerModificador":
+                    return LlaveReferencia.modificador((CertificadoDiamanteProveedor) proveedor);
+                case "obtenerValorComercial":
+                    return LlaveReferencia.valorComercial((CaracteristicasDiamanteProveedor) proveedor);
+                default:
+                    break;
+            }
+        }
+
+        return SimpleKeyGenerator.generateKey(params);
+    }
+
+}
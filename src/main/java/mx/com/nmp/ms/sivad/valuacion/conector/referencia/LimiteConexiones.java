@@ -0,0 +1,153 @@
+/**
+ * Proyecto:        NMP - Microservicio de Motor de Valuación
+ * Quarksoft S.A.P.I. de C.V. – Todos los derechos reservados. Para uso exclusivo de Nacional Monte de Piedad.
+ */
+package mx.com.nmp.ms.sivad.valuacion.conector.referencia;
+
+import mx.com.nmp.ms.sivad.valuacion.config.ClienteReferenciaProperties;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+
+import javax.inject.Inject;
+import javax.xml.ws.WebServiceException;
+import java.net.URL;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Límites de conexiones HTTP simultáneas hacia el Micro Servicio de Tablas de Referencia, compartidos por los pools
+ * de puertos de todos los clientes.
+ *
+ * Cada invocación ocupa un permiso de su ruta (servidor y puerto del servicio) y uno del total mientras espera la
+ * respuesta. El transporte síncrono de CXF conserva las conexiones persistentes en el caché de la JVM, cuyo tamaño
+ * por servidor es la propiedad de sistema {@code http.maxConnections}; si no se definió, se le asigna el límite por
+ * ruta para que las conexiones en uso puedan reutilizarse.
+ */
+@Component
+public class LimiteConexiones {
+
+    /**
+     * Utilizada para manipular los mensajes informativos y de error.
+     */
+    private static final Logger LOGGER = LoggerFactory.getLogger(LimiteConexiones.class);
+
+    /**
+     * Propiedad de sistema con el número de conexiones persistentes por servidor.
+     */
+    static final String CONEXIONES_PERSISTENTES = "http.maxConnections";
+
+    /**
+     * Número máximo de conexiones por ruta.
+     */
+    private final int conexionesPorRuta;
+
+    /**
+     * Permisos del total de conexiones.
+     */
+    private final Semaphore total;
+
+    /**
+     * Permisos de cada ruta.
+     */
+    private final ConcurrentMap<String, Semaphore> rutas = new ConcurrentHashMap<>();
+
+
+
+    // METODOS
+
+    /**
+     * Constructor.
+     *
+     * @param propiedades Propiedades de los clientes.
+     */
+    @Inject
+    public LimiteConexiones(ClienteReferenciaProperties propiedades) {
+        super();
+
+        this.conexionesPorRuta = propiedades.getConexionesPorRuta();
+        this.total = new Semaphore(propiedades.getConexionesTotales(), true);
+
+        if (System.getProperty(CONEXIONES_PERSISTENTES) == null) {
+            System.setProperty(CONEXIONES_PERSISTENTES, String.valueOf(conexionesPorRuta));
+        }
+
+        LOGGER.info("Limites de conexiones hacia las tablas de referencia. Por ruta: [{}], totales: [{}]",
+            conexionesPorRuta, propiedades.getConexionesTotales());
+    }
+
+    /**
+     * Obtiene la ruta de una URL: su servidor y su puerto.
+     *
+     * @param url La URL del servicio; puede ser nula.
+     * @return La ruta, o la cadena vacía si la URL es nula.
+     */
+    public static String ruta(URL url) {
+        if (url == null) {
+            return "";
+        }
+
+        int puerto = url.getPort() == -1 ? url.getDefaultPort() : url.getPort();
+        return url.getHost() + ":" + puerto;
+    }
+
+    /**
+     * Ocupa un permiso de la ruta y uno del total, esperando a lo más el tiempo indicado por ambos.
+     *
+     * @param ruta La ruta.
+     * @param esperaMaxima Milisegundos máximos de espera.
+     * @throws WebServiceException Si se agota la espera o se interrumpe.
+     */
+    public void adquirir(String ruta, long esperaMaxima) {
+        Semaphore permisosRuta = permisos(ruta);
+        long limite = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(esperaMaxima);
+
+        try {
+            if (!permisosRuta.tryAcquire(esperaMaxima, TimeUnit.MILLISECONDS)) {
+                throw new WebServiceException("Se alcanzó el límite de conexiones hacia [" + ruta + "].");
+            }
+
+            if (!total.tryAcquire(Math.max(0L, limite - System.nanoTime()), TimeUnit.NANOSECONDS)) {
+                permisosRuta.release();
+                throw new WebServiceException("Se alcanzó el límite de conexiones totales.");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new WebServiceException("Se interrumpió la espera de una conexión hacia [" + ruta + "].", e);
+        }
+    }
+
+    /**
+     * Libera los permisos ocupados por {@link #adquirir(String, long)}.
+     *
+     * @param ruta La ruta.
+     */
+    public void liberar(String ruta) {
+        total.release();
+        permisos(ruta).release();
+    }
+
+    /**
+     * Obtiene los permisos de la ruta, creándolos la primera vez.
+     *
+     * @param ruta La ruta.
+     * @return Los permisos.
+     */
+    private Semaphore permisos(String ruta) {
+        Semaphore permisos = rutas.get(ruta);
+
+        if (permisos == null) {
+            Semaphore nuevos = new Semaphore(conexionesPorRuta, true);
+            permisos = rutas.putIfAbsent(ruta, nuevos);
+
+            if (permisos == null) {
+                permisos = nuevos;
+            }
+        }
+
+        return permisos;
+    }
+
+}
@@ -0,0 +1,239 @@
+/**
+ * Proyecto:        NMP - Microservicio de Motor de Valuación
+ * Quarksoft S.A.P.I. de C.V. – Todos los derechos reservados. Para uso exclusivo de Nacional Monte de Piedad.
+ */
+package mx.com.nmp.ms.sivad.valuacion.conector.referencia;
+
+import com.codahale.metrics.Gauge;
+import com.codahale.metrics.MetricRegistry;
+import com.codahale.metrics.Timer;
+import mx.com.nmp.ms.sivad.valuacion.config.ClienteReferenciaProperties;
+import org.apache.cxf.frontend.ClientProxy;
+import org.apache.cxf.transport.http.HTTPConduit;
+import org.apache.cxf.transports.http.configuration.ConnectionType;
+import org.apache.cxf.transports.http.configuration.HTTPClientPolicy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import javax.xml.ws.WebServiceException;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Pool de puertos de un cliente JAX-WS hacia el Micro Servicio de Tablas de Referencia.
+ *
+ * Los puertos de CXF comparten su contexto de petición y su cadena de manejadores entre los hilos que los
+ * utilizan, por lo que cada invocación toma un puerto exclusivo del pool y lo devuelve al terminar. Los puertos se
+ * crean al construir el pool; {@link #configurarConducto(Object, ClienteReferenciaProperties)} les asigna los
+ * tiempos de espera y la política de conexión persistente. Mientras espera la respuesta, la invocación ocupa además
+ * un permiso de {@link LimiteConexiones} para la ruta del servicio.
+ *
+ * Se registran los indicadores {@code <nombre>.disponibles}, {@code <nombre>.enUso} y {@code <nombre>.espera}.
+ *
+ * @param <T> Tipo del puerto.
+ */
+public class PoolPuertos<T> implements InvocationHandler {
+
+    /**
+     * Utilizada para manipular los mensajes informativos y de error.
+     */
+    private static final Logger LOGGER = LoggerFactory.getLogger(PoolPuertos.class);
+
+    /**
+     * Interface que define el contrato para crear los puertos del pool.
+     *
+     * @param <T> Tipo del puerto.
+     */
+    public interface FabricaPuertos<T> {
+        /**
+         * Crea un puerto configurado con la dirección y los encabezados del servicio.
+         *
+         * @return El puerto.
+         */
+        T crear();
+    }
+
+    /**
+     * Nombre del pool, utilizado en los indicadores.
+     */
+    private final String nombre;
+
+    /**
+     * Ruta del servicio: su servidor y su puerto.
+     */
+    private final String ruta;
+
+    /**
+     * Límites de conexiones compartidos por los pools.
+     */
+    private final LimiteConexiones limiteConexiones;
+
+    /**
+     * Puertos disponibles.
+     */
+    private final BlockingQueue<T> disponibles;
+
+    /**
+     * Número de puertos del pool.
+     */
+    private final int tamano;
+
+    /**
+     * Milisegundos máximos de espera por un puerto disponible.
+     */
+    private final long esperaMaxima;
+
+    /**
+     * Tiempo de espera por un puerto disponible.
+     */
+    private final Timer espera;
+
+
+
+    // METODOS
+
+    /**
+     * Constructor.
+     *
+     * @param nombre Nombre del pool, utilizado en los indicadores.
+     * @param ruta Ruta del servicio, obtenida con {@link LimiteConexiones#ruta(java.net.URL)}.
+     * @param fabrica Fábrica de los puertos del pool.
+     * @param propiedades Propiedades del cliente.
+     * @param limiteConexiones Límites de conexiones compartidos por los pools.
+     * @param metricRegistry Registro de indicadores.
+     */
+    public PoolPuertos(String nombre, String ruta, FabricaPuertos<T> fabrica, ClienteReferenciaProperties propiedades,
+                       LimiteConexiones limiteConexiones, MetricRegistry metricRegistry) {
+        super();
+
+        this.nombre = nombre;
+        this.ruta = ruta;
+        this.limiteConexiones = limiteConexiones;
+        this.tamano = propiedades.getTamanoPool();
+        this.esperaMaxima = propiedades.getEsperaMaxima();
+        this.disponibles = new ArrayBlockingQueue<>(tamano);
+
+        for (int i = 0; i < tamano; i++) {
+            disponibles.add(fabrica.crear());
+        }
+
+        this.espera = metricRegistry.timer(MetricRegistry.name(PoolPuertos.class, nombre, "espera"));
+        registrar(metricRegistry, "disponibles", new Gauge<Integer>() {
+            @Override
+            public Integer getValue() {
+                return disponibles.size();
+            }
+        });
+        registrar(metricRegistry, "enUso", new Gauge<Integer>() {
+            @Override
+            public Integer getValue() {
+                return tamano - disponibles.size();
+            }
+        });
+
+        LOGGER.info("Pool de puertos [{}] creado con [{}] puertos", nombre, tamano);
+    }
+
+    /**
+     * Crea una fachada del puerto que atiende cada invocación con un puerto exclusivo del pool.
+     *
+     * @param tipo Interface del puerto.
+     * @return La fachada del puerto.
+     */
+    @SuppressWarnings("unchecked")
+    public T crearFachada(Class<T> tipo) {
+        return (T) Proxy.newProxyInstance(tipo.getClassLoader(), new Class<?>[] {tipo}, this);
+    }
+
+    /**
+     * Ejecuta la invocación con un puerto tomado del pool y un permiso de conexión de la ruta; ambos se devuelven al
+     * recibir la respuesta o la falla.
+     *
+     * {@inheritDoc}
+     */
+    @Override
+    public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+        if (method.getDeclaringClass() == Object.class) {
+            return method.invoke(this, args);
+        }
+
+        T puerto = tomar();
+
+        try {
+            limiteConexiones.adquirir(ruta, esperaMaxima);
+
+            try {
+                return method.invoke(puerto, args);
+            } finally {
+                limiteConexiones.liberar(ruta);
+            }
+        } catch (InvocationTargetException e) {
+            throw e.getCause();
+        } finally {
+            disponibles.offer(puerto);
+        }
+    }
+
+    /**
+     * Toma un puerto del pool, esperando a lo más el tiempo máximo configurado.
+     *
+     * @return El puerto.
+     */
+    private T tomar() {
+        Timer.Context contexto = espera.time();
+
+        try {
+            T puerto = disponibles.poll(esperaMaxima, TimeUnit.MILLISECONDS);
+
+            if (puerto == null) {
+                throw new WebServiceException("No hay puertos disponibles en el pool [" + nombre + "].");
+            }
+
+            return puerto;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new WebServiceException("Se interrumpió la espera de un puerto del pool [" + nombre + "].", e);
+        } finally {
+            contexto.stop();
+        }
+    }
+
+    /**
+     * Registra un indicador, reemplazando el de un pool previo con el mismo nombre.
+     *
+     * @param metricRegistry Registro de indicadores.
+     * @param indicador Nombre del indicador.
+     * @param gauge El indicador.
+     */
+    private void registrar(MetricRegistry metricRegistry, String indicador, Gauge<Integer> gauge) {
+        String id = MetricRegistry.name(PoolPuertos.class, nombre, indicador);
+        metricRegistry.remove(id);
+        metricRegistry.register(id, gauge);
+    }
+
+    /**
+     * Configura los tiempos de espera y la política de conexión del conducto HTTP de un puerto de CXF.
+     *
+     * @param puerto El puerto.
+     * @param propiedades Propiedades del cliente.
+     * @param <P> Tipo del puerto.
+     * @return El mismo puerto.
+     */
+    public static <P> P configurarConducto(P puerto, ClienteReferenciaProperties propiedades) {
+        HTTPClientPolicy politica = new HTTPClientPolicy();
+        politica.setConnectionTimeout(propiedades.getTiempoConexion());
+        politica.setReceiveTimeout(propiedades.getTiempoRespuesta());
+        politica.setConnection(propiedades.isKeepAlive() ? ConnectionType.KEEP_ALIVE : ConnectionType.CLOSE);
+
+        HTTPConduit conducto = (HTTPConduit) ClientProxy.getClient(puerto).getConduit();
+        conducto.setClient(politica);
+
+        return puerto;
+    }
+
+}
@@ -0,0 +1,451 @@
+/**
+ * Proyecto:        NMP - Microservicio de Motor de Valuación
+ * Quarksoft S.A.P.I. de C.V. – Todos los derechos reservados. Para uso exclusivo de Nacional Monte de Piedad.
+ */
+package mx.com.nmp.ms.sivad.valuacion.conector.referencia;
+
+import mx.com.nmp.ms.sivad.referencia.api.ws.ReferenciaAlhajaService;
+import mx.com.nmp.ms.sivad.referencia.api.ws.ReferenciaDiamanteService;
+import mx.com.nmp.ms.sivad.referencia.ws.alhajas.datatypes.ObtenerFactorRequest;
+import mx.com.nmp.ms.sivad.referencia.ws.alhajas.datatypes.ObtenerValorGramoMetalRequest;
+import mx.com.nmp.ms.sivad.referencia.ws.alhajas.datatypes.ObtenerValorGramoOroRequest;
+import mx.com.nmp.ms.sivad.referencia.ws.diamantes.datatypes.ObtenerModificadorRequest;
+import mx.com.nmp.ms.sivad.referencia.ws.diamantes.datatypes.ObtenerValorComercialRequest;
+import mx.com.nmp.ms.sivad.referencia.ws.diamantes.datatypes.ValorComercial;
+import mx.com.nmp.ms.sivad.valuacion.config.PrecargaReferenciaProperties;
+import mx.com.nmp.ms.sivad.valuacion.conector.consumidor.BigDecimalConsumidor;
+import mx.com.nmp.ms.sivad.valuacion.conector.consumidor.ValorComercialConsumidor;
+import mx.com.nmp.ms.sivad.valuacion.conector.provedor.CaracteristicasDiamanteProveedor;
+import mx.com.nmp.ms.sivad.valuacion.conector.provedor.CaracteristicasGramoOroProveedor;
+import mx.com.nmp.ms.sivad.valuacion.conector.provedor.CertificadoDiamanteProveedor;
+import mx.com.nmp.ms.sivad.valuacion.conector.provedor.MetalCalidadRangoProveedor;
+import mx.com.nmp.ms.sivad.valuacion.conector.referencia.alhaja.ReferenciaAlhajasConector;
+import mx.com.nmp.ms.sivad.valuacion.conector.referencia.alhaja.factory.ReferenciaAlhajaFactory;
+import mx.com.nmp.ms.sivad.valuacion.conector.referencia.diamante.ReferenciaDiamantesConector;
+import mx.com.nmp.ms.sivad.valuacion.conector.referencia.diamante.factory.ReferenciaDiamanteFactory;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import javax.inject.Inject;
+import java.math.BigDecimal;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+
+import static mx.com.nmp.ms.sivad.valuacion.conector.consumidor.ConsumidorFactory.crearBigDecimalConsumidor;
+import static mx.com.nmp.ms.sivad.valuacion.conector.consumidor.ConsumidorFactory.crearValorComercialConsumidor;
+
+/**
+ * Almacén en memoria de las tablas de referencia de alhajas y diamantes.
+ *
+ * Las tablas se cargan al iniciar la aplicación y se recargan periódicamente a partir del catálogo de llaves
+ * definido en {@link PrecargaReferenciaProperties}. Cada carga construye un nuevo juego de mapas inmutables que
+ * reemplaza al anterior de forma atómica, por lo que las consultas nunca observan una carga a medias. Las
+ * consultas de llaves que no fueron precargadas regresan {@code null} y el llamador recurre al servicio remoto.
+ *
+ * Los datos se obtienen de los beans {@link ReferenciaAlhajaService} y {@link ReferenciaDiamanteService} cuando
+ * existen en el contexto (por ejemplo, una implementación local de las tablas); en otro caso se utilizan los
+ * Servicios Web Referencia.
+ */
+@Component
+public class TablasDeReferenciaLocales {
+
+    /**
+     * Utilizada para manipular los mensajes informativos y de error.
+     */
+    private static final Logger LOGGER = LoggerFactory.getLogger(TablasDeReferenciaLocales.class);
+
+    /**
+     * Separador de los componentes de las llaves.
+     */
+    private static final char SEPARADOR = '|';
+
+    /**
+     * Propiedades de la precarga.
+     */
+    @Inject
+    private PrecargaReferenciaProperties propiedades;
+
+    /**
+     * Referencia al conector hacia el Servicio Web Referencia de Alhajas.
+     */
+    @Inject
+    private ReferenciaAlhajasConector referenciaAlhajasConector;
+
+    /**
+     * Referencia al conector hacia el Servicio Web Referencia de Diamantes.
+     */
+    @Inject
+    private ReferenciaDiamantesConector referenciaDiamantesConector;
+
+    /**
+     * Referencia a la fabrica de Tipos de Datos del Servicio Web Referencia de Alhajas.
+     */
+    @Inject
+    private ReferenciaAlhajaFactory referenciaAlhajaFactory;
+
+    /**
+     * Referencia a la fabrica de Tipos de Datos del Servicio Web Referencia de Diamantes.
+     */
+    @Inject
+    private ReferenciaDiamanteFactory referenciaDiamanteFactory;
+
+    /**
+     * Fuente local de las tablas de alhajas, opcional.
+     */
+    @Autowired(required = false)
+    private ReferenciaAlhajaService fuenteAlhajas;
+
+    /**
+     * Fuente local de las tablas de diamantes, opcional.
+     */
+    @Autowired(required = false)
+    private ReferenciaDiamanteService fuenteDiamantes;
+
+    /**
+     * Tablas vigentes.
+     */
+    private volatile Tablas tablas = new Tablas();
+
+    /**
+     * Juego inmutable de tablas de referencia indexadas por llave.
+     */
+    private static final class Tablas {
+        private final Map<String, BigDecimalConsumidor> valorGramoOro;
+        private final Map<String, BigDecimalConsumidor> factor;
+        private final Map<String, BigDecimalConsumidor> valorGramoMetal;
+        private final Map<String, BigDecimalConsumidor> modificador;
+        private final Map<String, ValorComercialConsumidor> valorComercial;
+
+        /**
+         * Constructor de un juego de tablas vacío.
+         */
+        private Tablas() {
+            this(new HashMap<String, BigDecimalConsumidor>(), new HashMap<String, BigDecimalConsumidor>(),
+                new HashMap<String, BigDecimalConsumidor>(), new HashMap<String, BigDecimalConsumidor>(),
+                new HashMap<String, ValorComercialConsumidor>());
+        }
+
+        /**
+         * Constructor.
+         */
+        private Tablas(Map<String, BigDecimalConsumidor> valorGramoOro, Map<String, BigDecimalConsumidor> factor,
+                       Map<String, BigDecimalConsumidor> valorGramoMetal, Map<String, BigDecimalConsumidor> modificador,
+                       Map<String, ValorComercialConsumidor> valorComercial) {
+            this.valorGramoOro = Collections.unmodifiableMap(valorGramoOro);
+            this.factor = Collections.unmodifiableMap(factor);
+            this.valorGramoMetal = Collections.unmodifiableMap(valorGramoMetal);
+            this.modificador = Collections.unmodifiableMap(modificador);
+            this.valorComercial = Collections.unmodifiableMap(valorComercial);
+        }
+
+        private int tamanio() {
+            return valorGramoOro.size() + factor.size() + valorGramoMetal.size() + modificador.size() +
+                valorComercial.size();
+        }
+    }
+
+
+
+    // METODOS
+
+    /**
+     * Constructor.
+     */
+    public TablasDeReferenciaLocales() {
+        super();
+    }
+
+    /**
+     * Precarga las tablas una vez que la aplicación está lista para atender peticiones.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void precargar() {
+        if (propiedades.isHabilitada()) {
+            cargar();
+        }
+    }
+
+    /**
+     * Recarga periódicamente las tablas de referencia.
+     */
+    @Scheduled(fixedDelayString = "${valuacion.referencia.precarga.intervalo:3600000}",
+        initialDelayString = "${valuacion.referencia.precarga.intervalo:3600000}")
+    public void recargar() {
+        if (propiedades.isHabilitada()) {
+            cargar();
+        }
+    }
+
+    /**
+     * Carga todas las tablas de referencia y reemplaza las vigentes. Las llaves cuya consulta falla se omiten y
+     * se resuelven posteriormente contra el servicio remoto.
+     */
+    public void cargar() {
+        LOGGER.info(">> cargar");
+        long inicio = System.currentTimeMillis();
+
+        ReferenciaAlhajaService alhajas = getFuenteAlhajas();
+        ReferenciaDiamanteService diamantes = getFuenteDiamantes();
+        PrecargaReferenciaProperties.Alhaja catalogoAlhaja = propiedades.getAlhaja();
+        PrecargaReferenciaProperties.Diamante catalogoDiamante = propiedades.getDiamante();
+
+        Map<String, BigDecimalConsumidor> valorGramoOro = new HashMap<>();
+        Map<String, BigDecimalConsumidor> factor = new HashMap<>();
+        Map<String, BigDecimalConsumidor> valorGramoMetal = new HashMap<>();
+        Map<String, BigDecimalConsumidor> modificador = new HashMap<>();
+        Map<String, ValorComercialConsumidor> valorComercial = new HashMap<>();
+
+        for (String calidad : catalogoAlhaja.getCalidades()) {
+            for (String color : catalogoAlhaja.getColores()) {
+                cargarValorGramoOro(alhajas, color, calidad, valorGramoOro);
+            }
+
+            for (String metal : catalogoAlhaja.getMetales()) {
+                cargarValorGramoMetal(alhajas, metal, calidad, valorGramoMetal);
+
+                for (String rango : catalogoAlhaja.getRangos()) {
+                    cargarFactor(alhajas, metal, calidad, rango, factor);
+                }
+            }
+        }
+
+        for (String certificado : catalogoDiamante.getCertificados()) {
+            cargarModificador(diamantes, certificado, modificador);
+        }
+
+        for (PrecargaReferenciaProperties.Caracteristicas caracteristicas : catalogoDiamante.getCaracteristicas()) {
+            cargarValorComercial(diamantes, caracteristicas, valorComercial);
+        }
+
+        tablas = new Tablas(valorGramoOro, factor, valorGramoMetal, modificador, valorComercial);
+
+        LOGGER.info("<< cargar. Registros: [{}], tiempo: [{}] ms", tablas.tamanio(),
+            System.currentTimeMillis() - inicio);
+    }
+
+    /**
+     * Recupera el valor por gramo de oro precargado.
+     *
+     * @param proveedor Objeto que contiene los criterios de consulta.
+     * @return El valor precargado o {@code null} si la llave no fue precargada.
+     */
+    public BigDecimalConsumidor obtenerValorGramoOro(CaracteristicasGramoOroProveedor proveedor) {
+        return tablas.valorGramoOro.get(llave(proveedor.getColor(), proveedor.getCalidad()));
+    }
+
+    /**
+     * Recupera el factor Metal-Calidad-Rango precargado.
+     *
+     * @param proveedor Objeto que contiene los criterios de consulta.
+     * @return El valor precargado o {@code null} si la llave no fue precargada.
+     */
+    public BigDecimalConsumidor obtenerFactor(MetalCalidadRangoProveedor proveedor) {
+        return tablas.factor.get(llave(proveedor.getMetal(), proveedor.getCalidad(), proveedor.getRango()));
+    }
+
+    /**
+     * Recupera el valor por gramo de metal precargado.
+     *
+     * @param proveedor Objeto que contiene los criterios de consulta.
+     * @return El valor precargado o {@code null} si la llave no fue precargada.
+     */
+    public BigDecimalConsumidor obtenerValorGramoMetal(MetalCalidadRangoProveedor proveedor) {
+        return tablas.valorGramoMetal.get(llave(proveedor.getMetal(), proveedor.getCalidad()));
+    }
+
+    /**
+     * Recupera el modificador por certificado precargado.
+     *
+     * @param proveedor Objeto que contiene los criterios de consulta.
+     * @return El valor precargado o {@code null} si la llave no fue precargada.
+     */
+    public BigDecimalConsumidor obtenerModificador(CertificadoDiamanteProveedor proveedor) {
+        return tablas.modificador.get(llave(proveedor.getCertificadoDiamante()));
+    }
+
+    /**
+     * Recupera el valor comercial del diamante precargado.
+     *
+     * @param proveedor Objeto que contiene los criterios de consulta.
+     * @return El valor precargado o {@code null} si la llave no fue precargada.
+     */
+    public ValorComercialConsumidor obtenerValorComercial(CaracteristicasDiamanteProveedor proveedor) {
+        return tablas.valorComercial.get(llave(proveedor));
+    }
+
+    /**
+     * Carga el valor por gramo de oro de la combinación indicada.
+     */
+    private void cargarValorGramoOro(ReferenciaAlhajaService fuente, final String color, final String calidad,
+                                     Map<String, BigDecimalConsumidor> destino) {
+        try {
+            ObtenerValorGramoOroRequest request = referenciaAlhajaFactory.crearObtenerValorGramoOroRequest(
+                new CaracteristicasGramoOroProveedor() {
+                    @Override
+                    public String getColor() {
+                        return color;
+                    }
+
+                    @Override
+                    public String getCalidad() {
+                        return calidad;
+                    }
+                });
+
+            destino.put(llave(color, calidad),
+                crearBigDecimalConsumidor(fuente.obtenerValorGramoOro(request).getPrecioPorGramo()));
+        } catch (Exception e) {
+            LOGGER.warn("No fue posible precargar el valor gramo oro [{}, {}]. {}", color, calidad, e.getMessage());
+        }
+    }
+
+    /**
+     * Carga el valor por gramo de metal de la combinación indicada.
+     */
+    private void cargarValorGramoMetal(ReferenciaAlhajaService fuente, String metal, String calidad,
+                                       Map<String, BigDecimalConsumidor> destino) {
+        try {
+            ObtenerValorGramoMetalRequest request = referenciaAlhajaFactory.crearObtenerValorGramoMetalRequest(
+                crearMetalCalidadRango(metal, calidad, null));
+
+            destino.put(llave(metal, calidad),
+                crearBigDecimalConsumidor(fuente.obtenerValorGramoMetal(request).getPrecioPorGramo()));
+        } catch (Exception e) {
+            LOGGER.warn("No fue posible precargar el valor gramo metal [{}, {}]. {}", metal, calidad, e.getMessage());
+        }
+    }
+
+    /**
+     * Carga el factor de la combinación Metal-Calidad-Rango indicada.
+     */
+    private void cargarFactor(ReferenciaAlhajaService fuente, String metal, String calidad, String rango,
+                              Map<String, BigDecimalConsumidor> destino) {
+        try {
+            ObtenerFactorRequest request = referenciaAlhajaFactory.crearObtenerFactorRequest(
+                crearMetalCalidadRango(metal, calidad, rango));
+
+            destino.put(llave(metal, calidad, rango),
+                crearBigDecimalConsumidor(fuente.obtenerFactor(request).getFactor()));
+        } catch (Exception e) {
+            LOGGER.warn("No fue posible precargar el factor [{}, {}, {}]. {}", metal, calidad, rango, e.getMessage());
+        }
+    }
+
+    /**
+     * Carga el modificador del certificado indicado.
+     */
+    private void cargarModificador(ReferenciaDiamanteService fuente, final String certificado,
+                                   Map<String, BigDecimalConsumidor> destino) {
+        try {
+            ObtenerModificadorRequest request = referenciaDiamanteFactory.crearObtenerModificadorRequest(
+                new CertificadoDiamanteProveedor() {
+                    @Override
+                    public String getCertificadoDiamante() {
+                        return certificado;
+                    }
+                });
+
+            destino.put(llave(certificado),
+                crearBigDecimalConsumidor(fuente.obtenerModificador(request).getFactor()));
+        } catch (Exception e) {
+            LOGGER.warn("No fue posible precargar el modificador [{}]. {}", certificado, e.getMessage());
+        }
+    }
+
+    /**
+     * Carga el valor comercial de las características de diamante indicadas.
+     */
+    private void cargarValorComercial(ReferenciaDiamanteService fuente, CaracteristicasDiamanteProveedor proveedor,
+                                      Map<String, ValorComercialConsumidor> destino) {
+        try {
+            ObtenerValorComercialRequest request =
+                referenciaDiamanteFactory.crearObtenerValorComercialRequest(proveedor);
+            ValorComercial vc = fuente.obtenerValorComercial(request).getValorComercial();
+
+            destino.put(llave(proveedor),
+                crearValorComercialConsumidor(vc.getValorMinimo(), vc.getValorMedio(), vc.getValorMaximo()));
+        } catch (Exception e) {
+            LOGGER.warn("No fue posible precargar el valor comercial [{}]. {}", proveedor, e.getMessage());
+        }
+    }
+
+    /**
+     * Crea un proveedor Metal-Calidad-Rango con los valores indicados.
+     */
+    private static MetalCalidadRangoProveedor crearMetalCalidadRango(final String metal, final String calidad,
+                                                                     final String rango) {
+        return new MetalCalidadRangoProveedor() {
+            @Override
+            public String getMetal() {
+                return metal;
+            }
+
+            @Override
+            public String getCalidad() {
+                return calidad;
+            }
+
+            @Override
+            public String getRango() {
+                return rango;
+            }
+        };
+    }
+
+    /**
+     * Construye la llave de las características de un diamante. Los quilates se normalizan para que valores
+     * numéricamente iguales con distinta escala compartan llave.
+     */
+    private static String llave(CaracteristicasDiamanteProveedor proveedor) {
+        return llave(proveedor.getCorte(), proveedor.getSubcorte(), proveedor.getColor(), proveedor.getClaridad(),
+            normalizar(proveedor.getQuilates()), normalizar(proveedor.getQuilatesDesde()),
+            normalizar(proveedor.getQuilatesHasta()));
+    }
+
+    /**
+     * Construye una llave a partir de sus componentes.
+     */
+    private static String llave(String... componentes) {
+        StringBuilder sb = new StringBuilder();
+
+        for (int i = 0; i < componentes.length; i++) {
+            if (i > 0) {
+                sb.append(SEPARADOR);
+            }
+
+            if (componentes[i] != null) {
+                sb.append(componentes[i]);
+            }
+        }
+
+        return sb.toString();
+    }
+
+    /**
+     * Representación normalizada de un valor decimal.
+     */
+    private static String normalizar(BigDecimal valor) {
+        return (valor == null) ? null : valor.stripTrailingZeros().toPlainString();
+    }
+
+    /**
+     * Recupera la fuente de las tablas de alhajas.
+     */
+    private ReferenciaAlhajaService getFuenteAlhajas() {
+        return (fuenteAlhajas != null) ? fuenteAlhajas : referenciaAlhajasConector.getWsReferenciaAlhaja();
+    }
+
+    /**
+     * Recupera la fuente de las tablas de diamantes.
+     */
+    private ReferenciaDiamanteService getFuenteDiamantes() {
+        return (fuenteDiamantes != null) ? fuenteDiamantes : referenciaDiamantesConector.getWsReferenciaDiamante();
+    }
+
+}
@@ -7,10 +7,14 @@
  */
 package mx.com.nmp.ms.sivad.valuacion.conector.referencia.alhaja;
 
+import com.codahale.metrics.MetricRegistry;
 import mx.com.nmp.ms.sivad.referencia.api.ws.ReferenciaAlhajaService;
 import mx.com.nmp.ms.sivad.referencia.api.ws.ReferenciaAlhajaServiceEndpointService;
 import mx.com.nmp.ms.sivad.referencia.api.ws.ReferenciaDiamanteService;
 import mx.com.nmp.ms.sivad.valuacion.conector.referencia.diamante.ReferenciaDiamantesConector;
+import mx.com.nmp.ms.sivad.valuacion.config.ClienteReferenciaProperties;
+import mx.com.nmp.ms.sivad.valuacion.conector.referencia.LimiteConexiones;
+import mx.com.nmp.ms.sivad.valuacion.conector.referencia.PoolPuertos;
 import mx.com.nmp.ms.sivad.valuacion.security.WSSecurityUtils;
 
 import org.slf4j.Logger;
@@ -19,6 +23,8 @@ import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
 import org.springframework.util.ObjectUtils;
 
+import javax.annotation.PostConstruct;
+import javax.inject.Inject;
 import java.net.MalformedURLException;
 import java.net.URL;
 
@@ -50,9 +56,27 @@ public class ReferenciaAlhajasConector {
     private String apiKey;
 
     /**
-     * Referencia hacia el Servicio Web Referencia de Alhajas.
+     * Propiedades del pool de puertos y de las conexiones HTTP.
      */
-    private ReferenciaAlhajaService wsReferenciaAlhaja;
+    @Inject
+    private ClienteReferenciaProperties clienteReferenciaProperties;
+
+    /**
+     * Límites de conexiones compartidos con el otro cliente.
+     */
+    @Inject
+    private LimiteConexiones limiteConexiones;
+
+    /**
+     * Registro de indicadores.
+     */
+    @Inject
+    private MetricRegistry metricRegistry;
+
+    /**
+     * Referencia hacia el Servicio Web Referencia de Alhajas; cada invocación utiliza un puerto del pool.
+     */
+    private volatile ReferenciaAlhajaService wsReferenciaAlhaja;
 
     /**
      * Constructor.
@@ -61,6 +85,18 @@ public class ReferenciaAlhajasConector {
         super();
     }
 
+    /**
+     * Crea el pool de puertos al iniciar la aplicación; si falla, se reintenta en la primera consulta.
+     */
+    @PostConstruct
+    public void init() {
+        try {
+            crearReferenciaAlhajaService();
+        } catch (RuntimeException e) {
+            LOGGER.warn("No fue posible crear la referencia al WS Referencia Alhajas. {}", e.getMessage());
+        }
+    }
+
     /**
      * Regresa la referencia hacia el Servicio Web Referencia de Alhajas.
      *
@@ -68,7 +104,11 @@ public class ReferenciaAlhajasConector {
      */
     public ReferenciaAlhajaService getWsReferenciaAlhaja() {
         if (ObjectUtils.isEmpty(wsReferenciaAlhaja)) {
-            crearReferenciaAlhajaService();
+            synchronized (this) {
+                if (ObjectUtils.isEmpty(wsReferenciaAlhaja)) {
+                    crearReferenciaAlhajaService();
+                }
+            }
         }
 
         LOGGER.info("Recuperando referencia al WS Referencia Alhajas.");
@@ -91,13 +131,23 @@ public class ReferenciaAlhajasConector {
             ep = new ReferenciaAlhajaServiceEndpointService(url);
         }
 
-        wsReferenciaAlhaja = (ReferenciaAlhajaService) WSSecurityUtils.createService(
-        	ep.getReferenciaAlhajaServiceEndpointPort(),
-    		getURL(),
-    		apiName,
-    		apiKey,
-    		"http://ws.api.referencia.sivad.ms.nmp.com.mx/"
-		);
+        final ReferenciaAlhajaServiceEndpointService servicio = ep;
+        PoolPuertos<ReferenciaAlhajaService> pool = new PoolPuertos<>("ReferenciaAlhajaService",
+            LimiteConexiones.ruta(getURL()),
+            new PoolPuertos.FabricaPuertos<ReferenciaAlhajaService>() {
+                @Override
+                public ReferenciaAlhajaService crear() {
+                    return PoolPuertos.configurarConducto(WSSecurityUtils.createService(
+                        servicio.getReferenciaAlhajaServiceEndpointPort(),
+                        getURL(),
+                        apiName,
+                        apiKey,
+                        "http://ws.api.referencia.sivad.ms.nmp.com.mx/"
+                    ), clienteReferenciaProperties);
+                }
+            }, clienteReferenciaProperties, limiteConexiones, metricRegistry);
+
+        wsReferenciaAlhaja = pool.crearFachada(ReferenciaAlhajaService.class);
     }
 
     /**
@@ -7,8 +7,12 @@
  */
 package mx.com.nmp.ms.sivad.valuacion.conector.referencia.diamante;
 
+import com.codahale.metrics.MetricRegistry;
 import mx.com.nmp.ms.sivad.referencia.api.ws.ReferenciaDiamanteService;
 import mx.com.nmp.ms.sivad.referencia.api.ws.ReferenciaDiamantesServiceEndpointService;
+import mx.com.nmp.ms.sivad.valuacion.config.ClienteReferenciaProperties;
+import mx.com.nmp.ms.sivad.valuacion.conector.referencia.LimiteConexiones;
+import mx.com.nmp.ms.sivad.valuacion.conector.referencia.PoolPuertos;
 import mx.com.nmp.ms.sivad.valuacion.security.WSSecurityUtils;
 
 import org.slf4j.Logger;
@@ -17,6 +21,8 @@ import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
 import org.springframework.util.ObjectUtils;
 
+import javax.annotation.PostConstruct;
+import javax.inject.Inject;
 import java.net.MalformedURLException;
 import java.net.URL;
 
@@ -48,9 +54,27 @@ public class ReferenciaDiamantesConector {
     private String apiKey;
 
     /**
-     * Referencia hacia el Servicio Web Referencia de Diamantes.
+     * Propiedades del pool de puertos y de las conexiones HTTP.
      */
-    private ReferenciaDiamanteService wsReferenciaDiamante;
+    @Inject
+    private ClienteReferenciaProperties clienteReferenciaProperties;
+
+    /**
+     * Límites de conexiones compartidos con el otro cliente.
+     */
+    @Inject
+    private LimiteConexiones limiteConexiones;
+
+    /**
+     * Registro de indicadores.
+     */
+    @Inject
+    private MetricRegistry metricRegistry;
+
+    /**
+     * Referencia hacia el Servicio Web Referencia de Diamantes; cada invocación utiliza un puerto del pool.
+     */
+    private volatile ReferenciaDiamanteService wsReferenciaDiamante;
 
     /**
      * Constructor.
@@ -59,6 +83,18 @@ public class ReferenciaDiamantesConector {
         super();
     }
 
+    /**
+     * Crea el pool de puertos al iniciar la aplicación; si falla, se reintenta en la primera consulta.
+     */
+    @PostConstruct
+    public void init() {
+        try {
+            crearReferenciaDiamanteService();
+        } catch (RuntimeException e) {
+            LOGGER.warn("No fue posible crear la referencia al WS Referencia Diamantes. {}", e.getMessage());
+        }
+    }
+
     /**
      * Regresa la referencia hacia el Servicio Web Referencia de Diamantes.
      *
@@ -66,7 +102,11 @@ public class ReferenciaDiamantesConector {
      */
     public ReferenciaDiamanteService getWsReferenciaDiamante() {
         if (ObjectUtils.isEmpty(wsReferenciaDiamante)) {
-            crearReferenciaDiamanteService();
+            synchronized (this) {
+                if (ObjectUtils.isEmpty(wsReferenciaDiamante)) {
+                    crearReferenciaDiamanteService();
+                }
+            }
         }
 
         LOGGER.info("Recuperando referencia al WS Referencia Diamantes.");
@@ -89,13 +129,23 @@ public class ReferenciaDiamantesConector {
             ep = new ReferenciaDiamantesServiceEndpointService(url);
         }
 
-        wsReferenciaDiamante = (ReferenciaDiamanteService) WSSecurityUtils.createService(
-        	ep.getReferenciaDiamantesServiceEndpointPort(),
-    		getURL(),
-    		apiName,
-    		apiKey,
-    		"http://ws.api.referencia.sivad.ms.nmp.com.mx/"
-		);
+        final ReferenciaDiamantesServiceEndpointService servicio = ep;
+        PoolPuertos<ReferenciaDiamanteService> pool = new PoolPuertos<>("ReferenciaDiamanteService",
+            LimiteConexiones.ruta(getURL()),
+            new PoolPuertos.FabricaPuertos<ReferenciaDiamanteService>() {
+                @Override
+                public ReferenciaDiamanteService crear() {
+                    return PoolPuertos.configurarConducto(WSSecurityUtils.createService(
+                        servicio.getReferenciaDiamantesServiceEndpointPort(),
+                        getURL(),
+                        apiName,
+                        apiKey,
+                        "http://ws.api.referencia.sivad.ms.nmp.com.mx/"
+                    ), clienteReferenciaProperties);
+                }
+            }, clienteReferenciaProperties, limiteConexiones, metricRegistry);
+
+        wsReferenciaDiamante = pool.crearFachada(ReferenciaDiamanteService.class);
     }
 
     /**
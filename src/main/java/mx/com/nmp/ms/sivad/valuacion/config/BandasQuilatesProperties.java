@@ -0,0 +1,60 @@
+/**
+ * Proyecto:        NMP - Microservicio de Motor de Valuación
+ * Quarksoft S.A.P.I. de C.V. – Todos los derechos reservados. Para uso exclusivo de Nacional Monte de Piedad.
+ */
+package mx.com.nmp.ms.sivad.valuacion.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Propiedades del índice de bandas de quilates del valor comercial de diamantes.
+ */
+@Configuration
+@ConfigurationProperties(prefix = "valuacion.referencia.bandas")
+public class BandasQuilatesProperties {
+
+    /**
+     * Indica si el índice está habilitado.
+     */
+    private boolean habilitado = false;
+
+    /**
+     * Milisegundos que una banda permanece vigente desde que se consultó.
+     */
+    private long vigencia = 3600000L;
+
+    /**
+     * Número máximo de bandas que se conservan.
+     */
+    private int maximoBandas = 5000;
+
+
+
+    // GETTERS Y SETTERS
+
+    public boolean isHabilitado() {
+        return habilitado;
+    }
+
+    public void setHabilitado(boolean habilitado) {
+        this.habilitado = habilitado;
+    }
+
+    public long getVigencia() {
+        return vigencia;
+    }
+
+    public void setVigencia(long vigencia) {
+        this.vigencia = vigencia;
+    }
+
+    public int getMaximoBandas() {
+        return maximoBandas;
+    }
+
+    public void setMaximoBandas(int maximoBandas) {
+        this.maximoBandas = maximoBandas;
+    }
+
+}
@@ -4,9 +4,14 @@ import com.codahale.metrics.MetricRegistry;
 import com.codahale.metrics.ehcache.InstrumentedEhcache;
 import mx.com.nmp.ms.arquetipo.config.CoreDatabaseConfiguration;
 import mx.com.nmp.ms.arquetipo.config.CoreMetricsConfiguration;
+import mx.com.nmp.ms.sivad.valuacion.conector.RecargadorReferencias;
+import mx.com.nmp.ms.sivad.valuacion.infrastructure.cache.RefrescoAnticipadoCache;
+import mx.com.nmp.ms.sivad.valuacion.infrastructure.cache.VersionReferencias;
+import mx.com.nmp.ms.sivad.valuacion.infrastructure.cache.VersionadoCache;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.boot.autoconfigure.AutoConfigureAfter;
+import org.springframework.cache.Cache;
 import org.springframework.cache.CacheManager;
 import org.springframework.cache.annotation.EnableCaching;
 import org.springframework.cache.ehcache.EhCacheCacheManager;
@@ -17,6 +22,8 @@ import javax.annotation.PreDestroy;
 import javax.inject.Inject;
 import javax.persistence.EntityManager;
 import javax.persistence.PersistenceContext;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.SortedSet;
 
 /**
@@ -32,17 +39,36 @@ public class CacheConfiguration {
 
     private static final Logger LOGGER = LoggerFactory.getLogger(CacheConfiguration.class);
 
+    /**
+     * Prefijo de los cachés de tablas de referencia.
+     */
+    private static final String PREFIJO_REFERENCIAS = "TablasDeReferencia";
+
     @PersistenceContext
     private EntityManager entityManager;
 
     @Inject
     private MetricRegistry metricRegistry;
 
+    @Inject
+    private RefrescoCacheProperties refrescoCacheProperties;
+
+    @Inject
+    private VersionReferencias versionReferencias;
+
+    @Inject
+    private RecargadorReferencias recargadorReferencias;
+
     private net.sf.ehcache.CacheManager cacheManager;
 
+    private final List<RefrescoAnticipadoCache> cachesRefresco = new ArrayList<>();
+
     @PreDestroy
     public void destroy() {
         LOGGER.info("Cerrando Administrador de Cache");
+        for (RefrescoAnticipadoCache cache : cachesRefresco) {
+            cache.detener();
+        }
 		SortedSet<String> names = metricRegistry.getNames();
         for (String name : names) {
             metricRegistry.remove(name);
@@ -62,8 +88,55 @@ public class CacheConfiguration {
                 cacheManager.replaceCacheWithDecoratedCache(cache, InstrumentedEhcache.instrument(metricRegistry, cache));
             }
         }
-        EhCacheCacheManager ehCacheManager = new EhCacheCacheManager();
+        EhCacheCacheManager ehCacheManager = new EhCacheCacheManager() {
+            @Override
+            protected Cache decorateCache(Cache cache) {
+                return decorarRefrescoAnticipado(decorarVersion(super.decorateCache(cache)));
+            }
+        };
         ehCacheManager.setCacheManager(cacheManager);
         return ehCacheManager;
     }
+
+    /**
+     * Decora los cachés de tablas de referencia para que sus cambios avancen la {@link VersionReferencias}.
+     *
+     * @param cache El caché.
+     * @return El caché decorado, o el mismo caché si no es de tablas de referencia.
+     */
+    private Cache decorarVersion(Cache cache) {
+        if (!cache.getName().startsWith(PREFIJO_REFERENCIAS)) {
+            return cache;
+        }
+
+        return new VersionadoCache(cache, versionReferencias);
+    }
+
+    /**
+     * Decora los cachés configurados para refrescar sus entradas antes de que expiren.
+     *
+     * @param cache El caché.
+     * @return El caché decorado, o el mismo caché si no tiene refresco anticipado configurado.
+     */
+    private Cache decorarRefrescoAnticipado(Cache cache) {
+        if (!refrescoCacheProperties.isHabilitado()) {
+            return cache;
+        }
+
+        for (RefrescoCacheProperties.Refresco refresco : refrescoCacheProperties.getCaches()) {
+            net.sf.ehcache.Ehcache nativo = (net.sf.ehcache.Ehcache) cache.getNativeCache();
+
+            if (refresco.getNombre().equals(cache.getName()) &&
+                nativo.getCacheConfiguration().getTimeToLiveSeconds() > 0) {
+                RefrescoAnticipadoCache decorado = new RefrescoAnticipadoCache(cache, recargadorReferencias,
+                    refresco.getFraccion(), refresco.getMaximoObsoleto(), refresco.getHilos(),
+                    refresco.getCapacidadCola(), metricRegistry);
+                cachesRefresco.add(decorado);
+
+                return decorado;
+            }
+        }
+
+        return cache;
+    }
 }
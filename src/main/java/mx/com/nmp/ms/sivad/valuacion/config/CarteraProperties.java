@@ -0,0 +1,113 @@
+/**
+ * Proyecto:        NMP - Microservicio de Motor de Valuación
+ * Quarksoft S.A.P.I. de C.V. – Todos los derechos reservados. Para uso exclusivo de Nacional Monte de Piedad.
+ */
+package mx.com.nmp.ms.sivad.valuacion.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Propiedades de la cartera de prendas valuadas y de su revaluación incremental.
+ */
+@Configuration
+@ConfigurationProperties(prefix = "valuacion.cartera")
+public class CarteraProperties {
+
+    /**
+     * Indica si se registran las prendas valuadas y se revalúan al cambiar los datos de referencia.
+     */
+    private boolean habilitada = false;
+
+    /**
+     * Milisegundos entre cada revaluación de los cambios acumulados.
+     */
+    private long intervalo = 60000L;
+
+    /**
+     * Milisegundos entre cada revaluación de toda la cartera.
+     */
+    private long intervaloRevaluacion = 3600000L;
+
+    /**
+     * Número de piezas o prendas que se revalúan y se actualizan en cada transacción.
+     */
+    private int tamanoPagina = 500;
+
+    /**
+     * Número máximo de prendas en espera de registrarse en la cartera.
+     */
+    private int capacidad = 10000;
+
+    /**
+     * Número máximo de prendas que se extraen de la cola en cada registro; cada una se registra en su propia
+     * transacción.
+     */
+    private int tamanoLote = 100;
+
+    /**
+     * Milisegundos máximos que una prenda espera a que se complete un lote antes de registrarse.
+     */
+    private long intervaloRegistro = 1000L;
+
+
+
+    // GETTERS Y SETTERS
+
+    public boolean isHabilitada() {
+        return habilitada;
+    }
+
+    public void setHabilitada(boolean habilitada) {
+        this.habilitada = habilitada;
+    }
+
+    public long getIntervalo() {
+        return intervalo;
+    }
+
+    public void setIntervalo(long intervalo) {
+        this.intervalo = intervalo;
+    }
+
+    public long getIntervaloRevaluacion() {
+        return intervaloRevaluacion;
+    }
+
+    public void setIntervaloRevaluacion(long intervaloRevaluacion) {
+        this.intervaloRevaluacion = intervaloRevaluacion;
+    }
+
+    public int getTamanoPagina() {
+        return tamanoPagina;
+    }
+
+    public void setTamanoPagina(int tamanoPagina) {
+        this.tamanoPagina = tamanoPagina;
+    }
+
+    public int getCapacidad() {
+        return capacidad;
+    }
+
+    public void setCapacidad(int capacidad) {
+        this.capacidad = capacidad;
+    }
+
+    public int getTamanoLote() {
+        return tamanoLote;
+    }
+
+    public void setTamanoLote(int tamanoLote) {
+        this.tamanoLote = tamanoLote;
+    }
+
+    public long getIntervaloRegistro() {
+        return intervaloRegistro;
+    }
+
+    public void setIntervaloRegistro(long intervaloRegistro) {
+        this.intervaloRegistro = intervaloRegistro;
+    }
+
+}
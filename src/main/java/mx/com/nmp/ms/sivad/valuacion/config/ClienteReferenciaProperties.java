@@ -0,0 +1,113 @@
+/**
+ * Proyecto:        NMP - Microservicio de Motor de Valuación
+ * Quarksoft S.A.P.I. de C.V. – Todos los derechos reservados. Para uso exclusivo de Nacional Monte de Piedad.
+ */
+package mx.com.nmp.ms.sivad.valuacion.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Propiedades de los clientes hacia el Micro Servicio de Tablas de Referencia: tamaño del pool de puertos,
+ * tiempos de espera y límites de conexiones HTTP.
+ */
+@Configuration
+@ConfigurationProperties(prefix = "valuacion.referencia.cliente")
+public class ClienteReferenciaProperties {
+
+    /**
+     * Número de puertos por cliente.
+     */
+    private int tamanoPool = 8;
+
+    /**
+     * Milisegundos máximos de espera por un puerto disponible.
+     */
+    private long esperaMaxima = 5000L;
+
+    /**
+     * Milisegundos máximos para establecer la conexión.
+     */
+    private long tiempoConexion = 2000L;
+
+    /**
+     * Milisegundos máximos de espera de la respuesta.
+     */
+    private long tiempoRespuesta = 10000L;
+
+    /**
+     * Indica si las conexiones HTTP se mantienen abiertas entre peticiones.
+     */
+    private boolean keepAlive = true;
+
+    /**
+     * Número máximo de conexiones simultáneas por servidor.
+     */
+    private int conexionesPorRuta = 20;
+
+    /**
+     * Número máximo de conexiones simultáneas totales.
+     */
+    private int conexionesTotales = 100;
+
+
+
+    // GETTERS Y SETTERS
+
+    public int getTamanoPool() {
+        return tamanoPool;
+    }
+
+    public void setTamanoPool(int tamanoPool) {
+        this.tamanoPool = tamanoPool;
+    }
+
+    public long getEsperaMaxima() {
+        return esperaMaxima;
+    }
+
+    public void setEsperaMaxima(long esperaMaxima) {
+        this.esperaMaxima = esperaMaxima;
+    }
+
+    public long getTiempoConexion() {
+        return tiempoConexion;
+    }
+
+    public void setTiempoConexion(long tiempoConexion) {
+        this.tiempoConexion = tiempoConexion;
+    }
+
+    public long getTiempoRespuesta() {
+        return tiempoRespuesta;
+    }
+
+    public void setTiempoRespuesta(long tiempoRespuesta) {
+        this.tiempoRespuesta = tiempoRespuesta;
+    }
+
+    public boolean isKeepAlive() {
+        return keepAlive;
+    }
+
+    public void setKeepAlive(boolean keepAlive) {
+        this.keepAlive = keepAlive;
+    }
+
+    public int getConexionesPorRuta() {
+        return conexionesPorRuta;
+    }
+
+    public void setConexionesPorRuta(int conexionesPorRuta) {
+        this.conexionesPorRuta = conexionesPorRuta;
+    }
+
+    public int getConexionesTotales() {
+        return conexionesTotales;
+    }
+
+    public void setConexionesTotales(int conexionesTotales) {
+        this.conexionesTotales = conexionesTotales;
+    }
+
+}
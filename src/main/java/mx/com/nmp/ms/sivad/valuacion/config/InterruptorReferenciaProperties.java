@@ -0,0 +1,113 @@
+/**
+ * Proyecto:        NMP - Microservicio de Motor de Valuación
+ * Quarksoft S.A.P.I. de C.V. – Todos los derechos reservados. Para uso exclusivo de Nacional Monte de Piedad.
+ */
+package mx.com.nmp.ms.sivad.valuacion.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Propiedades del interruptor de circuito y del límite de consultas concurrentes hacia el Micro Servicio de Tablas
+ * de Referencia.
+ */
+@Configuration
+@ConfigurationProperties(prefix = "valuacion.referencia.interruptor")
+public class InterruptorReferenciaProperties {
+
+    /**
+     * Indica si el interruptor está habilitado.
+     */
+    private boolean habilitado = false;
+
+    /**
+     * Número de fallas de comunicación consecutivas que abren el circuito.
+     */
+    private int umbralFallas = 5;
+
+    /**
+     * Milisegundos que el circuito permanece abierto antes de permitir una consulta de prueba.
+     */
+    private long tiempoAbierto = 30000L;
+
+    /**
+     * Número máximo de consultas concurrentes por operación.
+     */
+    private int maximoConcurrentes = 20;
+
+    /**
+     * Indica si, con el circuito abierto, se entrega el último valor conocido en lugar de fallar.
+     */
+    private boolean ultimoValor = true;
+
+    /**
+     * Edad máxima en milisegundos del último valor conocido que puede entregarse.
+     */
+    private long maximoObsoleto = 86400000L;
+
+    /**
+     * Número máximo de últimos valores conocidos que se conservan.
+     */
+    private int maximoValores = 10000;
+
+
+
+    // GETTERS Y SETTERS
+
+    public boolean isHabilitado() {
+        return habilitado;
+    }
+
+    public void setHabilitado(boolean habilitado) {
+        this.habilitado = habilitado;
+    }
+
+    public int getUmbralFallas() {
+        return umbralFallas;
+    }
+
+    public void setUmbralFallas(int umbralFallas) {
+        this.umbralFallas = umbralFallas;
+    }
+
+    public long getTiempoAbierto() {
+        return tiempoAbierto;
+    }
+
+    public void setTiempoAbierto(long tiempoAbierto) {
+        this.tiempoAbierto = tiempoAbierto;
+    }
+
+    public int getMaximoConcurrentes() {
+        return maximoConcurrentes;
+    }
+
+    public void setMaximoConcurrentes(int maximoConcurrentes) {
+        this.maximoConcurrentes = maximoConcurrentes;
+    }
+
+    public boolean isUltimoValor() {
+        return ultimoValor;
+    }
+
+    public void setUltimoValor(boolean ultimoValor) {
+        this.ultimoValor = ultimoValor;
+    }
+
+    public long getMaximoObsoleto() {
+        return maximoObsoleto;
+    }
+
+    public void setMaximoObsoleto(long maximoObsoleto) {
+        this.maximoObsoleto = maximoObsoleto;
+    }
+
+    public int getMaximoValores() {
+        return maximoValores;
+    }
+
+    public void setMaximoValores(int maximoValores) {
+        this.maximoValores = maximoValores;
+    }
+
+}
@@ -0,0 +1,47 @@
+/**
+ * Proyecto:        NMP - Microservicio de Motor de Valuación
+ * Quarksoft S.A.P.I. de C.V. – Todos los derechos reservados. Para uso exclusivo de Nacional Monte de Piedad.
+ */
+package mx.com.nmp.ms.sivad.valuacion.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Propiedades de la invalidación de cachés entre las instancias del servicio.
+ */
+@Configuration
+@ConfigurationProperties(prefix = "valuacion.cache.invalidacion")
+public class InvalidacionCacheProperties {
+
+    /**
+     * Indica si la invalidación entre instancias está habilitada.
+     */
+    private boolean habilitada = false;
+
+    /**
+     * Milisegundos entre cada consulta de las versiones de los recursos.
+     */
+    private long intervalo = 5000L;
+
+
+
+    // GETTERS Y SETTERS
+
+    public boolean isHabilitada() {
+        return habilitada;
+    }
+
+    public void setHabilitada(boolean habilitada) {
+        this.habilitada = habilitada;
+    }
+
+    public long getIntervalo() {
+        return intervalo;
+    }
+
+    public void setIntervalo(long intervalo) {
+        this.intervalo = intervalo;
+    }
+
+}
@@ -0,0 +1,100 @@
+/**
+ * Proyecto:        NMP - Microservicio de Motor de Valuación
+ * Quarksoft S.A.P.I. de C.V. – Todos los derechos reservados. Para uso exclusivo de Nacional Monte de Piedad.
+ */
+package mx.com.nmp.ms.sivad.valuacion.config;
+
+import mx.com.nmp.ms.sivad.valuacion.infrastructure.escritor.EscritorAsincrono.Politica;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Propiedades de la bitácora asíncrona de valuaciones.
+ */
+@Configuration
+@ConfigurationProperties(prefix = "valuacion.journal")
+public class JournalValuacionProperties {
+
+    /**
+     * Indica si se registran en la bitácora las valuaciones de prendas.
+     */
+    private boolean habilitado = false;
+
+    /**
+     * Número máximo de eventos en espera de ser escritos.
+     */
+    private int capacidad = 10000;
+
+    /**
+     * Número máximo de eventos escritos en una misma transacción.
+     */
+    private int tamanoLote = 200;
+
+    /**
+     * Milisegundos máximos que un evento espera a que se complete un lote antes de escribirse.
+     */
+    private long intervalo = 1000L;
+
+    /**
+     * Política aplicada cuando la cola está llena.
+     */
+    private Politica politica = Politica.DESCARTAR_NUEVO;
+
+    /**
+     * Milisegundos máximos de espera por espacio en la cola con la política {@link Politica#ESPERAR}.
+     */
+    private long esperaMaxima = 50L;
+
+
+
+    // GETTERS Y SETTERS
+
+    public boolean isHabilitado() {
+        return habilitado;
+    }
+
+    public void setHabilitado(boolean habilitado) {
+        this.habilitado = habilitado;
+    }
+
+    public int getCapacidad() {
+        return capacidad;
+    }
+
+    public void setCapacidad(int capacidad) {
+        this.capacidad = capacidad;
+    }
+
+    public int getTamanoLote() {
+        return tamanoLote;
+    }
+
+    public void setTamanoLote(int tamanoLote) {
+        this.tamanoLote = tamanoLote;
+    }
+
+    public long getIntervalo() {
+        return intervalo;
+    }
+
+    public void setIntervalo(long intervalo) {
+        this.intervalo = intervalo;
+    }
+
+    public Politica getPolitica() {
+        return politica;
+    }
+
+    public void setPolitica(Politica politica) {
+        this.politica = politica;
+    }
+
+    public long getEsperaMaxima() {
+        return esperaMaxima;
+    }
+
+    public void setEsperaMaxima(long esperaMaxima) {
+        this.esperaMaxima = esperaMaxima;
+    }
+
+}
@@ -0,0 +1,253 @@
+/**
+ * Proyecto:        NMP - Microservicio de Motor de Valuación
+ * Quarksoft S.A.P.I. de C.V. – Todos los derechos reservados. Para uso exclusivo de Nacional Monte de Piedad.
+ */
+package mx.com.nmp.ms.sivad.valuacion.config;
+
+import mx.com.nmp.ms.sivad.valuacion.conector.provedor.CaracteristicasDiamanteProveedor;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Propiedades de la precarga en memoria de las tablas de referencia.
+ *
+ * Los servicios de referencia sólo exponen consultas puntuales, por lo que el catálogo de llaves a precargar
+ * se define en la configuración: las combinaciones de alhajas se generan a partir de los valores configurados
+ * y las características de diamantes se listan de forma explícita.
+ */
+@Configuration
+@ConfigurationProperties(prefix = "valuacion.referencia.precarga")
+public class PrecargaReferenciaProperties {
+
+    /**
+     * Indica si las tablas de referencia se precargan en memoria.
+     */
+    private boolean habilitada = false;
+
+    /**
+     * Milisegundos entre cada recarga de las tablas de referencia.
+     */
+    private long intervalo = 3600000L;
+
+    /**
+     * Catálogo de llaves de las tablas de alhajas.
+     */
+    private final Alhaja alhaja = new Alhaja();
+
+    /**
+     * Catálogo de llaves de las tablas de diamantes.
+     */
+    private final Diamante diamante = new Diamante();
+
+    /**
+     * Catálogo de llaves de las tablas de alhajas.
+     */
+    public static class Alhaja {
+
+        /**
+         * Colores de oro.
+         */
+        private List<String> colores = new ArrayList<>();
+
+        /**
+         * Metales.
+         */
+        private List<String> metales = new ArrayList<>();
+
+        /**
+         * Calidades (kilataje) de oro y metales.
+         */
+        private List<String> calidades = new ArrayList<>();
+
+        /**
+         * Rangos.
+         */
+        private List<String> rangos = new ArrayList<>();
+
+        public List<String> getColores() {
+            return colores;
+        }
+
+        public void setColores(List<String> colores) {
+            this.colores = colores;
+        }
+
+        public List<String> getMetales() {
+            return metales;
+        }
+
+        public void setMetales(List<String> metales) {
+            this.metales = metales;
+        }
+
+        public List<String> getCalidades() {
+            return calidades;
+        }
+
+        public void setCalidades(List<String> calidades) {
+            this.calidades = calidades;
+        }
+
+        public List<String> getRangos() {
+            return rangos;
+        }
+
+        public void setRangos(List<String> rangos) {
+            this.rangos = rangos;
+        }
+    }
+
+    /**
+     * Catálogo de llaves de las tablas de diamantes.
+     */
+    public static class Diamante {
+
+        /**
+         * Tipos de certificado de diamante.
+         */
+        private List<String> certificados = new ArrayList<>();
+
+        /**
+         * Características de diamante cuyo valor comercial se precarga.
+         */
+        private List<Caracteristicas> caracteristicas = new ArrayList<>();
+
+        public List<String> getCertificados() {
+            return certificados;
+        }
+
+        public void setCertificados(List<String> certificados) {
+            this.certificados = certificados;
+        }
+
+        public List<Caracteristicas> getCaracteristicas() {
+            return caracteristicas;
+        }
+
+        public void setCaracteristicas(List<Caracteristicas> caracteristicas) {
+            this.caracteristicas = caracteristicas;
+        }
+    }
+
+    /**
+     * Características de un diamante cuyo valor comercial se precarga.
+     */
+    public static class Caracteristicas implements CaracteristicasDiamanteProveedor {
+        private String corte;
+        private String subcorte;
+        private String color;
+        private String claridad;
+        private BigDecimal quilates;
+        private BigDecimal quilatesDesde;
+        private BigDecimal quilatesHasta;
+
+        @Override
+        public String getCorte() {
+            return corte;
+        }
+
+        public void setCorte(String corte) {
+            this.corte = corte;
+        }
+
+        @Override
+        public String getSubcorte() {
+            return subcorte;
+        }
+
+        public void setSubcorte(String subcorte) {
+            this.subcorte = subcorte;
+        }
+
+        @Override
+        public String getColor() {
+            return color;
+        }
+
+        public void setColor(String color) {
+            this.color = color;
+        }
+
+        @Override
+        public String getClaridad() {
+            return claridad;
+        }
+
+        public void setClaridad(String claridad) {
+            this.claridad = claridad;
+        }
+
+        @Override
+        public BigDecimal getQuilates() {
+            return quilates;
+        }
+
+        public void setQuilates(BigDecimal quilates) {
+            this.quilates = quilates;
+        }
+
+        @Override
+        public BigDecimal getQuilatesDesde() {
+            return quilatesDesde;
+        }
+
+        public void setQuilatesDesde(BigDecimal quilatesDesde) {
+            this.quilatesDesde = quilatesDesde;
+        }
+
+        @Override
+        public BigDecimal getQuilatesHasta() {
+            return quilatesHasta;
+        }
+
+        public void setQuilatesHasta(BigDecimal quilatesHasta) {
+            this.quilatesHasta = quilatesHasta;
+        }
+
+        @Override
+        public String toString() {
+            return "Caracteristicas{" +
+                "corte='" + corte + '\'' +
+                ", subcorte='" + subcorte + '\'' +
+                ", color='" + color + '\'' +
+                ", claridad='" + claridad + '\'' +
+                ", quilates=" + quilates +
+                ", quilatesDesde=" + quilatesDesde +
+                ", quilatesHasta=" + quilatesHasta +
+                '}';
+        }
+    }
+
+
+
+    // GETTERS Y SETTERS
+
+    public boolean isHabilitada() {
+        return habilitada;
+    }
+
+    public void setHabilitada(boolean habilitada) {
+        this.habilitada = habilitada;
+    }
+
+    public long getIntervalo() {
+        return intervalo;
+    }
+
+    public void setIntervalo(long intervalo) {
+        this.intervalo = intervalo;
+    }
+
+    public Alhaja getAlhaja() {
+        return alhaja;
+    }
+
+    public Diamante getDiamante() {
+        return diamante;
+    }
+
+}
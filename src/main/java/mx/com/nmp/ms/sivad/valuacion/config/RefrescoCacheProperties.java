@@ -0,0 +1,121 @@
+/**
+ * Proyecto:        NMP - Microservicio de Motor de Valuación
+ * Quarksoft S.A.P.I. de C.V. – Todos los derechos reservados. Para uso exclusivo de Nacional Monte de Piedad.
+ */
+package mx.com.nmp.ms.sivad.valuacion.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Propiedades del refresco anticipado de los cachés de tablas de referencia.
+ */
+@Configuration
+@ConfigurationProperties(prefix = "valuacion.cache.refresco")
+public class RefrescoCacheProperties {
+
+    /**
+     * Indica si el refresco anticipado está habilitado.
+     */
+    private boolean habilitado = false;
+
+    /**
+     * Configuración de refresco por caché.
+     */
+    private List<Refresco> caches = new ArrayList<>();
+
+    /**
+     * Configuración de refresco de un caché.
+     */
+    public static class Refresco {
+
+        /**
+         * Nombre del caché, tal como aparece en ehcache.xml.
+         */
+        private String nombre;
+
+        /**
+         * Fracción del tiempo de vida a partir de la cual se refresca una entrada.
+         */
+        private double fraccion = 0.75D;
+
+        /**
+         * Edad máxima en segundos con la que una entrada puede entregarse. Cero equivale al tiempo de vida.
+         */
+        private long maximoObsoleto = 0L;
+
+        /**
+         * Número de refrescos concurrentes.
+         */
+        private int hilos = 1;
+
+        /**
+         * Número máximo de refrescos en espera.
+         */
+        private int capacidadCola = 100;
+
+        public String getNombre() {
+            return nombre;
+        }
+
+        public void setNombre(String nombre) {
+            this.nombre = nombre;
+        }
+
+        public double getFraccion() {
+            return fraccion;
+        }
+
+        public void setFraccion(double fraccion) {
+            this.fraccion = fraccion;
+        }
+
+        public long getMaximoObsoleto() {
+            return maximoObsoleto;
+        }
+
+        public void setMaximoObsoleto(long maximoObsoleto) {
+            this.maximoObsoleto = maximoObsoleto;
+        }
+
+        public int getHilos() {
+            return hilos;
+        }
+
+        public void setHilos(int hilos) {
+            this.hilos = hilos;
+        }
+
+        public int getCapacidadCola() {
+            return capacidadCola;
+        }
+
+        public void setCapacidadCola(int capacidadCola) {
+            this.capacidadCola = capacidadCola;
+        }
+    }
+
+
+
+    // GETTERS Y SETTERS
+
+    public boolean isHabilitado() {
+        return habilitado;
+    }
+
+    public void setHabilitado(boolean habilitado) {
+        this.habilitado = habilitado;
+    }
+
+    public List<Refresco> getCaches() {
+        return caches;
+    }
+
+    public void setCaches(List<Refresco> caches) {
+        this.caches = caches;
+    }
+
+}
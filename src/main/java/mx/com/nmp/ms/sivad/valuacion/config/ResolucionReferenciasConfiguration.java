@@ -0,0 +1,88 @@
+/**
+ * Proyecto:        NMP - Microservicio de Motor de Valuación
+ * Quarksoft S.A.P.I. de C.V. – Todos los derechos reservados. Para uso exclusivo de Nacional Monte de Piedad.
+ */
+package mx.com.nmp.ms.sivad.valuacion.config;
+
+import mx.com.nmp.ms.sivad.valuacion.dominio.modelo.ResolucionReferencias;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+import java.util.concurrent.ThreadPoolExecutor;
+
+/**
+ * Configuración del pool de hilos utilizado para resolver concurrentemente las consultas a tablas de referencia
+ * de las piezas de una prenda, antes de valuarla, y del tiempo máximo de espera de sus resultados.
+ */
+@Configuration
+public class ResolucionReferenciasConfiguration {
+
+    /**
+     * Nombre del bean del pool de hilos para la resolución de referencias.
+     */
+    public static final String RESOLUCION_REFERENCIAS_EXECUTOR = "resolucionReferenciasExecutor";
+
+    /**
+     * Utilizada para manipular los mensajes informativos y de error.
+     */
+    private static final Logger LOGGER = LoggerFactory.getLogger(ResolucionReferenciasConfiguration.class);
+
+    /**
+     * Número de consultas a tablas de referencia ejecutadas de forma concurrente.
+     */
+    @Value("${valuacion.referencia.resolucion.hilos:16}")
+    private int hilos;
+
+    /**
+     * Número máximo de consultas en espera de ser ejecutadas.
+     */
+    @Value("${valuacion.referencia.resolucion.capacidadCola:1000}")
+    private int capacidadCola;
+
+
+
+    // METODOS
+
+    /**
+     * Pool de hilos acotado para las consultas a tablas de referencia. Cuando la cola se llena, la consulta se
+     * ejecuta en el hilo que valúa la prenda.
+     *
+     * @return El pool de hilos.
+     */
+    @Bean(name = RESOLUCION_REFERENCIAS_EXECUTOR)
+    public ThreadPoolTaskExecutor resolucionReferenciasExecutor() {
+        LOGGER.info("Creando pool de resolucion de referencias. Hilos: [{}], capacidad de cola: [{}]",
+            hilos, capacidadCola);
+
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(hilos);
+        executor.setMaxPoolSize(hilos);
+        executor.setQueueCapacity(capacidadCola);
+        executor.setThreadNamePrefix("resolucion-referencias-");
+        executor.setRejectedExecutionHandler(new ThreadPoolExecutor.CallerRunsPolicy());
+        executor.setWaitForTasksToCompleteOnShutdown(false);
+
+        return executor;
+    }
+
+    /**
+     * Parámetros de la resolución concurrente de las consultas. El tiempo máximo de espera de los resultados es el
+     * de una consulta a través del conector: la espera por un puerto disponible, la conexión y la respuesta.
+     *
+     * @param clienteReferenciaProperties Propiedades de los clientes hacia las tablas de referencia.
+     * @return Los parámetros de la resolución de referencias.
+     */
+    @Bean
+    public ResolucionReferencias resolucionReferencias(ClienteReferenciaProperties clienteReferenciaProperties) {
+        long tiempoMaximo = clienteReferenciaProperties.getEsperaMaxima()
+            + clienteReferenciaProperties.getTiempoConexion() + clienteReferenciaProperties.getTiempoRespuesta();
+        LOGGER.info("Tiempo maximo de espera de las consultas a tablas de referencia: [{}] ms", tiempoMaximo);
+
+        return new ResolucionReferencias(resolucionReferenciasExecutor(), tiempoMaximo);
+    }
+
+}
@@ -0,0 +1,60 @@
+/**
+ * Proyecto:        NMP - Microservicio de Motor de Valuación
+ * Quarksoft S.A.P.I. de C.V. – Todos los derechos reservados. Para uso exclusivo de Nacional Monte de Piedad.
+ */
+package mx.com.nmp.ms.sivad.valuacion.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Propiedades de la memoria de respuestas de valuación de prendas.
+ */
+@Configuration
+@ConfigurationProperties(prefix = "valuacion.respuestas")
+public class RespuestasValuacionProperties {
+
+    /**
+     * Indica si la memoria de respuestas está habilitada.
+     */
+    private boolean habilitada = false;
+
+    /**
+     * Milisegundos que una respuesta permanece vigente desde que se calculó.
+     */
+    private long vigencia = 600000L;
+
+    /**
+     * Número máximo de respuestas que se conservan.
+     */
+    private int maximoEntradas = 1000;
+
+
+
+    // GETTERS Y SETTERS
+
+    public boolean isHabilitada() {
+        return habilitada;
+    }
+
+    public void setHabilitada(boolean habilitada) {
+        this.habilitada = habilitada;
+    }
+
+    public long getVigencia() {
+        return vigencia;
+    }
+
+    public void setVigencia(long vigencia) {
+        this.vigencia = vigencia;
+    }
+
+    public int getMaximoEntradas() {
+        return maximoEntradas;
+    }
+
+    public void setMaximoEntradas(int maximoEntradas) {
+        this.maximoEntradas = maximoEntradas;
+    }
+
+}
@@ -0,0 +1,69 @@
+/**
+ * Proyecto:        NMP - Microservicio de Motor de Valuación
+ * Quarksoft S.A.P.I. de C.V. – Todos los derechos reservados. Para uso exclusivo de Nacional Monte de Piedad.
+ */
+package mx.com.nmp.ms.sivad.valuacion.config;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+import java.util.concurrent.ThreadPoolExecutor;
+
+/**
+ * Configuración del pool de hilos utilizado para valuar concurrentemente las prendas de un lote.
+ */
+@Configuration
+public class ValuacionLoteConfiguration {
+
+    /**
+     * Nombre del bean del pool de hilos para la valuación de lotes.
+     */
+    public static final String VALUACION_LOTE_EXECUTOR = "valuacionLoteExecutor";
+
+    /**
+     * Utilizada para manipular los mensajes informativos y de error.
+     */
+    private static final Logger LOGGER = LoggerFactory.getLogger(ValuacionLoteConfiguration.class);
+
+    /**
+     * Número de hilos que valúan prendas de forma concurrente.
+     */
+    @Value("${valuacion.lote.hilos:8}")
+    private int hilos;
+
+    /**
+     * Número máximo de prendas en espera de ser valuadas.
+     */
+    @Value("${valuacion.lote.capacidadCola:500}")
+    private int capacidadCola;
+
+
+
+    // METODOS
+
+    /**
+     * Pool de hilos acotado para la valuación de lotes de prendas. Cuando la cola se llena, la prenda se valúa
+     * en el hilo que atiende la petición, lo que regula la carga sin rechazar prendas.
+     *
+     * @return El pool de hilos.
+     */
+    @Bean(name = VALUACION_LOTE_EXECUTOR)
+    public ThreadPoolTaskExecutor valuacionLoteExecutor() {
+        LOGGER.info("Creando pool de valuacion de lotes. Hilos: [{}], capacidad de cola: [{}]", hilos, capacidadCola);
+
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(hilos);
+        executor.setMaxPoolSize(hilos);
+        executor.setQueueCapacity(capacidadCola);
+        executor.setThreadNamePrefix("valuacion-lote-");
+        executor.setRejectedExecutionHandler(new ThreadPoolExecutor.CallerRunsPolicy());
+        executor.setWaitForTasksToCompleteOnShutdown(false);
+
+        return executor;
+    }
+
+}
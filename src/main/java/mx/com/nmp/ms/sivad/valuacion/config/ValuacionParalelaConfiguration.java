@@ -0,0 +1,93 @@
+/**
+ * Proyecto:        NMP - Microservicio de Motor de Valuación
+ * Quarksoft S.A.P.I. de C.V. – Todos los derechos reservados. Para uso exclusivo de Nacional Monte de Piedad.
+ */
+package mx.com.nmp.ms.sivad.valuacion.config;
+
+import mx.com.nmp.ms.sivad.valuacion.dominio.modelo.ValuacionParalela;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import javax.annotation.PreDestroy;
+import java.util.concurrent.ForkJoinPool;
+
+/**
+ * Configuración de la valuación paralela de las piezas de prendas grandes (lotes de alhajas, paquetes de piedras
+ * sueltas) en un pool fork-join compartido y acotado.
+ */
+@Configuration
+public class ValuacionParalelaConfiguration {
+
+    /**
+     * Utilizada para manipular los mensajes informativos y de error.
+     */
+    private static final Logger LOGGER = LoggerFactory.getLogger(ValuacionParalelaConfiguration.class);
+
+    /**
+     * Indica si la valuación paralela está habilitada.
+     */
+    @Value("${valuacion.paralela.habilitada:false}")
+    private boolean habilitada;
+
+    /**
+     * Número de hilos del pool, 0 para utilizar el número de procesadores.
+     */
+    @Value("${valuacion.paralela.hilos:0}")
+    private int hilos;
+
+    /**
+     * Número mínimo de piezas distintas de una prenda para valuarlas en paralelo.
+     */
+    @Value("${valuacion.paralela.umbral:64}")
+    private int umbral;
+
+    /**
+     * Número máximo de grupos de piezas idénticas que valúa secuencialmente cada tarea.
+     */
+    @Value("${valuacion.paralela.gruposPorTarea:16}")
+    private int gruposPorTarea;
+
+    /**
+     * Pool fork-join de la valuación paralela.
+     */
+    private ForkJoinPool pool;
+
+
+
+    // METODOS
+
+    /**
+     * Parámetros de la valuación paralela. Si está deshabilitada las piezas se valúan en el hilo de la petición.
+     *
+     * @return Los parámetros de la valuación paralela.
+     */
+    @Bean
+    public ValuacionParalela valuacionParalela() {
+        if (!habilitada) {
+            LOGGER.info("Valuacion paralela de piezas deshabilitada");
+            return ValuacionParalela.DESHABILITADA;
+        }
+
+        int paralelismo = (hilos > 0) ? hilos : Runtime.getRuntime().availableProcessors();
+        LOGGER.info("Creando pool de valuacion paralela. Hilos: [{}], umbral: [{}], grupos por tarea: [{}]",
+            paralelismo, umbral, gruposPorTarea);
+
+        pool = new ForkJoinPool(paralelismo);
+
+        return new ValuacionParalela(pool, umbral, gruposPorTarea);
+    }
+
+    /**
+     * Detiene el pool al terminar la aplicación.
+     */
+    @PreDestroy
+    public void detener() {
+        if (pool != null) {
+            pool.shutdown();
+        }
+    }
+
+}
@@ -13,7 +13,7 @@ import mx.com.nmp.ms.sivad.valuacion.infrastructure.factory.ConstructorUtil;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
-import java.lang.reflect.Constructor;
+import java.lang.invoke.MethodHandle;
 import java.math.BigDecimal;
 
 /**
@@ -24,12 +24,8 @@ import java.math.BigDecimal;
 public class AvaluoFactory {
     private static final Logger LOGGER = LoggerFactory.getLogger(AvaluoFactory.class);
 
-    private static final Constructor<Avaluo> constructor;
-
-    static {
-        constructor = ConstructorUtil
-            .getConstructor(Avaluo.class, BigDecimal.class, BigDecimal.class, BigDecimal.class);
-    }
+    private static final MethodHandle CONSTRUCTOR =
+        ConstructorUtil.getConstructor(Avaluo.class, BigDecimal.class, BigDecimal.class, BigDecimal.class);
 
     /**
      * Constructor. Privado ya que no debe haber instancias.
@@ -56,6 +52,6 @@ public class AvaluoFactory {
 
         LOGGER.info("Creado avaluo con Avaluo({}, {}, {})", valorMinimo, valorPromedio, valorMaximo);
 
-        return ConstructorUtil.getInstancia(constructor, valorMinimo, valorPromedio, valorMaximo);
+        return ConstructorUtil.getInstancia(CONSTRUCTOR, valorMinimo, valorPromedio, valorMaximo);
     }
 }
@@ -0,0 +1,200 @@
+/**
+ * Proyecto:        NMP - Microservicio de Motor de Valuación
+ * Quarksoft S.A.P.I. de C.V. – Todos los derechos reservados. Para uso exclusivo de Nacional Monte de Piedad.
+ */
+package mx.com.nmp.ms.sivad.valuacion.dominio.modelo;
+
+import mx.com.nmp.ms.sivad.valuacion.dominio.factory.AvaluoFactory;
+import mx.com.nmp.ms.sivad.valuacion.dominio.modelo.vo.Avaluo;
+import mx.com.nmp.ms.sivad.valuacion.infrastructure.estrategia.RedondeoEstrategiaUtil;
+
+import java.math.BigDecimal;
+
+/**
+ * Acumulador mutable de los valores mínimo, promedio y máximo de un avalúo, utilizado por {@link Prenda} y por
+ * {@link AvaluosPorTipo} para sumar los avalúos por tipo de pieza y aplicar los factores de castigo y de condición
+ * física sin crear un {@link Avaluo} por cada operación. Sólo el resultado final se convierte en {@link Avaluo}.
+ *
+ * Los valores se redondean en los mismos puntos en que se leen de un {@link Avaluo}, por lo que el resultado es
+ * idéntico al de operar con avalúos intermedios. No es seguro para uso concurrente.
+ */
+final class AcumuladorAvaluo {
+
+    /**
+     * Valor mínimo acumulado.
+     */
+    private BigDecimal valorMinimo = BigDecimal.ZERO;
+
+    /**
+     * Valor promedio acumulado.
+     */
+    private BigDecimal valorPromedio = BigDecimal.ZERO;
+
+    /**
+     * Valor máximo acumulado.
+     */
+    private BigDecimal valorMaximo = BigDecimal.ZERO;
+
+    /**
+     * Indica si aún no se ha acumulado ningún valor.
+     */
+    private boolean vacio = true;
+
+
+
+    // METODOS
+
+    /**
+     * Constructor.
+     */
+    AcumuladorAvaluo() {
+        super();
+    }
+
+    /**
+     * Suma los valores de un avalúo.
+     *
+     * @param avaluo El avalúo.
+     */
+    void sumar(Avaluo avaluo) {
+        valorMinimo = valorMinimo.add(avaluo.valorMinimo());
+        valorPromedio = valorPromedio.add(avaluo.valorPromedio());
+        valorMaximo = valorMaximo.add(avaluo.valorMaximo());
+        vacio = false;
+    }
+
+    /**
+     * Resta los valores de un avalúo previamente sumado.
+     *
+     * @param avaluo El avalúo.
+     */
+    void restar(Avaluo avaluo) {
+        valorMinimo = valorMinimo.subtract(avaluo.valorMinimo());
+        valorPromedio = valorPromedio.subtract(avaluo.valorPromedio());
+        valorMaximo = valorMaximo.subtract(avaluo.valorMaximo());
+    }
+
+    /**
+     * Suma los valores de un avalúo el número de veces indicado, con el mismo resultado que sumarlo ese número de
+     * veces.
+     *
+     * @param avaluo El avalúo.
+     * @param veces Número de veces que se suma.
+     */
+    void sumar(Avaluo avaluo, int veces) {
+        if (veces == 1) {
+            sumar(avaluo);
+            return;
+        }
+
+        BigDecimal multiplicador = BigDecimal.valueOf(veces);
+
+        valorMinimo = valorMinimo.add(avaluo.valorMinimo().multiply(multiplicador));
+        valorPromedio = valorPromedio.add(avaluo.valorPromedio().multiply(multiplicador));
+        valorMaximo = valorMaximo.add(avaluo.valorMaximo().multiply(multiplicador));
+        vacio = false;
+    }
+
+    /**
+     * Combina los valores de otro acumulado del mismo nivel, sin redondearlos. Se utiliza para unir los acumulados
+     * de la valuación paralela; al ser exacta, la combinación es asociativa y conmutativa.
+     *
+     * @param acumulado El acumulado.
+     */
+    void combinar(AcumuladorAvaluo acumulado) {
+        if (acumulado.vacio) {
+            return;
+        }
+
+        valorMinimo = valorMinimo.add(acumulado.valorMinimo);
+        valorPromedio = valorPromedio.add(acumulado.valorPromedio);
+        valorMaximo = valorMaximo.add(acumulado.valorMaximo);
+        vacio = false;
+    }
+
+    /**
+     * Suma los valores de otro acumulado.
+     *
+     * @param acumulado El acumulado.
+     */
+    void sumar(AcumuladorAvaluo acumulado) {
+        valorMinimo = valorMinimo.add(redondear(acumulado.valorMinimo));
+        valorPromedio = valorPromedio.add(redondear(acumulado.valorPromedio));
+        valorMaximo = valorMaximo.add(redondear(acumulado.valorMaximo));
+        vacio = false;
+    }
+
+    /**
+     * Suma los valores de otro acumulado multiplicados por un factor.
+     *
+     * @param acumulado El acumulado.
+     * @param factor El factor.
+     */
+    void sumar(AcumuladorAvaluo acumulado, BigDecimal factor) {
+        valorMinimo = valorMinimo.add(redondear(redondear(acumulado.valorMinimo).multiply(factor)));
+        valorPromedio = valorPromedio.add(redondear(redondear(acumulado.valorPromedio).multiply(factor)));
+        valorMaximo = valorMaximo.add(redondear(redondear(acumulado.valorMaximo).multiply(factor)));
+        vacio = false;
+    }
+
+    /**
+     * Multiplica los valores acumulados por un factor.
+     *
+     * @param factor El factor.
+     */
+    void multiplicar(BigDecimal factor) {
+        valorMinimo = redondear(valorMinimo).multiply(factor);
+        valorPromedio = redondear(valorPromedio).multiply(factor);
+        valorMaximo = redondear(valorMaximo).multiply(factor);
+    }
+
+    /**
+     * Crea el avalúo con los valores acumulados.
+     *
+     * @return El avalúo, o {@code null} si no se acumuló ningún valor.
+     */
+    Avaluo crearAvaluo() {
+        if (vacio) {
+            return null;
+        }
+
+        return AvaluoFactory.crearCon(valorMinimo, valorPromedio, valorMaximo);
+    }
+
+    /**
+     * Redondea un valor según la estrategia de redondeo de {@link Avaluo}.
+     */
+    private static BigDecimal redondear(BigDecimal valor) {
+        return RedondeoEstrategiaUtil.get().redondear(valor);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public String toString() {
+        return String.format("AcumuladorAvaluo{valorMinimo=%s, valorPromedio=%s, valorMaximo=%s}",
+            valorMinimo, valorPromedio, valorMaximo);
+    }
+
+
+
+    // GETTERS
+
+    boolean isVacio() {
+        return vacio;
+    }
+
+    BigDecimal getValorMinimo() {
+        return valorMinimo;
+    }
+
+    BigDecimal getValorPromedio() {
+        return valorPromedio;
+    }
+
+    BigDecimal getValorMaximo() {
+        return valorMaximo;
+    }
+
+}
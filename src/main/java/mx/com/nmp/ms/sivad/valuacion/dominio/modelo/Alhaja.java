@@ -8,16 +8,22 @@
 package mx.com.nmp.ms.sivad.valuacion.dominio.modelo;
 
 import mx.com.nmp.ms.sivad.valuacion.conector.TablasDeReferenciaAlhajas;
+import mx.com.nmp.ms.sivad.valuacion.conector.consumidor.BigDecimalConsumidor;
+import mx.com.nmp.ms.sivad.valuacion.conector.llave.LlaveReferencia;
 import mx.com.nmp.ms.sivad.valuacion.conector.provedor.CaracteristicasGramoOroProveedor;
 import mx.com.nmp.ms.sivad.valuacion.conector.provedor.MetalCalidadRangoProveedor;
 import mx.com.nmp.ms.sivad.valuacion.dominio.factory.AvaluoFactory;
 import mx.com.nmp.ms.sivad.valuacion.dominio.modelo.vo.Avaluo;
 import mx.com.nmp.ms.sivad.valuacion.dominio.modelo.vo.ValorExperto;
+import mx.com.nmp.ms.sivad.valuacion.infrastructure.estrategia.PrecisionIntermediaUtil;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.util.ObjectUtils;
 
 import java.math.BigDecimal;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.Callable;
 
 /**
  * Clase que implementa la interface {@link PiezaValuable}, ésta clase representa una Alhaja y encapsula
@@ -177,6 +183,33 @@ public class Alhaja extends Pieza implements CaracteristicasGramoOroProveedor, M
         return avaluo;
     }
 
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public FirmaPieza getFirma() {
+        return FirmaPieza.de(getClass(), numeroDePiezas, metal, color, calidad, rango, peso, incremento,
+            desplazamiento, valorExperto);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public Map<Object, Callable<?>> getConsultasReferencia() {
+        Map<Object, Callable<?>> consultas = new HashMap<>();
+
+        if (ObjectUtils.isEmpty(valorExperto) && !ObjectUtils.isEmpty(metal)) {
+            consultas.put(llavePrecioGramoMetal(), consultaPrecioGramoMetal());
+
+            if (isValidFactorRequest()) {
+                consultas.put(llaveFactor(), consultaFactor());
+            }
+        }
+
+        return consultas;
+    }
+
     /**
      * Recupera el valor de la alhaja valuada.
      *
@@ -221,10 +254,12 @@ public class Alhaja extends Pieza implements CaracteristicasGramoOroProveedor, M
         BigDecimal avaluoAlhaja;
 
         if (ObjectUtils.isEmpty(valorExperto)) {
+            PrecisionIntermediaUtil precision = PrecisionIntermediaUtil.get();
+
             BigDecimal precioGramo = recuperarPrecioGramoMetal();
             LOGGER.debug("Valor por gramo de {} = {}", metal, precioGramo);
 
-            BigDecimal precioMetal = precioGramo.multiply(peso);
+            BigDecimal precioMetal = precision.multiplicar(precioGramo, peso);
             LOGGER.debug("Aplicando peso {}gr = {}", peso, precioMetal);
 
             BigDecimal inc = recuperarIncremento();
@@ -237,11 +272,11 @@ public class Alhaja extends Pieza implements CaracteristicasGramoOroProveedor, M
             BigDecimal div_inc_desp = inc_desp
                 .divide(FACTOR, 4, BigDecimal.ROUND_HALF_UP);
             BigDecimal fac_inc_des = BigDecimal.ONE.add(div_inc_desp);
-            BigDecimal conIncDes = precioMetal.multiply(fac_inc_des);
+            BigDecimal conIncDes = precision.multiplicar(precioMetal, fac_inc_des);
             LOGGER.debug("Aplicando incremento desplazamiento {} = {}", fac_inc_des, conIncDes);
 
             BigDecimal factor = recuperarFactor();
-            avaluoAlhaja = conIncDes.multiply(factor);
+            avaluoAlhaja = precision.multiplicar(conIncDes, factor);
             LOGGER.debug("Aplicando factor {} = {}", factor, avaluoAlhaja);
         } else {
             avaluoAlhaja = recuperarValorExperto();
@@ -257,15 +292,38 @@ public class Alhaja extends Pieza implements CaracteristicasGramoOroProveedor, M
      * @return Precio del metal.
      */
     private BigDecimal recuperarPrecioGramoMetal() {
-        BigDecimal precioGramoMetal;
+        return consultarReferencia(llavePrecioGramoMetal(), consultaPrecioGramoMetal()).getValor();
+    }
 
+    /**
+     * Crea la consulta del precio de 1 gramo de Oro u otro metal.
+     *
+     * @return La consulta.
+     */
+    private Callable<BigDecimalConsumidor> consultaPrecioGramoMetal() {
+        return new Callable<BigDecimalConsumidor>() {
+            @Override
+            public BigDecimalConsumidor call() {
+                if (metal.equals(TipoMetalEnum.ORO.getTipo())) {
+                    return conector.obtenerValorGramoOro(Alhaja.this);
+                } else {
+                    return conector.obtenerValorGramoMetal(Alhaja.this);
+                }
+            }
+        };
+    }
+
+    /**
+     * Llave de la consulta del precio de 1 gramo de Oro u otro metal.
+     *
+     * @return La llave.
+     */
+    private Object llavePrecioGramoMetal() {
         if (metal.equals(TipoMetalEnum.ORO.getTipo())) {
-            precioGramoMetal = conector.obtenerValorGramoOro(this).getValor();
+            return LlaveReferencia.valorGramoOro(this);
         } else {
-            precioGramoMetal = conector.obtenerValorGramoMetal(this).getValor();
+            return LlaveReferencia.valorGramoMetal(this);
         }
-
-        return precioGramoMetal;
     }
 
     /**
@@ -275,12 +333,35 @@ public class Alhaja extends Pieza implements CaracteristicasGramoOroProveedor, M
      */
     private BigDecimal recuperarFactor() {
         if (isValidFactorRequest()) {
-            return conector.obtenerFactor(this).getValor();
+            return consultarReferencia(llaveFactor(), consultaFactor()).getValor();
         } else {
             return BigDecimal.ONE;
         }
     }
 
+    /**
+     * Crea la consulta del factor a aplicar a la alhaja.
+     *
+     * @return La consulta.
+     */
+    private Callable<BigDecimalConsumidor> consultaFactor() {
+        return new Callable<BigDecimalConsumidor>() {
+            @Override
+            public BigDecimalConsumidor call() {
+                return conector.obtenerFactor(Alhaja.this);
+            }
+        };
+    }
+
+    /**
+     * Llave de la consulta del factor a aplicar a la alhaja.
+     *
+     * @return La llave.
+     */
+    private Object llaveFactor() {
+        return LlaveReferencia.factor(this);
+    }
+
     /**
      * Verifica si se tienen los datos necesario para solicitar el factor.
      *
@@ -333,4 +414,24 @@ public class Alhaja extends Pieza implements CaracteristicasGramoOroProveedor, M
             return desplazamiento;
         }
     }
+
+
+
+    // GETTERS
+
+    public BigDecimal getPeso() {
+        return peso;
+    }
+
+    public BigDecimal getIncremento() {
+        return incremento;
+    }
+
+    public BigDecimal getDesplazamiento() {
+        return desplazamiento;
+    }
+
+    public ValorExperto getValorExperto() {
+        return valorExperto;
+    }
 }
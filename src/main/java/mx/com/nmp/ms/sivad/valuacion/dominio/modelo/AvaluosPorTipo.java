@@ -0,0 +1,119 @@
+/**
+ * Proyecto:        NMP - Microservicio de Motor de Valuación
+ * Quarksoft S.A.P.I. de C.V. – Todos los derechos reservados. Para uso exclusivo de Nacional Monte de Piedad.
+ */
+package mx.com.nmp.ms.sivad.valuacion.dominio.modelo;
+
+import mx.com.nmp.ms.sivad.valuacion.dominio.factory.AvaluoFactory;
+import mx.com.nmp.ms.sivad.valuacion.dominio.modelo.vo.Avaluo;
+import org.springframework.util.ObjectUtils;
+
+import java.math.BigDecimal;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Avalúos de las piezas de una prenda acumulados por tipo de pieza, sin políticas de castigo ni condición física.
+ *
+ * Permite actualizar la prenda por diferencia cuando cambia el avalúo de alguna de sus piezas y recalcular el avalúo
+ * total sin volver a valuar las demás; el total se obtiene con los mismos redondeos y factores que
+ * {@link Prenda#valuar()}. No es seguro para uso concurrente.
+ */
+public class AvaluosPorTipo {
+
+    /**
+     * Avalúos acumulados por tipo de pieza.
+     */
+    private final Map<Class<? extends Pieza>, AcumuladorAvaluo> acumulados = new LinkedHashMap<>();
+
+
+
+    // METODOS
+
+    /**
+     * Constructor.
+     */
+    public AvaluosPorTipo() {
+        super();
+    }
+
+    /**
+     * Suma el avalúo de una pieza.
+     *
+     * @param tipo Tipo de la pieza.
+     * @param avaluo El avalúo de la pieza.
+     */
+    public void sumar(Class<? extends Pieza> tipo, Avaluo avaluo) {
+        obtenerAcumulado(tipo).sumar(avaluo);
+    }
+
+    /**
+     * Resta el avalúo de una pieza sumado previamente.
+     *
+     * @param tipo Tipo de la pieza.
+     * @param avaluo El avalúo de la pieza.
+     */
+    public void restar(Class<? extends Pieza> tipo, Avaluo avaluo) {
+        obtenerAcumulado(tipo).restar(avaluo);
+    }
+
+    /**
+     * Calcula el avalúo total de la prenda aplicando las políticas de castigo y el factor por condición física.
+     *
+     * @param politicasCastigo Las políticas de castigo, {@code null} si no se aplican.
+     * @param factorCondicion El factor por condición física, {@code null} si la prenda no indica condición.
+     * @return El avalúo total, o {@code null} si no hay piezas.
+     */
+    public Avaluo totalizar(PoliticasCastigo politicasCastigo, BigDecimal factorCondicion) {
+        AcumuladorAvaluo avaluoTotal = new AcumuladorAvaluo();
+
+        for (Map.Entry<Class<? extends Pieza>, AcumuladorAvaluo> entry : acumulados.entrySet()) {
+            if (!ObjectUtils.isEmpty(politicasCastigo) && !ObjectUtils.isEmpty(politicasCastigo.getFactores())) {
+                avaluoTotal.sumar(entry.getValue(), politicasCastigo.getFactores().get(entry.getKey()));
+            } else {
+                avaluoTotal.sumar(entry.getValue());
+            }
+        }
+
+        if (factorCondicion != null && !avaluoTotal.isVacio()) {
+            avaluoTotal.multiplicar(factorCondicion);
+        }
+
+        return avaluoTotal.crearAvaluo();
+    }
+
+    /**
+     * Recupera el avalúo acumulado de cada tipo de pieza.
+     *
+     * @return Los avalúos por tipo de pieza.
+     */
+    public Map<Class<? extends Pieza>, Avaluo> getAvaluos() {
+        Map<Class<? extends Pieza>, Avaluo> avaluos = new LinkedHashMap<>();
+
+        for (Map.Entry<Class<? extends Pieza>, AcumuladorAvaluo> entry : acumulados.entrySet()) {
+            AcumuladorAvaluo acumulado = entry.getValue();
+            avaluos.put(entry.getKey(), AvaluoFactory.crearCon(acumulado.getValorMinimo(),
+                acumulado.getValorPromedio(), acumulado.getValorMaximo()));
+        }
+
+        return avaluos;
+    }
+
+    /**
+     * Recupera el acumulado del tipo de pieza, creándolo si no existe.
+     *
+     * @param tipo Tipo de la pieza.
+     * @return El acumulado.
+     */
+    private AcumuladorAvaluo obtenerAcumulado(Class<? extends Pieza> tipo) {
+        AcumuladorAvaluo acumulado = acumulados.get(tipo);
+
+        if (acumulado == null) {
+            acumulado = new AcumuladorAvaluo();
+            acumulados.put(tipo, acumulado);
+        }
+
+        return acumulado;
+    }
+
+}
@@ -82,6 +82,14 @@ public class Complementario extends Pieza {
         return avaluo;
     }
 
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public FirmaPieza getFirma() {
+        return FirmaPieza.de(getClass(), numeroDePiezas, valorExperto);
+    }
+
     /**
      * Recupera el valor del Valor Complementario valuado.
      *
@@ -6,17 +6,23 @@ package mx.com.nmp.ms.sivad.valuacion.dominio.modelo;
 
 import com.codahale.metrics.annotation.Timed;
 import mx.com.nmp.ms.sivad.valuacion.conector.TablasDeReferenciaDiamantes;
+import mx.com.nmp.ms.sivad.valuacion.conector.consumidor.BigDecimalConsumidor;
 import mx.com.nmp.ms.sivad.valuacion.conector.consumidor.ValorComercialConsumidor;
+import mx.com.nmp.ms.sivad.valuacion.conector.llave.LlaveReferencia;
 import mx.com.nmp.ms.sivad.valuacion.conector.provedor.CaracteristicasDiamanteProveedor;
 import mx.com.nmp.ms.sivad.valuacion.conector.provedor.CertificadoDiamanteProveedor;
 import mx.com.nmp.ms.sivad.valuacion.dominio.factory.AvaluoFactory;
 import mx.com.nmp.ms.sivad.valuacion.dominio.modelo.vo.Avaluo;
 import mx.com.nmp.ms.sivad.valuacion.dominio.modelo.vo.ValorExperto;
+import mx.com.nmp.ms.sivad.valuacion.infrastructure.estrategia.PrecisionIntermediaUtil;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.util.ObjectUtils;
 
 import java.math.BigDecimal;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.Callable;
 
 /**
  * Clase que extiende de la clase {@link Pieza}, ésta clase representa una Diamante y encapsula
@@ -196,13 +202,15 @@ public class Diamante extends Pieza implements CaracteristicasDiamanteProveedor,
         BigDecimal valorComercialMinimo;
         BigDecimal valorComercialMedio;
         BigDecimal valorComercialMaximo;
+        PrecisionIntermediaUtil precision = PrecisionIntermediaUtil.get();
 
         // Si no tiene valor experto...
         if (ObjectUtils.isEmpty(valorExperto) ||
             ObjectUtils.isEmpty(valorExperto.getValor())) {
 
             // SE OBTIENE EL VALOR COMERCIAL DEL DIAMANTE CON BASE EN SUS CARACTERÍSTICAS.
-            ValorComercialConsumidor valorComercialConsumidor = conector.obtenerValorComercial(this);
+            ValorComercialConsumidor valorComercialConsumidor =
+                consultarReferencia(llaveValorComercial(), consultaValorComercial());
 
             valorComercialMinimo = valorComercialConsumidor.getValorMinimo();
             valorComercialMedio = valorComercialConsumidor.getValorMedio();
@@ -213,9 +221,9 @@ public class Diamante extends Pieza implements CaracteristicasDiamanteProveedor,
             }
 
             // Se multiplica por quilataje
-            valorComercialMinimo = valorComercialMinimo.multiply(this.quilates);
-            valorComercialMedio = valorComercialMedio.multiply(this.quilates);
-            valorComercialMaximo = valorComercialMaximo.multiply(this.quilates);
+            valorComercialMinimo = precision.multiplicar(valorComercialMinimo, this.quilates);
+            valorComercialMedio = precision.multiplicar(valorComercialMedio, this.quilates);
+            valorComercialMaximo = precision.multiplicar(valorComercialMaximo, this.quilates);
 
             if (LOGGER.isDebugEnabled()) {
                 LOGGER.debug("Valor aplicando quilataje: ({},{},{})", valorComercialMinimo, valorComercialMedio, valorComercialMaximo);
@@ -236,14 +244,15 @@ public class Diamante extends Pieza implements CaracteristicasDiamanteProveedor,
 
         // EN CASO DE EXISTIR CERTIFICADO SE APLICA EL INCREMENTO.
         if (!ObjectUtils.isEmpty(certificadoDiamante)) {
-            BigDecimal incrementoPorCertificado = conector.obtenerModificador(this).getValor();
+            BigDecimal incrementoPorCertificado =
+                consultarReferencia(llaveModificador(), consultaModificador()).getValor();
 
             if (incrementoPorCertificado.compareTo(BigDecimal.ZERO) > 0) {
                 LOGGER.debug("Incremento Por Certificado: [{}]", incrementoPorCertificado);
 
-                valorComercialMinimo = valorComercialMinimo.multiply(incrementoPorCertificado);
-                valorComercialMedio = valorComercialMedio.multiply(incrementoPorCertificado);
-                valorComercialMaximo = valorComercialMaximo.multiply(incrementoPorCertificado);
+                valorComercialMinimo = precision.multiplicar(valorComercialMinimo, incrementoPorCertificado);
+                valorComercialMedio = precision.multiplicar(valorComercialMedio, incrementoPorCertificado);
+                valorComercialMaximo = precision.multiplicar(valorComercialMaximo, incrementoPorCertificado);
 
                 if (LOGGER.isDebugEnabled()) {
                     LOGGER.debug("Valor Comercial Minimo: [{}]; Medio: [{}]; Maximo: [{}]",
@@ -274,6 +283,79 @@ public class Diamante extends Pieza implements CaracteristicasDiamanteProveedor,
         return AvaluoFactory.crearCon(valorComercialMinimo, valorComercialMedio, valorComercialMaximo);
     }
 
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public FirmaPieza getFirma() {
+        return FirmaPieza.de(getClass(), numeroDePiezas, corte, subcorte, color, claridad, quilates,
+            quilatesDesde, quilatesHasta, certificadoDiamante, valorExperto);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public Map<Object, Callable<?>> getConsultasReferencia() {
+        Map<Object, Callable<?>> consultas = new HashMap<>();
+
+        if (ObjectUtils.isEmpty(valorExperto) || ObjectUtils.isEmpty(valorExperto.getValor())) {
+            consultas.put(llaveValorComercial(), consultaValorComercial());
+        }
+
+        if (!ObjectUtils.isEmpty(certificadoDiamante)) {
+            consultas.put(llaveModificador(), consultaModificador());
+        }
+
+        return consultas;
+    }
+
+    /**
+     * Crea la consulta del valor comercial del diamante.
+     *
+     * @return La consulta.
+     */
+    private Callable<ValorComercialConsumidor> consultaValorComercial() {
+        return new Callable<ValorComercialConsumidor>() {
+            @Override
+            public ValorComercialConsumidor call() {
+                return conector.obtenerValorComercial(Diamante.this);
+            }
+        };
+    }
+
+    /**
+     * Llave de la consulta del valor comercial del diamante.
+     *
+     * @return La llave.
+     */
+    private Object llaveValorComercial() {
+        return LlaveReferencia.valorComercial(this);
+    }
+
+    /**
+     * Crea la consulta del modificador por certificado del diamante.
+     *
+     * @return La consulta.
+     */
+    private Callable<BigDecimalConsumidor> consultaModificador() {
+        return new Callable<BigDecimalConsumidor>() {
+            @Override
+            public BigDecimalConsumidor call() {
+                return conector.obtenerModificador(Diamante.this);
+            }
+        };
+    }
+
+    /**
+     * Llave de la consulta del modificador por certificado del diamante.
+     *
+     * @return La llave.
+     */
+    private Object llaveModificador() {
+        return LlaveReferencia.modificador(this);
+    }
+
 
     // GETTERS
 
@@ -0,0 +1,129 @@
+/**
+ * Proyecto:        NMP - Microservicio de Motor de Valuación
+ * Quarksoft S.A.P.I. de C.V. – Todos los derechos reservados. Para uso exclusivo de Nacional Monte de Piedad.
+ */
+package mx.com.nmp.ms.sivad.valuacion.dominio.modelo;
+
+import mx.com.nmp.ms.sivad.valuacion.dominio.modelo.vo.ValorExperto;
+
+import java.math.BigDecimal;
+import java.util.Arrays;
+
+/**
+ * Firma canónica e inmutable de las características de una {@link Pieza} que determinan su avalúo, utilizada por
+ * {@link Prenda} para valuar una sola vez las piezas idénticas.
+ *
+ * Dos piezas con la misma firma producen el mismo avalúo. La igualdad compara el tipo de pieza y todas sus
+ * características, y el hash se calcula una sola vez al construir la firma. Los valores decimales se normalizan para
+ * que {@code 0.92} y {@code 0.920} compartan la misma firma.
+ */
+public final class FirmaPieza {
+
+    /**
+     * Tipo de pieza.
+     */
+    private final Class<? extends Pieza> tipo;
+
+    /**
+     * Características de la pieza.
+     */
+    private final Object[] caracteristicas;
+
+    /**
+     * Hash precalculado.
+     */
+    private final int hash;
+
+
+
+    // METODOS
+
+    /**
+     * Constructor.
+     *
+     * @param tipo Tipo de pieza.
+     * @param caracteristicas Características de la pieza.
+     */
+    private FirmaPieza(Class<? extends Pieza> tipo, Object[] caracteristicas) {
+        super();
+
+        this.tipo = tipo;
+        this.caracteristicas = caracteristicas;
+        this.hash = 31 * tipo.getName().hashCode() + Arrays.hashCode(caracteristicas);
+    }
+
+    /**
+     * Crea la firma de una pieza. Los valores {@link BigDecimal} y {@link ValorExperto} se normalizan.
+     *
+     * @param tipo Tipo de pieza.
+     * @param caracteristicas Características de la pieza que determinan su avalúo.
+     * @return La firma.
+     */
+    static FirmaPieza de(Class<? extends Pieza> tipo, Object... caracteristicas) {
+        Object[] normalizadas = new Object[caracteristicas.length];
+
+        for (int i = 0; i < caracteristicas.length; i++) {
+            normalizadas[i] = normalizar(caracteristicas[i]);
+        }
+
+        return new FirmaPieza(tipo, normalizadas);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+
+        if (o == null || getClass() != o.getClass()) {
+            return false;
+        }
+
+        FirmaPieza that = (FirmaPieza) o;
+
+        return hash == that.hash && tipo == that.tipo && Arrays.equals(caracteristicas, that.caracteristicas);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public int hashCode() {
+        return hash;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public String toString() {
+        return tipo.getSimpleName() + Arrays.toString(caracteristicas);
+    }
+
+    /**
+     * Normaliza una característica.
+     *
+     * @param valor La característica, puede ser nula.
+     * @return Los decimales sin ceros a la derecha, el valor experto como tipo y valor normalizado, o la misma
+     * característica en otro caso.
+     */
+    private static Object normalizar(Object valor) {
+        if (valor instanceof BigDecimal) {
+            BigDecimal decimal = (BigDecimal) valor;
+
+            return (decimal.signum() == 0) ? BigDecimal.ZERO : decimal.stripTrailingZeros();
+        }
+
+        if (valor instanceof ValorExperto) {
+            ValorExperto valorExperto = (ValorExperto) valor;
+
+            return Arrays.asList(valorExperto.getTipo(), normalizar(valorExperto.getValor()));
+        }
+
+        return valor;
+    }
+
+}
@@ -4,8 +4,17 @@
  */
 package mx.com.nmp.ms.sivad.valuacion.dominio.modelo;
 
+import mx.com.nmp.ms.sivad.valuacion.dominio.exception.ValuacionException;
 import mx.com.nmp.ms.sivad.valuacion.dominio.modelo.vo.Avaluo;
 
+import java.util.Collections;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
 /**
  * Clase abstracta que implementa la interface {@link PiezaValuable}, la cual encapsula las operaciones y
  * atributos comunes de las piezas.
@@ -29,6 +38,118 @@ public abstract class Pieza implements PiezaValuable {
      */
     protected Avaluo avaluoPoliticas;
 
+    /**
+     * Resultados de las consultas a tablas de referencia resueltas antes de la valuación, indexados por llave.
+     */
+    private Map<Object, Future<?>> referencias = Collections.emptyMap();
+
+    /**
+     * Instante (en nanosegundos) en el que vence la espera de los resultados de las consultas.
+     */
+    private long limiteReferencias;
+
+
+
+    // METODOS
+
+    /**
+     * Permite obtener las consultas a tablas de referencia que requiere la valuación de la pieza, indexadas por
+     * llave, para que puedan resolverse de forma concurrente antes de valuar. Piezas con las mismas
+     * características generan las mismas llaves.
+     *
+     * @return Las consultas indexadas por llave.
+     */
+    public Map<Object, Callable<?>> getConsultasReferencia() {
+        return Collections.emptyMap();
+    }
+
+    /**
+     * Permite obtener la firma canónica de las características que determinan el avalúo de la pieza, para que
+     * {@link Prenda} valúe una sola vez las piezas idénticas.
+     *
+     * @return La firma, o {@code null} si la pieza no puede agruparse con otras.
+     */
+    public FirmaPieza getFirma() {
+        return null;
+    }
+
+    /**
+     * Asigna el avalúo de otra pieza con la misma firma, en lugar de valuar esta pieza.
+     *
+     * @param avaluo El avalúo.
+     */
+    void asignarAvaluo(Avaluo avaluo) {
+        this.avaluo = avaluo;
+    }
+
+    /**
+     * Asigna los resultados de las consultas a tablas de referencia resueltas antes de la valuación.
+     *
+     * @param referencias Los resultados indexados por llave.
+     * @param limite Instante (en nanosegundos, comparable con {@link System#nanoTime()}) en el que vence la espera
+     *               de los resultados.
+     */
+    public void setReferencias(Map<Object, Future<?>> referencias, long limite) {
+        this.referencias = referencias;
+        this.limiteReferencias = limite;
+    }
+
+    /**
+     * Recupera el resultado de una consulta a tablas de referencia. Si la consulta no fue resuelta previamente se
+     * ejecuta en este momento; si fue resuelta se espera su resultado hasta el instante límite asignado.
+     *
+     * @param llave Llave de la consulta.
+     * @param consulta La consulta.
+     * @param <T> Tipo del resultado.
+     * @return El resultado de la consulta.
+     *
+     * @throws ValuacionException Si se excede el tiempo máximo de espera del resultado.
+     */
+    @SuppressWarnings("unchecked")
+    protected <T> T consultarReferencia(Object llave, Callable<T> consulta) {
+        Future<?> resultado = referencias.get(llave);
+
+        try {
+            if (resultado == null) {
+                return consulta.call();
+            }
+
+            return (T) resultado.get(Math.max(0L, limiteReferencias - System.nanoTime()), TimeUnit.NANOSECONDS);
+        } catch (TimeoutException e) {
+            resultado.cancel(true);
+            throw crearExcepcionTiempoAgotado();
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
+            }
+
+            if (e.getCause() instanceof Error) {
+                throw (Error) e.getCause();
+            }
+
+            throw new IllegalStateException(e.getCause());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException(e);
+        } catch (RuntimeException e) {
+            throw e;
+        } catch (Exception e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    /**
+     * Crea la excepción de una consulta a tablas de referencia cuyo resultado excedió el tiempo máximo de espera,
+     * con el mismo código que las fallas de comunicación con el Micro Servicio Tablas de Referencia.
+     *
+     * @return La excepción.
+     */
+    static ValuacionException crearExcepcionTiempoAgotado() {
+        return new ValuacionException("MV003",
+            "Ocurrió un error de comunicación con el Micro Servicio Tablas de Referencia.",
+            "Se excedió el tiempo máximo de espera de la consulta a tablas de referencia.");
+    }
+
 
 
     // GETTERS
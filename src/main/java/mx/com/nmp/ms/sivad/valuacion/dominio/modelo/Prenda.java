@@ -7,19 +7,32 @@ package mx.com.nmp.ms.sivad.valuacion.dominio.modelo;
 import com.codahale.metrics.annotation.Timed;
 import mx.com.nmp.ms.sivad.valuacion.dominio.exception.ModificadorCondicionPrendaNoEncontradoException;
 import mx.com.nmp.ms.sivad.valuacion.dominio.exception.PoliticaCastigoNoEncontradaException;
+import mx.com.nmp.ms.sivad.valuacion.dominio.exception.ValuacionException;
 import mx.com.nmp.ms.sivad.valuacion.dominio.factory.AvaluoFactory;
 import mx.com.nmp.ms.sivad.valuacion.dominio.modelo.vo.Avaluo;
 import mx.com.nmp.ms.sivad.valuacion.dominio.modelo.vo.CondicionPrendaVO;
+import mx.com.nmp.ms.sivad.valuacion.dominio.modelo.vo.EscenarioValuacionVO;
+import mx.com.nmp.ms.sivad.valuacion.dominio.repository.MemoriaAvaluosRepository;
 import mx.com.nmp.ms.sivad.valuacion.dominio.repository.ModificadorCondicionPrendaRepository;
 import mx.com.nmp.ms.sivad.valuacion.dominio.repository.PoliticasCastigoRepository;
+import mx.com.nmp.ms.sivad.valuacion.infrastructure.estrategia.PrecisionIntermediaUtil;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.util.ObjectUtils;
 
 import java.math.BigDecimal;
+import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.RecursiveTask;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
 
 /**
  * Clase que implementa la interface {@link PiezaValuable}, ésta clase representa una Prenda y encapsula
@@ -59,6 +72,31 @@ public class Prenda implements PiezaValuable {
      */
     private ModificadorCondicionPrendaRepository condicionPrendaRepository;
 
+    /**
+     * Parámetros de la resolución concurrente de las consultas a tablas de referencia de las piezas.
+     */
+    private ResolucionReferencias resolucionReferencias;
+
+    /**
+     * Parámetros de la valuación paralela de las piezas.
+     */
+    private ValuacionParalela valuacionParalela;
+
+    /**
+     * Referencia hacia la memoria de avalúos de piezas.
+     */
+    private MemoriaAvaluosRepository memoriaAvaluosRepository;
+
+    /**
+     * Grupos de piezas idénticas de la última valuación de las piezas.
+     */
+    private List<List<Pieza>> grupos;
+
+    /**
+     * Avalúos de las piezas acumulados por tipo de pieza, sin políticas de castigo ni condición física.
+     */
+    private Map<Class<? extends Pieza>, AcumuladorAvaluo> avaluosPorTipo;
+
     /**
      * Interface que define el contrato para crear entidades de tipo {@link Prenda}.
      */
@@ -88,15 +126,24 @@ public class Prenda implements PiezaValuable {
      *
      * @param builder Referencia al objeto que contiene los datos necesarios para construir la entidad.
      * @param politicasCastigoRepository Referencia hacia el repositorio de políticas de castigo.
+     * @param condicionPrendaRepository Referencia hacia el repositorio modificador por condiciones fisicas.
+     * @param resolucionReferencias Parámetros de la resolución concurrente de las consultas a tablas de referencia.
+     * @param valuacionParalela Parámetros de la valuación paralela de las piezas.
+     * @param memoriaAvaluosRepository Referencia hacia la memoria de avalúos de piezas.
      */
     private Prenda(Builder builder, PoliticasCastigoRepository politicasCastigoRepository,
-                   ModificadorCondicionPrendaRepository condicionPrendaRepository) {
+                   ModificadorCondicionPrendaRepository condicionPrendaRepository,
+                   ResolucionReferencias resolucionReferencias, ValuacionParalela valuacionParalela,
+                   MemoriaAvaluosRepository memoriaAvaluosRepository) {
         super();
 
         this.piezas = builder.getPiezas();
         this.condicionFisica = builder.getCondicionFisica();
         this.politicasCastigoRepository = politicasCastigoRepository;
         this.condicionPrendaRepository = condicionPrendaRepository;
+        this.resolucionReferencias = resolucionReferencias;
+        this.valuacionParalela = valuacionParalela;
+        this.memoriaAvaluosRepository = memoriaAvaluosRepository;
     }
 
     /**
@@ -109,89 +156,351 @@ public class Prenda implements PiezaValuable {
     public Avaluo valuar() {
         LOGGER.info(">> valuar");
 
-        // MAPA DE ESTRATEGIA DE AVALÚOS POR TIPO DE PIEZA.
-        Map<Class<? extends Pieza>, Avaluo> mapaEstrategiaAvaluos = new HashMap<>();
+        avaluosPorTipo = valuarPiezas();
 
 
-        // SE VALÚAN LAS PIEZAS.
-        for (Pieza pieza : piezas) {
-            mapaEstrategiaAvaluos.put(pieza.getClass(),
-                sumarAvaluos(mapaEstrategiaAvaluos.get(pieza.getClass()), pieza.valuar()));
+        // SE CONSULTAN LAS POLÍTICAS DE CASTIGO.
+        PoliticasCastigo politicasCastigo = consultarPoliticasVigentes();
+
+        if (!ObjectUtils.isEmpty(politicasCastigo) && !ObjectUtils.isEmpty(politicasCastigo.getFactores())) {
+            for (List<Pieza> grupo : grupos) {
+                Pieza representante = grupo.get(0);
+                Avaluo avaluoPoliticas = aplicarPoliticaCastigo(representante.getAvaluo(),
+                    politicasCastigo.getFactores().get(representante.getClass()));
+
+                for (Pieza pieza : grupo) {
+                    pieza.setAvaluoPoliticas(avaluoPoliticas);
+                }
+            }
         }
 
+        return aplicarEscenario(politicasCastigo, condicionFisica);
+    }
 
-        // SE CONSULTAN LAS POLÍTICAS DE CASTIGO.
-        PoliticasCastigo politicasCastigo = null;
+    /**
+     * Permite realizar la valuación de la {@link Prenda} bajo un escenario de políticas de castigo y condición
+     * física. Las piezas se valúan una sola vez por prenda, ya sea en la primera valuación de un escenario o en
+     * {@link #valuar()}; cada escenario sólo aplica sus factores sobre los avalúos de las piezas.
+     *
+     * @param escenario El escenario de valuación.
+     * @return El avalúo de la prenda en el escenario.
+     *
+     * @throws PoliticaCastigoNoEncontradaException Si el escenario indica una fecha sin políticas de castigo.
+     */
+    public Avaluo valuar(EscenarioValuacionVO escenario) {
+        LOGGER.info(">> valuar({})", escenario);
+
+        if (avaluosPorTipo == null) {
+            avaluosPorTipo = valuarPiezas();
+        }
+
+        PoliticasCastigo politicasCastigo;
+
+        if (escenario.getFechaPoliticas() == null) {
+            politicasCastigo = consultarPoliticasVigentes();
+        } else {
+            // DE LAS POLÍTICAS LISTADAS EN LA FECHA SE UTILIZAN LAS MÁS RECIENTES.
+            politicasCastigo = politicasCastigoRepository.consultar(escenario.getFechaPoliticas()).get(0);
+        }
+
+        return aplicarEscenario(politicasCastigo, escenario.getCondicionFisica());
+    }
+
+    /**
+     * Metodo auxiliar utilizado para valuar las piezas de la prenda y acumular sus avalúos por tipo de pieza.
+     *
+     * @return Los avalúos acumulados por tipo de pieza.
+     */
+    private Map<Class<? extends Pieza>, AcumuladorAvaluo> valuarPiezas() {
+        // SE AGRUPAN LAS PIEZAS IDÉNTICAS, SÓLO LA PRIMERA PIEZA DE CADA GRUPO SE VALÚA.
+        grupos = agruparPiezas();
+        List<Pieza> representantes = new ArrayList<>(grupos.size());
+
+
+        // LOS GRUPOS VALUADOS PREVIAMENTE CON LA MISMA VERSIÓN DE LOS DATOS DE REFERENCIA SE RECUPERAN DE LA MEMORIA.
+        long version = (memoriaAvaluosRepository == null) ? 0L : memoriaAvaluosRepository.getVersion();
 
+        for (List<Pieza> grupo : grupos) {
+            if (!consultarMemoria(grupo.get(0), version)) {
+                representantes.add(grupo.get(0));
+            }
+        }
+
+
+        // SE RESUELVEN CONCURRENTEMENTE LAS CONSULTAS A TABLAS DE REFERENCIA; SI LA VALUACIÓN ES EN PARALELO SE
+        // ESPERAN TODAS EN EL HILO DE LA PETICIÓN PARA QUE EL POOL FORK-JOIN SÓLO REALICE CÁLCULOS.
+        boolean paralela = valuacionParalela != null && valuacionParalela.aplica(grupos.size());
+        resolverReferencias(representantes, paralela);
+
+
+        // SE VALÚA UNA SOLA VEZ CADA GRUPO DE PIEZAS IDÉNTICAS, EN PARALELO SI LA PRENDA ES GRANDE.
+        // MAPA DE ESTRATEGIA DE AVALÚOS ACUMULADOS POR TIPO DE PIEZA.
+        Map<Class<? extends Pieza>, AcumuladorAvaluo> mapaEstrategiaAvaluos;
+
+        if (paralela) {
+            LOGGER.debug("Valuando en paralelo [{}] grupos de piezas", grupos.size());
+            mapaEstrategiaAvaluos = valuacionParalela.getPool().invoke(
+                new ValuacionGrupos(grupos, 0, grupos.size(), valuacionParalela.getGruposPorTarea()));
+        } else {
+            mapaEstrategiaAvaluos = valuarGrupos(grupos, 0, grupos.size());
+        }
+
+        guardarMemoria(representantes, version);
+
+        return mapaEstrategiaAvaluos;
+    }
+
+    /**
+     * Metodo auxiliar utilizado para consultar las políticas de castigo vigentes.
+     *
+     * @return Las políticas de castigo vigentes, o {@code null} si no existen.
+     */
+    private PoliticasCastigo consultarPoliticasVigentes() {
         try {
-            politicasCastigo = politicasCastigoRepository.consultar();
+            return politicasCastigoRepository.consultar();
         } catch (PoliticaCastigoNoEncontradaException e) {
             LOGGER.warn("No existen políticas de castigo configuradas.");
+            return null;
         } catch (Exception e) {
             LOGGER.error("Ocurrió un error al consultar las políticas de castigo.");
             throw e;
         }
+    }
 
+    /**
+     * Metodo auxiliar utilizado para calcular el avalúo de la prenda a partir de los avalúos de las piezas,
+     * aplicando las políticas de castigo y el factor por condición física indicados. Los avalúos de las piezas no
+     * se modifican, por lo que pueden utilizarse en varios escenarios.
+     *
+     * @param politicasCastigo Las políticas de castigo, {@code null} si no se aplican.
+     * @param condicion La condición física de la prenda, {@code null} si no se aplica.
+     * @return El avalúo de la prenda.
+     */
+    private Avaluo aplicarEscenario(PoliticasCastigo politicasCastigo, CondicionPrendaVO condicion) {
+        // SE ACUMULA EL AVALÚO CON BASE EN LOS VALORES DEFINITIVOS.
+        AcumuladorAvaluo avaluoTotal = new AcumuladorAvaluo();
 
-        // SE CREA EL AVALÚO CON BASE EN LOS VALORES DEFINITIVOS.
-        Avaluo avaluoTotal = null;
-
-        for (Map.Entry<Class<? extends Pieza>, Avaluo> entry : mapaEstrategiaAvaluos.entrySet()) {
+        for (Map.Entry<Class<? extends Pieza>, AcumuladorAvaluo> entry : avaluosPorTipo.entrySet()) {
 
             // EN CASO DE QUE EXISTAN POLÍTICAS DE CASTIGO.
             if (!ObjectUtils.isEmpty(politicasCastigo) && !ObjectUtils.isEmpty(politicasCastigo.getFactores())) {
-                mapaEstrategiaAvaluos.put(entry.getKey(),
-                    aplicarPoliticaCastigo(entry.getValue(), politicasCastigo.getFactores().get(entry.getKey())));
+                avaluoTotal.sumar(entry.getValue(), politicasCastigo.getFactores().get(entry.getKey()));
+            } else {
+                avaluoTotal.sumar(entry.getValue());
             }
+        }
+
+        LOGGER.debug("Avaluo acumulado: [{}]", avaluoTotal);
 
-            avaluoTotal = sumarAvaluos(avaluoTotal, entry.getValue());
+        if (!ObjectUtils.isEmpty(condicion) && !avaluoTotal.isVacio()) {
+            aplicarPorcentajeCondidicionesFisicas(avaluoTotal, condicion);
         }
 
-        for (Pieza pieza : piezas) {
-            if (!ObjectUtils.isEmpty(politicasCastigo) && !ObjectUtils.isEmpty(politicasCastigo.getFactores())) {
-                pieza.setAvaluoPoliticas(aplicarPoliticaCastigo(pieza.getAvaluo(), politicasCastigo.getFactores().get(pieza.getClass())));
+        return avaluoTotal.crearAvaluo();
+    }
+
+    /**
+     * Metodo auxiliar utilizado para asignar a la pieza el avalúo conservado en la memoria para su firma.
+     *
+     * @param pieza La pieza.
+     * @param version Versión de los datos de referencia.
+     * @return {@code true} si la memoria conservaba el avalúo de la pieza.
+     */
+    private boolean consultarMemoria(Pieza pieza, long version) {
+        if (memoriaAvaluosRepository == null) {
+            return false;
+        }
+
+        Avaluo avaluo = memoriaAvaluosRepository.consultar(pieza.getFirma(), version);
+
+        if (avaluo == null) {
+            return false;
+        }
+
+        pieza.asignarAvaluo(avaluo);
+        return true;
+    }
+
+    /**
+     * Metodo auxiliar utilizado para conservar en la memoria los avalúos de las piezas valuadas.
+     *
+     * @param piezasValuadas Las piezas valuadas.
+     * @param version Versión de los datos de referencia obtenida antes de valuar las piezas.
+     */
+    private void guardarMemoria(List<Pieza> piezasValuadas, long version) {
+        if (memoriaAvaluosRepository == null) {
+            return;
+        }
+
+        for (Pieza pieza : piezasValuadas) {
+            memoriaAvaluosRepository.guardar(pieza.getFirma(), version, pieza.getAvaluo());
+        }
+    }
+
+    /**
+     * Metodo auxiliar utilizado para valuar un rango de grupos de piezas idénticas. Sólo se valúa la primera pieza
+     * de cada grupo, las demás reciben su avalúo.
+     *
+     * @param grupos Los grupos de piezas idénticas.
+     * @param desde Índice del primer grupo, inclusivo.
+     * @param hasta Índice del último grupo, exclusivo.
+     * @return Los avalúos acumulados por tipo de pieza.
+     */
+    private static Map<Class<? extends Pieza>, AcumuladorAvaluo> valuarGrupos(List<List<Pieza>> grupos, int desde,
+                                                                            int hasta) {
+        Map<Class<? extends Pieza>, AcumuladorAvaluo> mapaEstrategiaAvaluos = new HashMap<>();
+
+        for (int g = desde; g < hasta; g++) {
+            List<Pieza> grupo = grupos.get(g);
+            Pieza representante = grupo.get(0);
+            AcumuladorAvaluo acumulado = mapaEstrategiaAvaluos.get(representante.getClass());
+
+            if (acumulado == null) {
+                acumulado = new AcumuladorAvaluo();
+                mapaEstrategiaAvaluos.put(representante.getClass(), acumulado);
             }
+
+            Avaluo avaluoGrupo = representante.getAvaluo();
+
+            for (int i = 1; i < grupo.size(); i++) {
+                grupo.get(i).asignarAvaluo(avaluoGrupo);
+            }
+
+            acumulado.sumar(avaluoGrupo, grupo.size());
         }
 
-        if (!ObjectUtils.isEmpty(condicionFisica)) {
-            return aplicarPorcentajeCondidicionesFisicas(avaluoTotal);
-        } else {
-            return avaluoTotal;
+        return mapaEstrategiaAvaluos;
+    }
+
+    /**
+     * Metodo auxiliar utilizado para agrupar las piezas con la misma {@link FirmaPieza}, conservando el orden en que
+     * aparece cada grupo. Las piezas sin firma forman un grupo propio.
+     *
+     * @return Los grupos de piezas idénticas.
+     */
+    private List<List<Pieza>> agruparPiezas() {
+        List<List<Pieza>> grupos = new ArrayList<>(piezas.size());
+        Map<FirmaPieza, List<Pieza>> gruposPorFirma = new HashMap<>();
+
+        for (Pieza pieza : piezas) {
+            FirmaPieza firma = pieza.getFirma();
+            List<Pieza> grupo = (firma == null) ? null : gruposPorFirma.get(firma);
+
+            if (grupo == null) {
+                grupo = new ArrayList<>(1);
+                grupos.add(grupo);
+
+                if (firma != null) {
+                    gruposPorFirma.put(firma, grupo);
+                }
+            }
+
+            grupo.add(pieza);
         }
+
+        LOGGER.debug("[{}] piezas agrupadas en [{}] grupos de piezas idénticas", piezas.size(), grupos.size());
+
+        return grupos;
     }
 
     /**
-     * Metodo auxiliar utilizado para sumar el contenido de dos avalúos, considerando que el avalúo 1 pudiera ser nulo.
+     * Metodo auxiliar utilizado para resolver de forma concurrente las consultas a tablas de referencia distintas
+     * que requieren las piezas, de modo que la valuación posterior sólo espera la consulta más lenta en lugar de
+     * ejecutarlas en serie. Las piezas recuperan los resultados al valuarse, esperándolos a lo más el tiempo máximo
+     * de la resolución contado desde que se iniciaron las consultas.
+     *
+     * <p>Si las piezas se valúan en paralelo, todas las consultas se resuelven y esperan en el hilo de la petición
+     * antes de dividir la valuación, ya que los hilos del pool fork-join no deben bloquearse en llamadas remotas.</p>
+     *
+     * @param piezasValuadas Las piezas que se valúan.
+     * @param paralela {@code true} si las piezas se valúan en paralelo.
      *
-     * @param avaluoUno El avalúo uno.
-     * @param avaluoDos El avalúo dos.
-     * @return Un avalúo con la suma de los dos.
+     * @throws ValuacionException Si alguna consulta excede el tiempo máximo de espera.
      */
-    private Avaluo sumarAvaluos(Avaluo avaluoUno, Avaluo avaluoDos) {
-        if (LOGGER.isDebugEnabled()) {
-            LOGGER.debug(">> sumarAvaluos. " +
-                "Avaluo 1: [" + ((avaluoUno != null) ? avaluoUno.toString() : "null") + "], " +
-                "Avaluo 2: [" + ((avaluoDos != null) ? avaluoDos.toString() : "null") + "].");
+    private void resolverReferencias(List<Pieza> piezasValuadas, boolean paralela) {
+        Map<Object, Callable<?>> consultas = new LinkedHashMap<>();
+
+        for (Pieza pieza : piezasValuadas) {
+            consultas.putAll(pieza.getConsultasReferencia());
         }
 
-        if (avaluoUno == null) {
-            return AvaluoFactory.crearCon(
-                avaluoDos.valorMinimo(),
-                avaluoDos.valorPromedio(),
-                avaluoDos.valorMaximo());
+        boolean concurrente = resolucionReferencias != null && (consultas.size() > 1 || paralela);
+
+        if (consultas.isEmpty() || (!concurrente && !paralela)) {
+            return;
         }
 
-        Avaluo result = AvaluoFactory.crearCon(
-            avaluoUno.valorMinimo().add(avaluoDos.valorMinimo()),
-            avaluoUno.valorPromedio().add(avaluoDos.valorPromedio()),
-            avaluoUno.valorMaximo().add(avaluoDos.valorMaximo()));
+        LOGGER.debug("Resolviendo [{}] consultas a tablas de referencia", consultas.size());
+        Map<Object, Future<?>> referencias = new HashMap<>();
+        long limite = concurrente ? resolucionReferencias.calcularLimite() : 0L;
 
-        if (LOGGER.isDebugEnabled()) {
-            LOGGER.debug("<< sumarAvaluos. " +
-                "Avaluo Result: [" + ((result != null) ? result.toString() : "null") + "].");
+        for (Map.Entry<Object, Callable<?>> consulta : consultas.entrySet()) {
+            FutureTask<?> tarea = crearTarea(consulta.getValue());
+
+            if (concurrente) {
+                resolucionReferencias.getExecutor().execute(tarea);
+            } else {
+                tarea.run();
+            }
+
+            referencias.put(consulta.getKey(), tarea);
         }
 
-        return result;
+        if (paralela && concurrente) {
+            esperarReferencias(referencias, limite);
+        }
+
+        for (Pieza pieza : piezasValuadas) {
+            pieza.setReferencias(referencias, limite);
+        }
+    }
+
+    /**
+     * Metodo auxiliar utilizado para esperar, a lo más hasta el instante límite, los resultados de las consultas a
+     * tablas de referencia. Las fallas de las consultas no se propagan aquí, cada pieza las recibe al valuarse.
+     *
+     * @param referencias Los resultados indexados por llave.
+     * @param limite Instante (en nanosegundos, comparable con {@link System#nanoTime()}) en el que vence la espera.
+     *
+     * @throws ValuacionException Si alguna consulta excede el tiempo máximo de espera.
+     */
+    private static void esperarReferencias(Map<Object, Future<?>> referencias, long limite) {
+        for (Future<?> referencia : referencias.values()) {
+            try {
+                referencia.get(Math.max(0L, limite - System.nanoTime()), TimeUnit.NANOSECONDS);
+            } catch (ExecutionException e) {
+                LOGGER.debug("Falló una consulta a tablas de referencia, se propaga al valuar la pieza", e);
+            } catch (TimeoutException e) {
+                cancelarReferencias(referencias);
+                throw Pieza.crearExcepcionTiempoAgotado();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                cancelarReferencias(referencias);
+                throw new IllegalStateException(e);
+            }
+        }
+    }
+
+    /**
+     * Metodo auxiliar utilizado para cancelar las consultas a tablas de referencia pendientes.
+     *
+     * @param referencias Los resultados indexados por llave.
+     */
+    private static void cancelarReferencias(Map<Object, Future<?>> referencias) {
+        for (Future<?> referencia : referencias.values()) {
+            referencia.cancel(true);
+        }
+    }
+
+    /**
+     * Metodo auxiliar utilizado para crear la tarea de una consulta.
+     *
+     * @param consulta La consulta.
+     * @param <T> Tipo del resultado.
+     * @return La tarea.
+     */
+    private static <T> FutureTask<T> crearTarea(Callable<T> consulta) {
+        return new FutureTask<>(consulta);
     }
 
     /**
@@ -208,10 +517,11 @@ public class Prenda implements PiezaValuable {
                 "Factor: [" + ((factor != null) ? factor.toString() : "null") + "].");
         }
 
+        PrecisionIntermediaUtil precision = PrecisionIntermediaUtil.get();
         Avaluo result = AvaluoFactory.crearCon(
-            avaluo.valorMinimo().multiply(factor),
-            avaluo.valorPromedio().multiply(factor),
-            avaluo.valorMaximo().multiply(factor));
+            precision.multiplicar(avaluo.valorMinimo(), factor),
+            precision.multiplicar(avaluo.valorPromedio(), factor),
+            precision.multiplicar(avaluo.valorMaximo(), factor));
 
         if (LOGGER.isDebugEnabled()) {
             LOGGER.debug("<< aplicarPoliticaCastigo. " +
@@ -224,43 +534,84 @@ public class Prenda implements PiezaValuable {
     /**
      * Metodo auxiliar utilizado para aplicar el factor correspondiente por condiciones fisicas de la prenda.
      *
-     * @param avaluoTotal El avalúo.
-     *
-     * @return El avalúo con el factor aplicado.
+     * @param avaluoTotal El avalúo acumulado, al que se aplica el factor.
+     * @param condicion La condición física de la prenda.
      */
-    private Avaluo aplicarPorcentajeCondidicionesFisicas(Avaluo avaluoTotal) {
+    private void aplicarPorcentajeCondidicionesFisicas(AcumuladorAvaluo avaluoTotal, CondicionPrendaVO condicion) {
         LOGGER.debug(">> aplicarPorcentajeCondidicionesFisicas. [{}]", avaluoTotal);
         BigDecimal factor = BigDecimal.ONE;
 
         try {
             ModificadorCondicionPrenda modificador = condicionPrendaRepository
-                .consultarModificadorCondicionPrendaVigente(condicionFisica);
+                .consultarModificadorCondicionPrendaVigente(condicion);
             factor = modificador.getFactor();
             LOGGER.info("Factor por condiciones recuperado [{}]", factor);
         } catch (ModificadorCondicionPrendaNoEncontradoException e) {
             LOGGER.warn(String
-                    .format("No existe el modificador condicion prenda [%s]", condicionFisica.getCondicionPrenda()),
+                    .format("No existe el modificador condicion prenda [%s]", condicion.getCondicionPrenda()),
                 e);
         } catch (Exception e) {
             LOGGER.error("Ocurrió un error inesperado al consultar el modificador de codición fisica de la prenda", e);
             throw e;
         }
 
-        BigDecimal valorMinimo = avaluoTotal.valorMinimo().multiply(factor);
-        LOGGER.info("Aplicando factor {} * {} = {} ", avaluoTotal.valorMinimo(), factor, valorMinimo);
+        avaluoTotal.multiplicar(factor);
+        LOGGER.info("Aplicando factor {}: valorMinimo = {}, valorPromedio = {}, valorMaximo = {}", factor,
+            avaluoTotal.getValorMinimo(), avaluoTotal.getValorPromedio(), avaluoTotal.getValorMaximo());
+
+        LOGGER.debug("<< aplicarPorcentajeCondidicionesFisicas. Result: [{}]", avaluoTotal);
+    }
 
-        BigDecimal valorPromedio = avaluoTotal.valorPromedio().multiply(factor);
-        LOGGER.info("Aplicando factor {} * {} = {} ", avaluoTotal.valorPromedio(), factor, valorPromedio);
+    /**
+     * Tarea fork-join que valúa un rango de grupos de piezas, dividiéndolo mientras exceda el número de grupos por
+     * tarea. Los avalúos acumulados de cada mitad se combinan por tipo de pieza; como la suma de {@link BigDecimal}
+     * es exacta, el resultado es idéntico al de la valuación secuencial sin importar el orden de combinación.
+     */
+    private static final class ValuacionGrupos
+        extends RecursiveTask<Map<Class<? extends Pieza>, AcumuladorAvaluo>> {
 
-        BigDecimal valorMaximo = avaluoTotal.valorMaximo().multiply(factor);
-        LOGGER.info("Aplicando factor {} * {} = {} ", avaluoTotal.valorMaximo(), factor, valorMaximo);
+        private static final long serialVersionUID = -4431938462735106411L;
 
+        private final List<List<Pieza>> grupos;
+        private final int desde;
+        private final int hasta;
+        private final int gruposPorTarea;
 
-        Avaluo resultado = AvaluoFactory.crearCon(valorMinimo, valorPromedio, valorMaximo);
+        ValuacionGrupos(List<List<Pieza>> grupos, int desde, int hasta, int gruposPorTarea) {
+            super();
 
-        LOGGER.debug("<< aplicarPorcentajeCondidicionesFisicas. Result: [{}]", resultado);
+            this.grupos = grupos;
+            this.desde = desde;
+            this.hasta = hasta;
+            this.gruposPorTarea = gruposPorTarea;
+        }
 
-        return resultado;
+        @Override
+        protected Map<Class<? extends Pieza>, AcumuladorAvaluo> compute() {
+            if (hasta - desde <= gruposPorTarea) {
+                return valuarGrupos(grupos, desde, hasta);
+            }
+
+            int mitad = (desde + hasta) >>> 1;
+            ValuacionGrupos izquierda = new ValuacionGrupos(grupos, desde, mitad, gruposPorTarea);
+            izquierda.fork();
+
+            Map<Class<? extends Pieza>, AcumuladorAvaluo> derecha =
+                new ValuacionGrupos(grupos, mitad, hasta, gruposPorTarea).compute();
+            Map<Class<? extends Pieza>, AcumuladorAvaluo> resultado = izquierda.join();
+
+            for (Map.Entry<Class<? extends Pieza>, AcumuladorAvaluo> entry : derecha.entrySet()) {
+                AcumuladorAvaluo acumulado = resultado.get(entry.getKey());
+
+                if (acumulado == null) {
+                    resultado.put(entry.getKey(), entry.getValue());
+                } else {
+                    acumulado.combinar(entry.getValue());
+                }
+            }
+
+            return resultado;
+        }
     }
 
 
@@ -271,6 +622,10 @@ public class Prenda implements PiezaValuable {
         return piezas;
     }
 
+    public CondicionPrendaVO getCondicionFisica() {
+        return condicionFisica;
+    }
+
     public Avaluo getAvaluo() {
         if (avaluo == null) {
             avaluo = valuar();
@@ -0,0 +1,65 @@
+/**
+ * Proyecto:        NMP - Microservicio de Motor de Valuación
+ * Quarksoft S.A.P.I. de C.V. – Todos los derechos reservados. Para uso exclusivo de Nacional Monte de Piedad.
+ */
+package mx.com.nmp.ms.sivad.valuacion.dominio.modelo;
+
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Parámetros de la resolución concurrente de las consultas a tablas de referencia de las piezas de una
+ * {@link Prenda}: el pool de hilos en el que se ejecutan las consultas y el tiempo máximo de espera de sus
+ * resultados.
+ */
+public final class ResolucionReferencias {
+
+    /**
+     * Pool de hilos en el que se ejecutan las consultas.
+     */
+    private final Executor executor;
+
+    /**
+     * Tiempo máximo (en milisegundos) de espera de los resultados de las consultas de una prenda.
+     */
+    private final long tiempoMaximo;
+
+
+
+    // METODOS
+
+    /**
+     * Constructor.
+     *
+     * @param executor Pool de hilos en el que se ejecutan las consultas.
+     * @param tiempoMaximo Tiempo máximo (en milisegundos) de espera de los resultados de las consultas.
+     */
+    public ResolucionReferencias(Executor executor, long tiempoMaximo) {
+        super();
+
+        this.executor = executor;
+        this.tiempoMaximo = tiempoMaximo;
+    }
+
+    /**
+     * Calcula el instante en el que vence la espera de las consultas iniciadas en este momento.
+     *
+     * @return El instante, en nanosegundos, comparable con {@link System#nanoTime()}.
+     */
+    long calcularLimite() {
+        return System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(tiempoMaximo);
+    }
+
+
+
+    // GETTERS
+
+    public Executor getExecutor() {
+        return executor;
+    }
+
+    public long getTiempoMaximo() {
+        return tiempoMaximo;
+    }
+
+}
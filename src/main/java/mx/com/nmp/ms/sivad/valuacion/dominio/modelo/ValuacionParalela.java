@@ -0,0 +1,81 @@
+/**
+ * Proyecto:        NMP - Microservicio de Motor de Valuación
+ * Quarksoft S.A.P.I. de C.V. – Todos los derechos reservados. Para uso exclusivo de Nacional Monte de Piedad.
+ */
+package mx.com.nmp.ms.sivad.valuacion.dominio.modelo;
+
+import java.util.concurrent.ForkJoinPool;
+
+/**
+ * Parámetros de la valuación paralela de las piezas de una {@link Prenda}: el pool compartido y acotado en el que
+ * se valúan las piezas, el número mínimo de grupos de piezas distintas a partir del cual la valuación se reparte y el
+ * número de grupos que valúa secuencialmente cada tarea.
+ */
+public final class ValuacionParalela {
+
+    /**
+     * Valuación paralela deshabilitada, las piezas se valúan en el hilo de la petición.
+     */
+    public static final ValuacionParalela DESHABILITADA = new ValuacionParalela(null, Integer.MAX_VALUE, 1);
+
+    /**
+     * Pool en el que se valúan las piezas.
+     */
+    private final ForkJoinPool pool;
+
+    /**
+     * Número mínimo de grupos de piezas para valuar en paralelo.
+     */
+    private final int umbral;
+
+    /**
+     * Número máximo de grupos de piezas que valúa secuencialmente cada tarea.
+     */
+    private final int gruposPorTarea;
+
+
+
+    // METODOS
+
+    /**
+     * Constructor.
+     *
+     * @param pool Pool en el que se valúan las piezas.
+     * @param umbral Número mínimo de grupos de piezas para valuar en paralelo.
+     * @param gruposPorTarea Número máximo de grupos de piezas que valúa secuencialmente cada tarea.
+     */
+    public ValuacionParalela(ForkJoinPool pool, int umbral, int gruposPorTarea) {
+        super();
+
+        this.pool = pool;
+        this.umbral = umbral;
+        this.gruposPorTarea = Math.max(1, gruposPorTarea);
+    }
+
+    /**
+     * Indica si un número de grupos de piezas debe valuarse en paralelo.
+     *
+     * @param grupos Número de grupos de piezas distintas.
+     * @return {@code true} si debe valuarse en paralelo.
+     */
+    boolean aplica(int grupos) {
+        return pool != null && grupos >= umbral && grupos > gruposPorTarea;
+    }
+
+
+
+    // GETTERS
+
+    public ForkJoinPool getPool() {
+        return pool;
+    }
+
+    public int getUmbral() {
+        return umbral;
+    }
+
+    public int getGruposPorTarea() {
+        return gruposPorTarea;
+    }
+
+}
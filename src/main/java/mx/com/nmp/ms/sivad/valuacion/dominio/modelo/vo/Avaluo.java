@@ -7,6 +7,7 @@
  */
 package mx.com.nmp.ms.sivad.valuacion.dominio.modelo.vo;
 
+import mx.com.nmp.ms.sivad.valuacion.dominio.estrategia.RedondeoEstrategia;
 import mx.com.nmp.ms.sivad.valuacion.infrastructure.estrategia.RedondeoEstrategiaUtil;
 
 import java.math.BigDecimal;
@@ -15,23 +16,31 @@ import java.util.Objects;
 /**
  * Value Object que contendrá el resultado de la valuación de una pieza.
  *
+ * Conserva los valores originales y sus valores redondeados, calculados una sola vez con la estrategia de
+ * redondeo vigente al crearse. Si la estrategia vigente cambia, los valores redondeados se recalculan.
+ *
  * @author <a href="https://wiki.quarksoft.net/display/~cachavez">Carlos Chávez Melena</a>
  */
 public class Avaluo {
     /**
      * Valor mínimo del avaluó.
      */
-    private BigDecimal valorMinimo;
+    private final BigDecimal valorMinimo;
 
     /**
      * Valor promedio del avaluó.
      */
-    private BigDecimal valorPromedio;
+    private final BigDecimal valorPromedio;
 
     /**
      * Valor máximo del avaluó.
      */
-    private BigDecimal valorMaximo;
+    private final BigDecimal valorMaximo;
+
+    /**
+     * Valores redondeados con la estrategia vigente.
+     */
+    private Redondeados redondeados;
 
     /**
      * Constructor.
@@ -46,6 +55,7 @@ public class Avaluo {
         this.valorMinimo = valorMinimo;
         this.valorPromedio = valorPromedio;
         this.valorMaximo = valorMaximo;
+        this.redondeados = new Redondeados(RedondeoEstrategiaUtil.get().getRedondeoEstrategia());
     }
 
     /**
@@ -54,7 +64,7 @@ public class Avaluo {
      * @return Valor mínimo del avaluó.
      */
     public BigDecimal valorMinimo() {
-        return RedondeoEstrategiaUtil.get().redondear(valorMinimo);
+        return getRedondeados().valorMinimo;
     }
 
     /**
@@ -63,7 +73,7 @@ public class Avaluo {
      * @return Valor promedio del avaluó.
      */
     public BigDecimal valorPromedio() {
-        return RedondeoEstrategiaUtil.get().redondear(valorPromedio);
+        return getRedondeados().valorPromedio;
     }
 
     /**
@@ -72,7 +82,24 @@ public class Avaluo {
      * @return Valor máximo del avaluó.
      */
     public BigDecimal valorMaximo() {
-        return RedondeoEstrategiaUtil.get().redondear(valorMaximo);
+        return getRedondeados().valorMaximo;
+    }
+
+    /**
+     * Recupera los valores redondeados, recalculándolos si la estrategia de redondeo vigente cambió.
+     *
+     * @return Los valores redondeados.
+     */
+    private Redondeados getRedondeados() {
+        RedondeoEstrategia estrategia = RedondeoEstrategiaUtil.get().getRedondeoEstrategia();
+        Redondeados actuales = redondeados;
+
+        if (actuales == null || actuales.estrategia != estrategia) {
+            actuales = new Redondeados(estrategia);
+            redondeados = actuales;
+        }
+
+        return actuales;
     }
 
     /**
@@ -88,11 +115,12 @@ public class Avaluo {
             return false;
         }
 
-        Avaluo avaluo = (Avaluo) o;
+        Redondeados propios = getRedondeados();
+        Redondeados otros = ((Avaluo) o).getRedondeados();
 
-        return Objects.equals(valorMinimo(), avaluo.valorMinimo()) &&
-            Objects.equals(valorPromedio(), avaluo.valorPromedio()) &&
-            Objects.equals(valorMaximo(), avaluo.valorMaximo());
+        return Objects.equals(propios.valorMinimo, otros.valorMinimo) &&
+            Objects.equals(propios.valorPromedio, otros.valorPromedio) &&
+            Objects.equals(propios.valorMaximo, otros.valorMaximo);
     }
 
     /**
@@ -108,7 +136,27 @@ public class Avaluo {
      */
     @Override
     public String toString() {
+        Redondeados valores = getRedondeados();
+
         return String.format("Avaluo{valorMinimo=%s, valorPromedio=%s, valorMaximo=%s}",
-            valorMinimo(), valorPromedio(), valorMaximo());
+            valores.valorMinimo, valores.valorPromedio, valores.valorMaximo);
+    }
+
+    /**
+     * Valores redondeados con una estrategia. Es inmutable, por lo que puede compartirse entre hilos sin
+     * sincronización; en el peor caso dos hilos calculan el mismo redondeo.
+     */
+    private final class Redondeados {
+        private final RedondeoEstrategia estrategia;
+        private final BigDecimal valorMinimo;
+        private final BigDecimal valorPromedio;
+        private final BigDecimal valorMaximo;
+
+        Redondeados(RedondeoEstrategia estrategia) {
+            this.estrategia = estrategia;
+            this.valorMinimo = estrategia.redondear(Avaluo.this.valorMinimo);
+            this.valorPromedio = estrategia.redondear(Avaluo.this.valorPromedio);
+            this.valorMaximo = estrategia.redondear(Avaluo.this.valorMaximo);
+        }
     }
 }
@@ -0,0 +1,63 @@
+/**
+ * Proyecto:        NMP - Microservicio de Motor de Valuación
+ * Quarksoft S.A.P.I. de C.V. – Todos los derechos reservados. Para uso exclusivo de Nacional Monte de Piedad.
+ */
+package mx.com.nmp.ms.sivad.valuacion.dominio.modelo.vo;
+
+import org.joda.time.DateTime;
+
+/**
+ * Value Object con la información de un escenario de valuación de la prenda: las políticas de castigo y la
+ * condición física con las que se calcula el avalúo.
+ */
+public class EscenarioValuacionVO {
+
+    /**
+     * Fecha de listado de las políticas de castigo; {@code null} indica las políticas vigentes.
+     */
+    private DateTime fechaPoliticas;
+
+    /**
+     * Condición física de la prenda; {@code null} indica que no se aplica modificador por condición.
+     */
+    private CondicionPrendaVO condicionFisica;
+
+
+
+    // METODOS
+
+    /**
+     * Constructor.
+     *
+     * @param fechaPoliticas Fecha de listado de las políticas de castigo, {@code null} para las vigentes.
+     * @param condicionFisica Condición física de la prenda, {@code null} para no aplicar modificador.
+     */
+    public EscenarioValuacionVO(DateTime fechaPoliticas, CondicionPrendaVO condicionFisica) {
+        this.fechaPoliticas = fechaPoliticas;
+        this.condicionFisica = condicionFisica;
+    }
+
+
+
+    // GETTERS
+
+    public DateTime getFechaPoliticas() {
+        return fechaPoliticas;
+    }
+
+    public CondicionPrendaVO getCondicionFisica() {
+        return condicionFisica;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public String toString() {
+        return "EscenarioValuacionVO{" +
+            "fechaPoliticas=" + fechaPoliticas +
+            ", condicionFisica=" + condicionFisica +
+            '}';
+    }
+
+}
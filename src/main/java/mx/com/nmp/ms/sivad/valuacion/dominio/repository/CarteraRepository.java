@@ -0,0 +1,67 @@
+/**
+ * Proyecto:        NMP - Microservicio de Motor de Valuación
+ * Quarksoft S.A.P.I. de C.V. – Todos los derechos reservados. Para uso exclusivo de Nacional Monte de Piedad.
+ */
+package mx.com.nmp.ms.sivad.valuacion.dominio.repository;
+
+import mx.com.nmp.ms.sivad.valuacion.dominio.modelo.Prenda;
+import mx.com.nmp.ms.sivad.valuacion.dominio.modelo.vo.Avaluo;
+
+import java.util.Collection;
+
+/**
+ * Interface que proporciona el contrato para conservar la cartera de prendas valuadas y mantener sus avalúos
+ * actualizados cuando cambian los datos de referencia.
+ *
+ * De cada prenda se conservan las características y el avalúo de sus piezas, las llaves de las tablas de referencia
+ * de las que depende cada pieza y los avalúos acumulados por tipo de pieza. Cuando cambia el valor de una llave sólo
+ * se vuelven a valuar las piezas que dependen de ella, y el avalúo de su prenda se actualiza por diferencia; la
+ * revaluación de toda la cartera actualiza también sólo las prendas cuyas piezas cambiaron.
+ */
+public interface CarteraRepository {
+
+    /**
+     * Registra la prenda valuada, reemplazando el registro anterior con el mismo identificador.
+     *
+     * @param id Identificador de la prenda.
+     * @param prenda La prenda, con sus piezas valuadas.
+     * @param avaluo El avalúo de la prenda.
+     */
+    void registrar(String id, Prenda prenda, Avaluo avaluo);
+
+    /**
+     * Vuelve a valuar las piezas que dependen de las llaves indicadas y actualiza el avalúo de sus prendas. Las
+     * piezas se recorren por páginas y las prendas de cada página se actualizan en su propia transacción.
+     *
+     * @param llaves Llaves de las tablas de referencia cuyo valor cambió.
+     * @return El número de prendas cuyo avalúo cambió.
+     */
+    int revaluar(Collection<String> llaves);
+
+    /**
+     * Vuelve a valuar todas las piezas de la cartera con los valores vigentes de las tablas de referencia y actualiza
+     * el avalúo de las prendas cuyas piezas cambiaron. Las piezas se recorren por páginas y las prendas de cada página
+     * se actualizan en su propia transacción.
+     *
+     * @return El número de prendas cuyo avalúo cambió.
+     */
+    int revaluarCartera();
+
+    /**
+     * Recalcula el avalúo de todas las prendas con las políticas de castigo y los modificadores de condición
+     * vigentes, a partir de los avalúos acumulados por tipo de pieza y sin volver a valuar las piezas. Cada página
+     * de prendas se actualiza en su propia transacción.
+     *
+     * @return El número de prendas cuyo avalúo cambió.
+     */
+    int retotalizar();
+
+    /**
+     * Consulta el avalúo vigente de una prenda de la cartera.
+     *
+     * @param id Identificador de la prenda.
+     * @return El avalúo, o {@code null} si la prenda no está registrada.
+     */
+    Avaluo consultar(String id);
+
+}
@@ -0,0 +1,45 @@
+/**
+ * Proyecto:        NMP - Microservicio de Motor de Valuación
+ * Quarksoft S.A.P.I. de C.V. – Todos los derechos reservados. Para uso exclusivo de Nacional Monte de Piedad.
+ */
+package mx.com.nmp.ms.sivad.valuacion.dominio.repository;
+
+import mx.com.nmp.ms.sivad.valuacion.dominio.modelo.FirmaPieza;
+import mx.com.nmp.ms.sivad.valuacion.dominio.modelo.vo.Avaluo;
+
+/**
+ * Interface que proporciona el contrato para conservar los avalúos de piezas ya calculados, indexados por la
+ * {@link FirmaPieza} y por la versión de los datos de referencia con la que se calcularon.
+ *
+ * El llamador obtiene la versión vigente antes de consultar las tablas de referencia, de forma que un avalúo
+ * calculado mientras los datos cambiaban se registra con una versión anterior y nunca se entrega.
+ */
+public interface MemoriaAvaluosRepository {
+
+    /**
+     * Recupera la versión vigente de los datos de referencia.
+     *
+     * @return La versión vigente.
+     */
+    long getVersion();
+
+    /**
+     * Consulta el avalúo de las piezas con la firma indicada.
+     *
+     * @param firma Firma de la pieza.
+     * @param version Versión de los datos de referencia.
+     *
+     * @return El avalúo, o {@code null} si no existe uno vigente calculado con la misma versión.
+     */
+    Avaluo consultar(FirmaPieza firma, long version);
+
+    /**
+     * Registra el avalúo de las piezas con la firma indicada.
+     *
+     * @param firma Firma de la pieza.
+     * @param version Versión de los datos de referencia obtenida antes de valuar la pieza.
+     * @param avaluo El avalúo de la pieza.
+     */
+    void guardar(FirmaPieza firma, long version, Avaluo avaluo);
+
+}
@@ -7,6 +7,7 @@
  */
 package mx.com.nmp.ms.sivad.valuacion.infrastructure.aop;
 
+import mx.com.nmp.ms.sivad.valuacion.conector.ValorObsoletoException;
 import mx.com.nmp.ms.sivad.valuacion.dominio.exception.ValuacionException;
 import org.aspectj.lang.JoinPoint;
 import org.aspectj.lang.annotation.AfterThrowing;
@@ -45,6 +46,11 @@ public class ConectorExcepcionAspect {
     public void manejarExcepcion(JoinPoint jp, Throwable excepcion) throws Throwable {
         LOGGER.info(">> manejarExcepcion({})", jp);
 
+        if (excepcion instanceof ValorObsoletoException) {
+            // LA ATIENDE ValorObsoletoAspect, FUERA DEL CACHE.
+            throw excepcion;
+        }
+
         if (SOAPFaultException.class.isAssignableFrom(excepcion.getClass())) {
             SOAPFaultException ex = (SOAPFaultException) excepcion;
             LOGGER.warn(ex.getMessage(), ex);
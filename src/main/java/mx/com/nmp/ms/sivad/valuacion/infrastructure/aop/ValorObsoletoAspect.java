@@ -0,0 +1,48 @@
+/**
+ * Proyecto:        NMP - Microservicio de Motor de Valuación
+ * Quarksoft S.A.P.I. de C.V. – Todos los derechos reservados. Para uso exclusivo de Nacional Monte de Piedad.
+ */
+package mx.com.nmp.ms.sivad.valuacion.infrastructure.aop;
+
+import mx.com.nmp.ms.sivad.valuacion.conector.ValorObsoletoException;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+
+/**
+ * Interceptor que entrega el último valor conocido de las consultas hacia el Micro Servicio Tabla de Referencia que
+ * el interruptor de circuito no envió al servicio remoto.
+ *
+ * Tiene la mayor precedencia para envolver al interceptor de caché: el valor llega como {@link ValorObsoletoException}
+ * y el caché no lo almacena, por lo que la siguiente consulta vuelve a pasar por el interruptor en lugar de recibir el
+ * valor obsoleto durante todo el tiempo de vida de la entrada.
+ */
+@Aspect
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE)
+public class ValorObsoletoAspect {
+    private static final Logger LOGGER = LoggerFactory.getLogger(ValorObsoletoAspect.class);
+
+    /**
+     * Permite interceptar los métodos de los conectores hacia el Micro Servicio Tabla de Referencia.
+     *
+     * @param pjp Punto de unión.
+     * @return El resultado de la consulta, o el último valor conocido si el interruptor no la envió.
+     * @throws Throwable Se relanzan las demás excepciones del método.
+     */
+    @Around("execution (public * mx.com.nmp.ms.sivad.valuacion.conector.TablasDeReferencia*.*(..))")
+    public Object entregarValorObsoleto(ProceedingJoinPoint pjp) throws Throwable {
+        try {
+            return pjp.proceed();
+        } catch (ValorObsoletoException e) {
+            LOGGER.debug("Entregando el último valor conocido de {}. {}", pjp.getSignature(), e.getMessage());
+            return e.getValor();
+        }
+    }
+
+}
@@ -0,0 +1,288 @@
+/**
+ * Proyecto:        NMP - Microservicio de Motor de Valuación
+ * Quarksoft S.A.P.I. de C.V. – Todos los derechos reservados. Para uso exclusivo de Nacional Monte de Piedad.
+ */
+package mx.com.nmp.ms.sivad.valuacion.infrastructure.cache;
+
+import mx.com.nmp.ms.sivad.valuacion.config.InvalidacionCacheProperties;
+import mx.com.nmp.ms.sivad.valuacion.infrastructure.jpa.dominio.VersionCacheJPA;
+import mx.com.nmp.ms.sivad.valuacion.infrastructure.jpa.repository.VersionCacheJPARepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.dao.DataAccessException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronizationAdapter;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.inject.Inject;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Invalidación de los cachés en memoria entre las instancias del servicio.
+ *
+ * Cada recurso conservado en caché (políticas de castigo, modificadores de condición de prenda) tiene una versión
+ * en la base de datos compartida, que se incrementa en la misma transacción que registra el cambio. Cada instancia
+ * consulta periódicamente las versiones y, cuando alguna avanzó, notifica únicamente a los suscriptores de ese
+ * recurso para que descarten sus cachés. La instancia que registró el cambio actualiza sus cachés al confirmarse la
+ * transacción, por lo que no se invalida a sí misma.
+ *
+ * Además se lleva la cuenta de los cambios observados por la instancia, propios o de otras instancias, para que los
+ * cachés derivados de los recursos (por ejemplo, respuestas ya calculadas) detecten que quedaron obsoletos. La cuenta
+ * avanza después de que los suscriptores descartaron sus cachés o de que el cambio propio se publicó, por lo que un
+ * resultado calculado con los datos anteriores siempre se asocia a la cuenta anterior.
+ */
+@Component
+public class InvalidacionCache {
+
+    /**
+     * Utilizada para manipular los mensajes informativos y de error.
+     */
+    private static final Logger LOGGER = LoggerFactory.getLogger(InvalidacionCache.class);
+
+    /**
+     * Suscriptor de la invalidación de un recurso.
+     */
+    public interface Suscriptor {
+
+        /**
+         * Descarta los cachés del recurso, que fue modificado por otra instancia.
+         *
+         * @param recurso Nombre del recurso.
+         */
+        void invalidar(String recurso);
+
+    }
+
+    /**
+     * Última versión conocida de cada recurso.
+     */
+    private final ConcurrentMap<String, Long> versiones = new ConcurrentHashMap<>();
+
+    /**
+     * Suscriptores por recurso.
+     */
+    private final ConcurrentMap<String, List<Suscriptor>> suscriptores = new ConcurrentHashMap<>();
+
+    /**
+     * Número de cambios de recursos observados por la instancia.
+     */
+    private final AtomicLong cambios = new AtomicLong();
+
+    /**
+     * Indica si ya se obtuvieron las versiones iniciales.
+     */
+    private volatile boolean inicializada;
+
+    /**
+     * Propiedades de la invalidación.
+     */
+    @Inject
+    private InvalidacionCacheProperties propiedades;
+
+    /**
+     * Referencia al repositorio de {@link VersionCacheJPA}.
+     */
+    @Inject
+    private VersionCacheJPARepository repositorio;
+
+
+
+    // METODOS
+
+    /**
+     * Constructor.
+     */
+    public InvalidacionCache() {
+        super();
+    }
+
+    /**
+     * Registra un suscriptor de la invalidación del recurso indicado.
+     *
+     * @param recurso Nombre del recurso.
+     * @param suscriptor El suscriptor.
+     */
+    public void suscribir(String recurso, Suscriptor suscriptor) {
+        List<Suscriptor> lista = suscriptores.get(recurso);
+
+        if (lista == null) {
+            List<Suscriptor> nueva = new CopyOnWriteArrayList<>();
+            lista = suscriptores.putIfAbsent(recurso, nueva);
+
+            if (lista == null) {
+                lista = nueva;
+            }
+        }
+
+        lista.add(suscriptor);
+    }
+
+    /**
+     * Registra el cambio del recurso incrementando su versión dentro de la transacción en curso, para que las
+     * demás instancias lo detecten sólo si la transacción se confirma. Debe invocarse después de programar la
+     * publicación del cambio en memoria, ya que la cuenta de cambios avanza al confirmarse la transacción.
+     *
+     * La versión de cada recurso se registra con los scripts de creación del esquema; no se crea aquí, ya que dos
+     * instancias que la crearan al mismo tiempo violarían la llave primaria.
+     *
+     * @param recurso Nombre del recurso.
+     * @throws IllegalStateException Si el recurso no tiene versión registrada.
+     */
+    @Transactional
+    public void notificarCambio(final String recurso) {
+        if (!propiedades.isHabilitada()) {
+            alConfirmar(new Runnable() {
+                @Override
+                public void run() {
+                    cambios.incrementAndGet();
+                }
+            });
+            return;
+        }
+
+        if (repositorio.incrementar(recurso) == 0) {
+            throw new IllegalStateException("El recurso [" + recurso + "] no tiene version registrada en " +
+                "cfg_version_cache.");
+        }
+
+        final long version = repositorio.findOne(recurso).getVersion();
+
+        alConfirmar(new Runnable() {
+            @Override
+            public void run() {
+                avanzar(recurso, version);
+                cambios.incrementAndGet();
+            }
+        });
+
+        LOGGER.debug("Recurso [{}] actualizado a la version [{}]", recurso, version);
+    }
+
+    /**
+     * Consulta periódicamente las versiones de los recursos e invalida los cachés de aquellos que cambiaron. La
+     * primera consulta sólo obtiene las versiones iniciales.
+     */
+    @Scheduled(fixedDelayString = "${valuacion.cache.invalidacion.intervalo:5000}")
+    public void sondear() {
+        if (!propiedades.isHabilitada()) {
+            return;
+        }
+
+        List<VersionCacheJPA> actuales;
+
+        try {
+            actuales = repositorio.findAll();
+        } catch (DataAccessException e) {
+            LOGGER.warn("No fue posible consultar las versiones de los caches: {}", e.getMessage());
+            return;
+        }
+
+        for (VersionCacheJPA actual : actuales) {
+            if (!esPosterior(actual.getNombre(), actual.getVersion())) {
+                continue;
+            }
+
+            if (inicializada) {
+                invalidar(actual.getNombre());
+            }
+
+            if (avanzar(actual.getNombre(), actual.getVersion()) && inicializada) {
+                cambios.incrementAndGet();
+            }
+        }
+
+        inicializada = true;
+    }
+
+    /**
+     * Recupera el número de cambios de recursos observados por la instancia.
+     *
+     * @return El número de cambios.
+     */
+    public long getCambios() {
+        return cambios.get();
+    }
+
+    /**
+     * Ejecuta la acción al confirmarse la transacción en curso, o de inmediato si no existe una.
+     *
+     * @param accion La acción.
+     */
+    private static void alConfirmar(final Runnable accion) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronizationAdapter() {
+                @Override
+                public void afterCommit() {
+                    accion.run();
+                }
+            });
+        } else {
+            accion.run();
+        }
+    }
+
+    /**
+     * Indica si la versión observada del recurso es posterior a la conocida.
+     *
+     * @param recurso Nombre del recurso.
+     * @param version Versión observada.
+     * @return {@code true} si la versión es posterior o el recurso no tenía versión conocida.
+     */
+    private boolean esPosterior(String recurso, long version) {
+        Long conocida = versiones.get(recurso);
+        return conocida == null || conocida < version;
+    }
+
+    /**
+     * Actualiza la versión conocida del recurso si la indicada es posterior.
+     *
+     * @param recurso Nombre del recurso.
+     * @param version Versión observada.
+     * @return {@code true} si la versión conocida avanzó.
+     */
+    private boolean avanzar(String recurso, long version) {
+        while (true) {
+            Long conocida = versiones.get(recurso);
+
+            if (conocida == null) {
+                if (versiones.putIfAbsent(recurso, version) == null) {
+                    return true;
+                }
+            } else if (conocida >= version) {
+                return false;
+            } else if (versiones.replace(recurso, conocida, version)) {
+                return true;
+            }
+        }
+    }
+
+    /**
+     * Notifica a los suscriptores del recurso. La falla de un suscriptor no impide notificar a los demás.
+     *
+     * @param recurso Nombre del recurso.
+     */
+    private void invalidar(String recurso) {
+        List<Suscriptor> lista = suscriptores.get(recurso);
+
+        if (lista == null) {
+            return;
+        }
+
+        LOGGER.info("Invalidando los caches del recurso [{}], version [{}]", recurso, versiones.get(recurso));
+
+        for (Suscriptor suscriptor : lista) {
+            try {
+                suscriptor.invalidar(recurso);
+            } catch (RuntimeException e) {
+                LOGGER.error("Error al invalidar los caches del recurso [{}]", recurso, e);
+            }
+        }
+    }
+
+}
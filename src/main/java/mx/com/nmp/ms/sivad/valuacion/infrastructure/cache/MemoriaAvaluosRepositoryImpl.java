@@ -0,0 +1,182 @@
+/**
+ * Proyecto:        NMP - Microservicio de Motor de Valuación
+ * Quarksoft S.A.P.I. de C.V. – Todos los derechos reservados. Para uso exclusivo de Nacional Monte de Piedad.
+ */
+package mx.com.nmp.ms.sivad.valuacion.infrastructure.cache;
+
+import com.codahale.metrics.Gauge;
+import com.codahale.metrics.Meter;
+import com.codahale.metrics.MetricRegistry;
+import mx.com.nmp.ms.sivad.valuacion.config.MemoriaAvaluosProperties;
+import mx.com.nmp.ms.sivad.valuacion.dominio.modelo.FirmaPieza;
+import mx.com.nmp.ms.sivad.valuacion.dominio.modelo.vo.Avaluo;
+import mx.com.nmp.ms.sivad.valuacion.dominio.repository.MemoriaAvaluosRepository;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PostConstruct;
+import javax.inject.Inject;
+import java.util.Iterator;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Memoria en memoria de los avalúos de piezas, acotada en número de entradas y en vigencia.
+ *
+ * Cada avalúo se conserva con la versión de {@link VersionReferencias} con la que se calculó y sólo se entrega
+ * mientras esa versión sea la vigente; cualquier cambio en las tablas de referencia invalida todos los avalúos. Las
+ * políticas de castigo y la condición física de la prenda se aplican después de obtener el avalúo de la pieza, por
+ * lo que sus cambios no afectan a los avalúos conservados. Si la memoria está llena y no hay entradas vencidas que
+ * descartar, el avalúo simplemente no se conserva.
+ *
+ * Se registran los indicadores {@code aciertos}, {@code fallos} y {@code entradas}.
+ */
+@Component
+public class MemoriaAvaluosRepositoryImpl implements MemoriaAvaluosRepository {
+
+    /**
+     * Avalúos indexados por firma.
+     */
+    private final ConcurrentMap<FirmaPieza, Entrada> entradas = new ConcurrentHashMap<>();
+
+    /**
+     * Propiedades de la memoria.
+     */
+    @Inject
+    private MemoriaAvaluosProperties propiedades;
+
+    /**
+     * Versión de los datos de referencia.
+     */
+    @Inject
+    private VersionReferencias versionReferencias;
+
+    /**
+     * Registro de indicadores.
+     */
+    @Inject
+    private MetricRegistry metricRegistry;
+
+    /**
+     * Indicadores de aciertos y fallos.
+     */
+    private Meter aciertos;
+    private Meter fallos;
+
+
+
+    // METODOS
+
+    /**
+     * Constructor.
+     */
+    public MemoriaAvaluosRepositoryImpl() {
+        super();
+    }
+
+    /**
+     * Registra los indicadores.
+     */
+    @PostConstruct
+    public void init() {
+        aciertos = metricRegistry.meter(MetricRegistry.name(MemoriaAvaluosRepositoryImpl.class, "aciertos"));
+        fallos = metricRegistry.meter(MetricRegistry.name(MemoriaAvaluosRepositoryImpl.class, "fallos"));
+        metricRegistry.register(MetricRegistry.name(MemoriaAvaluosRepositoryImpl.class, "entradas"),
+            new Gauge<Integer>() {
+                @Override
+                public Integer getValue() {
+                    return entradas.size();
+                }
+            });
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public long getVersion() {
+        return versionReferencias.getVersion();
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public Avaluo consultar(FirmaPieza firma, long version) {
+        if (!propiedades.isHabilitada() || firma == null) {
+            return null;
+        }
+
+        Entrada entrada = entradas.get(firma);
+
+        if (entrada != null && !entrada.vigente(version, System.currentTimeMillis())) {
+            entradas.remove(firma, entrada);
+            entrada = null;
+        }
+
+        if (entrada == null) {
+            fallos.mark();
+            return null;
+        }
+
+        aciertos.mark();
+        return entrada.avaluo;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void guardar(FirmaPieza firma, long version, Avaluo avaluo) {
+        if (!propiedades.isHabilitada() || firma == null || avaluo == null ||
+            version != versionReferencias.getVersion()) {
+            return;
+        }
+
+        if (entradas.size() >= propiedades.getMaximoEntradas() && depurar() == 0) {
+            return;
+        }
+
+        entradas.put(firma, new Entrada(avaluo, version, System.currentTimeMillis() + propiedades.getVigencia()));
+    }
+
+    /**
+     * Elimina las entradas vencidas o calculadas con una versión anterior.
+     *
+     * @return El número de entradas eliminadas.
+     */
+    private int depurar() {
+        long version = versionReferencias.getVersion();
+        long ahora = System.currentTimeMillis();
+        int eliminadas = 0;
+        Iterator<Entrada> it = entradas.values().iterator();
+
+        while (it.hasNext()) {
+            if (!it.next().vigente(version, ahora)) {
+                it.remove();
+                eliminadas++;
+            }
+        }
+
+        return eliminadas;
+    }
+
+    /**
+     * Avalúo conservado con la versión con la que se calculó.
+     */
+    private static final class Entrada {
+        private final Avaluo avaluo;
+        private final long version;
+        private final long expira;
+
+        Entrada(Avaluo avaluo, long version, long expira) {
+            this.avaluo = avaluo;
+            this.version = version;
+            this.expira = expira;
+        }
+
+        boolean vigente(long versionVigente, long ahora) {
+            return version == versionVigente && expira >= ahora;
+        }
+    }
+
+}
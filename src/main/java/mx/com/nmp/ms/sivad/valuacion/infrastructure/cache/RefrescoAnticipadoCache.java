@@ -0,0 +1,328 @@
+/**
+ * Proyecto:        NMP - Microservicio de Motor de Valuación
+ * Quarksoft S.A.P.I. de C.V. – Todos los derechos reservados. Para uso exclusivo de Nacional Monte de Piedad.
+ */
+package mx.com.nmp.ms.sivad.valuacion.infrastructure.cache;
+
+import com.codahale.metrics.Meter;
+import com.codahale.metrics.MetricRegistry;
+import net.sf.ehcache.Ehcache;
+import net.sf.ehcache.Element;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.cache.Cache;
+import org.springframework.cache.support.NullValue;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+
+import java.util.Collections;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Decorador de caché que recarga en segundo plano las entradas que superan una fracción de su tiempo de vida,
+ * mientras las peticiones siguen recibiendo el valor vigente.
+ *
+ * El refresco sólo aplica a las consultas que proporcionan una función de carga, es decir, a los métodos anotados
+ * con {@code @Cacheable(sync = true)}. La función de carga pertenece a la invocación de la petición y no se reutiliza
+ * en segundo plano: el hilo de refresco repite la consulta con el {@link Recargador}, a través del proxy del bean, y
+ * la función de carga de esa nueva invocación es la que se ejecuta y almacena. Una entrada cuya edad supera el
+ * máximo de obsolescencia ya no se entrega y se recarga de forma síncrona.
+ */
+public class RefrescoAnticipadoCache implements Cache {
+
+    /**
+     * Utilizada para manipular los mensajes informativos y de error.
+     */
+    private static final Logger LOGGER = LoggerFactory.getLogger(RefrescoAnticipadoCache.class);
+
+    /**
+     * Indica que el hilo actual está recargando una entrada, por lo que la consulta debe cargarse aunque exista.
+     */
+    private static final ThreadLocal<Boolean> RECARGA = new ThreadLocal<>();
+
+    /**
+     * Interface que define el contrato para repetir la consulta de una llave.
+     */
+    public interface Recargador {
+        /**
+         * Repite la consulta de la llave a través del proxy del bean que la atiende.
+         *
+         * @param key La llave.
+         * @return {@code false} si la llave no corresponde a una consulta que pueda repetirse.
+         */
+        boolean recargar(Object key);
+    }
+
+    /**
+     * Caché decorado.
+     */
+    private final Cache cache;
+
+    /**
+     * Repite las consultas a refrescar.
+     */
+    private final Recargador recargador;
+
+    /**
+     * Caché nativo de Ehcache.
+     */
+    private final Ehcache ehcache;
+
+    /**
+     * Edad en milisegundos a partir de la cual se programa el refresco de una entrada.
+     */
+    private final long umbralRefresco;
+
+    /**
+     * Edad máxima en milisegundos con la que una entrada puede entregarse.
+     */
+    private final long maximoObsoleto;
+
+    /**
+     * Pool de hilos que ejecuta los refrescos.
+     */
+    private final ThreadPoolExecutor executor;
+
+    /**
+     * Llaves con un refresco programado o en ejecución.
+     */
+    private final Set<Object> enRefresco = Collections.newSetFromMap(new ConcurrentHashMap<Object, Boolean>());
+
+    /**
+     * Indicadores de refrescos exitosos, fallidos y descartados.
+     */
+    private final Meter refrescos;
+    private final Meter fallas;
+    private final Meter descartados;
+
+
+
+    // METODOS
+
+    /**
+     * Constructor.
+     *
+     * @param cache Caché de Ehcache a decorar.
+     * @param recargador Repite las consultas a refrescar.
+     * @param fraccion Fracción del tiempo de vida a partir de la cual se refresca una entrada.
+     * @param maximoObsoleto Edad máxima en segundos con la que una entrada puede entregarse; si es cero se utiliza
+     *                       el tiempo de vida del caché.
+     * @param hilos Número de refrescos concurrentes.
+     * @param capacidadCola Número máximo de refrescos en espera.
+     * @param metricRegistry Registro de indicadores.
+     */
+    public RefrescoAnticipadoCache(Cache cache, Recargador recargador, double fraccion, long maximoObsoleto,
+                                   int hilos, int capacidadCola, MetricRegistry metricRegistry) {
+        super();
+
+        this.cache = cache;
+        this.recargador = recargador;
+        this.ehcache = (Ehcache) cache.getNativeCache();
+
+        long tiempoVida = TimeUnit.SECONDS.toMillis(ehcache.getCacheConfiguration().getTimeToLiveSeconds());
+        this.umbralRefresco = (long) (tiempoVida * fraccion);
+        this.maximoObsoleto = (maximoObsoleto > 0) ? TimeUnit.SECONDS.toMillis(maximoObsoleto) : tiempoVida;
+
+        this.executor = new ThreadPoolExecutor(hilos, hilos, 60L, TimeUnit.SECONDS,
+            new ArrayBlockingQueue<Runnable>(capacidadCola),
+            new CustomizableThreadFactory("refresco-" + getName() + "-"));
+        this.executor.allowCoreThreadTimeOut(true);
+
+        this.refrescos =
+            metricRegistry.meter(MetricRegistry.name(RefrescoAnticipadoCache.class, getName(), "refrescos"));
+        this.fallas = metricRegistry.meter(MetricRegistry.name(RefrescoAnticipadoCache.class, getName(), "fallas"));
+        this.descartados =
+            metricRegistry.meter(MetricRegistry.name(RefrescoAnticipadoCache.class, getName(), "descartados"));
+
+        LOGGER.info("Refresco anticipado para el cache [{}]. Umbral: [{}] ms, maximo obsoleto: [{}] ms, hilos: [{}]",
+            getName(), umbralRefresco, this.maximoObsoleto, hilos);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public String getName() {
+        return cache.getName();
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public Object getNativeCache() {
+        return ehcache;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public ValueWrapper get(Object key) {
+        return cache.get(key);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public <T> T get(Object key, Class<T> type) {
+        return cache.get(key, type);
+    }
+
+    /**
+     * Recupera el valor de la llave. Si la entrada supera el umbral de refresco se programa su recarga y se entrega
+     * el valor vigente; si no existe o supera el máximo de obsolescencia, se carga de forma síncrona. Durante un
+     * refresco la consulta siempre se carga.
+     *
+     * {@inheritDoc}
+     */
+    @Override
+    public <T> T get(Object key, Callable<T> valueLoader) {
+        boolean recarga = RECARGA.get() != null;
+        Element element = recarga ? null : ehcache.get(key);
+
+        if (element != null) {
+            long edad = System.currentTimeMillis() - element.getLatestOfCreationAndUpdateTime();
+
+            if (edad < maximoObsoleto) {
+                if (edad >= umbralRefresco) {
+                    programarRefresco(key);
+                }
+
+                return valor(element);
+            }
+        }
+
+        ehcache.acquireWriteLockOnKey(key);
+
+        try {
+            element = recarga ? null : ehcache.get(key);
+
+            if (element != null &&
+                System.currentTimeMillis() - element.getLatestOfCreationAndUpdateTime() < maximoObsoleto) {
+                return valor(element);
+            }
+
+            T valor = cargar(key, valueLoader);
+            cache.put(key, valor);
+
+            return valor;
+        } finally {
+            ehcache.releaseWriteLockOnKey(key);
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void put(Object key, Object value) {
+        cache.put(key, value);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public ValueWrapper putIfAbsent(Object key, Object value) {
+        return cache.putIfAbsent(key, value);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void evict(Object key) {
+        cache.evict(key);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void clear() {
+        cache.clear();
+    }
+
+    /**
+     * Detiene el pool de hilos de refresco.
+     */
+    public void detener() {
+        executor.shutdownNow();
+    }
+
+    /**
+     * Programa la recarga de la llave, a menos que ya exista una en curso o la cola de refrescos esté llena.
+     *
+     * @param key La llave.
+     */
+    private void programarRefresco(final Object key) {
+        if (!enRefresco.add(key)) {
+            return;
+        }
+
+        try {
+            executor.execute(new Runnable() {
+                @Override
+                public void run() {
+                    RECARGA.set(Boolean.TRUE);
+
+                    try {
+                        if (recargador.recargar(key)) {
+                            refrescos.mark();
+                        } else {
+                            descartados.mark();
+                        }
+                    } catch (Exception e) {
+                        fallas.mark();
+                        LOGGER.warn("No fue posible refrescar la llave [{}] del cache [{}]. {}", key, getName(),
+                            e.getMessage());
+                    } finally {
+                        RECARGA.remove();
+                        enRefresco.remove(key);
+                    }
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            enRefresco.remove(key);
+            descartados.mark();
+            LOGGER.debug("Refresco descartado para la llave [{}] del cache [{}]", key, getName());
+        }
+    }
+
+    /**
+     * Carga el valor de forma síncrona.
+     *
+     * @param key La llave.
+     * @param valueLoader Función de carga del valor.
+     * @param <T> Tipo del valor.
+     * @return El valor cargado.
+     */
+    private static <T> T cargar(Object key, Callable<T> valueLoader) {
+        try {
+            return valueLoader.call();
+        } catch (Exception e) {
+            throw new ValueRetrievalException(key, valueLoader, e);
+        }
+    }
+
+    /**
+     * Recupera el valor almacenado en el elemento.
+     *
+     * @param element El elemento.
+     * @param <T> Tipo del valor.
+     * @return El valor.
+     */
+    @SuppressWarnings("unchecked")
+    private static <T> T valor(Element element) {
+        Object valor = element.getObjectValue();
+        return (valor instanceof NullValue) ? null : (T) valor;
+    }
+
+}
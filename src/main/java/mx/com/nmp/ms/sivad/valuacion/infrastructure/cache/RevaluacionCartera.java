@@ -0,0 +1,191 @@
+/**
+ * Proyecto:        NMP - Microservicio de Motor de Valuación
+ * Quarksoft S.A.P.I. de C.V. – Todos los derechos reservados. Para uso exclusivo de Nacional Monte de Piedad.
+ */
+package mx.com.nmp.ms.sivad.valuacion.infrastructure.cache;
+
+import com.codahale.metrics.Gauge;
+import com.codahale.metrics.Meter;
+import com.codahale.metrics.MetricRegistry;
+import mx.com.nmp.ms.sivad.valuacion.config.CarteraProperties;
+import mx.com.nmp.ms.sivad.valuacion.dominio.repository.CarteraRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.dao.DataAccessException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PostConstruct;
+import javax.inject.Inject;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Revaluación incremental de la cartera de prendas valuadas.
+ *
+ * Los valores de las tablas de referencia cambian en el servicio remoto y la instancia sólo los observa cuando un
+ * caché los vuelve a cargar, lo que depende de que haya valuaciones. Por ello cada
+ * {@code valuacion.cartera.intervaloRevaluacion} milisegundos se revalúa toda la cartera, por páginas, con los
+ * valores vigentes; sólo se actualizan las prendas cuyas piezas cambiaron.
+ *
+ * Entre dos revaluaciones completas se acumulan las llaves cuyo valor cambió en los cachés, notificadas por
+ * {@link VersionReferencias}, y periódicamente se revalúan sólo las piezas que dependen de ellas. Si desde la última
+ * ejecución cambiaron las políticas de castigo o los modificadores de condición, observados mediante
+ * {@link InvalidacionCache}, se recalcula primero el avalúo de toda la cartera a partir de los avalúos acumulados
+ * por tipo de pieza, sin volver a valuar las piezas. Si la revaluación falla, las llaves se conservan para la
+ * siguiente ejecución.
+ *
+ * Se registran los indicadores {@code prendasActualizadas} y {@code llavesPendientes}.
+ */
+@Component
+public class RevaluacionCartera {
+
+    /**
+     * Utilizada para manipular los mensajes informativos y de error.
+     */
+    private static final Logger LOGGER = LoggerFactory.getLogger(RevaluacionCartera.class);
+
+    /**
+     * Llaves cuyo valor cambió y aún no se revalúan.
+     */
+    private final Set<String> pendientes = Collections.newSetFromMap(new ConcurrentHashMap<String, Boolean>());
+
+    /**
+     * Propiedades de la cartera.
+     */
+    @Inject
+    private CarteraProperties propiedades;
+
+    /**
+     * Cartera de prendas valuadas.
+     */
+    @Inject
+    private CarteraRepository carteraRepository;
+
+    /**
+     * Versión de los datos de referencia, que notifica los cambios de valor.
+     */
+    @Inject
+    private VersionReferencias versionReferencias;
+
+    /**
+     * Cambios de las políticas de castigo y de los modificadores de condición.
+     */
+    @Inject
+    private InvalidacionCache invalidacionCache;
+
+    /**
+     * Registro de indicadores.
+     */
+    @Inject
+    private MetricRegistry metricRegistry;
+
+    /**
+     * Cambios de recursos con los que se calculó por última vez la cartera.
+     */
+    private long cambios;
+
+    /**
+     * Indicador de las prendas cuyo avalúo cambió.
+     */
+    private Meter prendasActualizadas;
+
+
+
+    // METODOS
+
+    /**
+     * Constructor.
+     */
+    public RevaluacionCartera() {
+        super();
+    }
+
+    /**
+     * Se suscribe a los cambios de valor de las tablas de referencia y registra los indicadores.
+     */
+    @PostConstruct
+    public void init() {
+        cambios = invalidacionCache.getCambios();
+
+        versionReferencias.suscribir(new VersionReferencias.Observador() {
+            @Override
+            public void cambio(String cache, Object llave) {
+                if (propiedades.isHabilitada()) {
+                    pendientes.add(llave.toString());
+                }
+            }
+        });
+
+        prendasActualizadas = metricRegistry.meter(MetricRegistry.name(RevaluacionCartera.class,
+            "prendasActualizadas"));
+        metricRegistry.register(MetricRegistry.name(RevaluacionCartera.class, "llavesPendientes"),
+            new Gauge<Integer>() {
+                @Override
+                public Integer getValue() {
+                    return pendientes.size();
+                }
+            });
+    }
+
+    /**
+     * Revalúa periódicamente la cartera con los cambios acumulados desde la ejecución anterior.
+     */
+    @Scheduled(fixedDelayString = "${valuacion.cartera.intervalo:60000}")
+    public void revaluar() {
+        if (!propiedades.isHabilitada()) {
+            return;
+        }
+
+        long cambiosVigentes = invalidacionCache.getCambios();
+
+        try {
+            if (cambiosVigentes != cambios) {
+                prendasActualizadas.mark(carteraRepository.retotalizar());
+                cambios = cambiosVigentes;
+            }
+        } catch (DataAccessException e) {
+            LOGGER.warn("No fue posible recalcular el avalúo de la cartera: {}", e.getMessage());
+            return;
+        }
+
+        if (pendientes.isEmpty()) {
+            return;
+        }
+
+        List<String> llaves = new ArrayList<>(pendientes);
+        pendientes.removeAll(llaves);
+
+        try {
+            prendasActualizadas.mark(carteraRepository.revaluar(llaves));
+        } catch (DataAccessException e) {
+            LOGGER.warn("No fue posible revaluar la cartera: {}", e.getMessage());
+            pendientes.addAll(llaves);
+        }
+    }
+
+    /**
+     * Revalúa periódicamente toda la cartera con los valores vigentes de las tablas de referencia. Las llaves
+     * acumuladas antes de iniciar quedan cubiertas por la revaluación y se descartan.
+     */
+    @Scheduled(fixedDelayString = "${valuacion.cartera.intervaloRevaluacion:3600000}",
+        initialDelayString = "${valuacion.cartera.intervaloRevaluacion:3600000}")
+    public void revaluarCartera() {
+        if (!propiedades.isHabilitada()) {
+            return;
+        }
+
+        List<String> llaves = new ArrayList<>(pendientes);
+
+        try {
+            prendasActualizadas.mark(carteraRepository.revaluarCartera());
+            pendientes.removeAll(llaves);
+        } catch (DataAccessException e) {
+            LOGGER.warn("No fue posible revaluar toda la cartera: {}", e.getMessage());
+        }
+    }
+
+}
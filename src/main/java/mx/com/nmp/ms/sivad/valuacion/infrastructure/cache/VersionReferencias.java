@@ -0,0 +1,234 @@
+/**
+ * Proyecto:        NMP - Microservicio de Motor de Valuación
+ * Quarksoft S.A.P.I. de C.V. – Todos los derechos reservados. Para uso exclusivo de Nacional Monte de Piedad.
+ */
+package mx.com.nmp.ms.sivad.valuacion.infrastructure.cache;
+
+import com.codahale.metrics.Gauge;
+import com.codahale.metrics.MetricRegistry;
+import mx.com.nmp.ms.sivad.valuacion.conector.consumidor.BigDecimalConsumidor;
+import mx.com.nmp.ms.sivad.valuacion.conector.consumidor.ValorComercialConsumidor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PostConstruct;
+import javax.inject.Inject;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Versión de los datos de referencia en memoria.
+ *
+ * Se conserva el contenido de cada llave de los cachés de tablas de referencia y la versión avanza sólo cuando un
+ * caché recibe, para una llave, un valor distinto al último conocido, aunque el caché haya descartado o dejado
+ * expirar el anterior. La primera carga de una llave y las recargas con el mismo valor no cambian la versión, ni
+ * tampoco descartar entradas: el siguiente valor cargado se compara con el último conocido. Mientras la versión no
+ * cambia, cualquier cálculo que dependa de las tablas de referencia produce el mismo resultado, por lo que puede
+ * reutilizarse.
+ *
+ * Se conservan a lo más {@code valuacion.cache.version.maximoLlaves} llaves, descartando la de uso menos reciente.
+ * Como ya no es posible saber si el siguiente valor de una llave descartada cambió, descartarla también avanza la
+ * versión, sin notificar a los observadores.
+ *
+ * Los observadores suscritos reciben la llave de cada valor que cambió respecto del último conocido.
+ *
+ * Se registra el indicador {@code version}.
+ */
+@Component
+public class VersionReferencias {
+
+    /**
+     * Utilizada para manipular los mensajes informativos y de error.
+     */
+    private static final Logger LOGGER = LoggerFactory.getLogger(VersionReferencias.class);
+
+    /**
+     * Observador de los cambios de valor de las tablas de referencia.
+     */
+    public interface Observador {
+
+        /**
+         * Se invoca cuando un caché recibe un valor distinto al que conservaba para la llave.
+         *
+         * @param cache Nombre del caché.
+         * @param llave Llave del valor.
+         */
+        void cambio(String cache, Object llave);
+
+    }
+
+    /**
+     * Contenido que representa un valor {@code null}.
+     */
+    private static final Object NULO = new Object();
+
+    /**
+     * Versión vigente.
+     */
+    private final AtomicLong version = new AtomicLong();
+
+    /**
+     * Número máximo de llaves default.
+     */
+    public static final int MAXIMO_LLAVES_DEFAULT = 20000;
+
+    /**
+     * Número máximo de llaves cuyo contenido se conserva.
+     */
+    @Value("${valuacion.cache.version.maximoLlaves:20000}")
+    private int maximoLlaves = MAXIMO_LLAVES_DEFAULT;
+
+    /**
+     * Último contenido conocido de cada llave, indexado por caché y llave, en orden de uso.
+     */
+    private final Map<List<Object>, Object> contenidos = new LinkedHashMap<List<Object>, Object>(16, 0.75f, true) {
+        private static final long serialVersionUID = 1L;
+
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<List<Object>, Object> eldest) {
+            if (size() <= maximoLlaves) {
+                return false;
+            }
+
+            long actual = version.incrementAndGet();
+            LOGGER.debug("Llave [{}] descartada, version [{}]", eldest.getKey(), actual);
+
+            return true;
+        }
+    };
+
+    /**
+     * Observadores de los cambios de valor.
+     */
+    private final List<Observador> observadores = new CopyOnWriteArrayList<>();
+
+    /**
+     * Registro de indicadores.
+     */
+    @Inject
+    private MetricRegistry metricRegistry;
+
+
+
+    // METODOS
+
+    /**
+     * Constructor.
+     */
+    public VersionReferencias() {
+        super();
+    }
+
+    /**
+     * Registra el indicador de la versión.
+     */
+    @PostConstruct
+    public void init() {
+        metricRegistry.register(MetricRegistry.name(VersionReferencias.class, "version"), new Gauge<Long>() {
+            @Override
+            public Long getValue() {
+                return version.get();
+            }
+        });
+    }
+
+    /**
+     * Registra el valor almacenado en un caché de tablas de referencia.
+     *
+     * @param cache Nombre del caché.
+     * @param llave Llave del valor.
+     * @param nuevo Valor almacenado.
+     */
+    public void registrar(String cache, Object llave, Object nuevo) {
+        Object contenido = contenido(nuevo);
+        Object anterior;
+
+        synchronized (contenidos) {
+            anterior = contenidos.put(Arrays.asList(cache, llave), contenido);
+        }
+
+        if (anterior == null || anterior.equals(contenido)) {
+            return;
+        }
+
+        long actual = version.incrementAndGet();
+        LOGGER.debug("Valor de la llave [{}] del cache [{}] actualizado, version [{}]", llave, cache, actual);
+
+        notificar(cache, llave);
+    }
+
+    /**
+     * Suscribe un observador a los cambios de valor de las tablas de referencia.
+     *
+     * @param observador El observador.
+     */
+    public void suscribir(Observador observador) {
+        observadores.add(observador);
+    }
+
+    /**
+     * Notifica a los observadores el cambio de valor de una llave. La falla de un observador no impide notificar a
+     * los demás ni afecta el registro del valor.
+     *
+     * @param cache Nombre del caché.
+     * @param llave Llave del valor.
+     */
+    private void notificar(String cache, Object llave) {
+        for (Observador observador : observadores) {
+            try {
+                observador.cambio(cache, llave);
+            } catch (RuntimeException e) {
+                LOGGER.warn("Falla al notificar el cambio de la llave [{}] del cache [{}]", llave, cache, e);
+            }
+        }
+    }
+
+    /**
+     * Recupera el contenido comparable de un valor de las tablas de referencia; los consumidores no implementan
+     * {@code equals}.
+     *
+     * @param valor El valor.
+     * @return El contenido del valor.
+     */
+    private static Object contenido(Object valor) {
+        if (valor == null) {
+            return NULO;
+        }
+
+        if (valor instanceof BigDecimalConsumidor) {
+            return ((BigDecimalConsumidor) valor).getValor();
+        }
+
+        if (valor instanceof ValorComercialConsumidor) {
+            ValorComercialConsumidor valorComercial = (ValorComercialConsumidor) valor;
+
+            return Arrays.asList(valorComercial.getValorMinimo(), valorComercial.getValorMedio(),
+                valorComercial.getValorMaximo());
+        }
+
+        return valor;
+    }
+
+
+
+    // GETTERS Y SETTERS
+
+    public long getVersion() {
+        return version.get();
+    }
+
+    public int getMaximoLlaves() {
+        return maximoLlaves;
+    }
+
+    public void setMaximoLlaves(int maximoLlaves) {
+        this.maximoLlaves = maximoLlaves;
+    }
+
+}
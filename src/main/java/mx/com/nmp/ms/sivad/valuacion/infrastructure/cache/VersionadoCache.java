@@ -0,0 +1,134 @@
+/**
+ * Proyecto:        NMP - Microservicio de Motor de Valuación
+ * Quarksoft S.A.P.I. de C.V. – Todos los derechos reservados. Para uso exclusivo de Nacional Monte de Piedad.
+ */
+package mx.com.nmp.ms.sivad.valuacion.infrastructure.cache;
+
+import org.springframework.cache.Cache;
+
+import java.util.concurrent.Callable;
+
+/**
+ * Decorador de caché que notifica a {@link VersionReferencias} los valores que se almacenan, incluyendo los valores
+ * cargados por las consultas anotadas con {@code @Cacheable(sync = true)}. Las entradas descartadas no se notifican;
+ * el valor que se cargue después se compara con el último conocido.
+ */
+public class VersionadoCache implements Cache {
+
+    /**
+     * Caché decorado.
+     */
+    private final Cache cache;
+
+    /**
+     * Versión de los datos de referencia.
+     */
+    private final VersionReferencias versionReferencias;
+
+
+
+    // METODOS
+
+    /**
+     * Constructor.
+     *
+     * @param cache Caché a decorar.
+     * @param versionReferencias Versión de los datos de referencia.
+     */
+    public VersionadoCache(Cache cache, VersionReferencias versionReferencias) {
+        super();
+
+        this.cache = cache;
+        this.versionReferencias = versionReferencias;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public String getName() {
+        return cache.getName();
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public Object getNativeCache() {
+        return cache.getNativeCache();
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public ValueWrapper get(Object key) {
+        return cache.get(key);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public <T> T get(Object key, Class<T> type) {
+        return cache.get(key, type);
+    }
+
+    /**
+     * Recupera el valor de la llave; si se carga, se notifica el valor cargado.
+     *
+     * {@inheritDoc}
+     */
+    @Override
+    public <T> T get(final Object key, final Callable<T> valueLoader) {
+        return cache.get(key, new Callable<T>() {
+            @Override
+            public T call() throws Exception {
+                T valor = valueLoader.call();
+                versionReferencias.registrar(getName(), key, valor);
+
+                return valor;
+            }
+        });
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void put(Object key, Object value) {
+        cache.put(key, value);
+        versionReferencias.registrar(getName(), key, value);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public ValueWrapper putIfAbsent(Object key, Object value) {
+        ValueWrapper anterior = cache.putIfAbsent(key, value);
+
+        if (anterior == null) {
+            versionReferencias.registrar(getName(), key, value);
+        }
+
+        return anterior;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void evict(Object key) {
+        cache.evict(key);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void clear() {
+        cache.clear();
+    }
+
+}
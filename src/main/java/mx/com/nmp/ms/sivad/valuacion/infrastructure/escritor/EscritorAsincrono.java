@@ -0,0 +1,393 @@
+/**
+ * Proyecto:        NMP - Microservicio de Motor de Valuación
+ * Quarksoft S.A.P.I. de C.V. – Todos los derechos reservados. Para uso exclusivo de Nacional Monte de Piedad.
+ */
+package mx.com.nmp.ms.sivad.valuacion.infrastructure.escritor;
+
+import com.codahale.metrics.Gauge;
+import com.codahale.metrics.Meter;
+import com.codahale.metrics.MetricRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.util.ClassUtils;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import javax.inject.Inject;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Escritor asíncrono en lotes, base de los registros que no deben realizar operaciones en la base de datos en el
+ * hilo de la petición.
+ *
+ * Al registrar sólo se encola el elemento en una cola sin bloqueos acotada por {@link #getCapacidad()}; si está llena
+ * se aplica la {@link Politica} de la subclase. Un único hilo escritor extrae los elementos en el orden en que se
+ * encolaron, en lotes de hasta {@link #getTamanoLote()}, y los escribe con {@link #escribir(List)}. El hilo despierta
+ * al completarse un lote o, a más tardar, cada {@link #getIntervalo()} milisegundos, y al detenerse la aplicación
+ * escribe los elementos pendientes. Un lote que no se puede escribir se descarta y el hilo espera el intervalo antes
+ * del siguiente, para no insistir de inmediato contra la base de datos.
+ *
+ * Se registran, con el nombre de la subclase, los indicadores {@code encolados}, {@code descartados},
+ * {@code escritos}, {@code fallidos} y {@code pendientes}.
+ *
+ * @param <T> Tipo de los elementos registrados.
+ */
+public abstract class EscritorAsincrono<T> {
+
+    /**
+     * Utilizada para manipular los mensajes informativos y de error.
+     */
+    private static final Logger LOGGER = LoggerFactory.getLogger(EscritorAsincrono.class);
+
+    /**
+     * Tiempo máximo (en milisegundos) de espera para que el hilo escritor termine al detener la aplicación.
+     */
+    private static final long ESPERA_DETENCION = 10000L;
+
+    /**
+     * Tiempo (en nanosegundos) entre cada intento de encolar con la política {@link Politica#ESPERAR}.
+     */
+    private static final long ESPERA_REINTENTO = TimeUnit.MILLISECONDS.toNanos(1L);
+
+    /**
+     * Política aplicada cuando la cola está llena.
+     */
+    public enum Politica {
+        /**
+         * Se descarta el elemento que se intenta registrar.
+         */
+        DESCARTAR_NUEVO,
+
+        /**
+         * Se descarta el elemento más antiguo de la cola para registrar el nuevo.
+         */
+        DESCARTAR_ANTIGUO,
+
+        /**
+         * Se espera hasta {@link #getEsperaMaxima()} milisegundos a que haya espacio; si no lo hay, se descarta el
+         * elemento.
+         */
+        ESPERAR
+    }
+
+    /**
+     * Elementos en espera de ser escritos.
+     */
+    private final Queue<T> cola = new ConcurrentLinkedQueue<>();
+
+    /**
+     * Número de lugares ocupados de la cola, utilizado para acotarla.
+     */
+    private final AtomicInteger pendientes = new AtomicInteger();
+
+    /**
+     * Prefijo del nombre del hilo escritor.
+     */
+    private final String prefijoHilo;
+
+    /**
+     * Registro de indicadores.
+     */
+    @Inject
+    private MetricRegistry metricRegistry;
+
+    /**
+     * Hilo que escribe los elementos.
+     */
+    private volatile Thread escritor;
+
+    /**
+     * Indica si el hilo escritor debe seguir en ejecución.
+     */
+    private volatile boolean activo;
+
+    /**
+     * Indicadores de los elementos.
+     */
+    private Meter encolados;
+    private Meter descartados;
+    private Meter escritos;
+    private Meter fallidos;
+
+
+
+    // METODOS
+
+    /**
+     * Constructor.
+     *
+     * @param prefijoHilo Prefijo del nombre del hilo escritor.
+     */
+    protected EscritorAsincrono(String prefijoHilo) {
+        super();
+
+        this.prefijoHilo = prefijoHilo;
+    }
+
+    /**
+     * Registra los indicadores e inicia el hilo escritor si el registro está habilitado.
+     */
+    @PostConstruct
+    public void init() {
+        Class<?> clase = ClassUtils.getUserClass(getClass());
+
+        encolados = metricRegistry.meter(MetricRegistry.name(clase, "encolados"));
+        descartados = metricRegistry.meter(MetricRegistry.name(clase, "descartados"));
+        escritos = metricRegistry.meter(MetricRegistry.name(clase, "escritos"));
+        fallidos = metricRegistry.meter(MetricRegistry.name(clase, "fallidos"));
+        metricRegistry.register(MetricRegistry.name(clase, "pendientes"), new Gauge<Integer>() {
+            @Override
+            public Integer getValue() {
+                return pendientes.get();
+            }
+        });
+
+        if (isHabilitado()) {
+            iniciar();
+        }
+    }
+
+    /**
+     * Detiene el hilo escritor, el cual escribe los elementos pendientes antes de terminar.
+     */
+    @PreDestroy
+    public void destroy() {
+        Thread hilo = escritor;
+
+        if (hilo == null) {
+            return;
+        }
+
+        activo = false;
+        LockSupport.unpark(hilo);
+
+        try {
+            hilo.join(ESPERA_DETENCION);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * Extrae de la cola un lote de elementos y lo escribe; si la escritura falla el lote se descarta.
+     *
+     * @return Número de elementos escritos, cero si la cola estaba vacía o el lote no se pudo escribir.
+     */
+    public int escribirLote() {
+        int tamano = getTamanoLote();
+        List<T> lote = new ArrayList<>(tamano);
+
+        T elemento;
+        while (lote.size() < tamano && (elemento = cola.poll()) != null) {
+            pendientes.decrementAndGet();
+            lote.add(elemento);
+        }
+
+        if (lote.isEmpty()) {
+            return 0;
+        }
+
+        int escritosLote;
+
+        try {
+            escritosLote = escribir(lote);
+        } catch (RuntimeException e) {
+            // NO SE PROPAGA PARA NO TERMINAR EL HILO ESCRITOR.
+            LOGGER.warn("No fue posible escribir un lote de {} elementos del hilo [{}]: {}", lote.size(),
+                prefijoHilo, e.getMessage());
+            fallidos.mark(lote.size());
+            return 0;
+        }
+
+        escritos.mark(escritosLote);
+
+        if (escritosLote < lote.size()) {
+            fallidos.mark(lote.size() - escritosLote);
+        }
+
+        return escritosLote;
+    }
+
+    /**
+     * Encola un elemento. No realiza operaciones en la base de datos; si la cola está llena se aplica la política.
+     *
+     * @param elemento El elemento.
+     * @return {@code true} si el elemento se encoló.
+     */
+    protected boolean encolar(T elemento) {
+        if (!reservar()) {
+            descartados.mark();
+            return false;
+        }
+
+        cola.offer(elemento);
+        encolados.mark();
+
+        if (pendientes.get() >= getTamanoLote()) {
+            LockSupport.unpark(escritor);
+        }
+
+        return true;
+    }
+
+    /**
+     * Escribe un lote de elementos.
+     *
+     * @param lote Los elementos, en el orden en que se encolaron.
+     * @return Número de elementos escritos; los demás se cuentan como fallidos.
+     */
+    protected abstract int escribir(List<T> lote);
+
+    /**
+     * Indica si el registro está habilitado; se consulta al iniciar.
+     *
+     * @return {@code true} si está habilitado.
+     */
+    protected abstract boolean isHabilitado();
+
+    /**
+     * Recupera el número máximo de elementos en espera de ser escritos.
+     *
+     * @return La capacidad de la cola.
+     */
+    protected abstract int getCapacidad();
+
+    /**
+     * Recupera el número máximo de elementos de un lote.
+     *
+     * @return El tamaño del lote.
+     */
+    protected abstract int getTamanoLote();
+
+    /**
+     * Recupera los milisegundos máximos que un elemento espera a que se complete un lote antes de escribirse.
+     *
+     * @return El intervalo.
+     */
+    protected abstract long getIntervalo();
+
+    /**
+     * Recupera la política aplicada cuando la cola está llena.
+     *
+     * @return La política; por default {@link Politica#DESCARTAR_NUEVO}.
+     */
+    protected Politica getPolitica() {
+        return Politica.DESCARTAR_NUEVO;
+    }
+
+    /**
+     * Recupera los milisegundos máximos de espera por espacio en la cola con la política {@link Politica#ESPERAR}.
+     *
+     * @return La espera máxima.
+     */
+    protected long getEsperaMaxima() {
+        return 0L;
+    }
+
+    /**
+     * Inicia el hilo escritor.
+     */
+    private void iniciar() {
+        CustomizableThreadFactory fabrica = new CustomizableThreadFactory(prefijoHilo);
+        fabrica.setDaemon(true);
+
+        activo = true;
+        escritor = fabrica.newThread(new Runnable() {
+            @Override
+            public void run() {
+                ejecutar();
+            }
+        });
+        escritor.start();
+    }
+
+    /**
+     * Ciclo del hilo escritor: escribe lotes mientras estén completos y, si no o si la escritura falla, espera a que
+     * se complete uno o a que transcurra el intervalo. Al detenerse escribe los pendientes hasta vaciar la cola o
+     * hasta la primera falla.
+     */
+    private void ejecutar() {
+        long intervalo = TimeUnit.MILLISECONDS.toNanos(getIntervalo());
+
+        while (activo) {
+            if (escribirLote() < getTamanoLote()) {
+                LockSupport.parkNanos(this, intervalo);
+            }
+        }
+
+        while (escribirLote() > 0) {
+            // SE ESCRIBEN LOS ELEMENTOS PENDIENTES.
+        }
+    }
+
+    /**
+     * Ocupa un lugar de la cola, aplicando la política si está llena.
+     *
+     * @return {@code true} si se obtuvo el lugar.
+     */
+    private boolean reservar() {
+        if (ocupar()) {
+            return true;
+        }
+
+        switch (getPolitica()) {
+            case DESCARTAR_ANTIGUO:
+                while (cola.poll() != null) {
+                    pendientes.decrementAndGet();
+                    descartados.mark();
+
+                    if (ocupar()) {
+                        return true;
+                    }
+                }
+
+                return ocupar();
+
+            case ESPERAR:
+                long limite = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(getEsperaMaxima());
+                LockSupport.unpark(escritor);
+
+                while (System.nanoTime() - limite < 0) {
+                    LockSupport.parkNanos(this, ESPERA_REINTENTO);
+
+                    if (ocupar()) {
+                        return true;
+                    }
+                }
+
+                return false;
+
+            default:
+                return false;
+        }
+    }
+
+    /**
+     * Ocupa un lugar de la cola si no está llena.
+     *
+     * @return {@code true} si se obtuvo el lugar.
+     */
+    private boolean ocupar() {
+        int capacidad = getCapacidad();
+
+        while (true) {
+            int ocupados = pendientes.get();
+
+            if (ocupados >= capacidad) {
+                return false;
+            }
+
+            if (pendientes.compareAndSet(ocupados, ocupados + 1)) {
+                return true;
+            }
+        }
+    }
+
+}
@@ -0,0 +1,173 @@
+/**
+ * Proyecto:        NMP - Microservicio de Motor de Valuación
+ * Quarksoft S.A.P.I. de C.V. – Todos los derechos reservados. Para uso exclusivo de Nacional Monte de Piedad.
+ */
+package mx.com.nmp.ms.sivad.valuacion.infrastructure.estrategia;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.beans.factory.config.ConfigurableBeanFactory;
+import org.springframework.context.annotation.Scope;
+import org.springframework.stereotype.Component;
+import org.springframework.util.ObjectUtils;
+
+import javax.annotation.PostConstruct;
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+
+/**
+ * Política de precisión de los valores intermedios de la valuación. Las multiplicaciones encadenadas de la valuación
+ * (precio por peso, incremento, factor, quilataje, certificado, castigo) hacen crecer la escala del resultado en cada
+ * paso; esta utilería acota la escala de cada etapa para que las operaciones posteriores y el redondeo final trabajen
+ * con valores de tamaño constante.
+ *
+ * El acotamiento está deshabilitado por default (escala negativa): un redondeo intermedio puede desplazar un valor
+ * que queda justo por debajo de la mitad de un centavo y cambiar el avalúo redondeado ({@link RedondeoEstrategiaUtil}),
+ * por ejemplo {@code 142.85 x 0.70 x 1.0001 x 1.0001 = 100.014999999950} se redondea a {@code 100.01}, pero acotado a
+ * diez decimales queda en {@code 100.0150000000} y se redondea a {@code 100.02}. Ninguna escala fija evita estos
+ * casos, por lo que acotar es una decisión explícita de configuración que sólo debe tomarse si se acepta esa
+ * diferencia; además, con los montos de la valuación el redondeo intermedio cuesta más de lo que ahorra en las
+ * multiplicaciones posteriores ({@code PrecisionIntermediaBenchmark}).
+ *
+ * Al igual que {@link RedondeoEstrategiaUtil} se diseña como un singleton para que pueda ser utilizada por componentes
+ * no manejados por Spring; la instancia única se crea con la política default y se reemplaza por la instancia
+ * administrada por Spring una vez que ésta resuelve la configuración.
+ */
+@Component
+@Scope(ConfigurableBeanFactory.SCOPE_SINGLETON)
+public class PrecisionIntermediaUtil {
+    /**
+     * Escala intermedia default; negativa, por lo que los valores intermedios no se acotan.
+     */
+    public static final int ESCALA_DEFAULT = -1;
+
+    /**
+     * Modo de redondeo intermedio default.
+     */
+    public static final RoundingMode REDONDEO_DEFAULT = RoundingMode.HALF_EVEN;
+
+    private static volatile PrecisionIntermediaUtil INSTANCIA = new PrecisionIntermediaUtil(ESCALA_DEFAULT,
+        REDONDEO_DEFAULT);
+
+    /**
+     * Número máximo de decimales de los valores intermedios, negativo para no acotar.
+     */
+    @Value("${valuacion.avaluo.precision.escala:-1}")
+    private int escala;
+
+    /**
+     * Nombre del modo de redondeo de los valores intermedios.
+     */
+    @Value("${valuacion.avaluo.precision.redondeo:HALF_EVEN}")
+    private String redondeo;
+
+    private RoundingMode modoRedondeo;
+
+
+
+    // METODOS
+
+    /**
+     * Constructor. Privado ya que es un singleton y no se debería crearse más de una instancia.
+     */
+    private PrecisionIntermediaUtil() {
+        super();
+    }
+
+    /**
+     * Constructor.
+     *
+     * @param escala Número máximo de decimales de los valores intermedios.
+     * @param modoRedondeo Modo de redondeo de los valores intermedios.
+     */
+    private PrecisionIntermediaUtil(final int escala, final RoundingMode modoRedondeo) {
+        this();
+
+        this.escala = escala;
+        this.modoRedondeo = modoRedondeo;
+    }
+
+    /**
+     * Resuelve el modo de redondeo configurado y publica esta instancia como la instancia única.
+     */
+    @PostConstruct
+    public void init() {
+        if (ObjectUtils.isEmpty(redondeo)) {
+            modoRedondeo = REDONDEO_DEFAULT;
+        } else {
+            modoRedondeo = RoundingMode.valueOf(redondeo);
+        }
+
+        PrecisionIntermediaUtil.set(this);
+    }
+
+    /**
+     * Multiplica dos valores y acota la escala del producto.
+     *
+     * @param valor Valor a multiplicar.
+     * @param factor Factor por el cual se multiplica.
+     *
+     * @return Producto con la escala acotada.
+     */
+    public BigDecimal multiplicar(final BigDecimal valor, final BigDecimal factor) {
+        return acotar(valor.multiply(factor));
+    }
+
+    /**
+     * Acota la escala de un valor intermedio. Los valores cuya escala no excede la escala intermedia se regresan
+     * sin modificar.
+     *
+     * @param valor Valor a acotar.
+     *
+     * @return Valor con la escala acotada.
+     */
+    public BigDecimal acotar(final BigDecimal valor) {
+        if (escala < 0 || valor.scale() <= escala) {
+            return valor;
+        }
+
+        return valor.setScale(escala, modoRedondeo);
+    }
+
+    /**
+     * Crea una instancia con la política indicada, independiente de la instancia única.
+     *
+     * @param escala Número máximo de decimales de los valores intermedios, negativo para no acotar.
+     * @param modoRedondeo Modo de redondeo de los valores intermedios.
+     *
+     * @return La instancia creada.
+     */
+    public static PrecisionIntermediaUtil crear(final int escala, final RoundingMode modoRedondeo) {
+        return new PrecisionIntermediaUtil(escala, modoRedondeo);
+    }
+
+    /**
+     * Recupera la instancia única.
+     *
+     * @return Instancia única.
+     */
+    public static PrecisionIntermediaUtil get() {
+        return INSTANCIA;
+    }
+
+    /**
+     * Establece la instancia única.
+     *
+     * @param instancia Instancia única.
+     */
+    static void set(final PrecisionIntermediaUtil instancia) {
+        PrecisionIntermediaUtil.INSTANCIA = instancia;
+    }
+
+
+
+    // GETTERS
+
+    public int getEscala() {
+        return escala;
+    }
+
+    public RoundingMode getModoRedondeo() {
+        return modoRedondeo;
+    }
+
+}
@@ -15,18 +15,23 @@ import org.springframework.context.annotation.Scope;
 import org.springframework.stereotype.Component;
 import org.springframework.util.ObjectUtils;
 
+import javax.annotation.PostConstruct;
 import java.math.BigDecimal;
 
 /**
  * Utilería para redondear según la estrategia seleccionada, se diseña como un singleton para que pueda
  * ser utilizada por componentes no manejados por Spring.
  *
+ * La instancia única se crea al cargar la clase con la estrategia default y se reemplaza por la instancia
+ * administrada por Spring una vez que ésta resuelve la estrategia configurada, por lo que nunca se publica una
+ * instancia parcialmente inicializada.
+ *
  * @author <a href="https://wiki.quarksoft.net/display/~cachavez">Carlos Chávez Melena</a>
  */
 @Component
 @Scope(ConfigurableBeanFactory.SCOPE_SINGLETON)
 public class RedondeoEstrategiaUtil {
-    private static RedondeoEstrategiaUtil INSTANCIA;
+    private static volatile RedondeoEstrategiaUtil INSTANCIA = new RedondeoEstrategiaUtil();
 
     /**
      * Contienen el nombre de la estrategia de redondeo a usar.
@@ -34,13 +39,21 @@ public class RedondeoEstrategiaUtil {
     @Value("${valuacion.avaluo.redondeo}")
     private String estrategiaRedondeo;
 
-    private RedondeoEstrategia redondeoEstrategia;
+    private volatile RedondeoEstrategia redondeoEstrategia;
 
     /**
      * Constructor. Privado ya que es un singleton y no se debería crearse más de una instancia.
      */
     private RedondeoEstrategiaUtil() {
         super();
+    }
+
+    /**
+     * Resuelve la estrategia configurada y publica esta instancia como la instancia única.
+     */
+    @PostConstruct
+    public void init() {
+        getRedondeoEstrategia();
 
         RedondeoEstrategiaUtil.set(this);
     }
@@ -62,16 +75,20 @@ public class RedondeoEstrategiaUtil {
      *
      * @return Estrategia seleccionada.
      */
-    private RedondeoEstrategia getRedondeoEstrategia() {
-        if (ObjectUtils.isEmpty(redondeoEstrategia)) {
+    public RedondeoEstrategia getRedondeoEstrategia() {
+        RedondeoEstrategia estrategia = redondeoEstrategia;
+
+        if (estrategia == null) {
             if (ObjectUtils.isEmpty(estrategiaRedondeo)) {
-                redondeoEstrategia = RedondeoEstrategias.DOS_DECIMALES_ROUND_HALF_UP;
+                estrategia = RedondeoEstrategias.DOS_DECIMALES_ROUND_HALF_UP;
             } else {
-                redondeoEstrategia = RedondeoEstrategias.valueOf(estrategiaRedondeo);
+                estrategia = RedondeoEstrategias.valueOf(estrategiaRedondeo);
             }
+
+            redondeoEstrategia = estrategia;
         }
 
-        return redondeoEstrategia;
+        return estrategia;
     }
 
     /**
@@ -80,12 +97,21 @@ public class RedondeoEstrategiaUtil {
      * @return Instancia única.
      */
     public static RedondeoEstrategiaUtil get() {
-        if (ObjectUtils.isEmpty(INSTANCIA)) {
-            //Si la instancia única aún no se creada, se crea una con la estrategia default.
-            new RedondeoEstrategiaUtil();
+        RedondeoEstrategiaUtil instancia = INSTANCIA;
+
+        if (instancia == null) {
+            synchronized (RedondeoEstrategiaUtil.class) {
+                instancia = INSTANCIA;
+
+                if (instancia == null) {
+                    //Si la instancia única fue descartada, se crea una con la estrategia default.
+                    instancia = new RedondeoEstrategiaUtil();
+                    INSTANCIA = instancia;
+                }
+            }
         }
 
-        return INSTANCIA;
+        return instancia;
     }
 
     /**
@@ -17,7 +17,7 @@ import org.springframework.util.Assert;
 import org.springframework.util.ObjectUtils;
 
 import javax.inject.Inject;
-import java.lang.reflect.Constructor;
+import java.lang.invoke.MethodHandle;
 import java.math.BigDecimal;
 
 import static mx.com.nmp.ms.sivad.valuacion.infrastructure.factory.ConstructorUtil.getConstructor;
@@ -34,7 +34,8 @@ public class AlhajaFactoryImpl implements AlhajaFactory {
     /**
      * Referencia al constructor de la entidad.
      */
-    private final Constructor<Alhaja> constructor;
+    private static final MethodHandle CONSTRUCTOR = getConstructor(Alhaja.class,
+        Alhaja.Builder.class, TablasDeReferenciaAlhajas.class);
 
     /**
      * Referencia hacia el conector con el sistema de "tablas de referencia".
@@ -51,9 +52,6 @@ public class AlhajaFactoryImpl implements AlhajaFactory {
      */
     public AlhajaFactoryImpl() {
         super();
-
-        constructor = getConstructor(Alhaja.class, Alhaja.Builder.class,
-            TablasDeReferenciaAlhajas.class);
     }
 
     /**
@@ -71,7 +69,7 @@ public class AlhajaFactoryImpl implements AlhajaFactory {
     @Override
     public Alhaja create(Alhaja.Builder builder) {
         validarBuilder(builder);
-        return getInstancia(constructor, builder, tablasDeReferenciaAlhajas);
+        return getInstancia(CONSTRUCTOR, builder, tablasDeReferenciaAlhajas);
     }
 
     /**
@@ -13,7 +13,7 @@ import mx.com.nmp.ms.sivad.valuacion.dominio.validador.ValidadorNumero;
 import org.springframework.stereotype.Component;
 import org.springframework.util.Assert;
 
-import java.lang.reflect.Constructor;
+import java.lang.invoke.MethodHandle;
 
 import static mx.com.nmp.ms.sivad.valuacion.infrastructure.factory.ConstructorUtil.getConstructor;
 import static mx.com.nmp.ms.sivad.valuacion.infrastructure.factory.ConstructorUtil.getInstancia;
@@ -29,7 +29,7 @@ public class ComplementarioFactoryImpl implements ComplementarioFactory {
     /**
      * Referencia al constructor de la entidad.
      */
-    private final Constructor<Complementario> constructor;
+    private static final MethodHandle CONSTRUCTOR = getConstructor(Complementario.class, Complementario.Builder.class);
 
 
 
@@ -40,8 +40,6 @@ public class ComplementarioFactoryImpl implements ComplementarioFactory {
      */
     public ComplementarioFactoryImpl() {
         super();
-
-        constructor = getConstructor(Complementario.class, Complementario.Builder.class);
     }
 
     /**
@@ -59,7 +57,7 @@ public class ComplementarioFactoryImpl implements ComplementarioFactory {
     @Override
     public Complementario create(Complementario.Builder builder) {
         validarBuilder(builder);
-        return getInstancia(constructor, builder);
+        return getInstancia(CONSTRUCTOR, builder);
     }
 
     /**
@@ -10,11 +10,18 @@ package mx.com.nmp.ms.sivad.valuacion.infrastructure.factory;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
 import java.lang.reflect.Constructor;
 
 /**
  * Clase de utilería para recuperar el constructores y crear instancias.
  *
+ * Los constructores se recuperan una sola vez como {@link MethodHandle}, con la verificación de acceso resuelta al
+ * crearlos, por lo que la creación de instancias no modifica la bandera {@code accessible} ni utiliza
+ * {@link Constructor#newInstance(Object...)}. Se espera que las fábricas conserven el constructor en una constante.
+ *
  * @author <a href="https://wiki.quarksoft.net/display/~cachavez">Carlos Chávez Melena</a>
  */
 public final class ConstructorUtil {
@@ -32,56 +39,48 @@ public final class ConstructorUtil {
      *
      * @param tipo Clase de la cual se quiere recuperar el constructos.
      * @param tipoParametros Lista de clase de los parámetros del constructor.
-     * @param <T> Tipo generico, espesifica el Tipo de constructor.
      *
-     * @return Constructor<T>
+     * @return Constructor que recibe los argumentos como {@code Object[]} y regresa la instancia como
+     * {@code Object}.
+     *
+     * @throws IllegalStateException Si la clase no declara el constructor o no es posible acceder a él.
      */
-    public static <T> Constructor<T> getConstructor(final Class<T> tipo, final Class<?>... tipoParametros) {
-        Constructor<T> constructor = null;
+    public static MethodHandle getConstructor(final Class<?> tipo, final Class<?>... tipoParametros) {
         try {
-            constructor = tipo.getDeclaredConstructor(tipoParametros);
-        } catch (NoSuchMethodException e) {
+            Constructor<?> constructor = tipo.getDeclaredConstructor(tipoParametros);
+            constructor.setAccessible(true);
+
+            return MethodHandles.lookup().unreflectConstructor(constructor)
+                .asSpreader(Object[].class, tipoParametros.length)
+                .asType(MethodType.methodType(Object.class, Object[].class));
+        } catch (NoSuchMethodException | IllegalAccessException | SecurityException e) {
             LOGGER.error("Ocurrio un error inesperado al recuperar el contructor de la entidad.", e);
+            throw new IllegalStateException("No es posible recuperar el constructor de " + tipo.getName(), e);
         }
-
-        return constructor;
     }
 
     /**
      * Crea una instancia a partir del constructor y la lista de argumentos.
      *
-     * @param constructor Constructor del objeto a crear.
+     * @param constructor Constructor del objeto a crear, recuperado con {@link #getConstructor(Class, Class[])}.
      * @param argumentos Lista de argumentos del constructor.
      * @param <T> Tipo generico, especifica el Tipo de objeto a crear.
      *
      * @return Instancia del objeto creada.
+     *
+     * @throws IllegalStateException Si el constructor lanza una excepción verificada.
      */
-    public static <T> T getInstancia(final Constructor<T> constructor, final Object... argumentos) {
-        T instancia = null;
-        boolean isAccessible = constructor.isAccessible();
-
+    @SuppressWarnings("unchecked")
+    public static <T> T getInstancia(final MethodHandle constructor, final Object... argumentos) {
         try {
-            setAccessible(constructor, true);
+            Object instancia = constructor.invokeExact(argumentos);
 
-            instancia = constructor.newInstance(argumentos);
-        } catch (Exception e) {
+            return (T) instancia;
+        } catch (RuntimeException | Error e) {
+            throw e;
+        } catch (Throwable e) {
             LOGGER.error("Ocurrio un error inesperado al crear la instancia de la entidad.", e);
-        } finally {
-            setAccessible(constructor, isAccessible);
-        }
-
-        return instancia;
-    }
-
-    /**
-     * Establece la bandera {@code accessible} al constructor.
-     *
-     * @param constructor Constructor
-     * @param accessible Valor de la bandera {@code accessible}
-     */
-    private static void setAccessible(Constructor constructor, boolean accessible) {
-        if (accessible != constructor.isAccessible()) {
-            constructor.setAccessible(accessible);
+            throw new IllegalStateException("No es posible crear la instancia de la entidad", e);
         }
     }
 }
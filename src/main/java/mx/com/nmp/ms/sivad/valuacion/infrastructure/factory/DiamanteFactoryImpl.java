@@ -16,7 +16,7 @@ import org.springframework.util.Assert;
 import org.springframework.util.ObjectUtils;
 
 import javax.inject.Inject;
-import java.lang.reflect.Constructor;
+import java.lang.invoke.MethodHandle;
 import java.math.BigDecimal;
 
 import static mx.com.nmp.ms.sivad.valuacion.infrastructure.factory.ConstructorUtil.getConstructor;
@@ -33,7 +33,8 @@ public class DiamanteFactoryImpl implements DiamanteFactory {
     /**
      * Referencia al constructor de la entidad.
      */
-    private final Constructor<Diamante> constructor;
+    private static final MethodHandle CONSTRUCTOR = getConstructor(Diamante.class,
+        Diamante.Builder.class, TablasDeReferenciaDiamantes.class);
 
     /**
      * Referencia hacia el conector con el sistema de "tablas de referencia".
@@ -50,9 +51,6 @@ public class DiamanteFactoryImpl implements DiamanteFactory {
      */
     public DiamanteFactoryImpl() {
         super();
-
-        constructor = getConstructor(Diamante.class, Diamante.Builder.class,
-            TablasDeReferenciaDiamantes.class);
     }
 
     /**
@@ -70,7 +68,7 @@ public class DiamanteFactoryImpl implements DiamanteFactory {
     @Override
     public Diamante create(Diamante.Builder builder) {
         validarBuilder(builder);
-        return getInstancia(constructor, builder, tablasDeReferenciaDiamantes);
+        return getInstancia(CONSTRUCTOR, builder, tablasDeReferenciaDiamantes);
     }
 
     /**
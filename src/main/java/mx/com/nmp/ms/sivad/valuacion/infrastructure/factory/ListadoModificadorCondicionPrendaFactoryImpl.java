@@ -16,7 +16,7 @@ import org.springframework.stereotype.Component;
 import org.springframework.util.Assert;
 import org.springframework.util.ObjectUtils;
 
-import java.lang.reflect.Constructor;
+import java.lang.invoke.MethodHandle;
 import java.util.Set;
 
 import static mx.com.nmp.ms.sivad.valuacion.infrastructure.factory.ConstructorUtil.getConstructor;
@@ -33,7 +33,8 @@ public class ListadoModificadorCondicionPrendaFactoryImpl implements ListadoModi
     /**
      * Referencia al constructor de la entidad.
      */
-    private final Constructor<ListadoModificadorCondicionPrenda> constructor;
+    private static final MethodHandle CONSTRUCTOR = getConstructor(ListadoModificadorCondicionPrenda.class,
+        ListadoModificadorCondicionPrenda.Builder.class, ModificadorCondicionPrendaRepository.class);
 
     /**
      * Referencia al repositorio de {@link ModificadorCondicionPrendaRepository}.
@@ -49,10 +50,6 @@ public class ListadoModificadorCondicionPrendaFactoryImpl implements ListadoModi
      */
     public ListadoModificadorCondicionPrendaFactoryImpl() {
         super();
-
-        constructor = getConstructor(ListadoModificadorCondicionPrenda.class,
-            ListadoModificadorCondicionPrenda.Builder.class,
-            ModificadorCondicionPrendaRepository.class);
     }
 
     /**
@@ -133,7 +130,7 @@ public class ListadoModificadorCondicionPrendaFactoryImpl implements ListadoModi
         ModificadorCondicionPrendaRepository repositorio) {
 
         validarBuilder(builder);
-        return getInstancia(constructor, builder, repositorio);
+        return getInstancia(CONSTRUCTOR, builder, repositorio);
     }
 
     /**
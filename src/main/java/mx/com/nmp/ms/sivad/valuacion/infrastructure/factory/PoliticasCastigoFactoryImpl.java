@@ -19,7 +19,7 @@ import org.springframework.stereotype.Component;
 import org.springframework.util.Assert;
 import org.springframework.util.ObjectUtils;
 
-import java.lang.reflect.Constructor;
+import java.lang.invoke.MethodHandle;
 import java.math.BigDecimal;
 import java.util.Map;
 
@@ -33,7 +33,8 @@ public class PoliticasCastigoFactoryImpl implements PoliticasCastigoFactory {
     /**
      * Referencia al constructor de la entidad.
      */
-    private Constructor<PoliticasCastigo> constructor;
+    private static final MethodHandle CONSTRUCTOR = ConstructorUtil.getConstructor(PoliticasCastigo.class,
+        PoliticasCastigo.Builder.class, PoliticasCastigoRepository.class);
 
     /**
      * Referencia al repositorio de entidades.
@@ -45,9 +46,6 @@ public class PoliticasCastigoFactoryImpl implements PoliticasCastigoFactory {
      */
     public PoliticasCastigoFactoryImpl() {
         super();
-
-        constructor = ConstructorUtil
-            .getConstructor(PoliticasCastigo.class, PoliticasCastigo.Builder.class, PoliticasCastigoRepository.class);
     }
 
     /**
@@ -123,7 +121,7 @@ public class PoliticasCastigoFactoryImpl implements PoliticasCastigoFactory {
     private PoliticasCastigo crear(PoliticasCastigo.Builder builder, PoliticasCastigoRepository repositorio) {
         validarBuilder(builder);
 
-        return ConstructorUtil.getInstancia(constructor, builder, repositorio);
+        return ConstructorUtil.getInstancia(CONSTRUCTOR, builder, repositorio);
     }
 
     /**
@@ -9,6 +9,7 @@ import mx.com.nmp.ms.sivad.valuacion.dominio.factory.*;
 import mx.com.nmp.ms.sivad.valuacion.dominio.modelo.*;
 import mx.com.nmp.ms.sivad.valuacion.dominio.modelo.dto.*;
 import mx.com.nmp.ms.sivad.valuacion.dominio.modelo.vo.CondicionPrendaVO;
+import mx.com.nmp.ms.sivad.valuacion.dominio.repository.MemoriaAvaluosRepository;
 import mx.com.nmp.ms.sivad.valuacion.dominio.repository.ModificadorCondicionPrendaRepository;
 import mx.com.nmp.ms.sivad.valuacion.dominio.repository.PoliticasCastigoRepository;
 import org.springframework.stereotype.Component;
@@ -17,7 +18,7 @@ import org.springframework.util.ObjectUtils;
 
 import javax.annotation.PostConstruct;
 import javax.inject.Inject;
-import java.lang.reflect.Constructor;
+import java.lang.invoke.MethodHandle;
 import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
@@ -38,7 +39,9 @@ public class PrendaFactoryImpl implements PrendaFactory {
     /**
      * Referencia al constructor de la entidad.
      */
-    private final Constructor<Prenda> constructor;
+    private static final MethodHandle CONSTRUCTOR = getConstructor(Prenda.class, Prenda.Builder.class,
+        PoliticasCastigoRepository.class, ModificadorCondicionPrendaRepository.class, ResolucionReferencias.class,
+        ValuacionParalela.class, MemoriaAvaluosRepository.class);
 
     /**
      * Mapa de estrategia de fábricas por tipo de pieza.
@@ -75,6 +78,24 @@ public class PrendaFactoryImpl implements PrendaFactory {
     @Inject
     private ModificadorCondicionPrendaRepository condicionPrendaRepository;
 
+    /**
+     * Parámetros de la resolución concurrente de las consultas a tablas de referencia de las piezas.
+     */
+    @Inject
+    private ResolucionReferencias resolucionReferencias;
+
+    /**
+     * Parámetros de la valuación paralela de las piezas.
+     */
+    @Inject
+    private ValuacionParalela valuacionParalela;
+
+    /**
+     * Referencia hacia la memoria de avalúos de piezas.
+     */
+    @Inject
+    private MemoriaAvaluosRepository memoriaAvaluosRepository;
+
 
 
     // METODOS
@@ -85,9 +106,6 @@ public class PrendaFactoryImpl implements PrendaFactory {
     public PrendaFactoryImpl() {
         super();
 
-        constructor = getConstructor(Prenda.class, Prenda.Builder.class,
-            PoliticasCastigoRepository.class, ModificadorCondicionPrendaRepository.class);
-
         mapaEstrategiaFactory = new HashMap<>();
     }
 
@@ -133,7 +151,8 @@ public class PrendaFactoryImpl implements PrendaFactory {
     @Override
     public Prenda create(Prenda.Builder builder) {
         validarBuilder(builder);
-        return getInstancia(constructor, builder, politicasCastigoRepository, condicionPrendaRepository);
+        return getInstancia(CONSTRUCTOR, builder, politicasCastigoRepository, condicionPrendaRepository,
+            resolucionReferencias, valuacionParalela, memoriaAvaluosRepository);
     }
 
     /**
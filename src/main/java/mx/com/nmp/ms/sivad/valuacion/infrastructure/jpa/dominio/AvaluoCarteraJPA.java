@@ -0,0 +1,102 @@
+/**
+ * Proyecto:        NMP - Microservicio de Motor de Valuación
+ * Quarksoft S.A.P.I. de C.V. – Todos los derechos reservados. Para uso exclusivo de Nacional Monte de Piedad.
+ */
+package mx.com.nmp.ms.sivad.valuacion.infrastructure.jpa.dominio;
+
+import javax.persistence.Column;
+import javax.persistence.Embeddable;
+import java.math.BigDecimal;
+
+/**
+ * Valores mínimo, promedio y máximo de un avalúo de la cartera. Se conservan con la escala de los cálculos
+ * intermedios para que las actualizaciones por diferencia no acumulen errores de redondeo.
+ */
+@Embeddable
+public class AvaluoCarteraJPA {
+
+    /**
+     * Valor mínimo.
+     */
+    @Column(name = "valor_minimo", precision = 30, scale = 10, nullable = false)
+    private BigDecimal valorMinimo;
+
+    /**
+     * Valor promedio.
+     */
+    @Column(name = "valor_promedio", precision = 30, scale = 10, nullable = false)
+    private BigDecimal valorPromedio;
+
+    /**
+     * Valor máximo.
+     */
+    @Column(name = "valor_maximo", precision = 30, scale = 10, nullable = false)
+    private BigDecimal valorMaximo;
+
+
+
+    // METODOS
+
+    /**
+     * Constructor.
+     */
+    public AvaluoCarteraJPA() {
+        super();
+    }
+
+    /**
+     * Constructor.
+     *
+     * @param valorMinimo Valor mínimo.
+     * @param valorPromedio Valor promedio.
+     * @param valorMaximo Valor máximo.
+     */
+    public AvaluoCarteraJPA(BigDecimal valorMinimo, BigDecimal valorPromedio, BigDecimal valorMaximo) {
+        super();
+
+        this.valorMinimo = valorMinimo;
+        this.valorPromedio = valorPromedio;
+        this.valorMaximo = valorMaximo;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public String toString() {
+        return "AvaluoCarteraJPA{" +
+            "valorMinimo=" + valorMinimo +
+            ", valorPromedio=" + valorPromedio +
+            ", valorMaximo=" + valorMaximo +
+            '}';
+    }
+
+
+
+    // GETTERS Y SETTERS
+
+    public BigDecimal getValorMinimo() {
+        return valorMinimo;
+    }
+
+    public void setValorMinimo(BigDecimal valorMinimo) {
+        this.valorMinimo = valorMinimo;
+    }
+
+    public BigDecimal getValorPromedio() {
+        return valorPromedio;
+    }
+
+    public void setValorPromedio(BigDecimal valorPromedio) {
+        this.valorPromedio = valorPromedio;
+    }
+
+    public BigDecimal getValorMaximo() {
+        return valorMaximo;
+    }
+
+    public void setValorMaximo(BigDecimal valorMaximo) {
+        this.valorMaximo = valorMaximo;
+    }
+
+}
@@ -0,0 +1,333 @@
+/**
+ * Proyecto:        NMP - Microservicio de Motor de Valuación
+ * Quarksoft S.A.P.I. de C.V. – Todos los derechos reservados. Para uso exclusivo de Nacional Monte de Piedad.
+ */
+package mx.com.nmp.ms.sivad.valuacion.infrastructure.jpa.dominio;
+
+import javax.persistence.CollectionTable;
+import javax.persistence.Column;
+import javax.persistence.ElementCollection;
+import javax.persistence.Embedded;
+import javax.persistence.Entity;
+import javax.persistence.GeneratedValue;
+import javax.persistence.Id;
+import javax.persistence.Index;
+import javax.persistence.JoinColumn;
+import javax.persistence.Table;
+import java.math.BigDecimal;
+import java.util.HashSet;
+import java.util.Set;
+
+import static javax.persistence.FetchType.EAGER;
+import static javax.persistence.GenerationType.IDENTITY;
+
+/**
+ * Entidad utilizada para representar una pieza de una prenda de la cartera: las características con las que se
+ * vuelve a crear la pieza, su avalúo vigente y las llaves de las tablas de referencia de las que depende.
+ */
+@Entity
+@Table(name = "tr_cartera_pieza",
+    indexes = {
+        @Index(name = "idx_tr_cartera_pieza_prenda", columnList = "prenda")
+    }
+)
+public class PiezaCarteraJPA {
+
+    /**
+     * Identificador.
+     */
+    @Id
+    @GeneratedValue(strategy = IDENTITY)
+    private Long id;
+
+    /**
+     * Identificador de la prenda a la que pertenece la pieza.
+     */
+    @Column(name = "prenda", length = 100, nullable = false)
+    private String prenda;
+
+    /**
+     * Tipo de pieza: Alhaja, Diamante o Complementario.
+     */
+    @Column(name = "tipo", length = 50, nullable = false)
+    private String tipo;
+
+    /**
+     * Número de piezas con características idénticas.
+     */
+    @Column(name = "numero_piezas", nullable = false)
+    private int numeroPiezas;
+
+    @Column(name = "metal", length = 50)
+    private String metal;
+
+    @Column(name = "color", length = 50)
+    private String color;
+
+    @Column(name = "calidad", length = 50)
+    private String calidad;
+
+    @Column(name = "rango", length = 50)
+    private String rango;
+
+    @Column(name = "peso", precision = 20, scale = 4)
+    private BigDecimal peso;
+
+    @Column(name = "incremento", precision = 20, scale = 4)
+    private BigDecimal incremento;
+
+    @Column(name = "desplazamiento", precision = 20, scale = 4)
+    private BigDecimal desplazamiento;
+
+    @Column(name = "corte", length = 50)
+    private String corte;
+
+    @Column(name = "subcorte", length = 50)
+    private String subcorte;
+
+    @Column(name = "claridad", length = 50)
+    private String claridad;
+
+    @Column(name = "quilates", precision = 20, scale = 4)
+    private BigDecimal quilates;
+
+    @Column(name = "certificado", length = 50)
+    private String certificado;
+
+    @Column(name = "quilates_desde", precision = 20, scale = 4)
+    private BigDecimal quilatesDesde;
+
+    @Column(name = "quilates_hasta", precision = 20, scale = 4)
+    private BigDecimal quilatesHasta;
+
+    /**
+     * Valor estimado por un experto y su tipo (TOTAL o UNITARIO).
+     */
+    @Column(name = "valor_experto", precision = 20, scale = 4)
+    private BigDecimal valorExperto;
+
+    @Column(name = "tipo_valor_experto", length = 20)
+    private String tipoValorExperto;
+
+    /**
+     * Avalúo vigente de la pieza.
+     */
+    @Embedded
+    private AvaluoCarteraJPA avaluo;
+
+    /**
+     * Llaves de las tablas de referencia de las que depende el avalúo de la pieza.
+     */
+    @ElementCollection(fetch = EAGER)
+    @Column(name = "llave", length = 255, nullable = false)
+    @CollectionTable(name = "tr_cartera_pieza_dependencia", joinColumns = @JoinColumn(name = "pieza"),
+        indexes = @Index(name = "idx_tr_cartera_pieza_dependencia_llave", columnList = "llave"))
+    private Set<String> dependencias = new HashSet<>();
+
+
+
+    // METODOS
+
+    /**
+     * Constructor.
+     */
+    public PiezaCarteraJPA() {
+        super();
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public String toString() {
+        return "PiezaCarteraJPA{" +
+            "id=" + id +
+            ", prenda='" + prenda + '\'' +
+            ", tipo='" + tipo + '\'' +
+            ", numeroPiezas=" + numeroPiezas +
+            ", avaluo=" + avaluo +
+            ", dependencias=" + dependencias +
+            '}';
+    }
+
+
+
+    // GETTERS Y SETTERS
+
+    public Long getId() {
+        return id;
+    }
+
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    public String getPrenda() {
+        return prenda;
+    }
+
+    public void setPrenda(String prenda) {
+        this.prenda = prenda;
+    }
+
+    public String getTipo() {
+        return tipo;
+    }
+
+    public void setTipo(String tipo) {
+        this.tipo = tipo;
+    }
+
+    public int getNumeroPiezas() {
+        return numeroPiezas;
+    }
+
+    public void setNumeroPiezas(int numeroPiezas) {
+        this.numeroPiezas = numeroPiezas;
+    }
+
+    public String getMetal() {
+        return metal;
+    }
+
+    public void setMetal(String metal) {
+        this.metal = metal;
+    }
+
+    public String getColor() {
+        return color;
+    }
+
+    public void setColor(String color) {
+        this.color = color;
+    }
+
+    public String getCalidad() {
+        return calidad;
+    }
+
+    public void setCalidad(String calidad) {
+        this.calidad = calidad;
+    }
+
+    public String getRango() {
+        return rango;
+    }
+
+    public void setRango(String rango) {
+        this.rango = rango;
+    }
+
+    public BigDecimal getPeso() {
+        return peso;
+    }
+
+    public void setPeso(BigDecimal peso) {
+        this.peso = peso;
+    }
+
+    public BigDecimal getIncremento() {
+        return incremento;
+    }
+
+    public void setIncremento(BigDecimal incremento) {
+        this.incremento = incremento;
+    }
+
+    public BigDecimal getDesplazamiento() {
+        return desplazamiento;
+    }
+
+    public void setDesplazamiento(BigDecimal desplazamiento) {
+        this.desplazamiento = desplazamiento;
+    }
+
+    public String getCorte() {
+        return corte;
+    }
+
+    public void setCorte(String corte) {
+        this.corte = corte;
+    }
+
+    public String getSubcorte() {
+        return subcorte;
+    }
+
+    public void setSubcorte(String subcorte) {
+        this.subcorte = subcorte;
+    }
+
+    public String getClaridad() {
+        return claridad;
+    }
+
+    public void setClaridad(String claridad) {
+        this.claridad = claridad;
+    }
+
+    public BigDecimal getQuilates() {
+        return quilates;
+    }
+
+    public void setQuilates(BigDecimal quilates) {
+        this.quilates = quilates;
+    }
+
+    public String getCertificado() {
+        return certificado;
+    }
+
+    public void setCertificado(String certificado) {
+        this.certificado = certificado;
+    }
+
+    public BigDecimal getQuilatesDesde() {
+        return quilatesDesde;
+    }
+
+    public void setQuilatesDesde(BigDecimal quilatesDesde) {
+        this.quilatesDesde = quilatesDesde;
+    }
+
+    public BigDecimal getQuilatesHasta() {
+        return quilatesHasta;
+    }
+
+    public void setQuilatesHasta(BigDecimal quilatesHasta) {
+        this.quilatesHasta = quilatesHasta;
+    }
+
+    public BigDecimal getValorExperto() {
+        return valorExperto;
+    }
+
+    public void setValorExperto(BigDecimal valorExperto) {
+        this.valorExperto = valorExperto;
+    }
+
+    public String getTipoValorExperto() {
+        return tipoValorExperto;
+    }
+
+    public void setTipoValorExperto(String tipoValorExperto) {
+        this.tipoValorExperto = tipoValorExperto;
+    }
+
+    public AvaluoCarteraJPA getAvaluo() {
+        return avaluo;
+    }
+
+    public void setAvaluo(AvaluoCarteraJPA avaluo) {
+        this.avaluo = avaluo;
+    }
+
+    public Set<String> getDependencias() {
+        return dependencias;
+    }
+
+    public void setDependencias(Set<String> dependencias) {
+        this.dependencias = dependencias;
+    }
+
+}
@@ -0,0 +1,146 @@
+/**
+ * Proyecto:        NMP - Microservicio de Motor de Valuación
+ * Quarksoft S.A.P.I. de C.V. – Todos los derechos reservados. Para uso exclusivo de Nacional Monte de Piedad.
+ */
+package mx.com.nmp.ms.sivad.valuacion.infrastructure.jpa.dominio;
+
+import org.hibernate.annotations.Type;
+import org.joda.time.DateTime;
+
+import javax.persistence.CollectionTable;
+import javax.persistence.Column;
+import javax.persistence.ElementCollection;
+import javax.persistence.Embedded;
+import javax.persistence.Entity;
+import javax.persistence.Id;
+import javax.persistence.JoinColumn;
+import javax.persistence.MapKeyColumn;
+import javax.persistence.Table;
+import java.util.HashMap;
+import java.util.Map;
+
+import static javax.persistence.FetchType.EAGER;
+
+/**
+ * Entidad utilizada para representar una prenda de la cartera con su avalúo vigente y los avalúos de sus piezas
+ * acumulados por tipo de pieza, sin políticas de castigo ni condición física.
+ */
+@Entity
+@Table(name = "tr_cartera_prenda")
+public class PrendaCarteraJPA {
+
+    /**
+     * Identificador de la prenda.
+     */
+    @Id
+    @Column(name = "id", length = 100, nullable = false)
+    private String id;
+
+    /**
+     * Condición física de la prenda.
+     */
+    @Column(name = "condicion", length = 50)
+    private String condicion;
+
+    /**
+     * Avalúo vigente de la prenda.
+     */
+    @Embedded
+    private AvaluoCarteraJPA avaluo;
+
+    /**
+     * Avalúos de las piezas acumulados por tipo de pieza.
+     */
+    @ElementCollection(fetch = EAGER)
+    @MapKeyColumn(name = "tipo", length = 50)
+    @CollectionTable(name = "tr_cartera_prenda_acumulado", joinColumns = @JoinColumn(name = "prenda"))
+    private Map<String, AvaluoCarteraJPA> acumulados = new HashMap<>();
+
+    /**
+     * Fecha de la última actualización del avalúo.
+     */
+    @Column(name = "fecha_valuacion", nullable = false)
+    @Type(type = "org.jadira.usertype.dateandtime.joda.PersistentDateTime")
+    private DateTime fechaValuacion;
+
+
+
+    // METODOS
+
+    /**
+     * Constructor.
+     */
+    public PrendaCarteraJPA() {
+        super();
+    }
+
+    /**
+     * Constructor.
+     *
+     * @param id Identificador de la prenda.
+     */
+    public PrendaCarteraJPA(String id) {
+        super();
+
+        this.id = id;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public String toString() {
+        return "PrendaCarteraJPA{" +
+            "id='" + id + '\'' +
+            ", condicion='" + condicion + '\'' +
+            ", avaluo=" + avaluo +
+            ", acumulados=" + acumulados +
+            ", fechaValuacion=" + fechaValuacion +
+            '}';
+    }
+
+
+
+    // GETTERS Y SETTERS
+
+    public String getId() {
+        return id;
+    }
+
+    public void setId(String id) {
+        this.id = id;
+    }
+
+    public String getCondicion() {
+        return condicion;
+    }
+
+    public void setCondicion(String condicion) {
+        this.condicion = condicion;
+    }
+
+    public AvaluoCarteraJPA getAvaluo() {
+        return avaluo;
+    }
+
+    public void setAvaluo(AvaluoCarteraJPA avaluo) {
+        this.avaluo = avaluo;
+    }
+
+    public Map<String, AvaluoCarteraJPA> getAcumulados() {
+        return acumulados;
+    }
+
+    public void setAcumulados(Map<String, AvaluoCarteraJPA> acumulados) {
+        this.acumulados = acumulados;
+    }
+
+    public DateTime getFechaValuacion() {
+        return fechaValuacion;
+    }
+
+    public void setFechaValuacion(DateTime fechaValuacion) {
+        this.fechaValuacion = fechaValuacion;
+    }
+
+}
@@ -0,0 +1,90 @@
+/**
+ * Proyecto:        NMP - Microservicio de Motor de Valuación
+ * Quarksoft S.A.P.I. de C.V. – Todos los derechos reservados. Para uso exclusivo de Nacional Monte de Piedad.
+ */
+package mx.com.nmp.ms.sivad.valuacion.infrastructure.jpa.dominio;
+
+import javax.persistence.Column;
+import javax.persistence.Entity;
+import javax.persistence.Id;
+import javax.persistence.Table;
+
+/**
+ * Entidad utilizada para representar la versión de un recurso que las instancias del servicio conservan en caché.
+ * Cada cambio del recurso incrementa su versión, lo que permite a las demás instancias detectarlo.
+ *
+ * La entidad no participa en el caché de segundo nivel, ya que su propósito es leer siempre el valor compartido.
+ */
+@Entity
+@Table(name = "cfg_version_cache")
+public class VersionCacheJPA {
+
+    /**
+     * Nombre del recurso.
+     */
+    @Id
+    @Column(name = "nombre", length = 100, nullable = false)
+    private String nombre;
+
+    /**
+     * Versión del recurso.
+     */
+    @Column(name = "version", nullable = false)
+    private Long version;
+
+
+
+    // METODOS
+
+    /**
+     * Constructor.
+     */
+    public VersionCacheJPA() {
+        super();
+    }
+
+    /**
+     * Constructor.
+     *
+     * @param nombre Nombre del recurso.
+     * @param version Versión del recurso.
+     */
+    public VersionCacheJPA(String nombre, Long version) {
+        super();
+
+        this.nombre = nombre;
+        this.version = version;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public String toString() {
+        return "VersionCacheJPA{" +
+            "nombre='" + nombre + '\'' +
+            ", version=" + version +
+            '}';
+    }
+
+
+
+    // GETTERS Y SETTERS
+
+    public String getNombre() {
+        return nombre;
+    }
+
+    public void setNombre(String nombre) {
+        this.nombre = nombre;
+    }
+
+    public Long getVersion() {
+        return version;
+    }
+
+    public void setVersion(Long version) {
+        this.version = version;
+    }
+
+}
@@ -0,0 +1,660 @@
+/**
+ * Proyecto:        NMP - Microservicio de Motor de Valuación
+ * Quarksoft S.A.P.I. de C.V. – Todos los derechos reservados. Para uso exclusivo de Nacional Monte de Piedad.
+ */
+package mx.com.nmp.ms.sivad.valuacion.infrastructure.jpa.repository;
+
+import mx.com.nmp.ms.sivad.valuacion.config.CarteraProperties;
+import mx.com.nmp.ms.sivad.valuacion.dominio.exception.ModificadorCondicionPrendaNoEncontradoException;
+import mx.com.nmp.ms.sivad.valuacion.dominio.exception.PoliticaCastigoNoEncontradaException;
+import mx.com.nmp.ms.sivad.valuacion.dominio.factory.AlhajaFactory;
+import mx.com.nmp.ms.sivad.valuacion.dominio.factory.AvaluoFactory;
+import mx.com.nmp.ms.sivad.valuacion.dominio.factory.ComplementarioFactory;
+import mx.com.nmp.ms.sivad.valuacion.dominio.factory.DiamanteFactory;
+import mx.com.nmp.ms.sivad.valuacion.dominio.modelo.Alhaja;
+import mx.com.nmp.ms.sivad.valuacion.dominio.modelo.AvaluosPorTipo;
+import mx.com.nmp.ms.sivad.valuacion.dominio.modelo.Complementario;
+import mx.com.nmp.ms.sivad.valuacion.dominio.modelo.Diamante;
+import mx.com.nmp.ms.sivad.valuacion.dominio.modelo.Pieza;
+import mx.com.nmp.ms.sivad.valuacion.dominio.modelo.PoliticasCastigo;
+import mx.com.nmp.ms.sivad.valuacion.dominio.modelo.Prenda;
+import mx.com.nmp.ms.sivad.valuacion.dominio.modelo.dto.AlhajaDTO;
+import mx.com.nmp.ms.sivad.valuacion.dominio.modelo.dto.ComplementarioDTO;
+import mx.com.nmp.ms.sivad.valuacion.dominio.modelo.dto.DiamanteDTO;
+import mx.com.nmp.ms.sivad.valuacion.dominio.modelo.vo.Avaluo;
+import mx.com.nmp.ms.sivad.valuacion.dominio.modelo.vo.CondicionPrendaVO;
+import mx.com.nmp.ms.sivad.valuacion.dominio.modelo.vo.ValorExperto;
+import mx.com.nmp.ms.sivad.valuacion.dominio.repository.CarteraRepository;
+import mx.com.nmp.ms.sivad.valuacion.dominio.repository.ModificadorCondicionPrendaRepository;
+import mx.com.nmp.ms.sivad.valuacion.dominio.repository.PoliticasCastigoRepository;
+import mx.com.nmp.ms.sivad.valuacion.infrastructure.jpa.dominio.AvaluoCarteraJPA;
+import mx.com.nmp.ms.sivad.valuacion.infrastructure.jpa.dominio.PiezaCarteraJPA;
+import mx.com.nmp.ms.sivad.valuacion.infrastructure.jpa.dominio.PrendaCarteraJPA;
+import org.joda.time.DateTime;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.Sort;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionStatus;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.util.Assert;
+
+import javax.annotation.PostConstruct;
+import javax.inject.Inject;
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Implementación en JPA de {@link CarteraRepository}.
+ *
+ * Cada pieza se registra con las características necesarias para volver a crearla con las fábricas del dominio y
+ * con las llaves de las tablas de referencia de las que depende, las mismas llaves con las que los cachés de tablas
+ * de referencia conservan los valores. Al revaluar, el nuevo avalúo de cada pieza afectada se compara con el
+ * registrado y, si difiere, se resta el anterior y se suma el nuevo a los acumulados por tipo de pieza de su prenda;
+ * el avalúo de la prenda se recalcula a partir de los acumulados, con los mismos redondeos que {@link Prenda}.
+ *
+ * La revaluación y el recálculo de la cartera recorren las piezas o las prendas por páginas de
+ * {@code valuacion.cartera.tamanoPagina}, de modo que ninguna consulta ni transacción abarca toda la cartera. Las
+ * piezas de cada página se revalúan fuera de transacción, ya que consultan las tablas de referencia remotas; después
+ * las prendas de la página se actualizan en una transacción, aplicando la diferencia respecto del avalúo registrado en
+ * ese momento.
+ */
+@Component
+public class CarteraRepositoryImpl implements CarteraRepository {
+
+    /**
+     * Utilizada para manipular los mensajes informativos y de error.
+     */
+    private static final Logger LOGGER = LoggerFactory.getLogger(CarteraRepositoryImpl.class);
+
+    /**
+     * Tipos de pieza indexados por el nombre con el que se registran.
+     */
+    private static final Map<String, Class<? extends Pieza>> TIPOS = new HashMap<>();
+
+    static {
+        TIPOS.put(Alhaja.class.getSimpleName(), Alhaja.class);
+        TIPOS.put(Diamante.class.getSimpleName(), Diamante.class);
+        TIPOS.put(Complementario.class.getSimpleName(), Complementario.class);
+    }
+
+    /**
+     * Propiedades de la cartera.
+     */
+    @Inject
+    private CarteraProperties propiedades;
+
+    /**
+     * Referencia al repositorio de {@link PrendaCarteraJPA}.
+     */
+    @Inject
+    private PrendaCarteraJPARepository prendaCarteraJPARepository;
+
+    /**
+     * Referencia al repositorio de {@link PiezaCarteraJPA}.
+     */
+    @Inject
+    private PiezaCarteraJPARepository piezaCarteraJPARepository;
+
+    /**
+     * Referencia hacia la fábrica de entidades tipo {@link Alhaja}.
+     */
+    @Inject
+    private AlhajaFactory alhajaFactory;
+
+    /**
+     * Referencia hacia la fábrica de entidades tipo {@link Diamante}.
+     */
+    @Inject
+    private DiamanteFactory diamanteFactory;
+
+    /**
+     * Referencia hacia la fábrica de entidades tipo {@link Complementario}.
+     */
+    @Inject
+    private ComplementarioFactory complementarioFactory;
+
+    /**
+     * Referencia hacia el repositorio de políticas de castigo.
+     */
+    @Inject
+    private PoliticasCastigoRepository politicasCastigoRepository;
+
+    /**
+     * Referencia hacia el repositorio modificador por condiciones fisicas.
+     */
+    @Inject
+    private ModificadorCondicionPrendaRepository condicionPrendaRepository;
+
+    /**
+     * Administrador de las transacciones en las que se actualiza cada página.
+     */
+    @Inject
+    private PlatformTransactionManager transactionManager;
+
+    /**
+     * Plantilla de la transacción de cada página.
+     */
+    private TransactionTemplate transactionTemplate;
+
+
+
+    // METODOS
+
+    /**
+     * Constructor.
+     */
+    public CarteraRepositoryImpl() {
+        super();
+    }
+
+    /**
+     * Crea la plantilla de las transacciones de cada página.
+     */
+    @PostConstruct
+    public void init() {
+        transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    @Transactional
+    public void registrar(String id, Prenda prenda, Avaluo avaluo) {
+        Assert.hasText(id, "El identificador de la prenda es requerido.");
+        Assert.notNull(prenda, "La prenda es requerida.");
+        Assert.notNull(avaluo, "El avalúo de la prenda es requerido.");
+
+        AvaluosPorTipo acumulados = new AvaluosPorTipo();
+        List<PiezaCarteraJPA> piezas = new ArrayList<>(prenda.getPiezas().size());
+
+        for (Pieza pieza : prenda.getPiezas()) {
+            piezas.add(crearPiezaJPA(id, pieza));
+            acumulados.sumar(pieza.getClass(), pieza.getAvaluo());
+        }
+
+        PrendaCarteraJPA prendaJPA = new PrendaCarteraJPA(id);
+        prendaJPA.setCondicion((prenda.getCondicionFisica() == null) ? null :
+            prenda.getCondicionFisica().getCondicionPrenda());
+        prendaJPA.setAvaluo(crearAvaluoJPA(avaluo));
+        prendaJPA.setFechaValuacion(DateTime.now());
+        asignarAcumulados(prendaJPA, acumulados);
+
+        piezaCarteraJPARepository.delete(piezaCarteraJPARepository.findByPrenda(id));
+        prendaCarteraJPARepository.save(prendaJPA);
+        piezaCarteraJPARepository.save(piezas);
+
+        LOGGER.debug("Prenda [{}] registrada en la cartera con [{}] piezas", id, piezas.size());
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public int revaluar(Collection<String> llaves) {
+        if (llaves == null || llaves.isEmpty()) {
+            return 0;
+        }
+
+        return revaluarPaginas(llaves);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public int revaluarCartera() {
+        return revaluarPaginas(null);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public int retotalizar() {
+        final PoliticasCastigo politicasCastigo = consultarPoliticasVigentes();
+        final Map<String, BigDecimal> factoresCondicion = new HashMap<>();
+        final AtomicInteger actualizadas = new AtomicInteger();
+        int numeroPagina = 0;
+        Slice<PrendaCarteraJPA> pagina;
+
+        do {
+            final PageRequest solicitud = new PageRequest(numeroPagina++, propiedades.getTamanoPagina(),
+                Sort.Direction.ASC, "id");
+
+            // LA PÁGINA SE CONSULTA Y SE ACTUALIZA EN LA MISMA TRANSACCIÓN.
+            pagina = transactionTemplate.execute(new TransactionCallback<Slice<PrendaCarteraJPA>>() {
+                @Override
+                public Slice<PrendaCarteraJPA> doInTransaction(TransactionStatus status) {
+                    Slice<PrendaCarteraJPA> prendas = prendaCarteraJPARepository.findAll(solicitud);
+
+                    for (PrendaCarteraJPA prenda : prendas) {
+                        if (totalizar(prenda, recuperarAcumulados(prenda), politicasCastigo, factoresCondicion)) {
+                            prendaCarteraJPARepository.save(prenda);
+                            actualizadas.incrementAndGet();
+                        }
+                    }
+
+                    return prendas;
+                }
+            });
+        } while (pagina.hasNext());
+
+        LOGGER.info("Recalculado el avalúo de la cartera, [{}] prendas actualizadas", actualizadas.get());
+
+        return actualizadas.get();
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    @Transactional(readOnly = true)
+    public Avaluo consultar(String id) {
+        PrendaCarteraJPA prenda = prendaCarteraJPARepository.findOne(id);
+
+        return (prenda == null || prenda.getAvaluo() == null) ? null : crearAvaluo(prenda.getAvaluo());
+    }
+
+    /**
+     * Revalúa por páginas las piezas que dependen de las llaves indicadas, o todas las piezas de la cartera.
+     *
+     * @param llaves Llaves de las tablas de referencia, {@code null} para revaluar toda la cartera.
+     * @return El número de prendas cuyo avalúo cambió.
+     */
+    private int revaluarPaginas(Collection<String> llaves) {
+        PoliticasCastigo politicasCastigo = consultarPoliticasVigentes();
+        Map<String, BigDecimal> factoresCondicion = new HashMap<>();
+        int piezas = 0;
+        int actualizadas = 0;
+        int numeroPagina = 0;
+        Slice<PiezaCarteraJPA> pagina;
+
+        do {
+            PageRequest solicitud = new PageRequest(numeroPagina++, propiedades.getTamanoPagina());
+            pagina = (llaves == null) ? piezaCarteraJPARepository.findTodas(solicitud) :
+                piezaCarteraJPARepository.findByDependencias(llaves, solicitud);
+            piezas += pagina.getNumberOfElements();
+            actualizadas += revaluarPagina(pagina.getContent(), politicasCastigo, factoresCondicion);
+        } while (pagina.hasNext());
+
+        if (llaves == null) {
+            LOGGER.info("Revaluada la cartera, [{}] piezas, [{}] prendas actualizadas", piezas, actualizadas);
+        } else {
+            LOGGER.info("Revaluadas [{}] piezas por el cambio de [{}] llaves, [{}] prendas actualizadas", piezas,
+                llaves.size(), actualizadas);
+        }
+
+        return actualizadas;
+    }
+
+    /**
+     * Vuelve a valuar una pieza registrada.
+     *
+     * @param piezaJPA La pieza registrada.
+     * @return El nuevo avalúo de la pieza, o {@code null} si no fue posible valuarla.
+     */
+    private Avaluo revaluarPieza(PiezaCarteraJPA piezaJPA) {
+        try {
+            return crearPieza(piezaJPA).getAvaluo();
+        } catch (RuntimeException e) {
+            LOGGER.warn("No fue posible revaluar la pieza [{}] de la prenda [{}]", piezaJPA.getId(),
+                piezaJPA.getPrenda(), e);
+            return null;
+        }
+    }
+
+    /**
+     * Revalúa fuera de transacción las piezas de una página y, en una sola transacción, actualiza las prendas cuyas
+     * piezas cambiaron.
+     *
+     * @param piezas Las piezas de la página.
+     * @param politicasCastigo Las políticas de castigo vigentes, {@code null} si no existen.
+     * @param factoresCondicion Factores por condición física ya consultados, indexados por condición.
+     * @return El número de prendas cuyo avalúo cambió.
+     */
+    private int revaluarPagina(List<PiezaCarteraJPA> piezas, final PoliticasCastigo politicasCastigo,
+                               final Map<String, BigDecimal> factoresCondicion) {
+        // LOS NUEVOS AVALÚOS SE AGRUPAN POR PRENDA PARA ACTUALIZAR CADA PRENDA UNA SOLA VEZ POR PÁGINA.
+        final Map<String, Map<Long, Avaluo>> avaluosPorPrenda = new LinkedHashMap<>();
+
+        for (PiezaCarteraJPA pieza : piezas) {
+            Avaluo nuevo = revaluarPieza(pieza);
+
+            if (nuevo == null || iguales(crearAvaluo(pieza.getAvaluo()), nuevo)) {
+                continue;
+            }
+
+            Map<Long, Avaluo> avaluos = avaluosPorPrenda.get(pieza.getPrenda());
+
+            if (avaluos == null) {
+                avaluos = new LinkedHashMap<>();
+                avaluosPorPrenda.put(pieza.getPrenda(), avaluos);
+            }
+
+            avaluos.put(pieza.getId(), nuevo);
+        }
+
+        if (avaluosPorPrenda.isEmpty()) {
+            return 0;
+        }
+
+        return transactionTemplate.execute(new TransactionCallback<Integer>() {
+            @Override
+            public Integer doInTransaction(TransactionStatus status) {
+                int actualizadas = 0;
+
+                for (Map.Entry<String, Map<Long, Avaluo>> entry : avaluosPorPrenda.entrySet()) {
+                    if (actualizarPrenda(entry.getKey(), entry.getValue(), politicasCastigo, factoresCondicion)) {
+                        actualizadas++;
+                    }
+                }
+
+                return actualizadas;
+            }
+        });
+    }
+
+    /**
+     * Asigna los nuevos avalúos de las piezas de una prenda, aplicando la diferencia respecto del avalúo registrado
+     * a los acumulados de la prenda, y recalcula el avalúo de la prenda. Se invoca dentro de la transacción de la
+     * página.
+     *
+     * @param id Identificador de la prenda.
+     * @param avaluos Los nuevos avalúos indexados por identificador de pieza.
+     * @param politicasCastigo Las políticas de castigo vigentes, {@code null} si no existen.
+     * @param factoresCondicion Factores por condición física ya consultados, indexados por condición.
+     * @return {@code true} si el avalúo de la prenda cambió.
+     */
+    private boolean actualizarPrenda(String id, Map<Long, Avaluo> avaluos, PoliticasCastigo politicasCastigo,
+                                     Map<String, BigDecimal> factoresCondicion) {
+        PrendaCarteraJPA prenda = prendaCarteraJPARepository.findOne(id);
+
+        if (prenda == null) {
+            return false;
+        }
+
+        AvaluosPorTipo acumulados = recuperarAcumulados(prenda);
+        boolean cambio = false;
+
+        for (Map.Entry<Long, Avaluo> entry : avaluos.entrySet()) {
+            PiezaCarteraJPA pieza = piezaCarteraJPARepository.findOne(entry.getKey());
+
+            // LA PIEZA YA NO EXISTE SI LA PRENDA SE REGISTRÓ DE NUEVO MIENTRAS SE VALUABA.
+            if (pieza != null && id.equals(pieza.getPrenda())) {
+                cambio |= asignarAvaluo(pieza, entry.getValue(), acumulados);
+            }
+        }
+
+        if (!cambio) {
+            return false;
+        }
+
+        asignarAcumulados(prenda, acumulados);
+        boolean actualizada = totalizar(prenda, acumulados, politicasCastigo, factoresCondicion);
+        prendaCarteraJPARepository.save(prenda);
+
+        return actualizada;
+    }
+
+    /**
+     * Asigna el nuevo avalúo a la pieza y, si difiere del registrado, aplica la diferencia a los acumulados de su
+     * prenda.
+     *
+     * @param piezaJPA La pieza registrada.
+     * @param nuevo El nuevo avalúo de la pieza.
+     * @param acumulados Los avalúos acumulados por tipo de pieza de la prenda.
+     * @return {@code true} si el avalúo de la pieza cambió.
+     */
+    private boolean asignarAvaluo(PiezaCarteraJPA piezaJPA, Avaluo nuevo, AvaluosPorTipo acumulados) {
+        Avaluo anterior = crearAvaluo(piezaJPA.getAvaluo());
+
+        if (iguales(anterior, nuevo)) {
+            return false;
+        }
+
+        Class<? extends Pieza> tipo = TIPOS.get(piezaJPA.getTipo());
+        acumulados.restar(tipo, anterior);
+        acumulados.sumar(tipo, nuevo);
+
+        piezaJPA.setAvaluo(crearAvaluoJPA(nuevo));
+        piezaCarteraJPARepository.save(piezaJPA);
+
+        LOGGER.debug("Avalúo de la pieza [{}] de la prenda [{}]: [{}] -> [{}]", piezaJPA.getId(),
+            piezaJPA.getPrenda(), anterior, nuevo);
+
+        return true;
+    }
+
+    /**
+     * Recalcula el avalúo de la prenda a partir de sus acumulados y lo asigna si cambió.
+     *
+     * @param prenda La prenda registrada.
+     * @param acumulados Los avalúos acumulados por tipo de pieza de la prenda.
+     * @param politicasCastigo Las políticas de castigo vigentes, {@code null} si no existen.
+     * @param factoresCondicion Factores por condición física ya consultados, indexados por condición.
+     * @return {@code true} si el avalúo de la prenda cambió.
+     */
+    private boolean totalizar(PrendaCarteraJPA prenda, AvaluosPorTipo acumulados, PoliticasCastigo politicasCastigo,
+                              Map<String, BigDecimal> factoresCondicion) {
+        Avaluo nuevo = acumulados.totalizar(politicasCastigo,
+            consultarFactorCondicion(prenda.getCondicion(), factoresCondicion));
+
+        if (nuevo == null) {
+            return false;
+        }
+
+        if (prenda.getAvaluo() != null && iguales(crearAvaluo(prenda.getAvaluo()), nuevo)) {
+            return false;
+        }
+
+        prenda.setAvaluo(crearAvaluoJPA(nuevo));
+        prenda.setFechaValuacion(DateTime.now());
+
+        return true;
+    }
+
+    /**
+     * Consulta las políticas de castigo vigentes.
+     *
+     * @return Las políticas de castigo vigentes, o {@code null} si no existen.
+     */
+    private PoliticasCastigo consultarPoliticasVigentes() {
+        try {
+            return politicasCastigoRepository.consultar();
+        } catch (PoliticaCastigoNoEncontradaException e) {
+            LOGGER.warn("No existen políticas de castigo configuradas.");
+            return null;
+        }
+    }
+
+    /**
+     * Consulta el factor por condición física vigente; la prenda sin condición no aplica factor y la condición sin
+     * modificador aplica el factor uno, al igual que en la valuación de la prenda.
+     *
+     * @param condicion La condición física de la prenda.
+     * @param factoresCondicion Factores ya consultados, indexados por condición.
+     * @return El factor, o {@code null} si la prenda no indica condición.
+     */
+    private BigDecimal consultarFactorCondicion(String condicion, Map<String, BigDecimal> factoresCondicion) {
+        if (condicion == null) {
+            return null;
+        }
+
+        BigDecimal factor = factoresCondicion.get(condicion);
+
+        if (factor == null) {
+            try {
+                factor = condicionPrendaRepository
+                    .consultarModificadorCondicionPrendaVigente(new CondicionPrendaVO(condicion)).getFactor();
+            } catch (ModificadorCondicionPrendaNoEncontradoException e) {
+                LOGGER.warn("No existe el modificador condicion prenda [{}]", condicion);
+                factor = BigDecimal.ONE;
+            }
+
+            factoresCondicion.put(condicion, factor);
+        }
+
+        return factor;
+    }
+
+    /**
+     * Vuelve a crear la pieza de dominio a partir de sus características registradas.
+     *
+     * @param piezaJPA La pieza registrada.
+     * @return La pieza, sin valuar.
+     */
+    private Pieza crearPieza(PiezaCarteraJPA piezaJPA) {
+        ValorExperto valorExperto = (piezaJPA.getValorExperto() == null) ? null :
+            new ValorExperto(piezaJPA.getValorExperto(), ValorExperto.TipoEnum.valueOf(piezaJPA.getTipoValorExperto()));
+        Class<? extends Pieza> tipo = TIPOS.get(piezaJPA.getTipo());
+
+        if (Alhaja.class.equals(tipo)) {
+            return alhajaFactory.create(new AlhajaDTO(piezaJPA.getMetal(), piezaJPA.getColor(),
+                piezaJPA.getCalidad(), piezaJPA.getRango(), piezaJPA.getPeso(), piezaJPA.getIncremento(),
+                piezaJPA.getDesplazamiento(), valorExperto));
+        }
+
+        if (Diamante.class.equals(tipo)) {
+            return diamanteFactory.create(new DiamanteDTO(piezaJPA.getNumeroPiezas(), piezaJPA.getCorte(),
+                piezaJPA.getSubcorte(), piezaJPA.getColor(), piezaJPA.getClaridad(), piezaJPA.getQuilates(),
+                piezaJPA.getCertificado(), valorExperto, piezaJPA.getQuilatesDesde(), piezaJPA.getQuilatesHasta()));
+        }
+
+        if (Complementario.class.equals(tipo)) {
+            return complementarioFactory.create(new ComplementarioDTO(piezaJPA.getNumeroPiezas(), valorExperto));
+        }
+
+        throw new IllegalStateException(String.format("Tipo de pieza desconocido [%s]", piezaJPA.getTipo()));
+    }
+
+    /**
+     * Crea el registro de una pieza valuada.
+     *
+     * @param prenda Identificador de la prenda.
+     * @param pieza La pieza valuada.
+     * @return El registro de la pieza.
+     */
+    private static PiezaCarteraJPA crearPiezaJPA(String prenda, Pieza pieza) {
+        PiezaCarteraJPA piezaJPA = new PiezaCarteraJPA();
+        piezaJPA.setPrenda(prenda);
+        piezaJPA.setTipo(pieza.getClass().getSimpleName());
+        piezaJPA.setNumeroPiezas(pieza.getNumeroDePiezas());
+        piezaJPA.setAvaluo(crearAvaluoJPA(pieza.getAvaluo()));
+
+        ValorExperto valorExperto = null;
+
+        if (pieza instanceof Alhaja) {
+            Alhaja alhaja = (Alhaja) pieza;
+            piezaJPA.setMetal(alhaja.getMetal());
+            piezaJPA.setColor(alhaja.getColor());
+            piezaJPA.setCalidad(alhaja.getCalidad());
+            piezaJPA.setRango(alhaja.getRango());
+            piezaJPA.setPeso(alhaja.getPeso());
+            piezaJPA.setIncremento(alhaja.getIncremento());
+            piezaJPA.setDesplazamiento(alhaja.getDesplazamiento());
+            valorExperto = alhaja.getValorExperto();
+        } else if (pieza instanceof Diamante) {
+            Diamante diamante = (Diamante) pieza;
+            piezaJPA.setCorte(diamante.getCorte());
+            piezaJPA.setSubcorte(diamante.getSubcorte());
+            piezaJPA.setColor(diamante.getColor());
+            piezaJPA.setClaridad(diamante.getClaridad());
+            piezaJPA.setQuilates(diamante.getQuilates());
+            piezaJPA.setCertificado(diamante.getCertificadoDiamante());
+            piezaJPA.setQuilatesDesde(diamante.getQuilatesDesde());
+            piezaJPA.setQuilatesHasta(diamante.getQuilatesHasta());
+            valorExperto = diamante.getValorExperto();
+        } else if (pieza instanceof Complementario) {
+            valorExperto = ((Complementario) pieza).getValorExperto();
+        }
+
+        if (valorExperto != null) {
+            piezaJPA.setValorExperto(valorExperto.getValor());
+            piezaJPA.setTipoValorExperto(valorExperto.getTipo().name());
+        }
+
+        // LAS MISMAS LLAVES CON LAS QUE LOS CACHÉS CONSERVAN LOS VALORES DE LAS TABLAS DE REFERENCIA.
+        for (Object llave : pieza.getConsultasReferencia().keySet()) {
+            piezaJPA.getDependencias().add(llave.toString());
+        }
+
+        return piezaJPA;
+    }
+
+    /**
+     * Recupera los avalúos acumulados por tipo de pieza de la prenda registrada.
+     *
+     * @param prenda La prenda registrada.
+     * @return Los avalúos acumulados.
+     */
+    private static AvaluosPorTipo recuperarAcumulados(PrendaCarteraJPA prenda) {
+        AvaluosPorTipo acumulados = new AvaluosPorTipo();
+
+        for (Map.Entry<String, AvaluoCarteraJPA> entry : prenda.getAcumulados().entrySet()) {
+            acumulados.sumar(TIPOS.get(entry.getKey()), crearAvaluo(entry.getValue()));
+        }
+
+        return acumulados;
+    }
+
+    /**
+     * Asigna a la prenda registrada los avalúos acumulados por tipo de pieza.
+     *
+     * @param prenda La prenda registrada.
+     * @param acumulados Los avalúos acumulados.
+     */
+    private static void asignarAcumulados(PrendaCarteraJPA prenda, AvaluosPorTipo acumulados) {
+        prenda.getAcumulados().clear();
+
+        for (Map.Entry<Class<? extends Pieza>, Avaluo> entry : acumulados.getAvaluos().entrySet()) {
+            prenda.getAcumulados().put(entry.getKey().getSimpleName(), crearAvaluoJPA(entry.getValue()));
+        }
+    }
+
+    /**
+     * Compara numéricamente dos avalúos, sin considerar la escala de sus valores.
+     *
+     * @param uno Un avalúo.
+     * @param otro Otro avalúo.
+     * @return {@code true} si los tres valores son iguales.
+     */
+    private static boolean iguales(Avaluo uno, Avaluo otro) {
+        return uno.valorMinimo().compareTo(otro.valorMinimo()) == 0 &&
+            uno.valorPromedio().compareTo(otro.valorPromedio()) == 0 &&
+            uno.valorMaximo().compareTo(otro.valorMaximo()) == 0;
+    }
+
+    /**
+     * Crea el avalúo registrado a partir de un avalúo del dominio.
+     *
+     * @param avaluo El avalúo.
+     * @return El avalúo registrado.
+     */
+    private static AvaluoCarteraJPA crearAvaluoJPA(Avaluo avaluo) {
+        return new AvaluoCarteraJPA(avaluo.valorMinimo(), avaluo.valorPromedio(), avaluo.valorMaximo());
+    }
+
+    /**
+     * Crea el avalúo del dominio a partir de un avalúo registrado.
+     *
+     * @param avaluo El avalúo registrado.
+     * @return El avalúo.
+     */
+    private static Avaluo crearAvaluo(AvaluoCarteraJPA avaluo) {
+        return AvaluoFactory.crearCon(avaluo.getValorMinimo(), avaluo.getValorPromedio(), avaluo.getValorMaximo());
+    }
+
+}
@@ -15,6 +15,7 @@ import mx.com.nmp.ms.sivad.valuacion.dominio.modelo.ModificadorCondicionPrenda;
 import mx.com.nmp.ms.sivad.valuacion.dominio.modelo.ModificadorCondicionPrendaFactory;
 import mx.com.nmp.ms.sivad.valuacion.dominio.modelo.vo.CondicionPrendaVO;
 import mx.com.nmp.ms.sivad.valuacion.dominio.repository.ModificadorCondicionPrendaRepository;
+import mx.com.nmp.ms.sivad.valuacion.infrastructure.cache.InvalidacionCache;
 import mx.com.nmp.ms.sivad.valuacion.infrastructure.jpa.dominio.HistListadoModificadorCondicionPrendaJPA;
 import mx.com.nmp.ms.sivad.valuacion.infrastructure.jpa.dominio.HistModificadorCondicionPrendaJPA;
 import mx.com.nmp.ms.sivad.valuacion.infrastructure.jpa.dominio.ListadoModificadorCondicionPrendaJPA;
@@ -27,15 +28,33 @@ import org.slf4j.LoggerFactory;
 import org.springframework.dao.IncorrectResultSizeDataAccessException;
 import org.springframework.stereotype.Component;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronizationAdapter;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 import org.springframework.util.ObjectUtils;
 
+import javax.annotation.PostConstruct;
 import javax.inject.Inject;
+import javax.persistence.EntityManagerFactory;
+import javax.persistence.PersistenceUnit;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
 import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
 import java.util.Set;
 
 /**
  * Implementación de {@link ModificadorCondicionPrendaRepository}.
  *
+ * Los modificadores del listado vigente se conservan en memoria como un mapa inmutable indexado por condición de
+ * la prenda, que se carga en la primera consulta y se reemplaza de forma atómica al confirmarse la transacción de
+ * {@link #actualizarListado(ListadoModificadorCondicionPrenda)}. Las consultas realizadas dentro de una
+ * transacción activa se resuelven contra la base de datos, para observar los cambios aún no confirmados. Los
+ * listados registrados por otra instancia del servicio se detectan mediante {@link InvalidacionCache}, que descarta
+ * los modificadores en memoria y las entidades del caché de segundo nivel.
+ *
  * @author ngonzalez
  */
 @Component
@@ -46,6 +65,11 @@ public class ModificadorCondicionPrendaRepositoryImpl implements ModificadorCond
      */
     private static final Logger LOGGER = LoggerFactory.getLogger(ModificadorCondicionPrendaRepositoryImpl.class);
 
+    /**
+     * Nombre del recurso en {@link InvalidacionCache}.
+     */
+    public static final String RECURSO = "modificadorCondicionPrenda";
+
     /**
      * Referencia al repositorio de {@link HistListadoModificadorCondicionPrendaJPARepository}.
      */
@@ -70,10 +94,40 @@ public class ModificadorCondicionPrendaRepositoryImpl implements ModificadorCond
     @Inject
     private ListadoModificadorCondicionPrendaFactory fabricaEntidadesListado;
 
+    /**
+     * Invalidación de cachés entre instancias.
+     */
+    @Inject
+    private InvalidacionCache invalidacionCache;
+
+    /**
+     * Fábrica de administradores de entidades, utilizada para descartar el caché de segundo nivel.
+     */
+    @PersistenceUnit
+    private EntityManagerFactory entityManagerFactory;
+
+    /**
+     * Modificadores del listado vigente indexados por condición de la prenda; nulo mientras no se han cargado.
+     */
+    private volatile Map<String, ModificadorCondicionPrenda> modificadoresVigentes;
+
 
 
     // METODOS
 
+    /**
+     * Se suscribe a la invalidación de los modificadores realizada por otras instancias.
+     */
+    @PostConstruct
+    public void init() {
+        invalidacionCache.suscribir(RECURSO, new InvalidacionCache.Suscriptor() {
+            @Override
+            public void invalidar(String recurso) {
+                descartarModificadoresVigentes();
+            }
+        });
+    }
+
     /**
      * {@inheritDoc}
      */
@@ -83,6 +137,20 @@ public class ModificadorCondicionPrendaRepositoryImpl implements ModificadorCond
 
         LOGGER.info(">> consultarModificadorCondicionPrendaVigente({})", condicionPrendaVO.toString());
 
+        Map<String, ModificadorCondicionPrenda> vigentes = getModificadoresVigentes();
+
+        if (vigentes != null) {
+            ModificadorCondicionPrenda modificador = vigentes.get(condicionPrendaVO.getCondicionPrenda());
+
+            if (modificador == null) {
+                String msg = "No existe un modificador - condicion prenda para las caracteristicas solicitadas.";
+                LOGGER.warn(msg);
+                throw new ModificadorCondicionPrendaNoEncontradoException(msg, ModificadorCondicionPrendaJPA.class);
+            }
+
+            return modificador;
+        }
+
         ModificadorCondicionPrendaJPA modificadorCondicionPrendaJPA =
             modificadorCondicionPrendaJPARepository.findByCondicionPrenda(condicionPrendaVO.getCondicionPrenda());
 
@@ -203,7 +271,125 @@ public class ModificadorCondicionPrendaRepositoryImpl implements ModificadorCond
         ListadoModificadorCondicionPrendaJPA listadoNuevo = convertToListadoVigenteJPA(listado);
         listadoNuevo.setUltimaActualizacion(DateTime.now());
         listadoNuevo.setFechaListado(listado.getFechaListado());
-        return convertToListadoDeDominio(listadoJpaRepository.save(listadoNuevo));
+        ListadoModificadorCondicionPrenda result = convertToListadoDeDominio(listadoJpaRepository.save(listadoNuevo));
+
+        publicarAlConfirmar(indexar(result.getModificadoresCondicionPrenda()));
+        invalidacionCache.notificarCambio(RECURSO);
+
+        return result;
+    }
+
+    /**
+     * Recupera los modificadores vigentes en memoria, cargándolos si aún no existen. Regresa nulo si hay una
+     * transacción activa o si no pueden cargarse, en cuyo caso la consulta se resuelve contra la base de datos.
+     *
+     * @return Los modificadores vigentes indexados por condición de la prenda, o nulo.
+     */
+    private Map<String, ModificadorCondicionPrenda> getModificadoresVigentes() {
+        if (TransactionSynchronizationManager.isActualTransactionActive()) {
+            return null;
+        }
+
+        Map<String, ModificadorCondicionPrenda> vigentes = modificadoresVigentes;
+
+        if (vigentes == null) {
+            synchronized (this) {
+                vigentes = modificadoresVigentes;
+
+                if (vigentes == null) {
+                    vigentes = cargarModificadoresVigentes();
+                    modificadoresVigentes = vigentes;
+                }
+            }
+        }
+
+        return vigentes;
+    }
+
+    /**
+     * Carga los modificadores vigentes desde la base de datos. Si no existen modificadores o alguna condición está
+     * duplicada regresa nulo, para que la consulta se resuelva (y falle) contra la base de datos.
+     *
+     * @return Los modificadores vigentes indexados por condición de la prenda, o nulo.
+     */
+    private Map<String, ModificadorCondicionPrenda> cargarModificadoresVigentes() {
+        List<ModificadorCondicionPrendaJPA> modificadores = modificadorCondicionPrendaJPARepository.findAll();
+
+        if (ObjectUtils.isEmpty(modificadores)) {
+            return null;
+        }
+
+        List<ModificadorCondicionPrenda> dominio = new ArrayList<>(modificadores.size());
+
+        for (ModificadorCondicionPrendaJPA modificador : modificadores) {
+            dominio.add(ModificadorCondicionPrendaFactory.crear(
+                modificador.getCondicionPrenda(), modificador.getFactor()));
+        }
+
+        Map<String, ModificadorCondicionPrenda> vigentes = indexar(dominio);
+
+        if (vigentes.size() != modificadores.size()) {
+            LOGGER.error("Inconsistencia de datos; existen condiciones de prenda duplicadas.");
+            return null;
+        }
+
+        return vigentes;
+    }
+
+    /**
+     * Reemplaza los modificadores vigentes en memoria una vez confirmada la transacción en curso.
+     *
+     * @param vigentes Los nuevos modificadores vigentes.
+     */
+    private void publicarAlConfirmar(final Map<String, ModificadorCondicionPrenda> vigentes) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronizationAdapter() {
+                @Override
+                public void afterCommit() {
+                    publicar(vigentes);
+                }
+            });
+        } else {
+            publicar(vigentes);
+        }
+    }
+
+    /**
+     * Reemplaza los modificadores vigentes en memoria. Se sincroniza con la carga inicial para que una carga en
+     * curso no sobrescriba el listado recién confirmado.
+     *
+     * @param vigentes Los nuevos modificadores vigentes.
+     */
+    private synchronized void publicar(Map<String, ModificadorCondicionPrenda> vigentes) {
+        modificadoresVigentes = vigentes;
+    }
+
+    /**
+     * Descarta los modificadores vigentes en memoria y las entidades del listado vigente del caché de segundo
+     * nivel, para que la siguiente consulta los recupere de la base de datos.
+     */
+    private void descartarModificadoresVigentes() {
+        entityManagerFactory.getCache().evict(ModificadorCondicionPrendaJPA.class);
+        entityManagerFactory.getCache().evict(ListadoModificadorCondicionPrendaJPA.class);
+
+        publicar(null);
+    }
+
+    /**
+     * Construye el mapa inmutable de modificadores indexados por condición de la prenda.
+     *
+     * @param modificadores Los modificadores.
+     * @return El mapa inmutable.
+     */
+    private static Map<String, ModificadorCondicionPrenda> indexar(
+        Collection<ModificadorCondicionPrenda> modificadores) {
+        Map<String, ModificadorCondicionPrenda> result = new HashMap<>();
+
+        for (ModificadorCondicionPrenda modificador : modificadores) {
+            result.put(modificador.getCondicionPrenda(), modificador);
+        }
+
+        return Collections.unmodifiableMap(result);
     }
 
     /**
@@ -0,0 +1,52 @@
+/**
+ * Proyecto:        NMP - Microservicio de Motor de Valuación
+ * Quarksoft S.A.P.I. de C.V. – Todos los derechos reservados. Para uso exclusivo de Nacional Monte de Piedad.
+ */
+package mx.com.nmp.ms.sivad.valuacion.infrastructure.jpa.repository;
+
+import mx.com.nmp.ms.sivad.valuacion.infrastructure.jpa.dominio.PiezaCarteraJPA;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Expone los metodos de acceso a datos para la entidad {@link PiezaCarteraJPA}.
+ */
+@Repository
+public interface PiezaCarteraJPARepository extends JpaRepository<PiezaCarteraJPA, Long> {
+
+    /**
+     * Recupera una página de las piezas que dependen de alguna de las llaves indicadas, ordenadas por prenda.
+     *
+     * @param llaves Llaves de las tablas de referencia.
+     * @param pagina La página.
+     * @return Las piezas de la página.
+     */
+    @Query("SELECT DISTINCT p FROM PiezaCarteraJPA p JOIN p.dependencias d WHERE d IN :llaves " +
+        "ORDER BY p.prenda, p.id")
+    Slice<PiezaCarteraJPA> findByDependencias(@Param("llaves") Collection<String> llaves, Pageable pagina);
+
+    /**
+     * Recupera una página de todas las piezas de la cartera, ordenadas por prenda.
+     *
+     * @param pagina La página.
+     * @return Las piezas de la página.
+     */
+    @Query("SELECT p FROM PiezaCarteraJPA p ORDER BY p.prenda, p.id")
+    Slice<PiezaCarteraJPA> findTodas(Pageable pagina);
+
+    /**
+     * Recupera las piezas de una prenda.
+     *
+     * @param prenda Identificador de la prenda.
+     * @return Las piezas.
+     */
+    List<PiezaCarteraJPA> findByPrenda(String prenda);
+
+}
@@ -13,24 +13,40 @@ import mx.com.nmp.ms.sivad.valuacion.dominio.factory.PoliticasCastigoFactory;
 import mx.com.nmp.ms.sivad.valuacion.dominio.modelo.Pieza;
 import mx.com.nmp.ms.sivad.valuacion.dominio.modelo.PoliticasCastigo;
 import mx.com.nmp.ms.sivad.valuacion.dominio.repository.PoliticasCastigoRepository;
+import mx.com.nmp.ms.sivad.valuacion.infrastructure.cache.InvalidacionCache;
 import mx.com.nmp.ms.sivad.valuacion.infrastructure.jpa.dominio.PoliticasCastigoJpa;
 import org.joda.time.DateTime;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
 import org.springframework.cache.annotation.CacheEvict;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronizationAdapter;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 import org.springframework.util.ObjectUtils;
 
+import javax.annotation.PostConstruct;
 import javax.inject.Inject;
 import java.math.BigDecimal;
 import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
 
 /**
  * Implementación en JPA de la interface {@link PoliticasCastigoRepository} permite recuperar de las unidades
  * persistentes la entidad {@link PoliticasCastigo} con las políticas vigentes.
  *
+ * Las políticas vigentes se conservan en memoria como una instancia inmutable que se carga en la primera consulta
+ * y se reemplaza de forma atómica al confirmarse una actualización, por lo que la valuación las lee sin acceder a
+ * la base de datos. Las actualizaciones registradas por otra instancia del servicio se detectan mediante
+ * {@link InvalidacionCache}, que descarta las políticas en memoria para que la siguiente consulta las recargue.
+ *
  * @author <a href="https://wiki.quarksoft.net/display/~cachavez">Carlos Chávez Melena</a>
  */
 @Repository
@@ -38,6 +54,16 @@ import java.util.Map;
 public class PoliticasCastigoRepositoryImpl implements PoliticasCastigoRepository {
     private static final Logger LOGGER = LoggerFactory.getLogger(PoliticasCastigoRepositoryImpl.class);
 
+    /**
+     * Nombre del recurso en {@link InvalidacionCache}.
+     */
+    public static final String RECURSO = "politicasCastigo";
+
+    /**
+     * Nombre del caché de las políticas vigentes del repositorio JPA.
+     */
+    private static final String CACHE_VIGENTES = "PoliticasCastigoJpaRepository.findFirstByOrderByFechaListadoDesc";
+
     /**
      * Referencia al repositorio JPA.
      */
@@ -50,6 +76,42 @@ public class PoliticasCastigoRepositoryImpl implements PoliticasCastigoRepositor
     @Inject
     private PoliticasCastigoFactory fabrica;
 
+    /**
+     * Invalidación de cachés entre instancias.
+     */
+    @Inject
+    private InvalidacionCache invalidacionCache;
+
+    /**
+     * Administrador de cachés.
+     */
+    @Inject
+    private CacheManager cacheManager;
+
+    /**
+     * Políticas vigentes en memoria; nulo mientras no se han cargado.
+     */
+    private final AtomicReference<Vigentes> vigentes = new AtomicReference<>();
+
+    /**
+     * Generación de las políticas en memoria; avanza cada vez que se descartan o se reemplazan.
+     */
+    private final AtomicLong generacion = new AtomicLong();
+
+    /**
+     * Instantánea de las políticas vigentes; {@code politicas} es nulo si no existen políticas registradas. La
+     * instantánea sólo es válida mientras su generación sea la actual.
+     */
+    private static final class Vigentes {
+        private final PoliticasCastigo politicas;
+        private final long generacion;
+
+        private Vigentes(PoliticasCastigo politicas, long generacion) {
+            this.politicas = politicas;
+            this.generacion = generacion;
+        }
+    }
+
     /**
      * Constructor.
      */
@@ -57,6 +119,19 @@ public class PoliticasCastigoRepositoryImpl implements PoliticasCastigoRepositor
         super();
     }
 
+    /**
+     * Se suscribe a la invalidación de las políticas realizada por otras instancias.
+     */
+    @PostConstruct
+    public void init() {
+        invalidacionCache.suscribir(RECURSO, new InvalidacionCache.Suscriptor() {
+            @Override
+            public void invalidar(String recurso) {
+                descartarVigentes();
+            }
+        });
+    }
+
     /**
      * {@inheritDoc}
      */
@@ -64,22 +139,25 @@ public class PoliticasCastigoRepositoryImpl implements PoliticasCastigoRepositor
     public PoliticasCastigo consultar() {
         LOGGER.info(">> consultar()");
 
-        PoliticasCastigoJpa politica = repositorio.findFirstByOrderByFechaListadoDesc();
+        Vigentes actuales = vigentes.get();
 
-        if (ObjectUtils.isEmpty(politica)) {
-            throw new PoliticaCastigoNoEncontradaException("No existen politicas de castigo vigentes");
+        if (!esActual(actuales)) {
+            actuales = cargarVigentes();
         }
 
-        LOGGER.debug("creando entidad {} desde {}", PoliticasCastigo.class.getSimpleName(), politica);
+        if (actuales.politicas == null) {
+            throw new PoliticaCastigoNoEncontradaException("No existen politicas de castigo vigentes");
+        }
 
-        return fabrica.crearDesde(politica);
+        return actuales.politicas;
     }
 
     /**
      * {@inheritDoc}
      */
     @Override
-    @CacheEvict(cacheNames = "PoliticasCastigoJpaRepository.findFirstByOrderByFechaListadoDesc", allEntries = true)
+    @Transactional
+    @CacheEvict(cacheNames = CACHE_VIGENTES, allEntries = true)
     public void actualizar(@NotNull PoliticasCastigo entidad) {
         LOGGER.info(">> actualizar({})", entidad);
 
@@ -90,6 +168,21 @@ public class PoliticasCastigoRepositoryImpl implements PoliticasCastigoRepositor
         politica.setFechaListado(entidad.getFechaListado());
 
         repositorio.saveAndFlush(politica);
+
+        final PoliticasCastigo nuevas = crearInstantanea(vo, entidad.getFechaListado());
+
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronizationAdapter() {
+                @Override
+                public void afterCommit() {
+                    publicar(nuevas);
+                }
+            });
+        } else {
+            publicar(nuevas);
+        }
+
+        invalidacionCache.notificarCambio(RECURSO);
     }
 
     /**
@@ -120,6 +213,108 @@ public class PoliticasCastigoRepositoryImpl implements PoliticasCastigoRepositor
         return result;
     }
 
+    /**
+     * Carga las políticas vigentes desde la base de datos. La instantánea se etiqueta con la generación leída
+     * antes de la consulta, por lo que si mientras tanto las políticas se descartaron o se reemplazaron queda
+     * obsoleta y no se utiliza en consultas posteriores. La ausencia de políticas no se conserva en memoria, para
+     * que la siguiente consulta vuelva a la base de datos.
+     *
+     * @return Las políticas vigentes.
+     */
+    private Vigentes cargarVigentes() {
+        long leida = generacion.get();
+        PoliticasCastigoJpa politica = repositorio.findFirstByOrderByFechaListadoDesc();
+
+        if (ObjectUtils.isEmpty(politica)) {
+            return new Vigentes(null, leida);
+        }
+
+        LOGGER.debug("creando entidad {} desde {}", PoliticasCastigo.class.getSimpleName(), politica);
+        Vigentes cargadas = new Vigentes(crearInstantanea(politica.getFactores(), politica.getFechaListado()), leida);
+        Vigentes actuales = vigentes.get();
+
+        if (esActual(actuales)) {
+            return actuales;
+        }
+
+        if (leida == generacion.get()) {
+            vigentes.compareAndSet(actuales, cargadas);
+        }
+
+        return cargadas;
+    }
+
+    /**
+     * Indica si la instantánea existe y corresponde a la generación actual.
+     *
+     * @param instantanea La instantánea, puede ser nula.
+     * @return {@code true} si puede utilizarse.
+     */
+    private boolean esActual(Vigentes instantanea) {
+        return instantanea != null && instantanea.generacion == generacion.get();
+    }
+
+    /**
+     * Descarta las políticas vigentes en memoria y en el caché del repositorio JPA, para que la siguiente consulta
+     * las recupere de la base de datos.
+     */
+    private synchronized void descartarVigentes() {
+        Cache cache = cacheManager.getCache(CACHE_VIGENTES);
+
+        if (cache != null) {
+            cache.clear();
+        }
+
+        generacion.incrementAndGet();
+        vigentes.set(null);
+    }
+
+    /**
+     * Reemplaza las políticas vigentes, salvo que las actuales tengan una fecha de listado posterior. Se sincroniza
+     * con {@link #descartarVigentes()} para que cada reemplazo avance la generación una sola vez; una carga
+     * concurrente no puede sustituirlas, ya que la generación que leyó deja de ser la actual.
+     *
+     * @param nuevas Las nuevas políticas.
+     */
+    private synchronized void publicar(PoliticasCastigo nuevas) {
+        Vigentes actuales = vigentes.get();
+
+        if (esActual(actuales) && actuales.politicas != null &&
+            actuales.politicas.getFechaListado().isAfter(nuevas.getFechaListado())) {
+            return;
+        }
+
+        vigentes.set(new Vigentes(nuevas, generacion.incrementAndGet()));
+
+        LOGGER.debug("Políticas de castigo vigentes reemplazadas por {}", nuevas);
+    }
+
+    /**
+     * Crea una instancia de solo lectura de las políticas, con una copia inmutable de los factores y sin
+     * referencia al repositorio.
+     *
+     * @param origen Factores de castigo.
+     * @param fechaListado Fecha del listado.
+     * @return La instancia de solo lectura.
+     */
+    private PoliticasCastigo crearInstantanea(Map<Class<? extends Pieza>, BigDecimal> origen,
+                                              final DateTime fechaListado) {
+        final Map<Class<? extends Pieza>, BigDecimal> factores =
+            Collections.unmodifiableMap(new HashMap<>(origen));
+
+        return fabrica.crearDesde(new PoliticasCastigo.Builder() {
+            @Override
+            public Map<Class<? extends Pieza>, BigDecimal> getFactores() {
+                return factores;
+            }
+
+            @Override
+            public DateTime getFechaListado() {
+                return fechaListado;
+            }
+        });
+    }
+
     /**
      * Verifica que la fecha no sea del futuro.
      *
@@ -0,0 +1,16 @@
+/**
+ * Proyecto:        NMP - Microservicio de Motor de Valuación
+ * Quarksoft S.A.P.I. de C.V. – Todos los derechos reservados. Para uso exclusivo de Nacional Monte de Piedad.
+ */
+package mx.com.nmp.ms.sivad.valuacion.infrastructure.jpa.repository;
+
+import mx.com.nmp.ms.sivad.valuacion.infrastructure.jpa.dominio.PrendaCarteraJPA;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+/**
+ * Expone los metodos de acceso a datos para la entidad {@link PrendaCarteraJPA}.
+ */
+@Repository
+public interface PrendaCarteraJPARepository extends JpaRepository<PrendaCarteraJPA, String> {
+}
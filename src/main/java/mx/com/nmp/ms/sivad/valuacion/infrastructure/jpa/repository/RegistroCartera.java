@@ -0,0 +1,151 @@
+/**
+ * Proyecto:        NMP - Microservicio de Motor de Valuación
+ * Quarksoft S.A.P.I. de C.V. – Todos los derechos reservados. Para uso exclusivo de Nacional Monte de Piedad.
+ */
+package mx.com.nmp.ms.sivad.valuacion.infrastructure.jpa.repository;
+
+import mx.com.nmp.ms.sivad.valuacion.config.CarteraProperties;
+import mx.com.nmp.ms.sivad.valuacion.dominio.modelo.Prenda;
+import mx.com.nmp.ms.sivad.valuacion.dominio.modelo.vo.Avaluo;
+import mx.com.nmp.ms.sivad.valuacion.dominio.repository.CarteraRepository;
+import mx.com.nmp.ms.sivad.valuacion.infrastructure.escritor.EscritorAsincrono;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+import org.springframework.util.StringUtils;
+
+import javax.inject.Inject;
+import java.util.List;
+
+/**
+ * Registro asíncrono de las prendas valuadas en la cartera.
+ *
+ * Al valuar sólo se encola la prenda mediante {@link EscritorAsincrono}; si la cola está llena el registro se
+ * descarta. Cada prenda de un lote se registra en su propia transacción, de modo que la falla de una prenda no
+ * afecta a las demás.
+ */
+@Component
+public class RegistroCartera extends EscritorAsincrono<RegistroCartera.Registro> {
+
+    /**
+     * Utilizada para manipular los mensajes informativos y de error.
+     */
+    private static final Logger LOGGER = LoggerFactory.getLogger(RegistroCartera.class);
+
+    /**
+     * Propiedades de la cartera.
+     */
+    @Inject
+    private CarteraProperties propiedades;
+
+    /**
+     * Cartera de prendas valuadas.
+     */
+    @Inject
+    private CarteraRepository carteraRepository;
+
+
+
+    // METODOS
+
+    /**
+     * Constructor.
+     */
+    public RegistroCartera() {
+        super("registro-cartera-");
+    }
+
+    /**
+     * Encola el registro de una prenda valuada. No realiza operaciones en la base de datos; si la cola está llena
+     * el registro se descarta.
+     *
+     * La prenda no se copia, por lo que sus piezas no deben volver a valuarse después de registrarse.
+     *
+     * @param id Identificador de la prenda.
+     * @param prenda La prenda, con sus piezas valuadas.
+     * @param avaluo El avalúo de la prenda.
+     * @return {@code true} si el registro se encoló.
+     */
+    public boolean registrar(String id, Prenda prenda, Avaluo avaluo) {
+        if (!propiedades.isHabilitada() || !StringUtils.hasText(id) || prenda == null || avaluo == null) {
+            return false;
+        }
+
+        if (!encolar(new Registro(id, prenda, avaluo))) {
+            LOGGER.warn("Cola de registro de la cartera llena; no se registra la prenda [{}].", id);
+            return false;
+        }
+
+        return true;
+    }
+
+    /**
+     * Registra cada prenda del lote en su propia transacción.
+     *
+     * {@inheritDoc}
+     */
+    @Override
+    protected int escribir(List<Registro> lote) {
+        int escritos = 0;
+
+        for (Registro registro : lote) {
+            try {
+                carteraRepository.registrar(registro.id, registro.prenda, registro.avaluo);
+                escritos++;
+            } catch (RuntimeException e) {
+                LOGGER.warn("No fue posible registrar la prenda [{}] en la cartera: {}", registro.id,
+                    e.getMessage());
+            }
+        }
+
+        return escritos;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    protected boolean isHabilitado() {
+        return propiedades.isHabilitada();
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    protected int getCapacidad() {
+        return propiedades.getCapacidad();
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    protected int getTamanoLote() {
+        return propiedades.getTamanoLote();
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    protected long getIntervalo() {
+        return propiedades.getIntervaloRegistro();
+    }
+
+    /**
+     * Prenda valuada en espera de registrarse.
+     */
+    static final class Registro {
+        private final String id;
+        private final Prenda prenda;
+        private final Avaluo avaluo;
+
+        Registro(String id, Prenda prenda, Avaluo avaluo) {
+            this.id = id;
+            this.prenda = prenda;
+            this.avaluo = avaluo;
+        }
+    }
+
+}
@@ -0,0 +1,32 @@
+/**
+ * Proyecto:        NMP - Microservicio de Motor de Valuación
+ * Quarksoft S.A.P.I. de C.V. – Todos los derechos reservados. Para uso exclusivo de Nacional Monte de Piedad.
+ */
+package mx.com.nmp.ms.sivad.valuacion.infrastructure.jpa.repository;
+
+import mx.com.nmp.ms.sivad.valuacion.infrastructure.jpa.dominio.VersionCacheJPA;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ * Expone los metodos de acceso a datos para la entidad {@link VersionCacheJPA}.
+ */
+@Repository
+public interface VersionCacheJPARepository extends JpaRepository<VersionCacheJPA, String> {
+
+    /**
+     * Incrementa en uno la versión del recurso indicado, en la base de datos y de forma atómica.
+     *
+     * @param nombre Nombre del recurso.
+     * @return El número de registros actualizados; cero si el recurso aún no tiene versión.
+     */
+    @Transactional
+    @Modifying(clearAutomatically = true)
+    @Query("UPDATE VersionCacheJPA vc SET vc.version = vc.version + 1 WHERE vc.nombre = :nombre")
+    int incrementar(@Param("nombre") String nombre);
+
+}
@@ -152,3 +152,101 @@ FOREIGN KEY(listado) REFERENCES cfg_diamante_listado_modificador_condicion_prend
 -- ----------------------------------------------------------------------------------------------------------------------
 -- TERMINA - TABLAS: MODIFICADOR CONDICION PRENDA
 -- ----------------------------------------------------------------------------------------------------------------------
+
+
+
+-- ----------------------------------------------------------------------------------------------------------------------
+-- INICIA - TABLAS: VERSIONES DE CACHE
+-- ----------------------------------------------------------------------------------------------------------------------
+
+DROP TABLE IF EXISTS cfg_version_cache;
+
+CREATE TABLE cfg_version_cache
+(
+    nombre VARCHAR(100) NOT NULL,
+    version BIGINT NOT NULL,
+    PRIMARY KEY(nombre)
+);
+
+INSERT INTO cfg_version_cache (nombre, version) VALUES ('politicasCastigo', 0);
+INSERT INTO cfg_version_cache (nombre, version) VALUES ('modificadorCondicionPrenda', 0);
+
+-- ----------------------------------------------------------------------------------------------------------------------
+-- TERMINA - TABLAS: VERSIONES DE CACHE
+-- ----------------------------------------------------------------------------------------------------------------------
+
+
+
+-- ----------------------------------------------------------------------------------------------------------------------
+-- INICIA - TABLAS: CARTERA
+-- ----------------------------------------------------------------------------------------------------------------------
+
+DROP TABLE IF EXISTS tr_cartera_pieza_dependencia;
+DROP TABLE IF EXISTS tr_cartera_pieza;
+DROP TABLE IF EXISTS tr_cartera_prenda_acumulado;
+DROP TABLE IF EXISTS tr_cartera_prenda;
+
+CREATE TABLE tr_cartera_prenda
+(
+    id VARCHAR(100) NOT NULL,
+    condicion VARCHAR(50),
+    valor_minimo DECIMAL(30, 10) NOT NULL,
+    valor_promedio DECIMAL(30, 10) NOT NULL,
+    valor_maximo DECIMAL(30, 10) NOT NULL,
+    fecha_valuacion TIMESTAMP NOT NULL,
+    PRIMARY KEY (id)
+);
+
+CREATE TABLE tr_cartera_prenda_acumulado
+(
+    prenda VARCHAR(100) NOT NULL,
+    tipo VARCHAR(50) NOT NULL,
+    valor_minimo DECIMAL(30, 10) NOT NULL,
+    valor_promedio DECIMAL(30, 10) NOT NULL,
+    valor_maximo DECIMAL(30, 10) NOT NULL,
+    PRIMARY KEY (prenda, tipo)
+);
+ALTER TABLE tr_cartera_prenda_acumulado ADD FOREIGN KEY (prenda) REFERENCES tr_cartera_prenda (id);
+
+CREATE TABLE tr_cartera_pieza
+(
+    id BIGINT AUTO_INCREMENT NOT NULL,
+    prenda VARCHAR(100) NOT NULL,
+    tipo VARCHAR(50) NOT NULL,
+    numero_piezas INT NOT NULL,
+    metal VARCHAR(50),
+    color VARCHAR(50),
+    calidad VARCHAR(50),
+    rango VARCHAR(50),
+    peso DECIMAL(20, 4),
+    incremento DECIMAL(20, 4),
+    desplazamiento DECIMAL(20, 4),
+    corte VARCHAR(50),
+    subcorte VARCHAR(50),
+    claridad VARCHAR(50),
+    quilates DECIMAL(20, 4),
+    certificado VARCHAR(50),
+    quilates_desde DECIMAL(20, 4),
+    quilates_hasta DECIMAL(20, 4),
+    valor_experto DECIMAL(20, 4),
+    tipo_valor_experto VARCHAR(20),
+    valor_minimo DECIMAL(30, 10) NOT NULL,
+    valor_promedio DECIMAL(30, 10) NOT NULL,
+    valor_maximo DECIMAL(30, 10) NOT NULL,
+    PRIMARY KEY (id)
+);
+
+CREATE INDEX idx_tr_cartera_pieza_prenda ON tr_cartera_pieza(prenda);
+
+CREATE TABLE tr_cartera_pieza_dependencia
+(
+    pieza BIGINT NOT NULL,
+    llave VARCHAR(255) NOT NULL
+);
+ALTER TABLE tr_cartera_pieza_dependencia ADD FOREIGN KEY (pieza) REFERENCES tr_cartera_pieza (id);
+
+CREATE INDEX idx_tr_cartera_pieza_dependencia_llave ON tr_cartera_pieza_dependencia(llave);
+
+-- ----------------------------------------------------------------------------------------------------------------------
+-- TERMINA - TABLAS: CARTERA
+-- ----------------------------------------------------------------------------------------------------------------------
@@ -0,0 +1,207 @@
+/**
+ * Proyecto:        NMP - Microservicio de Motor de Valuación
+ * Quarksoft S.A.P.I. de C.V. – Todos los derechos reservados. Para uso exclusivo de Nacional Monte de Piedad.
+ */
+package mx.com.nmp.ms.sivad.valuacion.api.ws;
+
+import com.codahale.metrics.MetricRegistry;
+import mx.com.nmp.ms.sivad.valuacion.config.JournalValuacionProperties;
+import mx.com.nmp.ms.sivad.valuacion.infrastructure.escritor.EscritorAsincrono;
+import mx.com.nmp.ms.sivad.valuacion.ws.diamantes.datatypes.Avaluo;
+import mx.com.nmp.ms.sivad.valuacion.ws.diamantes.datatypes.Pieza;
+import mx.com.nmp.ms.sivad.valuacion.ws.diamantes.datatypes.Prenda;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.dao.QueryTimeoutException;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.math.BigDecimal;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.util.Collections;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.Matchers.any;
+import static org.mockito.Matchers.anyInt;
+import static org.mockito.Matchers.anyString;
+import static org.mockito.Matchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Pruebas de unidad para la clase {@link JournalValuacion}
+ */
+public class JournalValuacionUTest {
+
+    @Mock
+    private JdbcTemplate jdbcTemplate;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private MetricRegistry metricRegistry;
+    private JournalValuacionProperties propiedades;
+    private JournalValuacion test;
+
+    /**
+     * Se ejecuta antes de cada prueba; el hilo escritor no se inicia y los lotes se escriben desde la prueba.
+     */
+    @Before
+    public void setup() {
+        MockitoAnnotations.initMocks(this);
+
+        metricRegistry = new MetricRegistry();
+
+        propiedades = new JournalValuacionProperties();
+        propiedades.setCapacidad(2);
+        propiedades.setTamanoLote(10);
+
+        test = new JournalValuacion();
+        ReflectionTestUtils.setField(test, "propiedades", propiedades);
+        ReflectionTestUtils.setField(test, "jdbcTemplate", jdbcTemplate);
+        ReflectionTestUtils.setField(test, "transactionManager", transactionManager);
+        ReflectionTestUtils.setField(test, "metricRegistry", metricRegistry);
+        test.init();
+
+        propiedades.setHabilitado(true);
+    }
+
+    /**
+     * Valida que, con la cola llena, se descarte el evento nuevo y el resto se escriba en un solo lote.
+     */
+    @Test
+    public void descartarNuevoTest() {
+        assertTrue(test.registrar(crearPrenda("A"), crearPrenda("A"), null, System.nanoTime()));
+        assertTrue(test.registrar(crearPrenda("B"), crearPrenda("B"), null, System.nanoTime()));
+        assertFalse(test.registrar(crearPrenda("C"), crearPrenda("C"), null, System.nanoTime()));
+
+        assertEquals(2, metricRegistry.getGauges().get(nombre("pendientes")).getValue());
+        assertEquals(1, metricRegistry.meter(nombre("descartados")).getCount());
+
+        assertEquals(2, test.escribirLote());
+        assertEquals(0, test.escribirLote());
+
+        verify(jdbcTemplate, times(1)).execute(any(ConnectionCallback.class));
+        assertEquals(2, metricRegistry.meter(nombre("escritos")).getCount());
+        assertEquals(0, metricRegistry.getGauges().get(nombre("pendientes")).getValue());
+    }
+
+    /**
+     * Valida que, con la cola llena, se descarte el evento más antiguo y se inserten los datos del nuevo.
+     */
+    @Test
+    @SuppressWarnings("unchecked")
+    public void descartarAntiguoTest() throws Exception {
+        propiedades.setCapacidad(1);
+        propiedades.setPolitica(EscritorAsincrono.Politica.DESCARTAR_ANTIGUO);
+
+        assertTrue(test.registrar(crearPrenda("A"), crearPrenda("A"), null, System.nanoTime()));
+        assertTrue(test.registrar(crearPrenda("B"), null, new IllegalStateException("falla"), System.nanoTime()));
+        assertEquals(1, metricRegistry.meter(nombre("descartados")).getCount());
+
+        assertEquals(1, test.escribirLote());
+
+        ArgumentCaptor<ConnectionCallback> callback = ArgumentCaptor.forClass(ConnectionCallback.class);
+        verify(jdbcTemplate).execute(callback.capture());
+
+        PreparedStatement eventos = mock(PreparedStatement.class);
+        PreparedStatement datos = mock(PreparedStatement.class);
+        ResultSet llaves = mock(ResultSet.class);
+        Connection conexion = mock(Connection.class);
+        when(conexion.prepareStatement(anyString(), anyInt())).thenReturn(eventos);
+        when(conexion.prepareStatement(anyString())).thenReturn(datos);
+        when(eventos.getGeneratedKeys()).thenReturn(llaves);
+        when(llaves.next()).thenReturn(true);
+        when(llaves.getLong(1)).thenReturn(7L);
+
+        callback.getValue().doInConnection(conexion);
+
+        verify(eventos).setString(3, JournalValuacion.TIPO);
+        verify(eventos, times(1)).executeUpdate();
+        verify(datos).setString(2, "prenda");
+        verify(datos).setString(3, "B");
+        verify(datos, never()).setString(3, "A");
+        verify(datos).setString(3, "falla");
+
+        // CINCO DATOS DE LA SOLICITUD, LA DURACIÓN, EL RESULTADO Y EL ERROR, TODOS CON EL IDENTIFICADOR DEL EVENTO.
+        ArgumentCaptor<Long> ids = ArgumentCaptor.forClass(Long.class);
+        verify(datos, times(8)).setLong(eq(1), ids.capture());
+        assertEquals(Collections.nCopies(8, 7L), ids.getAllValues());
+        verify(datos, times(8)).addBatch();
+        verify(datos, times(1)).executeBatch();
+    }
+
+    /**
+     * Valida que la falla al escribir un lote se registre sin propagarse, el lote se descarte y no se cuente como
+     * escrito, para que el hilo escritor espere el intervalo antes del siguiente lote.
+     */
+    @Test
+    public void fallaEscrituraTest() {
+        when(jdbcTemplate.execute(any(ConnectionCallback.class))).thenThrow(new QueryTimeoutException("falla"));
+
+        test.registrar(crearPrenda("A"), crearPrenda("A"), null, System.nanoTime());
+
+        assertEquals(0, test.escribirLote());
+        assertEquals(0, metricRegistry.getGauges().get(nombre("pendientes")).getValue());
+        assertEquals(1, metricRegistry.meter(nombre("fallidos")).getCount());
+        assertEquals(0, metricRegistry.meter(nombre("escritos")).getCount());
+        assertEquals(0, test.escribirLote());
+    }
+
+    /**
+     * Valida que, deshabilitada, no se encolen eventos.
+     */
+    @Test
+    public void deshabilitadoTest() {
+        propiedades.setHabilitado(false);
+
+        assertFalse(test.registrar(crearPrenda("A"), crearPrenda("A"), null, System.nanoTime()));
+        assertEquals(0, test.escribirLote());
+        assertEquals(0, metricRegistry.meter(nombre("encolados")).getCount());
+    }
+
+    private static String nombre(String indicador) {
+        return MetricRegistry.name(JournalValuacion.class, indicador);
+    }
+
+    /**
+     * Crea una prenda valuada con una pieza.
+     *
+     * @param id Identificador de la prenda.
+     * @return La prenda.
+     */
+    private static Prenda crearPrenda(String id) {
+        Avaluo avaluo = new Avaluo();
+        avaluo.setValorMinimo(new BigDecimal("100.50"));
+        avaluo.setValorPromedio(new BigDecimal("110.50"));
+        avaluo.setValorMaximo(new BigDecimal("120.50"));
+
+        Pieza pieza = new Pieza();
+        pieza.setId("P1");
+        pieza.setCantidad(1);
+        pieza.setAvaluo(avaluo);
+
+        Prenda prenda = new Prenda();
+        prenda.setId(id);
+        prenda.setRamo("R1");
+        prenda.setSubramo("S1");
+        prenda.setTipo("T1");
+        prenda.setAvaluo(avaluo);
+        prenda.getPieza().add(pieza);
+
+        return prenda;
+    }
+
+}
@@ -0,0 +1,154 @@
+/**
+ * Proyecto:        NMP - Microservicio de Motor de Valuación
+ * Quarksoft S.A.P.I. de C.V. – Todos los derechos reservados. Para uso exclusivo de Nacional Monte de Piedad.
+ */
+package mx.com.nmp.ms.sivad.valuacion.api.ws;
+
+import mx.com.nmp.ms.sivad.valuacion.ws.diamantes.datatypes.Alhaja;
+import mx.com.nmp.ms.sivad.valuacion.ws.diamantes.datatypes.Avaluo;
+import mx.com.nmp.ms.sivad.valuacion.ws.diamantes.datatypes.Diamante;
+import mx.com.nmp.ms.sivad.valuacion.ws.diamantes.datatypes.Pieza;
+import mx.com.nmp.ms.sivad.valuacion.ws.diamantes.datatypes.Prenda;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import javax.xml.bind.DatatypeConverter;
+import javax.xml.bind.JAXBContext;
+import javax.xml.bind.JAXBElement;
+import javax.xml.namespace.QName;
+import javax.xml.transform.stream.StreamSource;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.math.BigDecimal;
+import java.security.DigestOutputStream;
+import java.security.MessageDigest;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compara el costo de obtener la llave de una solicitud y de entregar una respuesta conservada, entre la
+ * serialización JAXB utilizada anteriormente en {@link RespuestasValuacion} (resumen SHA-256 de la solicitud
+ * serializada y deserialización de la respuesta) y la forma canónica con copia profunda.
+ *
+ * No se ejecuta con las pruebas; se ejecuta con
+ * {@code mvn test-compile exec:java -Dexec.classpathScope=test
+ * -Dexec.mainClass=mx.com.nmp.ms.sivad.valuacion.api.ws.RespuestasValuacionBenchmark}.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class RespuestasValuacionBenchmark {
+
+    private static final QName ELEMENTO_PRENDA = new QName("prenda");
+
+    private JAXBContext contexto;
+    private Prenda prenda;
+    private byte[] serializada;
+
+    /**
+     * Prepara una prenda con una pieza de diamante y una de alhaja, y su serialización.
+     */
+    @Setup
+    public void setup() throws Exception {
+        contexto = JAXBContext.newInstance(Prenda.class);
+        prenda = crearPrenda();
+
+        ByteArrayOutputStream salida = new ByteArrayOutputStream();
+        contexto.createMarshaller().marshal(new JAXBElement<>(ELEMENTO_PRENDA, Prenda.class, prenda), salida);
+        serializada = salida.toByteArray();
+    }
+
+    @Benchmark
+    public Object llaveJaxb() throws Exception {
+        MessageDigest resumen = MessageDigest.getInstance("SHA-256");
+        ByteArrayOutputStream descarte = new ByteArrayOutputStream();
+        contexto.createMarshaller().marshal(new JAXBElement<>(ELEMENTO_PRENDA, Prenda.class, prenda),
+            new DigestOutputStream(descarte, resumen));
+
+        return DatatypeConverter.printHexBinary(resumen.digest());
+    }
+
+    @Benchmark
+    public Object llaveCanonica() {
+        return RespuestasValuacion.llave(prenda);
+    }
+
+    @Benchmark
+    public Object respuestaJaxb() throws Exception {
+        return contexto.createUnmarshaller()
+            .unmarshal(new StreamSource(new ByteArrayInputStream(serializada)), Prenda.class).getValue();
+    }
+
+    @Benchmark
+    public Object respuestaCopia() {
+        return RespuestasValuacion.copiar(prenda);
+    }
+
+    private static Prenda crearPrenda() {
+        Diamante diamante = new Diamante();
+        diamante.setCorte("Redondo");
+        diamante.setSubcorte("Brillante");
+        diamante.setColor("F");
+        diamante.setClaridad("VS1");
+        diamante.setQuilataje(new BigDecimal("0.92"));
+
+        Pieza piezaDiamante = new Pieza();
+        piezaDiamante.setId("P1");
+        piezaDiamante.setCantidad(1);
+        piezaDiamante.setDiamante(diamante);
+        piezaDiamante.setAvaluo(crearAvaluo());
+
+        Alhaja alhaja = new Alhaja();
+        alhaja.setMetal("AU");
+        alhaja.setColor("AMARILLO");
+        alhaja.setCalidad("14");
+        alhaja.setRango("ORO");
+        alhaja.setPeso(new BigDecimal("12.50"));
+        alhaja.setIncremento(BigDecimal.ZERO);
+        alhaja.setDesplazamiento(BigDecimal.ZERO);
+
+        Pieza piezaAlhaja = new Pieza();
+        piezaAlhaja.setId("P2");
+        piezaAlhaja.setCantidad(1);
+        piezaAlhaja.setAlhaja(alhaja);
+        piezaAlhaja.setAvaluo(crearAvaluo());
+
+        Prenda prenda = new Prenda();
+        prenda.setId("1");
+        prenda.setRamo("JO");
+        prenda.setSubramo("AN");
+        prenda.setTipo("AL");
+        prenda.setAvaluo(crearAvaluo());
+        prenda.getPieza().add(piezaDiamante);
+        prenda.getPieza().add(piezaAlhaja);
+
+        return prenda;
+    }
+
+    private static Avaluo crearAvaluo() {
+        Avaluo avaluo = new Avaluo();
+        avaluo.setValorMinimo(new BigDecimal("1000.00"));
+        avaluo.setValorPromedio(new BigDecimal("1200.00"));
+        avaluo.setValorMaximo(new BigDecimal("1400.00"));
+
+        return avaluo;
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder().include(RespuestasValuacionBenchmark.class.getSimpleName()).build()).run();
+    }
+
+}
@@ -0,0 +1,252 @@
+/**
+ * Proyecto:        NMP - Microservicio de Motor de Valuación
+ * Quarksoft S.A.P.I. de C.V. – Todos los derechos reservados. Para uso exclusivo de Nacional Monte de Piedad.
+ */
+package mx.com.nmp.ms.sivad.valuacion.api.ws;
+
+import com.codahale.metrics.MetricRegistry;
+import mx.com.nmp.ms.sivad.valuacion.config.RespuestasValuacionProperties;
+import mx.com.nmp.ms.sivad.valuacion.infrastructure.cache.InvalidacionCache;
+import mx.com.nmp.ms.sivad.valuacion.infrastructure.cache.VersionReferencias;
+import mx.com.nmp.ms.sivad.valuacion.ws.diamantes.datatypes.Diamante;
+import mx.com.nmp.ms.sivad.valuacion.ws.diamantes.datatypes.Pieza;
+import mx.com.nmp.ms.sivad.valuacion.ws.diamantes.datatypes.Prenda;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.math.BigDecimal;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.mockito.Mockito.when;
+
+/**
+ * Pruebas de unidad para la clase {@link RespuestasValuacion}
+ */
+public class RespuestasValuacionUTest {
+
+    @Mock
+    private InvalidacionCache invalidacionCache;
+
+    @Mock
+    private VersionReferencias versionReferencias;
+
+    private RespuestasValuacionProperties propiedades;
+    private RespuestasValuacion test;
+
+    /**
+     * Se ejecuta antes de cada prueba.
+     */
+    @Before
+    public void setup() {
+        MockitoAnnotations.initMocks(this);
+
+        propiedades = new RespuestasValuacionProperties();
+        propiedades.setHabilitada(true);
+
+        test = new RespuestasValuacion();
+        ReflectionTestUtils.setField(test, "propiedades", propiedades);
+        ReflectionTestUtils.setField(test, "invalidacionCache", invalidacionCache);
+        ReflectionTestUtils.setField(test, "versionReferencias", versionReferencias);
+        ReflectionTestUtils.setField(test, "metricRegistry", new MetricRegistry());
+        test.init();
+    }
+
+    /**
+     * Valida que una solicitud con el mismo contenido se conteste sin volver a valuar.
+     */
+    @Test
+    public void solicitudRepetidaTest() {
+        Contador valuacion = new Contador();
+
+        Prenda primera = test.valuar(crearPrenda("R1"), valuacion);
+        Prenda segunda = test.valuar(crearPrenda("R1"), valuacion);
+
+        assertNotSame(primera, segunda);
+        assertEquals(primera.getRamo(), segunda.getRamo());
+        assertEquals(primera.getPieza().get(0).getId(), segunda.getPieza().get(0).getId());
+        assertEquals(1, valuacion.invocaciones);
+    }
+
+    /**
+     * Valida que cada solicitud reciba su propia respuesta, de modo que modificar una no afecte a las demás.
+     */
+    @Test
+    public void respuestaIndependienteTest() {
+        Contador valuacion = new Contador();
+
+        Prenda primera = test.valuar(crearPrenda("R1"), valuacion);
+        primera.setRamo("MODIFICADO");
+        primera.getPieza().clear();
+
+        Prenda segunda = test.valuar(crearPrenda("R1"), valuacion);
+        segunda.setRamo("MODIFICADO");
+
+        Prenda tercera = test.valuar(crearPrenda("R1"), valuacion);
+
+        assertEquals("VALUADA", tercera.getRamo());
+        assertEquals(1, tercera.getPieza().size());
+        assertEquals(1, valuacion.invocaciones);
+    }
+
+    /**
+     * Valida que solicitudes con contenido distinto se valúen por separado.
+     */
+    @Test
+    public void solicitudDistintaTest() {
+        Contador valuacion = new Contador();
+
+        test.valuar(crearPrenda("R1"), valuacion);
+        test.valuar(crearPrenda("R2"), valuacion);
+
+        assertEquals(2, valuacion.invocaciones);
+    }
+
+    /**
+     * Valida que la llave distinga el contenido de los tipos anidados y los límites entre cadenas.
+     */
+    @Test
+    public void llaveTest() {
+        Prenda conDiamante = crearPrenda("R1");
+        conDiamante.getPieza().get(0).setDiamante(crearDiamante("0.92"));
+        Prenda otroDiamante = crearPrenda("R1");
+        otroDiamante.getPieza().get(0).setDiamante(crearDiamante("0.93"));
+        Prenda mismoDiamante = crearPrenda("R1");
+        mismoDiamante.getPieza().get(0).setDiamante(crearDiamante("0.92"));
+
+        assertEquals(RespuestasValuacion.llave(conDiamante), RespuestasValuacion.llave(mismoDiamante));
+        assertNotEquals(RespuestasValuacion.llave(conDiamante), RespuestasValuacion.llave(otroDiamante));
+        assertNotEquals(RespuestasValuacion.llave(conDiamante), RespuestasValuacion.llave(crearPrenda("R1")));
+
+        Prenda unida = crearPrenda("R1");
+        unida.setSubramo("S1T");
+        unida.setTipo("1");
+        Prenda separada = crearPrenda("R1");
+        separada.setSubramo("S1");
+        separada.setTipo("T1");
+
+        assertNotEquals(RespuestasValuacion.llave(unida), RespuestasValuacion.llave(separada));
+    }
+
+    /**
+     * Valida que la copia de la prenda sea profunda y conserve su contenido.
+     */
+    @Test
+    public void copiaTest() {
+        Prenda prenda = crearPrenda("R1");
+        prenda.getPieza().get(0).setDiamante(crearDiamante("0.92"));
+
+        Prenda copia = RespuestasValuacion.copiar(prenda);
+
+        assertNotSame(prenda.getPieza(), copia.getPieza());
+        assertNotSame(prenda.getPieza().get(0).getDiamante(), copia.getPieza().get(0).getDiamante());
+        assertEquals(RespuestasValuacion.llave(prenda), RespuestasValuacion.llave(copia));
+    }
+
+    /**
+     * Valida que el cambio de los recursos o de las tablas de referencia invalide las respuestas conservadas.
+     */
+    @Test
+    public void cambioVersionTest() {
+        Contador valuacion = new Contador();
+
+        test.valuar(crearPrenda("R1"), valuacion);
+
+        when(invalidacionCache.getCambios()).thenReturn(1L);
+        test.valuar(crearPrenda("R1"), valuacion);
+        test.valuar(crearPrenda("R1"), valuacion);
+
+        when(versionReferencias.getVersion()).thenReturn(1L);
+        test.valuar(crearPrenda("R1"), valuacion);
+
+        assertEquals(3, valuacion.invocaciones);
+    }
+
+    /**
+     * Valida que no se conserve una respuesta si los recursos cambiaron mientras se valuaba.
+     */
+    @Test
+    public void cambioDuranteValuacionTest() {
+        Contador valuacion = new Contador() {
+            @Override
+            public Prenda valuar() {
+                when(invalidacionCache.getCambios()).thenReturn((long) invocaciones + 1);
+                return super.valuar();
+            }
+        };
+
+        test.valuar(crearPrenda("R1"), valuacion);
+        test.valuar(crearPrenda("R1"), valuacion);
+
+        assertEquals(2, valuacion.invocaciones);
+    }
+
+    /**
+     * Valida que, deshabilitada, siempre se valúe la prenda.
+     */
+    @Test
+    public void deshabilitadaTest() {
+        propiedades.setHabilitada(false);
+        Contador valuacion = new Contador();
+
+        test.valuar(crearPrenda("R1"), valuacion);
+        test.valuar(crearPrenda("R1"), valuacion);
+
+        assertEquals(2, valuacion.invocaciones);
+    }
+
+    /**
+     * Crea una prenda con una pieza.
+     *
+     * @param ramo Ramo de la prenda.
+     * @return La prenda.
+     */
+    private static Prenda crearPrenda(String ramo) {
+        Pieza pieza = new Pieza();
+        pieza.setId("P1");
+        pieza.setCantidad(1);
+
+        Prenda prenda = new Prenda();
+        prenda.setId("1");
+        prenda.setRamo(ramo);
+        prenda.setSubramo("S1");
+        prenda.setTipo("T1");
+        prenda.getPieza().add(pieza);
+
+        return prenda;
+    }
+
+    /**
+     * Crea un diamante.
+     *
+     * @param quilataje Quilataje del diamante.
+     * @return El diamante.
+     */
+    private static Diamante crearDiamante(String quilataje) {
+        Diamante diamante = new Diamante();
+        diamante.setCorte("Redondo");
+        diamante.setColor("F");
+        diamante.setClaridad("VS1");
+        diamante.setQuilataje(new BigDecimal(quilataje));
+
+        return diamante;
+    }
+
+    /**
+     * Valuación que cuenta sus invocaciones.
+     */
+    private static class Contador implements RespuestasValuacion.Valuacion {
+        int invocaciones;
+
+        @Override
+        public Prenda valuar() {
+            invocaciones++;
+            return crearPrenda("VALUADA");
+        }
+    }
+
+}
@@ -2115,6 +2115,110 @@ public class ValuadorDiamantesITest {
         }
     }
 
+    /**
+     * Utilizado para solicitar la valuación de un lote de prendas por medio de "valuarPrendasLote" con las
+     * siguientes características:
+     *
+     * 1 - Prenda con:
+     *     1 - Pieza con:
+     *         1 - Diamante (correcto)
+     * 1 - Prenda con:
+     *     1 - Pieza con:
+     *         1 - Alhaja (correcta con 2 piezas)
+     * 1 - Prenda con:
+     *     1 - Pieza con:
+     *         1 - Diamante (correcto)
+     */
+    @Test
+    public void valuarPrendasLote01() {
+        LOGGER.debug(">> valuarPrendasLote01");
+
+        Diamante diamante =
+            crearDiamante(null, CLARIDAD, COLOR_D, CORTE, SUBCORTE, QUILATES, null, QUILATES_DESDE, QUILATES_HASTA);
+        Diamante diamante2 =
+            crearDiamante(null, CLARIDAD, COLOR_D, CORTE, SUBCORTE, QUILATES, null, QUILATES_DESDE, QUILATES_HASTA);
+        Alhaja alhaja =
+            crearAlhaja(CALIDAD, COLOR_A, DESPLAZAMIENTO, INCREMENTO, PESO, METAL, RANGO, null);
+
+        List<Pieza> piezas1 = new ArrayList<>();
+        piezas1.add(crearPieza(PIEZA_DIAMANTE_ID, NUM_PIEZAS_1, null, diamante, null));
+
+        List<Pieza> piezas2 = new ArrayList<>();
+        piezas2.add(crearPieza(PIEZA_ALHAJA_ID, NUM_PIEZAS_2, alhaja, null, null));
+
+        List<Pieza> piezas3 = new ArrayList<>();
+        piezas3.add(crearPieza(PIEZA_DIAMANTE_ID, NUM_PIEZAS_1, null, diamante2, null));
+
+        ValuarPrendasLoteRequest request = new ValuarPrendasLoteRequest();
+        request.getPrenda().add(crearPrenda(piezas1));
+        request.getPrenda().add(crearPrenda(piezas2));
+        request.getPrenda().add(crearPrenda(piezas3));
+
+        try {
+            ValuarPrendasLoteResponse response = valuadorDiamantesService.valuarPrendasLote(request);
+            assertNotNull(response);
+            assertEquals(3, response.getResultado().size());
+
+            for (int i = 0; i < response.getResultado().size(); i++) {
+                assertEquals(i, response.getResultado().get(i).getIndice());
+            }
+
+            ResultadoValuacion resultado1 = response.getResultado().get(0);
+            assertNull(resultado1.getError());
+            assertNotNull(resultado1.getPrendaValuada());
+            assertNotNull(resultado1.getPrendaValuada().getAvaluo());
+            assertNotNull(resultado1.getPrendaValuada().getAvaluo().getValorMinimo());
+
+            ResultadoValuacion resultado2 = response.getResultado().get(1);
+            assertNull(resultado2.getPrendaValuada());
+            assertNotNull(resultado2.getError());
+            assertEquals(WebServiceExceptionCodes.NMPMV002.getCodeException(), resultado2.getError().getCodigo());
+            assertEquals(WebServiceExceptionCodes.NMPMV002.getMessageException(), resultado2.getError().getMensaje());
+
+            ResultadoValuacion resultado3 = response.getResultado().get(2);
+            assertNull(resultado3.getError());
+            assertNotNull(resultado3.getPrendaValuada());
+            assertEquals(resultado1.getPrendaValuada().getAvaluo().getValorMinimo(),
+                resultado3.getPrendaValuada().getAvaluo().getValorMinimo());
+        } catch (Exception e) {
+            LOGGER.error("<< Error inesperado al ejecutar valuarPrendasLote01. {}", e);
+            fail();
+        }
+    }
+
+    /**
+     * Utilizado para solicitar la valuación de un lote de prendas por medio de "valuarPrendasLote" con las
+     * siguientes características:
+     *
+     * 1 - Lote con más prendas de las permitidas.
+     */
+    @Test
+    public void valuarPrendasLote02() {
+        LOGGER.debug(">> valuarPrendasLote02");
+
+        ValuarPrendasLoteRequest request = new ValuarPrendasLoteRequest();
+
+        for (int i = 0; i <= 10; i++) {
+            Diamante diamante =
+                crearDiamante(null, CLARIDAD, COLOR_D, CORTE, SUBCORTE, QUILATES, null, QUILATES_DESDE, QUILATES_HASTA);
+
+            List<Pieza> piezas = new ArrayList<>();
+            piezas.add(crearPieza(PIEZA_DIAMANTE_ID, NUM_PIEZAS_1, null, diamante, null));
+            request.getPrenda().add(crearPrenda(piezas));
+        }
+
+        try {
+            valuadorDiamantesService.valuarPrendasLote(request);
+            fail();
+        } catch (WebServiceException e) {
+            assertNotNull(e);
+            assertEquals(WebServiceExceptionCodes.NMPMV011.getMessageException(), e.getMessage());
+        } catch (Exception e) {
+            LOGGER.error("<< Error inesperado al ejecutar valuarPrendasLote02. {}", e);
+            fail();
+        }
+    }
+
     /**
      * Metodo auxiliar utilizado para crear una entidad de tipo {@link mx.com.nmp.ms.sivad.valuacion.ws.diamantes.datatypes.Prenda}.
      *
@@ -0,0 +1,167 @@
+/**
+ * Proyecto:        NMP - Microservicio de Motor de Valuación
+ * Quarksoft S.A.P.I. de C.V. – Todos los derechos reservados. Para uso exclusivo de Nacional Monte de Piedad.
+ */
+package mx.com.nmp.ms.sivad.valuacion.conector;
+
+import com.codahale.metrics.MetricRegistry;
+import mx.com.nmp.ms.sivad.valuacion.config.BandasQuilatesProperties;
+import mx.com.nmp.ms.sivad.valuacion.conector.consumidor.ValorComercialConsumidor;
+import mx.com.nmp.ms.sivad.valuacion.conector.provedor.CaracteristicasDiamanteProveedor;
+import org.junit.Before;
+import org.junit.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.math.BigDecimal;
+
+import static mx.com.nmp.ms.sivad.valuacion.conector.consumidor.ConsumidorFactory.crearValorComercialConsumidor;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+
+/**
+ * Pruebas de unidad para la clase {@link BandasQuilates}
+ */
+public class BandasQuilatesUTest {
+
+    private static final ValorComercialConsumidor VALOR =
+        crearValorComercialConsumidor(BigDecimal.ONE, BigDecimal.TEN, BigDecimal.TEN);
+
+    private BandasQuilatesProperties propiedades;
+    private MetricRegistry metricRegistry;
+    private BandasQuilates test;
+
+    /**
+     * Se ejecuta antes de cada prueba.
+     */
+    @Before
+    public void setup() {
+        propiedades = new BandasQuilatesProperties();
+        propiedades.setHabilitado(true);
+
+        metricRegistry = new MetricRegistry();
+        test = new BandasQuilates();
+
+        ReflectionTestUtils.setField(test, "propiedades", propiedades);
+        ReflectionTestUtils.setField(test, "metricRegistry", metricRegistry);
+    }
+
+    /**
+     * Valida que cualquier peso dentro de una banda registrada se responda localmente, y que pesos fuera de la
+     * banda o de otras características no.
+     */
+    @Test
+    public void consultarDentroDeBandaTest() {
+        test.registrar(crearDiamante("VS1", "0.31", "0.30", "0.39"), VALOR);
+
+        assertSame(VALOR, test.consultar(crearDiamante("VS1", "0.30", "0.30", "0.39")));
+        assertSame(VALOR, test.consultar(crearDiamante("VS1", "0.33", "0.3", "0.390")));
+        assertSame(VALOR, test.consultar(crearDiamante("VS1", "0.39", null, null)));
+        assertNull(test.consultar(crearDiamante("VS1", "0.40", "0.40", "0.49")));
+        assertNull(test.consultar(crearDiamante("VS2", "0.33", "0.30", "0.39")));
+
+        assertEquals(3, metricRegistry.meter(MetricRegistry.name(BandasQuilates.class, "aciertos")).getCount());
+        assertEquals(2, metricRegistry.meter(MetricRegistry.name(BandasQuilates.class, "fallos")).getCount());
+    }
+
+    /**
+     * Valida que una consulta con una banda distinta que contiene el peso no se responda con la banda registrada.
+     */
+    @Test
+    public void consultarBandaDistintaTest() {
+        test.registrar(crearDiamante("VS1", "0.31", "0.30", "0.39"), VALOR);
+
+        assertNull(test.consultar(crearDiamante("VS1", "0.33", "0.25", "0.49")));
+    }
+
+    /**
+     * Valida que no se registren consultas cuyo peso está fuera de su banda y que las bandas vencidas no se
+     * entreguen.
+     */
+    @Test
+    public void registrarInvalidaYVencidaTest() {
+        test.registrar(crearDiamante("VS1", "0.45", "0.30", "0.39"), VALOR);
+        assertNull(test.consultar(crearDiamante("VS1", "0.31", "0.30", "0.39")));
+
+        propiedades.setVigencia(-1L);
+        test.registrar(crearDiamante("VS1", "0.31", "0.30", "0.39"), VALOR);
+        assertNull(test.consultar(crearDiamante("VS1", "0.31", "0.30", "0.39")));
+    }
+
+    /**
+     * Valida que una consulta sin banda, con los límites nulos o en cero como los envía el servicio por omisión, se
+     * responda con la banda que contiene su peso y que su propio resultado no se registre como banda.
+     */
+    @Test
+    public void consultarSinBandaTest() {
+        test.registrar(crearDiamante("VS1", "0.35", "0.0", "0.0"), VALOR);
+        test.registrar(crearDiamante("VS1", "0.35", null, null), VALOR);
+        assertNull(test.consultar(crearDiamante("VS1", "0.35", "0.0", "0.0")));
+
+        test.registrar(crearDiamante("VS1", "0.31", "0.30", "0.39"), VALOR);
+
+        assertSame(VALOR, test.consultar(crearDiamante("VS1", "0.35", "0.0", "0.0")));
+        assertSame(VALOR, test.consultar(crearDiamante("VS1", "0.35", null, null)));
+        assertNull(test.consultar(crearDiamante("VS1", "0.45", "0.0", "0.0")));
+    }
+
+    /**
+     * Valida que al descartar la banda que contiene el peso, la consulta deje de responderse localmente sin afectar
+     * otras bandas.
+     */
+    @Test
+    public void descartarTest() {
+        test.init();
+        test.registrar(crearDiamante("VS1", "0.31", "0.30", "0.39"), VALOR);
+        test.registrar(crearDiamante("VS1", "0.41", "0.40", "0.49"), VALOR);
+
+        test.descartar(crearDiamante("VS1", "0.50", "0.50", "0.59"));
+        test.descartar(crearDiamante("VS1", "0.35", "0.30", "0.39"));
+
+        assertNull(test.consultar(crearDiamante("VS1", "0.31", "0.30", "0.39")));
+        assertSame(VALOR, test.consultar(crearDiamante("VS1", "0.41", "0.40", "0.49")));
+        assertEquals(1, metricRegistry.getGauges().get(MetricRegistry.name(BandasQuilates.class, "bandas"))
+            .getValue());
+    }
+
+    private static CaracteristicasDiamanteProveedor crearDiamante(final String claridad, final String quilates,
+                                                                  final String desde, final String hasta) {
+        return new CaracteristicasDiamanteProveedor() {
+            @Override
+            public String getCorte() {
+                return "Redondo";
+            }
+
+            @Override
+            public String getSubcorte() {
+                return "Brillante";
+            }
+
+            @Override
+            public String getColor() {
+                return "F";
+            }
+
+            @Override
+            public String getClaridad() {
+                return claridad;
+            }
+
+            @Override
+            public BigDecimal getQuilates() {
+                return new BigDecimal(quilates);
+            }
+
+            @Override
+            public BigDecimal getQuilatesDesde() {
+                return (desde == null) ? null : new BigDecimal(desde);
+            }
+
+            @Override
+            public BigDecimal getQuilatesHasta() {
+                return (hasta == null) ? null : new BigDecimal(hasta);
+            }
+        };
+    }
+
+}
@@ -0,0 +1,167 @@
+/**
+ * Proyecto:        NMP - Microservicio de Motor de Valuación
+ * Quarksoft S.A.P.I. de C.V. – Todos los derechos reservados. Para uso exclusivo de Nacional Monte de Piedad.
+ */
+package mx.com.nmp.ms.sivad.valuacion.conector;
+
+import com.codahale.metrics.MetricRegistry;
+import mx.com.nmp.ms.sivad.valuacion.config.InterruptorReferenciaProperties;
+import org.junit.Before;
+import org.junit.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import javax.xml.ws.WebServiceException;
+import java.math.BigDecimal;
+import java.util.concurrent.Callable;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.fail;
+
+/**
+ * Pruebas de unidad para la clase {@link InterruptorConsultas}
+ */
+public class InterruptorConsultasUTest {
+
+    private static final String CONSULTA = "obtenerValorGramoOro";
+    private static final String LLAVE = "Amarillo|14";
+
+    private InterruptorReferenciaProperties propiedades;
+    private MetricRegistry metricRegistry;
+    private InterruptorConsultas test;
+
+    /**
+     * Se ejecuta antes de cada prueba. El circuito se abre tras dos fallas consecutivas.
+     */
+    @Before
+    public void setup() {
+        propiedades = new InterruptorReferenciaProperties();
+        propiedades.setHabilitado(true);
+        propiedades.setUmbralFallas(2);
+        propiedades.setTiempoAbierto(60000L);
+
+        metricRegistry = new MetricRegistry();
+        test = new InterruptorConsultas();
+
+        ReflectionTestUtils.setField(test, "propiedades", propiedades);
+        ReflectionTestUtils.setField(test, "metricRegistry", metricRegistry);
+    }
+
+    /**
+     * Valida que el circuito se abra tras las fallas consecutivas y que, sin último valor conocido, las consultas
+     * fallen sin llamar al servicio remoto.
+     */
+    @Test
+    public void abrirCircuitoTest() throws Exception {
+        AtomicInteger llamadas = new AtomicInteger();
+
+        fallar(llamadas);
+        fallar(llamadas);
+        assertEquals(InterruptorConsultas.Estado.ABIERTO, test.getEstado(CONSULTA));
+
+        fallar(llamadas);
+        assertEquals(2, llamadas.get());
+        assertEquals(1, metricRegistry.meter(MetricRegistry.name(InterruptorConsultas.class, CONSULTA,
+            "aperturas")).getCount());
+    }
+
+    /**
+     * Valida que, con el circuito abierto, se entregue el último valor conocido de la llave mediante
+     * {@link ValorObsoletoException}.
+     */
+    @Test
+    public void ultimoValorTest() throws Exception {
+        AtomicInteger llamadas = new AtomicInteger();
+
+        assertEquals(BigDecimal.TEN, test.ejecutar(CONSULTA, LLAVE, crearLlamada(llamadas, BigDecimal.TEN)));
+        fallar(llamadas);
+        fallar(llamadas);
+
+        assertEquals(BigDecimal.TEN, obsoleto(LLAVE, crearLlamada(llamadas, BigDecimal.ONE)));
+        assertEquals(3, llamadas.get());
+        assertEquals(1, metricRegistry.meter(MetricRegistry.name(InterruptorConsultas.class, CONSULTA,
+            "obsoletas")).getCount());
+    }
+
+    /**
+     * Valida que, transcurrido el tiempo de apertura, una consulta de prueba exitosa cierre el circuito.
+     */
+    @Test
+    public void cerrarCircuitoTest() throws Exception {
+        propiedades.setTiempoAbierto(0L);
+        AtomicInteger llamadas = new AtomicInteger();
+
+        fallar(llamadas);
+        fallar(llamadas);
+        assertEquals(InterruptorConsultas.Estado.ABIERTO, test.getEstado(CONSULTA));
+
+        assertEquals(BigDecimal.ONE, test.ejecutar(CONSULTA, LLAVE, crearLlamada(llamadas, BigDecimal.ONE)));
+        assertEquals(InterruptorConsultas.Estado.CERRADO, test.getEstado(CONSULTA));
+        assertEquals(1, metricRegistry.meter(MetricRegistry.name(InterruptorConsultas.class, CONSULTA,
+            "cierres")).getCount());
+    }
+
+    /**
+     * Valida que, al alcanzar el número máximo de valores, se descarte el último valor conocido usado menos
+     * recientemente y se conserve el de la llave nueva.
+     */
+    @Test
+    public void descartarMenosRecienteTest() throws Exception {
+        propiedades.setMaximoValores(2);
+        AtomicInteger llamadas = new AtomicInteger();
+
+        test.ejecutar(CONSULTA, "A", crearLlamada(llamadas, BigDecimal.TEN));
+        test.ejecutar(CONSULTA, "B", crearLlamada(llamadas, BigDecimal.ONE));
+        test.ejecutar(CONSULTA, "A", crearLlamada(llamadas, BigDecimal.TEN));
+        test.ejecutar(CONSULTA, "C", crearLlamada(llamadas, BigDecimal.ZERO));
+        fallar(llamadas);
+        fallar(llamadas);
+
+        assertEquals(BigDecimal.TEN, obsoleto("A", crearLlamada(llamadas, null)));
+        assertEquals(BigDecimal.ZERO, obsoleto("C", crearLlamada(llamadas, null)));
+        assertEquals(6, llamadas.get());
+
+        try {
+            test.ejecutar(CONSULTA, "B", crearLlamada(llamadas, null));
+            fail("Se esperaba una excepción");
+        } catch (WebServiceException e) {
+            // ESPERADA
+        }
+    }
+
+    private Object obsoleto(String llave, Callable<BigDecimal> llamada) {
+        try {
+            test.ejecutar(CONSULTA, llave, llamada);
+            fail("Se esperaba una excepción");
+        } catch (ValorObsoletoException e) {
+            return e.getValor();
+        }
+
+        return null;
+    }
+
+    private void fallar(AtomicInteger llamadas) throws Exception {
+        try {
+            test.ejecutar(CONSULTA, LLAVE, crearLlamada(llamadas, null));
+            fail("Se esperaba una excepción");
+        } catch (WebServiceException e) {
+            // ESPERADA
+        }
+    }
+
+    private static Callable<BigDecimal> crearLlamada(final AtomicInteger llamadas, final BigDecimal valor) {
+        return new Callable<BigDecimal>() {
+            @Override
+            public BigDecimal call() {
+                llamadas.incrementAndGet();
+
+                if (valor == null) {
+                    throw new WebServiceException("Error de comunicacion");
+                }
+
+                return valor;
+            }
+        };
+    }
+
+}
@@ -0,0 +1,114 @@
+/**
+ * Proyecto:        NMP - Microservicio de Motor de Valuación
+ * Quarksoft S.A.P.I. de C.V. – Todos los derechos reservados. Para uso exclusivo de Nacional Monte de Piedad.
+ */
+package mx.com.nmp.ms.sivad.valuacion.conector;
+
+import mx.com.nmp.ms.sivad.valuacion.conector.llave.LlaveReferencia;
+import mx.com.nmp.ms.sivad.valuacion.conector.provedor.CaracteristicasDiamanteProveedor;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.InOrder;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.math.BigDecimal;
+
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.verifyZeroInteractions;
+
+/**
+ * Pruebas de unidad para la clase {@link RecargadorReferencias}
+ */
+public class RecargadorReferenciasUTest {
+
+    @Mock
+    private TablasDeReferenciaAlhajas tablasDeReferenciaAlhajas;
+
+    @Mock
+    private TablasDeReferenciaDiamantes tablasDeReferenciaDiamantes;
+
+    @Mock
+    private BandasQuilates bandasQuilates;
+
+    private RecargadorReferencias test;
+
+    /**
+     * Se ejecuta antes de cada prueba.
+     */
+    @Before
+    public void setup() {
+        MockitoAnnotations.initMocks(this);
+
+        test = new RecargadorReferencias();
+        ReflectionTestUtils.setField(test, "tablasDeReferenciaAlhajas", tablasDeReferenciaAlhajas);
+        ReflectionTestUtils.setField(test, "tablasDeReferenciaDiamantes", tablasDeReferenciaDiamantes);
+        ReflectionTestUtils.setField(test, "bandasQuilates", bandasQuilates);
+    }
+
+    /**
+     * Valida que el valor comercial se consulte de nuevo con la llave, después de descartar su banda.
+     */
+    @Test
+    public void recargarValorComercialTest() {
+        LlaveReferencia.ValorComercial llave = LlaveReferencia.valorComercial(crearDiamante());
+
+        assertTrue(test.recargar(llave));
+
+        InOrder orden = inOrder(bandasQuilates, tablasDeReferenciaDiamantes);
+        orden.verify(bandasQuilates).descartar(llave);
+        orden.verify(tablasDeReferenciaDiamantes).obtenerValorComercial(llave);
+    }
+
+    /**
+     * Valida que las llaves que no son de tablas de referencia no se recarguen.
+     */
+    @Test
+    public void recargarLlaveDesconocidaTest() {
+        assertFalse(test.recargar("Amarillo|14"));
+        verifyZeroInteractions(tablasDeReferenciaAlhajas, tablasDeReferenciaDiamantes, bandasQuilates);
+    }
+
+    private static CaracteristicasDiamanteProveedor crearDiamante() {
+        return new CaracteristicasDiamanteProveedor() {
+            @Override
+            public String getCorte() {
+                return "Redondo";
+            }
+
+            @Override
+            public String getSubcorte() {
+                return "Brillante";
+            }
+
+            @Override
+            public String getColor() {
+                return "F";
+            }
+
+            @Override
+            public String getClaridad() {
+                return "VS1";
+            }
+
+            @Override
+            public BigDecimal getQuilates() {
+                return new BigDecimal("0.31");
+            }
+
+            @Override
+            public BigDecimal getQuilatesDesde() {
+                return new BigDecimal("0.30");
+            }
+
+            @Override
+            public BigDecimal getQuilatesHasta() {
+                return new BigDecimal("0.39");
+            }
+        };
+    }
+
+}
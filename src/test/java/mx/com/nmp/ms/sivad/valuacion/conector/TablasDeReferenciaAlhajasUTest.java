@@ -17,8 +17,10 @@ import mx.com.nmp.ms.sivad.referencia.ws.alhajas.datatypes.ObtenerValorGramoOroR
 import mx.com.nmp.ms.sivad.valuacion.conector.consumidor.BigDecimalConsumidor;
 import mx.com.nmp.ms.sivad.valuacion.conector.provedor.CaracteristicasGramoOroProveedor;
 import mx.com.nmp.ms.sivad.valuacion.conector.provedor.MetalCalidadRangoProveedor;
+import mx.com.nmp.ms.sivad.valuacion.conector.referencia.TablasDeReferenciaLocales;
 import mx.com.nmp.ms.sivad.valuacion.conector.referencia.alhaja.ReferenciaAlhajasConector;
 import mx.com.nmp.ms.sivad.valuacion.conector.referencia.alhaja.factory.ReferenciaAlhajaFactory;
+import mx.com.nmp.ms.sivad.valuacion.config.InterruptorReferenciaProperties;
 import org.junit.Test;
 import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
@@ -56,6 +58,11 @@ public class TablasDeReferenciaAlhajasUTest {
         ReflectionTestUtils.setField(conector, "wsReferenciaAlhaja", mock);
         ReflectionTestUtils.setField(test, "referenciaAlhajasConector", conector);
         ReflectionTestUtils.setField(test, "referenciaAlhajaFactory", new ReferenciaAlhajaFactory());
+        ReflectionTestUtils.setField(test, "tablasDeReferenciaLocales", new TablasDeReferenciaLocales());
+
+        InterruptorConsultas interruptor = new InterruptorConsultas();
+        ReflectionTestUtils.setField(interruptor, "propiedades", new InterruptorReferenciaProperties());
+        ReflectionTestUtils.setField(test, "interruptorConsultas", interruptor);
     }
 
     /**
@@ -17,8 +17,11 @@ import mx.com.nmp.ms.sivad.valuacion.conector.consumidor.BigDecimalConsumidor;
 import mx.com.nmp.ms.sivad.valuacion.conector.consumidor.ValorComercialConsumidor;
 import mx.com.nmp.ms.sivad.valuacion.conector.provedor.CaracteristicasDiamanteProveedor;
 import mx.com.nmp.ms.sivad.valuacion.conector.provedor.CertificadoDiamanteProveedor;
+import mx.com.nmp.ms.sivad.valuacion.conector.referencia.TablasDeReferenciaLocales;
 import mx.com.nmp.ms.sivad.valuacion.conector.referencia.diamante.ReferenciaDiamantesConector;
 import mx.com.nmp.ms.sivad.valuacion.conector.referencia.diamante.factory.ReferenciaDiamanteFactory;
+import mx.com.nmp.ms.sivad.valuacion.config.BandasQuilatesProperties;
+import mx.com.nmp.ms.sivad.valuacion.config.InterruptorReferenciaProperties;
 import org.junit.Test;
 import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
@@ -57,6 +60,15 @@ public class TablasDeReferenciaDiamantesUTest {
         ReflectionTestUtils.setField(conector, "wsReferenciaDiamante", mock);
         ReflectionTestUtils.setField(test, "referenciaDiamantesConector", conector);
         ReflectionTestUtils.setField(test, "referenciaDiamanteFactory", new ReferenciaDiamanteFactory());
+        ReflectionTestUtils.setField(test, "tablasDeReferenciaLocales", new TablasDeReferenciaLocales());
+
+        InterruptorConsultas interruptor = new InterruptorConsultas();
+        ReflectionTestUtils.setField(interruptor, "propiedades", new InterruptorReferenciaProperties());
+        ReflectionTestUtils.setField(test, "interruptorConsultas", interruptor);
+
+        BandasQuilates bandas = new BandasQuilates();
+        ReflectionTestUtils.setField(bandas, "propiedades", new BandasQuilatesProperties());
+        ReflectionTestUtils.setField(test, "bandasQuilates", bandas);
     }
 
 
@@ -146,4 +158,5 @@ public class TablasDeReferenciaDiamantesUTest {
         assertEquals(BigDecimal.ONE, result.getValorMedio());
         assertEquals(BigDecimal.TEN, result.getValorMaximo());
     }
+
 }
@@ -0,0 +1,148 @@
+/**
+ * Proyecto:        NMP - Microservicio de Motor de Valuación
+ * Quarksoft S.A.P.I. de C.V. – Todos los derechos reservados. Para uso exclusivo de Nacional Monte de Piedad.
+ */
+package mx.com.nmp.ms.sivad.valuacion.conector.llave;
+
+import mx.com.nmp.ms.sivad.valuacion.conector.provedor.CaracteristicasDiamanteProveedor;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.expression.Expression;
+import org.springframework.expression.spel.standard.SpelExpressionParser;
+import org.springframework.expression.spel.support.StandardEvaluationContext;
+
+import java.math.BigDecimal;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compara el costo de construir la llave del caché de valor comercial y de buscarla, entre la expresión SpEL
+ * {@code Objects.hash(...)} utilizada anteriormente en {@code @Cacheable} y {@link LlaveReferencia}.
+ *
+ * No se ejecuta con las pruebas; se ejecuta con
+ * {@code mvn test-compile exec:java -Dexec.classpathScope=test
+ * -Dexec.mainClass=mx.com.nmp.ms.sivad.valuacion.conector.llave.LlaveReferenciaBenchmark}.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class LlaveReferenciaBenchmark {
+
+    private static final String EXPRESION = "T(java.util.Objects).hash(#proveedor.corte, #proveedor.subcorte, " +
+        "#proveedor.color, #proveedor.claridad, #proveedor.quilates, #proveedor.quilatesDesde, " +
+        "#proveedor.quilatesHasta)";
+
+    private final ConcurrentMap<Object, Object> cacheSpel = new ConcurrentHashMap<>();
+    private final ConcurrentMap<Object, Object> cacheLlave = new ConcurrentHashMap<>();
+
+    private Diamante proveedor;
+    private Expression expresion;
+
+    /**
+     * Prepara la expresión, ya interpretada como lo hace Spring, y los cachés con 1000 entradas.
+     */
+    @Setup
+    public void setup() {
+        expresion = new SpelExpressionParser().parseExpression(EXPRESION);
+        proveedor = new Diamante(new BigDecimal("0.920"));
+
+        for (int i = 0; i < 1000; i++) {
+            Diamante otro = new Diamante(new BigDecimal(i).movePointLeft(3));
+            cacheSpel.put(evaluar(otro), otro);
+            cacheLlave.put(LlaveReferencia.valorComercial(otro), otro);
+        }
+    }
+
+    @Benchmark
+    public Object construirSpel() {
+        return evaluar(proveedor);
+    }
+
+    @Benchmark
+    public Object construirLlave() {
+        return LlaveReferencia.valorComercial(proveedor);
+    }
+
+    @Benchmark
+    public Object buscarSpel() {
+        return cacheSpel.get(evaluar(proveedor));
+    }
+
+    @Benchmark
+    public Object buscarLlave() {
+        return cacheLlave.get(LlaveReferencia.valorComercial(proveedor));
+    }
+
+    private Object evaluar(Diamante diamante) {
+        StandardEvaluationContext contexto = new StandardEvaluationContext();
+        contexto.setVariable("proveedor", diamante);
+
+        return expresion.getValue(contexto);
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder().include(LlaveReferenciaBenchmark.class.getSimpleName()).build()).run();
+    }
+
+    /**
+     * Proveedor de características de diamante de prueba.
+     */
+    public static final class Diamante implements CaracteristicasDiamanteProveedor {
+        private final BigDecimal quilates;
+
+        Diamante(BigDecimal quilates) {
+            this.quilates = quilates;
+        }
+
+        @Override
+        public String getCorte() {
+            return "Redondo";
+        }
+
+        @Override
+        public String getSubcorte() {
+            return "Brillante";
+        }
+
+        @Override
+        public String getColor() {
+            return "F";
+        }
+
+        @Override
+        public String getClaridad() {
+            return "VS1";
+        }
+
+        @Override
+        public BigDecimal getQuilates() {
+            return quilates;
+        }
+
+        @Override
+        public BigDecimal getQuilatesDesde() {
+            return new BigDecimal("0.90");
+        }
+
+        @Override
+        public BigDecimal getQuilatesHasta() {
+            return new BigDecimal("0.99");
+        }
+    }
+
+}
@@ -0,0 +1,152 @@
+/**
+ * Proyecto:        NMP - Microservicio de Motor de Valuación
+ * Quarksoft S.A.P.I. de C.V. – Todos los derechos reservados. Para uso exclusivo de Nacional Monte de Piedad.
+ */
+package mx.com.nmp.ms.sivad.valuacion.conector.llave;
+
+import mx.com.nmp.ms.sivad.valuacion.conector.provedor.CaracteristicasDiamanteProveedor;
+import mx.com.nmp.ms.sivad.valuacion.conector.provedor.CaracteristicasGramoOroProveedor;
+import mx.com.nmp.ms.sivad.valuacion.conector.provedor.MetalCalidadRangoProveedor;
+import org.junit.Test;
+
+import java.math.BigDecimal;
+import java.util.Objects;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotEquals;
+
+/**
+ * Pruebas de unidad para la clase {@link LlaveReferencia}
+ */
+public class LlaveReferenciaUTest {
+
+    /**
+     * Valida que llaves con los mismos criterios sean iguales y tengan el mismo hash.
+     */
+    @Test
+    public void igualdadTest() {
+        LlaveReferencia llave1 = LlaveReferencia.valorComercial(crearDiamante("Redondo", "F", "VS1", "0.92"));
+        LlaveReferencia llave2 = LlaveReferencia.valorComercial(crearDiamante("Redondo", "F", "VS1", "0.92"));
+
+        assertEquals(llave1, llave2);
+        assertEquals(llave1.hashCode(), llave2.hashCode());
+        assertNotEquals(llave1, LlaveReferencia.valorComercial(crearDiamante("Redondo", "F", "VS2", "0.92")));
+    }
+
+    /**
+     * Valida que los quilates con distinta escala generen la misma llave.
+     */
+    @Test
+    public void normalizarQuilatesTest() {
+        assertEquals(LlaveReferencia.valorComercial(crearDiamante("Redondo", "F", "VS1", "0.92")),
+            LlaveReferencia.valorComercial(crearDiamante("Redondo", "F", "VS1", "0.9200")));
+    }
+
+    /**
+     * Valida que criterios con el mismo {@link Objects#hash(Object...)} no compartan llave.
+     */
+    @Test
+    public void colisionHashTest() {
+        assertEquals(Objects.hash("Aa", "14"), Objects.hash("BB", "14"));
+        assertNotEquals(LlaveReferencia.valorGramoMetal(crearMetal("Aa", "14")),
+            LlaveReferencia.valorGramoMetal(crearMetal("BB", "14")));
+    }
+
+    /**
+     * Valida que llaves de consultas distintas con los mismos criterios no sean iguales.
+     */
+    @Test
+    public void consultasDistintasTest() {
+        LlaveReferencia oro = LlaveReferencia.valorGramoOro(new CaracteristicasGramoOroProveedor() {
+            @Override
+            public String getColor() {
+                return "Plata";
+            }
+
+            @Override
+            public String getCalidad() {
+                return "925";
+            }
+        });
+
+        assertNotEquals(oro, LlaveReferencia.valorGramoMetal(crearMetal("Plata", "925")));
+    }
+
+    /**
+     * Valida que cada llave, utilizada como proveedor de criterios, genere una llave igual, de modo que la consulta
+     * puede repetirse a partir de la llave.
+     */
+    @Test
+    public void llaveComoProveedorTest() {
+        LlaveReferencia.ValorComercial valorComercial =
+            LlaveReferencia.valorComercial(crearDiamante("Redondo", "F", "VS1", "0.920"));
+        LlaveReferencia.Factor factor = LlaveReferencia.factor(crearMetal("AU", "14"));
+        LlaveReferencia.ValorGramoMetal valorGramoMetal = LlaveReferencia.valorGramoMetal(crearMetal("AG", "925"));
+
+        assertEquals(valorComercial, LlaveReferencia.valorComercial(valorComercial));
+        assertEquals(new BigDecimal("0.92"), valorComercial.getQuilates());
+        assertEquals(factor, LlaveReferencia.factor(factor));
+        assertEquals("BK", factor.getRango());
+        assertEquals(valorGramoMetal, LlaveReferencia.valorGramoMetal(valorGramoMetal));
+    }
+
+    private static MetalCalidadRangoProveedor crearMetal(final String metal, final String calidad) {
+        return new MetalCalidadRangoProveedor() {
+            @Override
+            public String getMetal() {
+                return metal;
+            }
+
+            @Override
+            public String getCalidad() {
+                return calidad;
+            }
+
+            @Override
+            public String getRango() {
+                return "BK";
+            }
+        };
+    }
+
+    private static CaracteristicasDiamanteProveedor crearDiamante(final String corte, final String color,
+                                                                  final String claridad, final String quilates) {
+        return new CaracteristicasDiamanteProveedor() {
+            @Override
+            public String getCorte() {
+                return corte;
+            }
+
+            @Override
+            public String getSubcorte() {
+                return null;
+            }
+
+            @Override
+            public String getColor() {
+                return color;
+            }
+
+            @Override
+            public String getClaridad() {
+                return claridad;
+            }
+
+            @Override
+            public BigDecimal getQuilates() {
+                return new BigDecimal(quilates);
+            }
+
+            @Override
+            public BigDecimal getQuilatesDesde() {
+                return new BigDecimal("0.90");
+            }
+
+            @Override
+            public BigDecimal getQuilatesHasta() {
+                return new BigDecimal("0.99");
+            }
+        };
+    }
+
+}
@@ -0,0 +1,86 @@
+/**
+ * Proyecto:        NMP - Microservicio de Motor de Valuación
+ * Quarksoft S.A.P.I. de C.V. – Todos los derechos reservados. Para uso exclusivo de Nacional Monte de Piedad.
+ */
+package mx.com.nmp.ms.sivad.valuacion.conector.referencia;
+
+import mx.com.nmp.ms.sivad.valuacion.config.ClienteReferenciaProperties;
+import org.junit.Before;
+import org.junit.Test;
+
+import javax.xml.ws.WebServiceException;
+import java.net.URL;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.fail;
+
+/**
+ * Pruebas de unidad para la clase {@link LimiteConexiones}
+ */
+public class LimiteConexionesUTest {
+
+    private LimiteConexiones test;
+
+    /**
+     * Se ejecuta antes de cada prueba. Se admiten dos conexiones por ruta y tres en total.
+     */
+    @Before
+    public void setup() {
+        ClienteReferenciaProperties propiedades = new ClienteReferenciaProperties();
+        propiedades.setConexionesPorRuta(2);
+        propiedades.setConexionesTotales(3);
+
+        test = new LimiteConexiones(propiedades);
+    }
+
+    /**
+     * Valida que la ruta se forme con el servidor y el puerto, usando el puerto por omisión del protocolo.
+     */
+    @Test
+    public void rutaTest() throws Exception {
+        assertEquals("localhost:8084", LimiteConexiones.ruta(new URL("http://localhost:8084/soap-api/x?wsdl")));
+        assertEquals("servidor:80", LimiteConexiones.ruta(new URL("http://servidor/soap-api/x?wsdl")));
+        assertEquals("", LimiteConexiones.ruta(null));
+    }
+
+    /**
+     * Valida que se aplique el límite por ruta sin afectar a otra ruta.
+     */
+    @Test
+    public void limiteRutaTest() {
+        test.adquirir("a:80", 10L);
+        test.adquirir("a:80", 10L);
+        assertAgotado("a:80");
+
+        test.adquirir("b:80", 10L);
+
+        test.liberar("a:80");
+        test.adquirir("a:80", 10L);
+    }
+
+    /**
+     * Valida que se aplique el límite total y que, al agotarse, no se retenga el permiso de la ruta.
+     */
+    @Test
+    public void limiteTotalTest() {
+        test.adquirir("a:80", 10L);
+        test.adquirir("a:80", 10L);
+        test.adquirir("b:80", 10L);
+        assertAgotado("c:80");
+
+        test.liberar("a:80");
+        test.adquirir("c:80", 10L);
+        test.liberar("b:80");
+        test.adquirir("c:80", 10L);
+    }
+
+    private void assertAgotado(String ruta) {
+        try {
+            test.adquirir(ruta, 10L);
+            fail("Se esperaba una excepción");
+        } catch (WebServiceException e) {
+            // SE ESPERA LA EXCEPCIÓN.
+        }
+    }
+
+}
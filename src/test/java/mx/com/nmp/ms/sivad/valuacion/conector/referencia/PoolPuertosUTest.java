@@ -0,0 +1,184 @@
+/**
+ * Proyecto:        NMP - Microservicio de Motor de Valuación
+ * Quarksoft S.A.P.I. de C.V. – Todos los derechos reservados. Para uso exclusivo de Nacional Monte de Piedad.
+ */
+package mx.com.nmp.ms.sivad.valuacion.conector.referencia;
+
+import com.codahale.metrics.MetricRegistry;
+import mx.com.nmp.ms.sivad.valuacion.config.ClienteReferenciaProperties;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import javax.xml.ws.WebServiceException;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.fail;
+
+/**
+ * Pruebas de unidad para la clase {@link PoolPuertos}
+ */
+public class PoolPuertosUTest {
+
+    private static final String DISPONIBLES = MetricRegistry.name(PoolPuertos.class, "prueba", "disponibles");
+    private static final String RUTA = "localhost:8084";
+
+    private final CountDownLatch iniciada = new CountDownLatch(1);
+    private final CountDownLatch liberar = new CountDownLatch(1);
+
+    private ClienteReferenciaProperties propiedades;
+    private LimiteConexiones limiteConexiones;
+    private MetricRegistry metricRegistry;
+    private ExecutorService executor;
+    private Puerto test;
+
+    /**
+     * Puerto de prueba.
+     */
+    public interface Puerto {
+        String consultar(String valor);
+    }
+
+    /**
+     * Se ejecuta antes de cada prueba. El pool tiene un solo puerto, su ruta admite una sola conexión y espera a lo
+     * más 100 milisegundos.
+     */
+    @Before
+    public void setup() {
+        propiedades = new ClienteReferenciaProperties();
+        propiedades.setTamanoPool(1);
+        propiedades.setEsperaMaxima(100L);
+        propiedades.setConexionesPorRuta(1);
+
+        limiteConexiones = new LimiteConexiones(propiedades);
+        metricRegistry = new MetricRegistry();
+        executor = Executors.newSingleThreadExecutor();
+
+        test = crearPool("prueba").crearFachada(Puerto.class);
+    }
+
+    private PoolPuertos<Puerto> crearPool(String nombre) {
+        return new PoolPuertos<>(nombre, RUTA, new PoolPuertos.FabricaPuertos<Puerto>() {
+            @Override
+            public Puerto crear() {
+                return new Puerto() {
+                    @Override
+                    public String consultar(String valor) {
+                        if ("esperar".equals(valor)) {
+                            iniciada.countDown();
+                            await(liberar);
+                        }
+
+                        if ("falla".equals(valor)) {
+                            throw new IllegalStateException(valor);
+                        }
+
+                        return valor;
+                    }
+                };
+            }
+        }, propiedades, limiteConexiones, metricRegistry);
+    }
+
+    /**
+     * Se ejecuta después de cada prueba.
+     */
+    @After
+    public void tearDown() {
+        liberar.countDown();
+        executor.shutdownNow();
+    }
+
+    /**
+     * Valida que la invocación se atienda con un puerto del pool y que éste se devuelva al terminar.
+     */
+    @Test
+    public void invocarTest() {
+        assertEquals("Amarillo", test.consultar("Amarillo"));
+        assertEquals(1, metricRegistry.getGauges().get(DISPONIBLES).getValue());
+    }
+
+    /**
+     * Valida que la excepción del puerto se propague sin envolver y que el puerto se devuelva al pool.
+     */
+    @Test
+    public void invocarFallaTest() {
+        try {
+            test.consultar("falla");
+            fail("Se esperaba una excepción");
+        } catch (IllegalStateException e) {
+            assertEquals("falla", e.getMessage());
+        }
+
+        assertEquals(1, metricRegistry.getGauges().get(DISPONIBLES).getValue());
+    }
+
+    /**
+     * Valida que, con el pool agotado, la invocación falle al superar la espera máxima.
+     */
+    @Test
+    public void poolAgotadoTest() throws Exception {
+        Future<String> ocupada = executor.submit(new Callable<String>() {
+            @Override
+            public String call() {
+                return test.consultar("esperar");
+            }
+        });
+        iniciada.await(5, TimeUnit.SECONDS);
+
+        try {
+            test.consultar("Amarillo");
+            fail("Se esperaba una excepción");
+        } catch (WebServiceException e) {
+            assertEquals(2, metricRegistry.timer(MetricRegistry.name(PoolPuertos.class, "prueba", "espera"))
+                .getCount());
+        }
+
+        liberar.countDown();
+        assertEquals("esperar", ocupada.get(5, TimeUnit.SECONDS));
+    }
+
+    /**
+     * Valida que otro pool hacia la misma ruta respete el límite de conexiones compartido y que el permiso se
+     * libere al terminar la invocación.
+     */
+    @Test
+    public void limiteRutaTest() throws Exception {
+        Puerto otro = crearPool("otro").crearFachada(Puerto.class);
+
+        Future<String> ocupada = executor.submit(new Callable<String>() {
+            @Override
+            public String call() {
+                return test.consultar("esperar");
+            }
+        });
+        iniciada.await(5, TimeUnit.SECONDS);
+
+        try {
+            otro.consultar("Amarillo");
+            fail("Se esperaba una excepción");
+        } catch (WebServiceException e) {
+            assertEquals(1, metricRegistry.getGauges()
+                .get(MetricRegistry.name(PoolPuertos.class, "otro", "disponibles")).getValue());
+        }
+
+        liberar.countDown();
+        assertEquals("esperar", ocupada.get(5, TimeUnit.SECONDS));
+        assertEquals("Amarillo", otro.consultar("Amarillo"));
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+}
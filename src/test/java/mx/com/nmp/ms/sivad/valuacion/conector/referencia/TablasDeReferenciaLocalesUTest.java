@@ -0,0 +1,164 @@
+/**
+ * Proyecto:        NMP - Microservicio de Motor de Valuación
+ * Quarksoft S.A.P.I. de C.V. – Todos los derechos reservados. Para uso exclusivo de Nacional Monte de Piedad.
+ */
+package mx.com.nmp.ms.sivad.valuacion.conector.referencia;
+
+import mx.com.nmp.ms.sivad.referencia.api.ws.ReferenciaAlhajaServiceEndpoint;
+import mx.com.nmp.ms.sivad.referencia.api.ws.ReferenciaDiamantesServiceEndpoint;
+import mx.com.nmp.ms.sivad.valuacion.config.PrecargaReferenciaProperties;
+import mx.com.nmp.ms.sivad.valuacion.conector.consumidor.BigDecimalConsumidor;
+import mx.com.nmp.ms.sivad.valuacion.conector.consumidor.ValorComercialConsumidor;
+import mx.com.nmp.ms.sivad.valuacion.conector.provedor.CaracteristicasGramoOroProveedor;
+import mx.com.nmp.ms.sivad.valuacion.conector.provedor.CertificadoDiamanteProveedor;
+import mx.com.nmp.ms.sivad.valuacion.conector.provedor.MetalCalidadRangoProveedor;
+import mx.com.nmp.ms.sivad.valuacion.conector.referencia.alhaja.factory.ReferenciaAlhajaFactory;
+import mx.com.nmp.ms.sivad.valuacion.conector.referencia.diamante.factory.ReferenciaDiamanteFactory;
+import org.junit.Before;
+import org.junit.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.math.BigDecimal;
+import java.util.Arrays;
+import java.util.Collections;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+
+/**
+ * Pruebas de unidad para la clase {@link TablasDeReferenciaLocales}
+ */
+public class TablasDeReferenciaLocalesUTest {
+
+    private TablasDeReferenciaLocales test;
+
+    /**
+     * Se ejecuta antes de cada prueba. Las tablas se cargan a partir de los mocks de los servicios de referencia.
+     */
+    @Before
+    public void setup() {
+        PrecargaReferenciaProperties propiedades = new PrecargaReferenciaProperties();
+        propiedades.setHabilitada(true);
+        propiedades.getAlhaja().setColores(Collections.singletonList("Amarillo"));
+        propiedades.getAlhaja().setMetales(Collections.singletonList("AU"));
+        propiedades.getAlhaja().setCalidades(Collections.singletonList("14"));
+        propiedades.getAlhaja().setRangos(Collections.singletonList("F1"));
+        propiedades.getDiamante().setCertificados(Arrays.asList("ABC", "XYZ"));
+
+        PrecargaReferenciaProperties.Caracteristicas oval = new PrecargaReferenciaProperties.Caracteristicas();
+        oval.setCorte("Oval");
+        oval.setColor("D");
+        oval.setClaridad("VS1");
+        oval.setQuilates(new BigDecimal("0.92"));
+        propiedades.getDiamante().setCaracteristicas(Collections.singletonList(oval));
+
+        test = new TablasDeReferenciaLocales();
+
+        ReflectionTestUtils.setField(test, "propiedades", propiedades);
+        ReflectionTestUtils.setField(test, "referenciaAlhajaFactory", new ReferenciaAlhajaFactory());
+        ReflectionTestUtils.setField(test, "referenciaDiamanteFactory", new ReferenciaDiamanteFactory());
+        ReflectionTestUtils.setField(test, "fuenteAlhajas", new ReferenciaAlhajaServiceEndpoint());
+        ReflectionTestUtils.setField(test, "fuenteDiamantes", new ReferenciaDiamantesServiceEndpoint());
+    }
+
+    /**
+     * Valida que las consultas no respondan antes de la carga.
+     */
+    @Test
+    public void consultarSinCargarTest() {
+        assertNull(test.obtenerValorGramoOro(crearGramoOro("Amarillo", "14")));
+        assertNull(test.obtenerModificador(crearCertificado("ABC")));
+    }
+
+    /**
+     * Valida que las tablas de alhajas se respondan desde memoria una vez cargadas.
+     */
+    @Test
+    public void cargarAlhajasTest() {
+        test.cargar();
+
+        BigDecimalConsumidor oro = test.obtenerValorGramoOro(crearGramoOro("Amarillo", "14"));
+        assertNotNull(oro);
+        assertEquals(new BigDecimal("100.00"), oro.getValor());
+
+        BigDecimalConsumidor factor = test.obtenerFactor(crearMetalCalidadRango("AU", "14", "F1"));
+        assertNotNull(factor);
+        assertEquals(new BigDecimal("1.05"), factor.getValor());
+
+        BigDecimalConsumidor metal = test.obtenerValorGramoMetal(crearMetalCalidadRango("AU", "14", "F1"));
+        assertNotNull(metal);
+
+        assertNull(test.obtenerValorGramoOro(crearGramoOro("Blanco", "14")));
+    }
+
+    /**
+     * Valida que las tablas de diamantes se respondan desde memoria y que las llaves cuya carga falla se omitan.
+     */
+    @Test
+    public void cargarDiamantesTest() {
+        test.cargar();
+
+        BigDecimalConsumidor modificador = test.obtenerModificador(crearCertificado("ABC"));
+        assertNotNull(modificador);
+        assertEquals(new BigDecimal("1.10"), modificador.getValor());
+
+        assertNull(test.obtenerModificador(crearCertificado("XYZ")));
+
+        PrecargaReferenciaProperties.Caracteristicas oval = new PrecargaReferenciaProperties.Caracteristicas();
+        oval.setCorte("Oval");
+        oval.setColor("D");
+        oval.setClaridad("VS1");
+        oval.setQuilates(new BigDecimal("0.920"));
+
+        ValorComercialConsumidor valorComercial = test.obtenerValorComercial(oval);
+        assertNotNull(valorComercial);
+        assertEquals(new BigDecimal("100.00"), valorComercial.getValorMinimo());
+        assertEquals(new BigDecimal("110.00"), valorComercial.getValorMedio());
+        assertEquals(new BigDecimal("120.00"), valorComercial.getValorMaximo());
+    }
+
+    private static CaracteristicasGramoOroProveedor crearGramoOro(final String color, final String calidad) {
+        return new CaracteristicasGramoOroProveedor() {
+            @Override
+            public String getColor() {
+                return color;
+            }
+
+            @Override
+            public String getCalidad() {
+                return calidad;
+            }
+        };
+    }
+
+    private static MetalCalidadRangoProveedor crearMetalCalidadRango(final String metal, final String calidad,
+                                                                     final String rango) {
+        return new MetalCalidadRangoProveedor() {
+            @Override
+            public String getMetal() {
+                return metal;
+            }
+
+            @Override
+            public String getCalidad() {
+                return calidad;
+            }
+
+            @Override
+            public String getRango() {
+                return rango;
+            }
+        };
+    }
+
+    private static CertificadoDiamanteProveedor crearCertificado(final String certificado) {
+        return new CertificadoDiamanteProveedor() {
+            @Override
+            public String getCertificadoDiamante() {
+                return certificado;
+            }
+        };
+    }
+
+}
@@ -13,6 +13,7 @@ import mx.com.nmp.ms.sivad.valuacion.dominio.factory.*;
 import mx.com.nmp.ms.sivad.valuacion.dominio.modelo.*;
 import mx.com.nmp.ms.sivad.valuacion.dominio.modelo.vo.Avaluo;
 import mx.com.nmp.ms.sivad.valuacion.dominio.modelo.vo.CondicionPrendaVO;
+import mx.com.nmp.ms.sivad.valuacion.dominio.modelo.vo.EscenarioValuacionVO;
 import mx.com.nmp.ms.sivad.valuacion.dominio.modelo.vo.ValorExperto;
 import mx.com.nmp.ms.sivad.valuacion.dominio.repository.PoliticasCastigoRepository;
 import org.joda.time.DateTime;
@@ -21,6 +22,8 @@ import org.junit.Test;
 import org.junit.runner.RunWith;
 import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
+import org.mockito.invocation.InvocationOnMock;
+import org.mockito.stubbing.Answer;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.test.context.junit4.SpringRunner;
 import org.springframework.test.util.ReflectionTestUtils;
@@ -29,12 +32,22 @@ import org.springframework.util.ObjectUtils;
 import javax.inject.Inject;
 import java.math.BigDecimal;
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.CyclicBarrier;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinWorkerThread;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
 import static org.mockito.Matchers.any;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 /**
@@ -458,6 +471,297 @@ public class PrendaUTest {
             .add(AV_COMPLEMENTARIO.multiply(new BigDecimal(NUM_PIEZAS_2))), avaluo.valorMaximo());
     }
 
+    /**
+     * Utilizado para validar que las consultas a tablas de referencia distintas de la prenda se resuelvan de
+     * forma concurrente y que las piezas idénticas compartan la misma consulta:
+     *
+     * LISTA DE PIEZAS - NO NULA
+     * 0 - Alhaja
+     * 2 - Diamante (idénticos, con certificado)
+     * 0 - Complementario
+     */
+    @Test
+    public void crearPrendaTest08() {
+        List<Pieza> piezas = new ArrayList<>();
+        piezas.add(diamanteFactory.create(getBuilderDiamante(NUM_PIEZAS_1, CORTE, SUBCORTE, COLOR_D, CLARIDAD, QUILATES,
+            CERTIFICADO, null, QUILATES_DESDE, QUILATES_HASTA)));
+        piezas.add(diamanteFactory.create(getBuilderDiamante(NUM_PIEZAS_1, CORTE, SUBCORTE, COLOR_D, CLARIDAD, QUILATES,
+            CERTIFICADO, null, QUILATES_DESDE, QUILATES_HASTA)));
+
+        Prenda prenda =
+            prendaFactory.create(getBuilder(piezas, "EX"));
+
+        // LAS DOS CONSULTAS SÓLO TERMINAN SI SE EJECUTAN AL MISMO TIEMPO.
+        final CyclicBarrier barrera = new CyclicBarrier(2);
+
+        final ValorComercialConsumidor valorComercial = getValorComercialConsumidor(
+            AV_DIAMANTE_VALOR_COMERCIAL_MINIMO, AV_DIAMANTE_VALOR_COMERCIAL_MEDIO, AV_DIAMANTE_VALOR_COMERCIAL_MAXIMO);
+        when(tablasDeReferenciaDiamantes.obtenerValorComercial(any(Diamante.class))).thenAnswer(
+            new Answer<ValorComercialConsumidor>() {
+                @Override
+                public ValorComercialConsumidor answer(InvocationOnMock invocation) throws Throwable {
+                    barrera.await(5, TimeUnit.SECONDS);
+                    return valorComercial;
+                }
+            });
+
+        final BigDecimalConsumidor porcentajeIncremento = getBigDecimalConsumidor(
+            AV_DIAMANTE_PORCENTAJE_INCREMENTO);
+        when(tablasDeReferenciaDiamantes.obtenerModificador(any(Diamante.class))).thenAnswer(
+            new Answer<BigDecimalConsumidor>() {
+                @Override
+                public BigDecimalConsumidor answer(InvocationOnMock invocation) throws Throwable {
+                    barrera.await(5, TimeUnit.SECONDS);
+                    return porcentajeIncremento;
+                }
+            });
+
+        PoliticasCastigo politicasCastigo = getPoliticasCastigo(
+            PC_FACTOR_DIAMANTE, PC_FACTOR_ALHAJA, PC_FACTOR_COMPLEMENTARIO);
+        when(politicasCastigoRepository.consultar()).thenReturn(politicasCastigo);
+
+        Avaluo avaluo = prenda.valuar();
+        assertNotNull(avaluo);
+        assertEquals(AV_DIAMANTE_VALOR_MINIMO.multiply(new BigDecimal(NUM_PIEZAS_2)), avaluo.valorMinimo());
+        assertEquals(AV_DIAMANTE_VALOR_MEDIO.multiply(new BigDecimal(NUM_PIEZAS_2)), avaluo.valorPromedio());
+        assertEquals(AV_DIAMANTE_VALOR_MAXIMO.multiply(new BigDecimal(NUM_PIEZAS_2)), avaluo.valorMaximo());
+
+        verify(tablasDeReferenciaDiamantes, times(1)).obtenerValorComercial(any(Diamante.class));
+        verify(tablasDeReferenciaDiamantes, times(1)).obtenerModificador(any(Diamante.class));
+    }
+
+    /**
+     * Utilizado para validar que las piezas idénticas se valúen una sola vez y que cada pieza conserve su avalúo:
+     *
+     * LISTA DE PIEZAS - NO NULA
+     * 0 - Alhaja
+     * 4 - Diamante (3 idénticos, uno de ellos con quilates de distinta escala, y 1 de otro color)
+     * 0 - Complementario
+     */
+    @Test
+    public void crearPrendaTest09() {
+        List<Pieza> piezas = new ArrayList<>();
+        piezas.add(diamanteFactory.create(getBuilderDiamante(NUM_PIEZAS_1, CORTE, SUBCORTE, COLOR_D, CLARIDAD, QUILATES,
+            CERTIFICADO, null, QUILATES_DESDE, QUILATES_HASTA)));
+        piezas.add(diamanteFactory.create(getBuilderDiamante(NUM_PIEZAS_1, CORTE, SUBCORTE, "E", CLARIDAD, QUILATES,
+            CERTIFICADO, null, QUILATES_DESDE, QUILATES_HASTA)));
+        piezas.add(diamanteFactory.create(getBuilderDiamante(NUM_PIEZAS_1, CORTE, SUBCORTE, COLOR_D, CLARIDAD,
+            QUILATES.setScale(3), CERTIFICADO, null, QUILATES_DESDE, QUILATES_HASTA)));
+        piezas.add(diamanteFactory.create(getBuilderDiamante(NUM_PIEZAS_1, CORTE, SUBCORTE, COLOR_D, CLARIDAD, QUILATES,
+            CERTIFICADO, null, QUILATES_DESDE, QUILATES_HASTA)));
+
+        Prenda prenda =
+            prendaFactory.create(getBuilder(piezas, "EX"));
+
+        ValorComercialConsumidor valorComercial = getValorComercialConsumidor(
+            AV_DIAMANTE_VALOR_COMERCIAL_MINIMO, AV_DIAMANTE_VALOR_COMERCIAL_MEDIO, AV_DIAMANTE_VALOR_COMERCIAL_MAXIMO);
+        when(tablasDeReferenciaDiamantes.obtenerValorComercial(any(Diamante.class))).thenReturn(valorComercial);
+
+        BigDecimalConsumidor porcentajeIncremento = getBigDecimalConsumidor(
+            AV_DIAMANTE_PORCENTAJE_INCREMENTO);
+        when(tablasDeReferenciaDiamantes.obtenerModificador(any(Diamante.class))).thenReturn(porcentajeIncremento);
+
+        PoliticasCastigo politicasCastigo = getPoliticasCastigo(
+            PC_FACTOR_DIAMANTE, PC_FACTOR_ALHAJA, PC_FACTOR_COMPLEMENTARIO);
+        when(politicasCastigoRepository.consultar()).thenReturn(politicasCastigo);
+
+        Avaluo avaluo = prenda.valuar();
+        BigDecimal numeroPiezas = new BigDecimal(piezas.size());
+        assertEquals(AV_DIAMANTE_VALOR_MINIMO.multiply(numeroPiezas), avaluo.valorMinimo());
+        assertEquals(AV_DIAMANTE_VALOR_MEDIO.multiply(numeroPiezas), avaluo.valorPromedio());
+        assertEquals(AV_DIAMANTE_VALOR_MAXIMO.multiply(numeroPiezas), avaluo.valorMaximo());
+
+        // LAS PIEZAS IDÉNTICAS COMPARTEN EL AVALÚO DE LA PRIMERA PIEZA DEL GRUPO.
+        assertSame(piezas.get(0).getAvaluo(), piezas.get(2).getAvaluo());
+        assertSame(piezas.get(0).getAvaluo(), piezas.get(3).getAvaluo());
+        assertSame(piezas.get(0).getAvaluoPoliticas(), piezas.get(3).getAvaluoPoliticas());
+        assertNotSame(piezas.get(0).getAvaluo(), piezas.get(1).getAvaluo());
+
+        for (Pieza pieza : piezas) {
+            assertEquals(AV_DIAMANTE_VALOR_MINIMO, pieza.getAvaluoPoliticas().valorMinimo());
+            assertEquals(AV_DIAMANTE_VALOR_MAXIMO, pieza.getAvaluoPoliticas().valorMaximo());
+        }
+    }
+
+    /**
+     * Utilizado para validar que la valuación en paralelo de una prenda grande produzca el mismo avalúo que la
+     * valuación secuencial:
+     *
+     * LISTA DE PIEZAS - NO NULA
+     * 0 - Alhaja
+     * 20 - Diamante (todos de distinto color)
+     * 0 - Complementario
+     */
+    @Test
+    public void crearPrendaTest10() {
+        ValorComercialConsumidor valorComercial = getValorComercialConsumidor(
+            AV_DIAMANTE_VALOR_COMERCIAL_MINIMO, AV_DIAMANTE_VALOR_COMERCIAL_MEDIO, AV_DIAMANTE_VALOR_COMERCIAL_MAXIMO);
+        when(tablasDeReferenciaDiamantes.obtenerValorComercial(any(Diamante.class))).thenReturn(valorComercial);
+
+        BigDecimalConsumidor porcentajeIncremento = getBigDecimalConsumidor(
+            AV_DIAMANTE_PORCENTAJE_INCREMENTO);
+        when(tablasDeReferenciaDiamantes.obtenerModificador(any(Diamante.class))).thenReturn(porcentajeIncremento);
+
+        PoliticasCastigo politicasCastigo = getPoliticasCastigo(
+            PC_FACTOR_DIAMANTE, PC_FACTOR_ALHAJA, PC_FACTOR_COMPLEMENTARIO);
+        when(politicasCastigoRepository.consultar()).thenReturn(politicasCastigo);
+
+        Object valuacionParalela = ReflectionTestUtils.getField(prendaFactory, "valuacionParalela");
+        ForkJoinPool pool = new ForkJoinPool(4);
+
+        try {
+            List<Pieza> piezasParalela = getDiamantesDistintos(20);
+            ReflectionTestUtils.setField(prendaFactory, "valuacionParalela", new ValuacionParalela(pool, 2, 2));
+            Avaluo avaluoParalela = prendaFactory.create(getBuilder(piezasParalela, "EX")).valuar();
+
+            List<Pieza> piezasSecuencial = getDiamantesDistintos(20);
+            ReflectionTestUtils.setField(prendaFactory, "valuacionParalela", ValuacionParalela.DESHABILITADA);
+            Avaluo avaluoSecuencial = prendaFactory.create(getBuilder(piezasSecuencial, "EX")).valuar();
+
+            BigDecimal numeroPiezas = new BigDecimal(piezasParalela.size());
+            assertEquals(AV_DIAMANTE_VALOR_MINIMO.multiply(numeroPiezas), avaluoParalela.valorMinimo());
+            assertEquals(AV_DIAMANTE_VALOR_MEDIO.multiply(numeroPiezas), avaluoParalela.valorPromedio());
+            assertEquals(AV_DIAMANTE_VALOR_MAXIMO.multiply(numeroPiezas), avaluoParalela.valorMaximo());
+            assertEquals(avaluoSecuencial, avaluoParalela);
+
+            for (int i = 0; i < piezasParalela.size(); i++) {
+                assertEquals(piezasSecuencial.get(i).getAvaluoPoliticas(), piezasParalela.get(i).getAvaluoPoliticas());
+            }
+        } finally {
+            ReflectionTestUtils.setField(prendaFactory, "valuacionParalela", valuacionParalela);
+            pool.shutdown();
+        }
+    }
+
+    /**
+     * Utilizado para validar que la valuación por escenarios valúe las piezas una sola vez y aplique en cada
+     * escenario sus políticas de castigo y su condición física:
+     *
+     * LISTA DE PIEZAS - NO NULA
+     * 0 - Alhaja
+     * 1 - Diamante
+     * 0 - Complementario
+     */
+    @Test
+    public void crearPrendaTest11() {
+        List<Pieza> piezas = new ArrayList<>();
+        piezas.add(diamanteFactory.create(getBuilderDiamante(NUM_PIEZAS_1, CORTE, SUBCORTE, COLOR_D, CLARIDAD, QUILATES,
+            CERTIFICADO, null, QUILATES_DESDE, QUILATES_HASTA)));
+
+        Prenda prenda = prendaFactory.create(getBuilder(piezas, "EX"));
+
+        ValorComercialConsumidor valorComercial = getValorComercialConsumidor(
+            AV_DIAMANTE_VALOR_COMERCIAL_MINIMO, AV_DIAMANTE_VALOR_COMERCIAL_MEDIO, AV_DIAMANTE_VALOR_COMERCIAL_MAXIMO);
+        when(tablasDeReferenciaDiamantes.obtenerValorComercial(any(Diamante.class))).thenReturn(valorComercial);
+
+        BigDecimalConsumidor porcentajeIncremento = getBigDecimalConsumidor(
+            AV_DIAMANTE_PORCENTAJE_INCREMENTO);
+        when(tablasDeReferenciaDiamantes.obtenerModificador(any(Diamante.class))).thenReturn(porcentajeIncremento);
+
+        PoliticasCastigo politicasCastigo = getPoliticasCastigo(
+            PC_FACTOR_DIAMANTE, PC_FACTOR_ALHAJA, PC_FACTOR_COMPLEMENTARIO);
+        when(politicasCastigoRepository.consultar()).thenReturn(politicasCastigo);
+
+        DateTime fecha = DateTime.now().minusDays(1).withTimeAtStartOfDay();
+        PoliticasCastigo politicasHistoricas = getPoliticasCastigo(
+            BigDecimal.ONE, PC_FACTOR_ALHAJA, PC_FACTOR_COMPLEMENTARIO);
+        when(politicasCastigoRepository.consultar(fecha)).thenReturn(Collections.singletonList(politicasHistoricas));
+
+        Avaluo avaluo = prenda.valuar();
+        Avaluo avaluoVigentes = prenda.valuar(new EscenarioValuacionVO(null, new CondicionPrendaVO("EX")));
+        Avaluo avaluoHistoricas = prenda.valuar(new EscenarioValuacionVO(fecha, null));
+
+        assertEquals(avaluo, avaluoVigentes);
+        // CON FACTOR UNO EN LAS POLÍTICAS HISTÓRICAS EL AVALÚO DEL DIAMANTE NO SE CASTIGA.
+        assertEquals(0, AV_DIAMANTE_VALOR_COMERCIAL_MINIMO.multiply(AV_DIAMANTE_PORCENTAJE_INCREMENTO)
+            .multiply(QUILATES).compareTo(avaluoHistoricas.valorMinimo()));
+        assertEquals(0, AV_DIAMANTE_VALOR_COMERCIAL_MAXIMO.multiply(AV_DIAMANTE_PORCENTAJE_INCREMENTO)
+            .multiply(QUILATES).compareTo(avaluoHistoricas.valorMaximo()));
+
+        // LAS PIEZAS SE VALÚAN UNA SOLA VEZ PARA TODOS LOS ESCENARIOS.
+        verify(tablasDeReferenciaDiamantes, times(1)).obtenerValorComercial(any(Diamante.class));
+    }
+
+    /**
+     * Utilizado para validar que, en la valuación en paralelo, las consultas a tablas de referencia se resuelvan
+     * antes de dividir la valuación y ninguna se ejecute en los hilos del pool fork-join:
+     *
+     * LISTA DE PIEZAS - NO NULA
+     * 0 - Alhaja
+     * 20 - Diamante (todos de distinto color)
+     * 0 - Complementario
+     */
+    @Test
+    public void crearPrendaTest12() {
+        final AtomicInteger consultasEnPool = new AtomicInteger();
+
+        final ValorComercialConsumidor valorComercial = getValorComercialConsumidor(
+            AV_DIAMANTE_VALOR_COMERCIAL_MINIMO, AV_DIAMANTE_VALOR_COMERCIAL_MEDIO, AV_DIAMANTE_VALOR_COMERCIAL_MAXIMO);
+        when(tablasDeReferenciaDiamantes.obtenerValorComercial(any(Diamante.class))).thenAnswer(
+            new Answer<ValorComercialConsumidor>() {
+                @Override
+                public ValorComercialConsumidor answer(InvocationOnMock invocation) throws Throwable {
+                    if (Thread.currentThread() instanceof ForkJoinWorkerThread) {
+                        consultasEnPool.incrementAndGet();
+                    }
+
+                    return valorComercial;
+                }
+            });
+
+        final BigDecimalConsumidor porcentajeIncremento = getBigDecimalConsumidor(
+            AV_DIAMANTE_PORCENTAJE_INCREMENTO);
+        when(tablasDeReferenciaDiamantes.obtenerModificador(any(Diamante.class))).thenAnswer(
+            new Answer<BigDecimalConsumidor>() {
+                @Override
+                public BigDecimalConsumidor answer(InvocationOnMock invocation) throws Throwable {
+                    if (Thread.currentThread() instanceof ForkJoinWorkerThread) {
+                        consultasEnPool.incrementAndGet();
+                    }
+
+                    return porcentajeIncremento;
+                }
+            });
+
+        PoliticasCastigo politicasCastigo = getPoliticasCastigo(
+            PC_FACTOR_DIAMANTE, PC_FACTOR_ALHAJA, PC_FACTOR_COMPLEMENTARIO);
+        when(politicasCastigoRepository.consultar()).thenReturn(politicasCastigo);
+
+        Object valuacionParalela = ReflectionTestUtils.getField(prendaFactory, "valuacionParalela");
+        ForkJoinPool pool = new ForkJoinPool(4);
+
+        try {
+            List<Pieza> piezas = getDiamantesDistintos(20);
+            ReflectionTestUtils.setField(prendaFactory, "valuacionParalela", new ValuacionParalela(pool, 2, 2));
+            Avaluo avaluo = prendaFactory.create(getBuilder(piezas, "EX")).valuar();
+
+            BigDecimal numeroPiezas = new BigDecimal(piezas.size());
+            assertEquals(AV_DIAMANTE_VALOR_MINIMO.multiply(numeroPiezas), avaluo.valorMinimo());
+            assertEquals(0, consultasEnPool.get());
+        } finally {
+            ReflectionTestUtils.setField(prendaFactory, "valuacionParalela", valuacionParalela);
+            pool.shutdown();
+        }
+    }
+
+    /**
+     * Metodo auxiliar utilizado para crear diamantes que sólo difieren en el color.
+     *
+     * @param numero Número de diamantes.
+     * @return Los diamantes creados.
+     */
+    private List<Pieza> getDiamantesDistintos(int numero) {
+        List<Pieza> piezas = new ArrayList<>(numero);
+
+        for (int i = 0; i < numero; i++) {
+            piezas.add(diamanteFactory.create(getBuilderDiamante(NUM_PIEZAS_1, CORTE, SUBCORTE,
+                String.valueOf((char) ('D' + i)), CLARIDAD, QUILATES, CERTIFICADO, null, QUILATES_DESDE,
+                QUILATES_HASTA)));
+        }
+
+        return piezas;
+    }
+
     /**
      * Metodo auxiliar utilizado para crear el builder de Prenda a partir de sus atributos.
      *
@@ -0,0 +1,104 @@
+/**
+ * Proyecto:        NMP - Microservicio de Motor de Valuación
+ * Quarksoft S.A.P.I. de C.V. – Todos los derechos reservados. Para uso exclusivo de Nacional Monte de Piedad.
+ */
+package mx.com.nmp.ms.sivad.valuacion.dominio.modelo;
+
+import mx.com.nmp.ms.sivad.valuacion.dominio.factory.AvaluoFactory;
+import mx.com.nmp.ms.sivad.valuacion.dominio.modelo.vo.Avaluo;
+import org.junit.Test;
+
+import java.math.BigDecimal;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+
+/**
+ * Pruebas de unidad para la clase {@link AcumuladorAvaluo}
+ */
+public class AcumuladorAvaluoUTest {
+
+    private static final BigDecimal CASTIGO = new BigDecimal("0.6667");
+    private static final BigDecimal CONDICION = new BigDecimal("1.15");
+
+    /**
+     * Valida que la acumulación produzca el mismo avalúo que sumar y multiplicar avalúos intermedios.
+     */
+    @Test
+    public void acumularIgualAvaluosIntermediosTest() {
+        Avaluo[] alhajas = {crear("100.555", "120.333", "140.129"), crear("80.125", "90.005", "99.999")};
+        Avaluo[] diamantes = {crear("1000.111", "1100.499", "1200.501")};
+
+        // ACUMULADOR.
+        AcumuladorAvaluo acumuladoAlhajas = new AcumuladorAvaluo();
+        AcumuladorAvaluo acumuladoDiamantes = new AcumuladorAvaluo();
+
+        for (Avaluo avaluo : alhajas) {
+            acumuladoAlhajas.sumar(avaluo);
+        }
+
+        for (Avaluo avaluo : diamantes) {
+            acumuladoDiamantes.sumar(avaluo);
+        }
+
+        AcumuladorAvaluo total = new AcumuladorAvaluo();
+        total.sumar(acumuladoAlhajas, CASTIGO);
+        total.sumar(acumuladoDiamantes, CASTIGO);
+        total.multiplicar(CONDICION);
+
+        // AVALÚOS INTERMEDIOS.
+        Avaluo esperado = multiplicar(sumar(multiplicar(sumar(sumar(null, alhajas[0]), alhajas[1]), CASTIGO),
+            multiplicar(sumar(null, diamantes[0]), CASTIGO)), CONDICION);
+
+        assertEquals(esperado, total.crearAvaluo());
+        assertEquals(esperado.toString(), total.crearAvaluo().toString());
+    }
+
+    /**
+     * Valida que sumar un avalúo varias veces sea igual a sumarlo una vez por cada pieza idéntica.
+     */
+    @Test
+    public void sumarVecesTest() {
+        Avaluo avaluo = crear("100.555", "120.333", "140.129");
+
+        AcumuladorAvaluo esperado = new AcumuladorAvaluo();
+        esperado.sumar(avaluo);
+        esperado.sumar(avaluo);
+        esperado.sumar(avaluo);
+
+        AcumuladorAvaluo agrupado = new AcumuladorAvaluo();
+        agrupado.sumar(avaluo, 3);
+
+        assertEquals(0, esperado.getValorMinimo().compareTo(agrupado.getValorMinimo()));
+        assertEquals(0, esperado.getValorPromedio().compareTo(agrupado.getValorPromedio()));
+        assertEquals(0, esperado.getValorMaximo().compareTo(agrupado.getValorMaximo()));
+        assertEquals(esperado.crearAvaluo(), agrupado.crearAvaluo());
+    }
+
+    /**
+     * Valida que un acumulador sin valores no cree un avalúo.
+     */
+    @Test
+    public void acumuladorVacioTest() {
+        assertNull(new AcumuladorAvaluo().crearAvaluo());
+    }
+
+    private static Avaluo crear(String minimo, String promedio, String maximo) {
+        return AvaluoFactory.crearCon(new BigDecimal(minimo), new BigDecimal(promedio), new BigDecimal(maximo));
+    }
+
+    private static Avaluo sumar(Avaluo uno, Avaluo dos) {
+        if (uno == null) {
+            return AvaluoFactory.crearCon(dos.valorMinimo(), dos.valorPromedio(), dos.valorMaximo());
+        }
+
+        return AvaluoFactory.crearCon(uno.valorMinimo().add(dos.valorMinimo()),
+            uno.valorPromedio().add(dos.valorPromedio()), uno.valorMaximo().add(dos.valorMaximo()));
+    }
+
+    private static Avaluo multiplicar(Avaluo avaluo, BigDecimal factor) {
+        return AvaluoFactory.crearCon(avaluo.valorMinimo().multiply(factor),
+            avaluo.valorPromedio().multiply(factor), avaluo.valorMaximo().multiply(factor));
+    }
+
+}
@@ -0,0 +1,111 @@
+/**
+ * Proyecto:        NMP - Microservicio de Motor de Valuación
+ * Quarksoft S.A.P.I. de C.V. – Todos los derechos reservados. Para uso exclusivo de Nacional Monte de Piedad.
+ */
+package mx.com.nmp.ms.sivad.valuacion.dominio.modelo;
+
+import mx.com.nmp.ms.sivad.valuacion.dominio.factory.AvaluoFactory;
+import mx.com.nmp.ms.sivad.valuacion.dominio.modelo.vo.Avaluo;
+import org.junit.Test;
+
+import java.math.BigDecimal;
+import java.util.HashMap;
+import java.util.Map;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Pruebas de unidad para la clase {@link AvaluosPorTipo}
+ */
+public class AvaluosPorTipoUTest {
+
+    private static final BigDecimal CASTIGO_ALHAJA = new BigDecimal("0.6667");
+    private static final BigDecimal CASTIGO_DIAMANTE = new BigDecimal("0.5");
+    private static final BigDecimal CONDICION = new BigDecimal("1.15");
+
+    /**
+     * Valida que el total sea el mismo que el de acumular los avalúos con {@link AcumuladorAvaluo}, como lo hace
+     * {@link Prenda}.
+     */
+    @Test
+    public void totalizarIgualPrendaTest() {
+        Avaluo alhaja1 = crear("100.555", "120.333", "140.129");
+        Avaluo alhaja2 = crear("80.125", "90.005", "99.999");
+        Avaluo diamante = crear("1000.111", "1100.499", "1200.501");
+
+        AvaluosPorTipo test = new AvaluosPorTipo();
+        test.sumar(Alhaja.class, alhaja1);
+        test.sumar(Alhaja.class, alhaja2);
+        test.sumar(Diamante.class, diamante);
+
+        AcumuladorAvaluo alhajas = new AcumuladorAvaluo();
+        alhajas.sumar(alhaja1);
+        alhajas.sumar(alhaja2);
+        AcumuladorAvaluo diamantes = new AcumuladorAvaluo();
+        diamantes.sumar(diamante);
+
+        AcumuladorAvaluo esperado = new AcumuladorAvaluo();
+        esperado.sumar(alhajas, CASTIGO_ALHAJA);
+        esperado.sumar(diamantes, CASTIGO_DIAMANTE);
+        esperado.multiplicar(CONDICION);
+
+        assertEquals(esperado.crearAvaluo(), test.totalizar(crearPoliticas(), CONDICION));
+
+        AcumuladorAvaluo sinFactores = new AcumuladorAvaluo();
+        sinFactores.sumar(alhajas);
+        sinFactores.sumar(diamantes);
+
+        assertEquals(sinFactores.crearAvaluo(), test.totalizar(null, null));
+    }
+
+    /**
+     * Valida que reemplazar el avalúo de una pieza por diferencia produzca el mismo total que acumular de nuevo
+     * todas las piezas.
+     */
+    @Test
+    public void actualizarPorDiferenciaTest() {
+        Avaluo anterior = crear("100.555", "120.333", "140.129");
+        Avaluo nuevo = crear("110.617", "132.367", "154.142");
+        Avaluo otra = crear("80.125", "90.005", "99.999");
+
+        AvaluosPorTipo test = new AvaluosPorTipo();
+        test.sumar(Alhaja.class, anterior);
+        test.sumar(Alhaja.class, otra);
+        test.restar(Alhaja.class, anterior);
+        test.sumar(Alhaja.class, nuevo);
+
+        AvaluosPorTipo esperado = new AvaluosPorTipo();
+        esperado.sumar(Alhaja.class, otra);
+        esperado.sumar(Alhaja.class, nuevo);
+
+        assertEquals(esperado.getAvaluos(), test.getAvaluos());
+        assertEquals(esperado.totalizar(crearPoliticas(), CONDICION), test.totalizar(crearPoliticas(), CONDICION));
+    }
+
+    /**
+     * Valida que sin piezas no se cree un avalúo.
+     */
+    @Test
+    public void sinPiezasTest() {
+        assertNull(new AvaluosPorTipo().totalizar(null, CONDICION));
+    }
+
+    private static PoliticasCastigo crearPoliticas() {
+        Map<Class<? extends Pieza>, BigDecimal> factores = new HashMap<>();
+        factores.put(Alhaja.class, CASTIGO_ALHAJA);
+        factores.put(Diamante.class, CASTIGO_DIAMANTE);
+
+        PoliticasCastigo politicas = mock(PoliticasCastigo.class);
+        when(politicas.getFactores()).thenReturn(factores);
+
+        return politicas;
+    }
+
+    private static Avaluo crear(String minimo, String promedio, String maximo) {
+        return AvaluoFactory.crearCon(new BigDecimal(minimo), new BigDecimal(promedio), new BigDecimal(maximo));
+    }
+
+}
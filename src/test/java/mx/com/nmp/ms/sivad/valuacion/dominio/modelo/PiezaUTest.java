@@ -0,0 +1,90 @@
+/**
+ * Proyecto:        NMP - Microservicio de Motor de Valuación
+ * Quarksoft S.A.P.I. de C.V. – Todos los derechos reservados. Para uso exclusivo de Nacional Monte de Piedad.
+ */
+package mx.com.nmp.ms.sivad.valuacion.dominio.modelo;
+
+import mx.com.nmp.ms.sivad.valuacion.dominio.exception.ValuacionException;
+import mx.com.nmp.ms.sivad.valuacion.dominio.modelo.vo.Avaluo;
+import org.junit.Test;
+
+import java.util.Collections;
+import java.util.concurrent.Callable;
+import java.util.concurrent.Future;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+/**
+ * Pruebas de unidad para la clase {@link Pieza}
+ */
+public class PiezaUTest {
+
+    private static final String LLAVE = "llave";
+
+    /**
+     * Valida que se recupere el resultado de una consulta resuelta previamente.
+     */
+    @Test
+    public void consultaResueltaTest() {
+        FutureTask<String> tarea = new FutureTask<>(consulta("resuelta"));
+        tarea.run();
+
+        PiezaPrueba test = new PiezaPrueba();
+        test.setReferencias(Collections.<Object, Future<?>>singletonMap(LLAVE, tarea), limite(1000L));
+
+        assertEquals("resuelta", test.consultar(consulta("directa")));
+    }
+
+    /**
+     * Valida que, si el resultado no llega antes del límite, la espera termine con {@link ValuacionException} y la
+     * consulta se cancele.
+     */
+    @Test
+    public void consultaTiempoAgotadoTest() {
+        FutureTask<String> tarea = new FutureTask<>(consulta("nunca"));
+
+        PiezaPrueba test = new PiezaPrueba();
+        test.setReferencias(Collections.<Object, Future<?>>singletonMap(LLAVE, tarea), limite(50L));
+
+        try {
+            test.consultar(consulta("directa"));
+            fail("Se esperaba ValuacionException");
+        } catch (ValuacionException e) {
+            assertEquals("MV003", e.getCodigo());
+        }
+
+        assertTrue(tarea.isCancelled());
+    }
+
+    private static long limite(long milisegundos) {
+        return System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(milisegundos);
+    }
+
+    private static Callable<String> consulta(final String resultado) {
+        return new Callable<String>() {
+            @Override
+            public String call() {
+                return resultado;
+            }
+        };
+    }
+
+    /**
+     * Pieza que sólo consulta una referencia.
+     */
+    private static class PiezaPrueba extends Pieza {
+        String consultar(Callable<String> consulta) {
+            return consultarReferencia(LLAVE, consulta);
+        }
+
+        @Override
+        public Avaluo valuar() {
+            return null;
+        }
+    }
+
+}
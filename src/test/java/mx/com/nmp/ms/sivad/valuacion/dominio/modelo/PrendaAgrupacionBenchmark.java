@@ -0,0 +1,245 @@
+/**
+ * Proyecto:        NMP - Microservicio de Motor de Valuación
+ * Quarksoft S.A.P.I. de C.V. – Todos los derechos reservados. Para uso exclusivo de Nacional Monte de Piedad.
+ */
+package mx.com.nmp.ms.sivad.valuacion.dominio.modelo;
+
+import mx.com.nmp.ms.sivad.valuacion.conector.TablasDeReferenciaDiamantes;
+import mx.com.nmp.ms.sivad.valuacion.conector.consumidor.BigDecimalConsumidor;
+import mx.com.nmp.ms.sivad.valuacion.conector.consumidor.ValorComercialConsumidor;
+import mx.com.nmp.ms.sivad.valuacion.conector.llave.LlaveReferencia;
+import mx.com.nmp.ms.sivad.valuacion.conector.provedor.CaracteristicasDiamanteProveedor;
+import mx.com.nmp.ms.sivad.valuacion.conector.provedor.CertificadoDiamanteProveedor;
+import mx.com.nmp.ms.sivad.valuacion.dominio.modelo.vo.Avaluo;
+import mx.com.nmp.ms.sivad.valuacion.dominio.modelo.vo.CondicionPrendaVO;
+import mx.com.nmp.ms.sivad.valuacion.dominio.modelo.vo.ValorExperto;
+import mx.com.nmp.ms.sivad.valuacion.dominio.repository.MemoriaAvaluosRepository;
+import mx.com.nmp.ms.sivad.valuacion.dominio.repository.ModificadorCondicionPrendaRepository;
+import mx.com.nmp.ms.sivad.valuacion.dominio.repository.PoliticasCastigoRepository;
+import mx.com.nmp.ms.sivad.valuacion.infrastructure.factory.ConstructorUtil;
+import org.mockito.Mockito;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.lang.invoke.MethodHandle;
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Mide la valuación de una prenda con 24 diamantes: 20 diamantes de acento idénticos y 4 laterales idénticos,
+ * agrupados en 2 grupos, contra la misma prenda con 24 diamantes de quilataje distinto, que no pueden agruparse.
+ * Las consultas a tablas de referencia se resuelven contra un caché en memoria, como sucede con el caché de
+ * referencias una vez que está caliente.
+ *
+ * No se ejecuta con las pruebas; se ejecuta con
+ * {@code mvn test-compile exec:java -Dexec.classpathScope=test
+ * -Dexec.mainClass=mx.com.nmp.ms.sivad.valuacion.dominio.modelo.PrendaAgrupacionBenchmark}.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class PrendaAgrupacionBenchmark {
+
+    private static final MethodHandle DIAMANTE =
+        ConstructorUtil.getConstructor(Diamante.class, Diamante.Builder.class, TablasDeReferenciaDiamantes.class);
+
+    private static final MethodHandle PRENDA = ConstructorUtil.getConstructor(Prenda.class, Prenda.Builder.class,
+        PoliticasCastigoRepository.class, ModificadorCondicionPrendaRepository.class, ResolucionReferencias.class,
+        ValuacionParalela.class, MemoriaAvaluosRepository.class);
+
+    private static final int ACENTOS = 20;
+    private static final int LATERALES = 4;
+
+    private final BigDecimal quilatesAcento = new BigDecimal("0.05");
+    private final BigDecimal quilatesLateral = new BigDecimal("0.25");
+
+    private TablasDeReferenciaDiamantes conector;
+    private PoliticasCastigoRepository politicasCastigoRepository;
+
+    /**
+     * Prepara el conector con caché en memoria y el repositorio de políticas de castigo.
+     */
+    @Setup
+    public void setup() {
+        conector = new ConectorEnMemoria();
+        politicasCastigoRepository = Mockito.mock(PoliticasCastigoRepository.class);
+    }
+
+    @Benchmark
+    public Avaluo piezasIdenticas() {
+        List<Pieza> piezas = new ArrayList<>(ACENTOS + LATERALES);
+
+        for (int i = 0; i < ACENTOS; i++) {
+            piezas.add(crearDiamante(conector, quilatesAcento));
+        }
+
+        for (int i = 0; i < LATERALES; i++) {
+            piezas.add(crearDiamante(conector, quilatesLateral));
+        }
+
+        return crearPrenda(piezas, politicasCastigoRepository, null).valuar();
+    }
+
+    @Benchmark
+    public Avaluo piezasDistintas() {
+        List<Pieza> piezas = new ArrayList<>(ACENTOS + LATERALES);
+
+        for (int i = 0; i < ACENTOS + LATERALES; i++) {
+            piezas.add(crearDiamante(conector, quilatesAcento.add(BigDecimal.valueOf(i, 3))));
+        }
+
+        return crearPrenda(piezas, politicasCastigoRepository, null).valuar();
+    }
+
+    /**
+     * Crea un diamante redondo G VS1 con certificado y el quilataje indicado.
+     */
+    static Diamante crearDiamante(TablasDeReferenciaDiamantes conector, final BigDecimal quilates) {
+        return ConstructorUtil.getInstancia(DIAMANTE, new Diamante.Builder() {
+            @Override
+            public int getNumeroDePiezas() {
+                return 1;
+            }
+
+            @Override
+            public String getCorte() {
+                return "REDONDO";
+            }
+
+            @Override
+            public String getSubcorte() {
+                return "BRILLANTE";
+            }
+
+            @Override
+            public String getColor() {
+                return "G";
+            }
+
+            @Override
+            public String getClaridad() {
+                return "VS1";
+            }
+
+            @Override
+            public BigDecimal getQuilates() {
+                return quilates;
+            }
+
+            @Override
+            public String getCertificadoDiamante() {
+                return "GIA";
+            }
+
+            @Override
+            public ValorExperto getValorExperto() {
+                return null;
+            }
+
+            @Override
+            public BigDecimal getQuilatesDesde() {
+                return null;
+            }
+
+            @Override
+            public BigDecimal getQuilatesHasta() {
+                return null;
+            }
+        }, conector);
+    }
+
+    /**
+     * Crea una prenda sin condición física, resolución concurrente de referencias ni memoria de avalúos.
+     */
+    static Prenda crearPrenda(final List<Pieza> piezas, PoliticasCastigoRepository politicasCastigoRepository,
+                              ValuacionParalela valuacionParalela) {
+        return ConstructorUtil.getInstancia(PRENDA, new Prenda.Builder() {
+            @Override
+            public List<Pieza> getPiezas() {
+                return piezas;
+            }
+
+            @Override
+            public CondicionPrendaVO getCondicionFisica() {
+                return null;
+            }
+        }, politicasCastigoRepository, null, null, valuacionParalela, null);
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder().include(PrendaAgrupacionBenchmark.class.getSimpleName()).build()).run();
+    }
+
+    /**
+     * Conector que resuelve las consultas contra un caché en memoria indexado por {@link LlaveReferencia}.
+     */
+    static final class ConectorEnMemoria implements TablasDeReferenciaDiamantes {
+        private final ConcurrentMap<Object, Object> cache = new ConcurrentHashMap<>();
+
+        @Override
+        public BigDecimalConsumidor obtenerModificador(CertificadoDiamanteProveedor proveedor) {
+            Object llave = LlaveReferencia.modificador(proveedor);
+            Object valor = cache.get(llave);
+
+            if (valor == null) {
+                valor = new BigDecimalConsumidor() {
+                    @Override
+                    public BigDecimal getValor() {
+                        return new BigDecimal("1.100");
+                    }
+                };
+                cache.putIfAbsent(llave, valor);
+            }
+
+            return (BigDecimalConsumidor) valor;
+        }
+
+        @Override
+        public ValorComercialConsumidor obtenerValorComercial(CaracteristicasDiamanteProveedor proveedor) {
+            Object llave = LlaveReferencia.valorComercial(proveedor);
+            Object valor = cache.get(llave);
+
+            if (valor == null) {
+                valor = new ValorComercialConsumidor() {
+                    @Override
+                    public BigDecimal getValorMinimo() {
+                        return new BigDecimal("4000.00");
+                    }
+
+                    @Override
+                    public BigDecimal getValorMedio() {
+                        return new BigDecimal("5000.00");
+                    }
+
+                    @Override
+                    public BigDecimal getValorMaximo() {
+                        return new BigDecimal("6000.00");
+                    }
+                };
+                cache.putIfAbsent(llave, valor);
+            }
+
+            return (ValorComercialConsumidor) valor;
+        }
+
+    }
+
+}
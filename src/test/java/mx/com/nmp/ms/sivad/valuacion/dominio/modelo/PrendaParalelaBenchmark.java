@@ -0,0 +1,103 @@
+/**
+ * Proyecto:        NMP - Microservicio de Motor de Valuación
+ * Quarksoft S.A.P.I. de C.V. – Todos los derechos reservados. Para uso exclusivo de Nacional Monte de Piedad.
+ */
+package mx.com.nmp.ms.sivad.valuacion.dominio.modelo;
+
+import mx.com.nmp.ms.sivad.valuacion.conector.TablasDeReferenciaDiamantes;
+import mx.com.nmp.ms.sivad.valuacion.dominio.modelo.vo.Avaluo;
+import mx.com.nmp.ms.sivad.valuacion.dominio.repository.PoliticasCastigoRepository;
+import org.mockito.Mockito;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compara el tiempo de valuación de un paquete de piedras sueltas, todas distintas, valuado en el hilo de la
+ * petición y valuado en paralelo en un pool fork-join con un hilo por procesador.
+ *
+ * No se ejecuta con las pruebas; se ejecuta con
+ * {@code mvn test-compile exec:java -Dexec.classpathScope=test
+ * -Dexec.mainClass=mx.com.nmp.ms.sivad.valuacion.dominio.modelo.PrendaParalelaBenchmark}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class PrendaParalelaBenchmark {
+
+    @Param({"64", "512", "2048"})
+    private int piedras;
+
+    private final BigDecimal quilatesBase = new BigDecimal("0.05");
+
+    private TablasDeReferenciaDiamantes conector;
+    private PoliticasCastigoRepository politicasCastigoRepository;
+    private ForkJoinPool pool;
+    private ValuacionParalela paralela;
+
+    /**
+     * Prepara el conector con caché en memoria, el repositorio de políticas de castigo y el pool.
+     */
+    @Setup
+    public void setup() {
+        conector = new PrendaAgrupacionBenchmark.ConectorEnMemoria();
+        politicasCastigoRepository = Mockito.mock(PoliticasCastigoRepository.class);
+        pool = new ForkJoinPool(Runtime.getRuntime().availableProcessors());
+        paralela = new ValuacionParalela(pool, 64, 16);
+    }
+
+    /**
+     * Detiene el pool.
+     */
+    @TearDown
+    public void tearDown() {
+        pool.shutdown();
+    }
+
+    @Benchmark
+    public Avaluo secuencial() {
+        return PrendaAgrupacionBenchmark.crearPrenda(crearPiedras(), politicasCastigoRepository,
+            ValuacionParalela.DESHABILITADA).valuar();
+    }
+
+    @Benchmark
+    public Avaluo paralela() {
+        return PrendaAgrupacionBenchmark.crearPrenda(crearPiedras(), politicasCastigoRepository, paralela).valuar();
+    }
+
+    private List<Pieza> crearPiedras() {
+        List<Pieza> piezas = new ArrayList<>(piedras);
+
+        for (int i = 0; i < piedras; i++) {
+            piezas.add(PrendaAgrupacionBenchmark.crearDiamante(conector, quilatesBase.add(BigDecimal.valueOf(i, 4))));
+        }
+
+        return piezas;
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder().include(PrendaParalelaBenchmark.class.getSimpleName()).build()).run();
+    }
+
+}
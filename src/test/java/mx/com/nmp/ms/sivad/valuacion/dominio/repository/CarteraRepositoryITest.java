@@ -0,0 +1,345 @@
+/**
+ * Proyecto:        NMP - Microservicio de Motor de Valuación
+ * Quarksoft S.A.P.I. de C.V. – Todos los derechos reservados. Para uso exclusivo de Nacional Monte de Piedad.
+ */
+package mx.com.nmp.ms.sivad.valuacion.dominio.repository;
+
+import mx.com.nmp.ms.sivad.valuacion.MotorValuacionApplication;
+import mx.com.nmp.ms.sivad.valuacion.conector.TablasDeReferenciaAlhajas;
+import mx.com.nmp.ms.sivad.valuacion.config.CarteraProperties;
+import mx.com.nmp.ms.sivad.valuacion.conector.consumidor.BigDecimalConsumidor;
+import mx.com.nmp.ms.sivad.valuacion.dominio.factory.AlhajaFactory;
+import mx.com.nmp.ms.sivad.valuacion.dominio.factory.AvaluoFactory;
+import mx.com.nmp.ms.sivad.valuacion.dominio.factory.ComplementarioFactory;
+import mx.com.nmp.ms.sivad.valuacion.dominio.factory.PrendaFactory;
+import mx.com.nmp.ms.sivad.valuacion.dominio.modelo.Alhaja;
+import mx.com.nmp.ms.sivad.valuacion.dominio.modelo.Pieza;
+import mx.com.nmp.ms.sivad.valuacion.dominio.modelo.Prenda;
+import mx.com.nmp.ms.sivad.valuacion.dominio.modelo.dto.AlhajaDTO;
+import mx.com.nmp.ms.sivad.valuacion.dominio.modelo.dto.ComplementarioDTO;
+import mx.com.nmp.ms.sivad.valuacion.dominio.modelo.vo.Avaluo;
+import mx.com.nmp.ms.sivad.valuacion.dominio.modelo.vo.ValorExperto;
+import mx.com.nmp.ms.sivad.valuacion.infrastructure.jpa.dominio.PiezaCarteraJPA;
+import mx.com.nmp.ms.sivad.valuacion.infrastructure.jpa.repository.PiezaCarteraJPARepository;
+import mx.com.nmp.ms.sivad.valuacion.infrastructure.jpa.repository.PrendaCarteraJPARepository;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.junit4.SpringRunner;
+import org.springframework.test.util.AopTestUtils;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import javax.inject.Inject;
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.Matchers.any;
+import static org.mockito.Mockito.when;
+
+/**
+ * Clase de prueba utilizada para validar el comportamiento de {@link CarteraRepository}.
+ *
+ * Las pruebas no son transaccionales, ya que la revaluación actualiza cada prenda en su propia transacción.
+ */
+@RunWith(SpringRunner.class)
+@SpringBootTest(classes = MotorValuacionApplication.class)
+public class CarteraRepositoryITest {
+
+    private static final String ID_PRENDA = "CARTERA-1";
+    private static final String METAL = "AU";
+    private static final String COLOR = "Amarillo";
+    private static final String CALIDAD = "14";
+    private static final String RANGO = "F1";
+
+    private static final BigDecimal PESO = new BigDecimal("25.00");
+    private static final BigDecimal INCREMENTO = new BigDecimal("1.10");
+    private static final BigDecimal DESPLAZAMIENTO = new BigDecimal("1.10");
+    private static final BigDecimal FACTOR = new BigDecimal("1.10");
+    private static final BigDecimal VALOR_GRAMO_ORO = new BigDecimal("100.000");
+    private static final BigDecimal VALOR_GRAMO_ORO_NUEVO = new BigDecimal("125.000");
+    private static final ValorExperto VALOR_EXPERTO =
+        new ValorExperto(new BigDecimal("100.00"), ValorExperto.TipoEnum.TOTAL);
+
+    /**
+     * Referencia al conector TablasDeReferenciaAlhajas.
+     */
+    @Mock
+    private TablasDeReferenciaAlhajas tablasDeReferenciaAlhajas;
+
+    /**
+     * Referencia hacia el repositorio de políticas de castigo.
+     */
+    @Mock
+    private PoliticasCastigoRepository politicasCastigoRepository;
+
+    /**
+     * Propiedades de la cartera.
+     */
+    @Inject
+    private CarteraProperties carteraProperties;
+
+    /**
+     * Referencia al repositorio de {@link CarteraRepository}.
+     */
+    @Inject
+    private CarteraRepository carteraRepository;
+
+    /**
+     * Referencia al repositorio de las prendas de la cartera.
+     */
+    @Inject
+    private PrendaCarteraJPARepository prendaCarteraJPARepository;
+
+    /**
+     * Referencia al repositorio de las piezas de la cartera.
+     */
+    @Inject
+    private PiezaCarteraJPARepository piezaCarteraJPARepository;
+
+    /**
+     * Referencia hacia la fábrica de entidades tipo {@link Alhaja}.
+     */
+    @Inject
+    private AlhajaFactory alhajaFactory;
+
+    /**
+     * Referencia hacia la fábrica de piezas complementarias.
+     */
+    @Inject
+    private ComplementarioFactory complementarioFactory;
+
+    /**
+     * Referencia a la fábrica de {@link Prenda}.
+     */
+    @Inject
+    private PrendaFactory prendaFactory;
+
+    /**
+     * Valores originales de los campos que se reemplazan con los mocks.
+     */
+    private Object tablasOriginales;
+    private Object politicasPrendaOriginales;
+    private Object politicasCarteraOriginales;
+    private int tamanoPaginaOriginal;
+
+
+
+    // METODOS
+
+    /**
+     * Constructor.
+     */
+    public CarteraRepositoryITest() {
+        super();
+    }
+
+    /**
+     * Configuración inicial; las políticas de castigo no existen para que el avalúo dependa sólo de las piezas.
+     */
+    @Before
+    public void setUp() {
+        MockitoAnnotations.initMocks(this);
+
+        Object cartera = AopTestUtils.getUltimateTargetObject(carteraRepository);
+        tablasOriginales = ReflectionTestUtils.getField(alhajaFactory, "tablasDeReferenciaAlhajas");
+        politicasPrendaOriginales = ReflectionTestUtils.getField(prendaFactory, "politicasCastigoRepository");
+        politicasCarteraOriginales = ReflectionTestUtils.getField(cartera, "politicasCastigoRepository");
+        tamanoPaginaOriginal = carteraProperties.getTamanoPagina();
+
+        ReflectionTestUtils.setField(alhajaFactory, "tablasDeReferenciaAlhajas", tablasDeReferenciaAlhajas);
+        ReflectionTestUtils.setField(prendaFactory, "politicasCastigoRepository", politicasCastigoRepository);
+        ReflectionTestUtils.setField(cartera, "politicasCastigoRepository", politicasCastigoRepository);
+
+        when(tablasDeReferenciaAlhajas.obtenerFactor(any(Alhaja.class)))
+            .thenReturn(getBigDecimalConsumidor(FACTOR));
+        asignarValorGramoOro(VALOR_GRAMO_ORO);
+    }
+
+    /**
+     * Restaura las referencias originales y elimina la cartera.
+     */
+    @After
+    public void tearDown() {
+        Object cartera = AopTestUtils.getUltimateTargetObject(carteraRepository);
+        ReflectionTestUtils.setField(alhajaFactory, "tablasDeReferenciaAlhajas", tablasOriginales);
+        ReflectionTestUtils.setField(prendaFactory, "politicasCastigoRepository", politicasPrendaOriginales);
+        ReflectionTestUtils.setField(cartera, "politicasCastigoRepository", politicasCarteraOriginales);
+        carteraProperties.setTamanoPagina(tamanoPaginaOriginal);
+
+        piezaCarteraJPARepository.deleteAll();
+        prendaCarteraJPARepository.deleteAll();
+    }
+
+    /**
+     * Valida que se registre la prenda con sus piezas y que al registrarla de nuevo se reemplacen.
+     */
+    @Test
+    public void registrarTest() {
+        assertNull(carteraRepository.consultar(ID_PRENDA));
+
+        Prenda prenda = crearPrenda();
+        Avaluo avaluo = prenda.valuar();
+        carteraRepository.registrar(ID_PRENDA, prenda, avaluo);
+
+        assertIguales(avaluo, carteraRepository.consultar(ID_PRENDA));
+        assertEquals(2, piezaCarteraJPARepository.findByPrenda(ID_PRENDA).size());
+
+        prenda = crearPrenda();
+        avaluo = prenda.valuar();
+        carteraRepository.registrar(ID_PRENDA, prenda, avaluo);
+
+        assertIguales(avaluo, carteraRepository.consultar(ID_PRENDA));
+        assertEquals(2, piezaCarteraJPARepository.findByPrenda(ID_PRENDA).size());
+        assertEquals(2, piezaCarteraJPARepository.count());
+    }
+
+    /**
+     * Valida que, al cambiar el valor del gramo de oro, se reste el avalúo anterior de la alhaja y se sume el nuevo
+     * a los acumulados de la prenda, sin modificar el de la pieza complementaria.
+     */
+    @Test
+    public void revaluarTest() {
+        Prenda prenda = crearPrenda();
+        carteraRepository.registrar(ID_PRENDA, prenda, prenda.valuar());
+
+        List<String> llaves = new ArrayList<>();
+
+        for (PiezaCarteraJPA pieza : piezaCarteraJPARepository.findByPrenda(ID_PRENDA)) {
+            llaves.addAll(pieza.getDependencias());
+        }
+
+        assertTrue(!llaves.isEmpty());
+        assertEquals(0, carteraRepository.revaluar(llaves));
+
+        asignarValorGramoOro(VALOR_GRAMO_ORO_NUEVO);
+
+        assertEquals(0, carteraRepository.revaluar(Collections.singletonList("LLAVE-SIN-PIEZAS")));
+        assertEquals(1, carteraRepository.revaluar(llaves));
+        assertIguales(crearPrenda().valuar(), carteraRepository.consultar(ID_PRENDA));
+
+        // LA REVALUACIÓN ES IDEMPOTENTE.
+        assertEquals(0, carteraRepository.revaluar(llaves));
+    }
+
+    /**
+     * Valida que la revaluación de toda la cartera actualice sólo las prendas cuyas piezas cambiaron.
+     */
+    @Test
+    public void revaluarCarteraTest() {
+        Prenda prenda = crearPrenda();
+        carteraRepository.registrar(ID_PRENDA, prenda, prenda.valuar());
+
+        assertEquals(0, carteraRepository.revaluarCartera());
+
+        asignarValorGramoOro(VALOR_GRAMO_ORO_NUEVO);
+
+        assertEquals(1, carteraRepository.revaluarCartera());
+        assertIguales(crearPrenda().valuar(), carteraRepository.consultar(ID_PRENDA));
+        assertEquals(0, carteraRepository.revaluarCartera());
+    }
+
+    /**
+     * Valida que el avalúo de la prenda se recalcule a partir de los acumulados por tipo de pieza.
+     */
+    @Test
+    public void retotalizarTest() {
+        Prenda prenda = crearPrenda();
+        Avaluo avaluo = prenda.valuar();
+        carteraRepository.registrar(ID_PRENDA, prenda,
+            AvaluoFactory.crearCon(BigDecimal.ONE, BigDecimal.ONE, BigDecimal.ONE));
+
+        assertEquals(1, carteraRepository.retotalizar());
+        assertIguales(avaluo, carteraRepository.consultar(ID_PRENDA));
+        assertEquals(0, carteraRepository.retotalizar());
+    }
+
+    /**
+     * Valida que la revaluación y el recálculo recorran todas las páginas, con prendas cuyas piezas quedan en
+     * páginas distintas.
+     */
+    @Test
+    public void paginasTest() {
+        carteraProperties.setTamanoPagina(1);
+
+        List<String> ids = Arrays.asList(ID_PRENDA, ID_PRENDA + "-2", ID_PRENDA + "-3");
+        Set<String> llaves = new HashSet<>();
+
+        for (String id : ids) {
+            Prenda prenda = crearPrenda();
+            carteraRepository.registrar(id, prenda, prenda.valuar());
+        }
+
+        for (PiezaCarteraJPA pieza : piezaCarteraJPARepository.findAll()) {
+            llaves.addAll(pieza.getDependencias());
+        }
+
+        asignarValorGramoOro(VALOR_GRAMO_ORO_NUEVO);
+        assertEquals(ids.size(), carteraRepository.revaluar(llaves));
+
+        for (String id : ids) {
+            assertIguales(crearPrenda().valuar(), carteraRepository.consultar(id));
+        }
+
+        Avaluo avaluo = crearPrenda().valuar();
+
+        for (String id : ids) {
+            carteraRepository.registrar(id, crearPrenda(),
+                AvaluoFactory.crearCon(BigDecimal.ONE, BigDecimal.ONE, BigDecimal.ONE));
+        }
+
+        assertEquals(ids.size(), carteraRepository.retotalizar());
+
+        for (String id : ids) {
+            assertIguales(avaluo, carteraRepository.consultar(id));
+        }
+    }
+
+    /**
+     * Crea una prenda sin condición física con una alhaja de oro y una pieza complementaria.
+     *
+     * @return La prenda, sin valuar.
+     */
+    private Prenda crearPrenda() {
+        List<Pieza> piezas = new ArrayList<>();
+        piezas.add(alhajaFactory.create(
+            new AlhajaDTO(METAL, COLOR, CALIDAD, RANGO, PESO, INCREMENTO, DESPLAZAMIENTO, null)));
+        piezas.add(complementarioFactory.create(new ComplementarioDTO(1, VALOR_EXPERTO)));
+
+        return prendaFactory.create(piezas, null);
+    }
+
+    private void asignarValorGramoOro(BigDecimal valor) {
+        when(tablasDeReferenciaAlhajas.obtenerValorGramoOro(any(Alhaja.class)))
+            .thenReturn(getBigDecimalConsumidor(valor));
+    }
+
+    private static void assertIguales(Avaluo esperado, Avaluo actual) {
+        assertEquals(0, esperado.valorMinimo().compareTo(actual.valorMinimo()));
+        assertEquals(0, esperado.valorPromedio().compareTo(actual.valorPromedio()));
+        assertEquals(0, esperado.valorMaximo().compareTo(actual.valorMaximo()));
+    }
+
+    private static BigDecimalConsumidor getBigDecimalConsumidor(final BigDecimal valor) {
+        return new BigDecimalConsumidor() {
+
+            @Override
+            public BigDecimal getValor() {
+                return valor;
+            }
+
+        };
+    }
+
+}
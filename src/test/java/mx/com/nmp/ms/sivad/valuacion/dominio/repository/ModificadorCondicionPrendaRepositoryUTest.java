@@ -0,0 +1,98 @@
+/**
+ * Proyecto:        NMP - Microservicio de Motor de Valuación
+ * Quarksoft S.A.P.I. de C.V. – Todos los derechos reservados. Para uso exclusivo de Nacional Monte de Piedad.
+ */
+package mx.com.nmp.ms.sivad.valuacion.dominio.repository;
+
+import mx.com.nmp.ms.sivad.valuacion.dominio.exception.ModificadorCondicionPrendaNoEncontradoException;
+import mx.com.nmp.ms.sivad.valuacion.dominio.modelo.ModificadorCondicionPrenda;
+import mx.com.nmp.ms.sivad.valuacion.dominio.modelo.vo.CondicionPrendaVO;
+import mx.com.nmp.ms.sivad.valuacion.infrastructure.jpa.dominio.ModificadorCondicionPrendaJPA;
+import mx.com.nmp.ms.sivad.valuacion.infrastructure.jpa.repository.ModificadorCondicionPrendaJPARepository;
+import mx.com.nmp.ms.sivad.valuacion.infrastructure.jpa.repository.ModificadorCondicionPrendaRepositoryImpl;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.math.BigDecimal;
+import java.util.Arrays;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.fail;
+import static org.mockito.Matchers.anyString;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Pruebas de unidad de los modificadores vigentes en memoria de {@link ModificadorCondicionPrendaRepositoryImpl}
+ */
+public class ModificadorCondicionPrendaRepositoryUTest {
+
+    @Mock
+    private ModificadorCondicionPrendaJPARepository jpaRepository;
+
+    private ModificadorCondicionPrendaRepository test;
+
+    /**
+     * Se ejecuta antes de cada prueba.
+     */
+    @Before
+    public void setup() {
+        MockitoAnnotations.initMocks(this);
+
+        test = new ModificadorCondicionPrendaRepositoryImpl();
+        ReflectionTestUtils.setField(test, "modificadorCondicionPrendaJPARepository", jpaRepository);
+    }
+
+    /**
+     * Valida que los modificadores se carguen una sola vez y que las consultas no accedan a la base de datos.
+     */
+    @Test
+    public void consultarDesdeMemoriaTest() {
+        when(jpaRepository.findAll()).thenReturn(Arrays.asList(crearJpa("EX", "1.10"), crearJpa("MB", "0.95")));
+
+        ModificadorCondicionPrenda ex = test.consultarModificadorCondicionPrendaVigente(new CondicionPrendaVO("EX"));
+        ModificadorCondicionPrenda mb = test.consultarModificadorCondicionPrendaVigente(new CondicionPrendaVO("MB"));
+
+        assertEquals(new BigDecimal("1.10"), ex.getFactor());
+        assertEquals(new BigDecimal("0.95"), mb.getFactor());
+
+        try {
+            test.consultarModificadorCondicionPrendaVigente(new CondicionPrendaVO("XX"));
+            fail("Se esperaba una excepción");
+        } catch (ModificadorCondicionPrendaNoEncontradoException e) {
+            // ESPERADA
+        }
+
+        verify(jpaRepository, times(1)).findAll();
+        verify(jpaRepository, never()).findByCondicionPrenda(anyString());
+    }
+
+    /**
+     * Valida que, con condiciones duplicadas, la consulta se resuelva contra la base de datos.
+     */
+    @Test
+    public void consultarDuplicadosTest() {
+        ModificadorCondicionPrendaJPA ex = crearJpa("EX", "1.10");
+
+        when(jpaRepository.findAll()).thenReturn(Arrays.asList(ex, crearJpa("EX", "1.05")));
+        when(jpaRepository.findByCondicionPrenda("EX")).thenReturn(ex);
+
+        test.consultarModificadorCondicionPrendaVigente(new CondicionPrendaVO("EX"));
+
+        verify(jpaRepository).findByCondicionPrenda("EX");
+    }
+
+    private static ModificadorCondicionPrendaJPA crearJpa(String condicion, String factor) {
+        ModificadorCondicionPrendaJPA jpa = new ModificadorCondicionPrendaJPA();
+        jpa.setCondicionPrenda(condicion);
+        jpa.setFactor(new BigDecimal(factor));
+
+        return jpa;
+    }
+
+}
@@ -0,0 +1,203 @@
+/**
+ * Proyecto:        NMP - Microservicio de Motor de Valuación
+ * Quarksoft S.A.P.I. de C.V. – Todos los derechos reservados. Para uso exclusivo de Nacional Monte de Piedad.
+ */
+package mx.com.nmp.ms.sivad.valuacion.dominio.repository;
+
+import mx.com.nmp.ms.sivad.valuacion.dominio.exception.PoliticaCastigoNoEncontradaException;
+import mx.com.nmp.ms.sivad.valuacion.dominio.modelo.Alhaja;
+import mx.com.nmp.ms.sivad.valuacion.dominio.modelo.Diamante;
+import mx.com.nmp.ms.sivad.valuacion.dominio.modelo.Pieza;
+import mx.com.nmp.ms.sivad.valuacion.dominio.modelo.PoliticasCastigo;
+import mx.com.nmp.ms.sivad.valuacion.infrastructure.cache.InvalidacionCache;
+import mx.com.nmp.ms.sivad.valuacion.infrastructure.factory.PoliticasCastigoFactoryImpl;
+import mx.com.nmp.ms.sivad.valuacion.infrastructure.jpa.dominio.PoliticasCastigoJpa;
+import mx.com.nmp.ms.sivad.valuacion.infrastructure.jpa.repository.PoliticasCastigoJpaRepository;
+import mx.com.nmp.ms.sivad.valuacion.infrastructure.jpa.repository.PoliticasCastigoRepositoryImpl;
+import org.joda.time.DateTime;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.mockito.invocation.InvocationOnMock;
+import org.mockito.stubbing.Answer;
+import org.springframework.cache.concurrent.ConcurrentMapCacheManager;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.math.BigDecimal;
+import java.util.HashMap;
+import java.util.Map;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.fail;
+import static org.mockito.Matchers.any;
+import static org.mockito.Matchers.eq;
+import static org.mockito.Mockito.doReturn;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Pruebas de unidad de las políticas vigentes en memoria de {@link PoliticasCastigoRepositoryImpl}
+ */
+public class PoliticasCastigoRepositoryUTest {
+
+    @Mock
+    private PoliticasCastigoJpaRepository repositorio;
+
+    @Mock
+    private InvalidacionCache invalidacionCache;
+
+    private PoliticasCastigoFactoryImpl fabrica;
+    private PoliticasCastigoRepository test;
+
+    /**
+     * Se ejecuta antes de cada prueba.
+     */
+    @Before
+    public void setup() {
+        MockitoAnnotations.initMocks(this);
+
+        fabrica = new PoliticasCastigoFactoryImpl();
+        test = new PoliticasCastigoRepositoryImpl();
+
+        ReflectionTestUtils.setField(test, "repositorio", repositorio);
+        ReflectionTestUtils.setField(test, "fabrica", fabrica);
+        ReflectionTestUtils.setField(test, "invalidacionCache", invalidacionCache);
+        ReflectionTestUtils.setField(test, "cacheManager", new ConcurrentMapCacheManager());
+    }
+
+    /**
+     * Valida que las políticas se carguen una sola vez y que la misma instancia inmutable se comparta entre
+     * consultas.
+     */
+    @Test
+    public void consultarUnaCargaTest() {
+        when(repositorio.findFirstByOrderByFechaListadoDesc())
+            .thenReturn(crearJpa(BigDecimal.valueOf(0.4), DateTime.now().minusDays(1)));
+
+        PoliticasCastigo primera = test.consultar();
+        PoliticasCastigo segunda = test.consultar();
+
+        assertSame(primera, segunda);
+        assertEquals(BigDecimal.valueOf(0.4), primera.getFactores().get(Alhaja.class));
+        verify(repositorio, times(1)).findFirstByOrderByFechaListadoDesc();
+
+        try {
+            primera.getFactores().put(Alhaja.class, BigDecimal.ONE);
+            fail("Se esperaba una excepción");
+        } catch (UnsupportedOperationException e) {
+            // ESPERADA
+        }
+    }
+
+    /**
+     * Valida que la ausencia de políticas no se conserve en memoria.
+     */
+    @Test
+    public void consultarSinPoliticasTest() {
+        try {
+            test.consultar();
+            fail("Se esperaba una excepción");
+        } catch (PoliticaCastigoNoEncontradaException e) {
+            // ESPERADA
+        }
+
+        when(repositorio.findFirstByOrderByFechaListadoDesc())
+            .thenReturn(crearJpa(BigDecimal.valueOf(0.4), DateTime.now().minusDays(1)));
+
+        assertEquals(BigDecimal.valueOf(0.4), test.consultar().getFactores().get(Alhaja.class));
+    }
+
+    /**
+     * Valida que una actualización reemplace las políticas vigentes sin volver a consultar la base de datos.
+     */
+    @Test
+    public void actualizarTest() {
+        when(repositorio.findFirstByOrderByFechaListadoDesc())
+            .thenReturn(crearJpa(BigDecimal.valueOf(0.4), DateTime.now().minusDays(1)));
+        test.consultar();
+
+        PoliticasCastigoJpa nuevas = crearJpa(BigDecimal.valueOf(0.3), DateTime.now());
+        test.actualizar(fabrica.crearCon(nuevas.getFactores(), nuevas.getFechaListado()));
+
+        assertEquals(BigDecimal.valueOf(0.3), test.consultar().getFactores().get(Alhaja.class));
+        verify(repositorio, times(1)).findFirstByOrderByFechaListadoDesc();
+        verify(repositorio).saveAndFlush(any(PoliticasCastigoJpa.class));
+        verify(invalidacionCache).notificarCambio(PoliticasCastigoRepositoryImpl.RECURSO);
+    }
+
+    /**
+     * Valida que la invalidación realizada por otra instancia descarte las políticas en memoria.
+     */
+    @Test
+    public void invalidarTest() {
+        ((PoliticasCastigoRepositoryImpl) test).init();
+
+        ArgumentCaptor<InvalidacionCache.Suscriptor> suscriptor =
+            ArgumentCaptor.forClass(InvalidacionCache.Suscriptor.class);
+        verify(invalidacionCache).suscribir(eq(PoliticasCastigoRepositoryImpl.RECURSO), suscriptor.capture());
+
+        when(repositorio.findFirstByOrderByFechaListadoDesc())
+            .thenReturn(crearJpa(BigDecimal.valueOf(0.4), DateTime.now().minusDays(1)));
+        PoliticasCastigo anteriores = test.consultar();
+
+        when(repositorio.findFirstByOrderByFechaListadoDesc())
+            .thenReturn(crearJpa(BigDecimal.valueOf(0.3), DateTime.now()));
+        suscriptor.getValue().invalidar(PoliticasCastigoRepositoryImpl.RECURSO);
+
+        PoliticasCastigo nuevas = test.consultar();
+
+        assertNotSame(anteriores, nuevas);
+        assertEquals(BigDecimal.valueOf(0.3), nuevas.getFactores().get(Alhaja.class));
+        verify(repositorio, times(2)).findFirstByOrderByFechaListadoDesc();
+    }
+
+    /**
+     * Valida que las políticas cargadas mientras se recibe una invalidación no se conserven en memoria, para que
+     * la siguiente consulta recupere las nuevas: la carga obsoleta y la recarga son las únicas consultas a la base
+     * de datos y la tercera consulta se atiende desde memoria.
+     */
+    @Test
+    public void invalidarDuranteCargaTest() {
+        ((PoliticasCastigoRepositoryImpl) test).init();
+
+        ArgumentCaptor<InvalidacionCache.Suscriptor> suscriptor =
+            ArgumentCaptor.forClass(InvalidacionCache.Suscriptor.class);
+        verify(invalidacionCache).suscribir(eq(PoliticasCastigoRepositoryImpl.RECURSO), suscriptor.capture());
+        final InvalidacionCache.Suscriptor invalidacion = suscriptor.getValue();
+
+        when(repositorio.findFirstByOrderByFechaListadoDesc()).thenAnswer(new Answer<PoliticasCastigoJpa>() {
+            @Override
+            public PoliticasCastigoJpa answer(InvocationOnMock invocation) {
+                invalidacion.invalidar(PoliticasCastigoRepositoryImpl.RECURSO);
+                return crearJpa(BigDecimal.valueOf(0.4), DateTime.now().minusDays(1));
+            }
+        });
+        assertEquals(BigDecimal.valueOf(0.4), test.consultar().getFactores().get(Alhaja.class));
+
+        // SE EVITA when(...) PARA NO EJECUTAR DE NUEVO LA RESPUESTA ANTERIOR, QUE INVALIDA.
+        doReturn(crearJpa(BigDecimal.valueOf(0.3), DateTime.now())).when(repositorio)
+            .findFirstByOrderByFechaListadoDesc();
+
+        assertEquals(BigDecimal.valueOf(0.3), test.consultar().getFactores().get(Alhaja.class));
+        assertEquals(BigDecimal.valueOf(0.3), test.consultar().getFactores().get(Alhaja.class));
+        verify(repositorio, times(2)).findFirstByOrderByFechaListadoDesc();
+    }
+
+    private static PoliticasCastigoJpa crearJpa(BigDecimal factor, DateTime fecha) {
+        Map<Class<? extends Pieza>, BigDecimal> factores = new HashMap<>();
+        factores.put(Alhaja.class, factor);
+        factores.put(Diamante.class, factor);
+
+        PoliticasCastigoJpa jpa = new PoliticasCastigoJpa();
+        jpa.setFactores(factores);
+        jpa.setFechaListado(fecha);
+
+        return jpa;
+    }
+
+}
@@ -19,6 +19,7 @@ import java.math.BigDecimal;
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertSame;
 
 /**
  * Pruebas de unidad para la clase {@link Avaluo}
@@ -213,6 +214,19 @@ public class AvaluoUTest {
         assertEquals(avaluo.valorMaximo(), BigDecimal.valueOf(12.34));
     }
 
+    /**
+     * (non-Javadoc)
+     * @see Avaluo#valorMinimo()
+     */
+    @Test
+    public void redondeoUnaVezAvaluoTest() {
+        Avaluo avaluo =  AvaluoFactory.crearCon(BigDecimal.valueOf(12.335), BigDecimal.TEN, BigDecimal.TEN);
+
+        assertSame(avaluo.valorMinimo(), avaluo.valorMinimo());
+        assertSame(avaluo.valorPromedio(), avaluo.valorPromedio());
+        assertSame(avaluo.valorMaximo(), avaluo.valorMaximo());
+    }
+
     @Test(expected = IllegalArgumentException.class)
     public void crearAvaluoNulos() {
         AvaluoFactory.crearCon(null, null, null);
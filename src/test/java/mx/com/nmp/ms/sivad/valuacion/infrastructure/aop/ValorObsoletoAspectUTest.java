@@ -0,0 +1,184 @@
+/**
+ * Proyecto:        NMP - Microservicio de Motor de Valuación
+ * Quarksoft S.A.P.I. de C.V. – Todos los derechos reservados. Para uso exclusivo de Nacional Monte de Piedad.
+ */
+package mx.com.nmp.ms.sivad.valuacion.infrastructure.aop;
+
+import com.codahale.metrics.MetricRegistry;
+import mx.com.nmp.ms.sivad.referencia.api.ws.ReferenciaAlhajaService;
+import mx.com.nmp.ms.sivad.referencia.ws.alhajas.datatypes.ObtenerValorGramoOroRequest;
+import mx.com.nmp.ms.sivad.referencia.ws.alhajas.datatypes.ObtenerValorGramoOroResponse;
+import mx.com.nmp.ms.sivad.valuacion.conector.InterruptorConsultas;
+import mx.com.nmp.ms.sivad.valuacion.conector.TablasDeReferenciaAlhajas;
+import mx.com.nmp.ms.sivad.valuacion.conector.TablasDeReferenciaAlhajasProxy;
+import mx.com.nmp.ms.sivad.valuacion.conector.llave.LlaveReferencia;
+import mx.com.nmp.ms.sivad.valuacion.conector.llave.LlaveReferenciaGenerator;
+import mx.com.nmp.ms.sivad.valuacion.conector.provedor.CaracteristicasGramoOroProveedor;
+import mx.com.nmp.ms.sivad.valuacion.conector.referencia.TablasDeReferenciaLocales;
+import mx.com.nmp.ms.sivad.valuacion.conector.referencia.alhaja.ReferenciaAlhajasConector;
+import mx.com.nmp.ms.sivad.valuacion.conector.referencia.alhaja.factory.ReferenciaAlhajaFactory;
+import mx.com.nmp.ms.sivad.valuacion.config.InterruptorReferenciaProperties;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.annotation.EnableCaching;
+import org.springframework.cache.concurrent.ConcurrentMapCacheManager;
+import org.springframework.context.annotation.AnnotationConfigApplicationContext;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.EnableAspectJAutoProxy;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import javax.xml.ws.WebServiceException;
+import java.math.BigDecimal;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.fail;
+import static org.mockito.Matchers.any;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Pruebas de unidad para la clase {@link ValorObsoletoAspect}, con el interceptor de caché de Spring.
+ */
+public class ValorObsoletoAspectUTest {
+
+    private static final String CACHE = "TablasDeReferenciaAlhajas.obtenerValorGramoOro.cache";
+
+    @Mock
+    private ReferenciaAlhajaService ws;
+
+    private InterruptorReferenciaProperties propiedades;
+    private AnnotationConfigApplicationContext contexto;
+    private TablasDeReferenciaAlhajas test;
+    private Cache cache;
+
+    /**
+     * Configuración del contexto de la prueba.
+     */
+    @Configuration
+    @EnableCaching
+    @EnableAspectJAutoProxy
+    public static class Configuracion {
+
+        @Bean
+        public CacheManager cacheManager() {
+            return new ConcurrentMapCacheManager(CACHE);
+        }
+
+        @Bean(name = LlaveReferenciaGenerator.NOMBRE)
+        public LlaveReferenciaGenerator llaveReferenciaGenerator() {
+            return new LlaveReferenciaGenerator();
+        }
+
+        @Bean
+        public ValorObsoletoAspect valorObsoletoAspect() {
+            return new ValorObsoletoAspect();
+        }
+
+        @Bean
+        public TablasDeReferenciaAlhajasProxy tablasDeReferenciaAlhajas() {
+            return new TablasDeReferenciaAlhajasProxy();
+        }
+
+    }
+
+    /**
+     * Se ejecuta antes de cada prueba. El circuito se abre con la primera falla.
+     */
+    @Before
+    public void setup() {
+        MockitoAnnotations.initMocks(this);
+
+        ReferenciaAlhajasConector conector = new ReferenciaAlhajasConector();
+        ReflectionTestUtils.setField(conector, "wsReferenciaAlhaja", ws);
+
+        propiedades = new InterruptorReferenciaProperties();
+        propiedades.setHabilitado(true);
+        propiedades.setUmbralFallas(1);
+        propiedades.setTiempoAbierto(60000L);
+
+        InterruptorConsultas interruptor = new InterruptorConsultas();
+        ReflectionTestUtils.setField(interruptor, "propiedades", propiedades);
+        ReflectionTestUtils.setField(interruptor, "metricRegistry", new MetricRegistry());
+
+        contexto = new AnnotationConfigApplicationContext();
+        contexto.getBeanFactory().registerSingleton("referenciaAlhajasConector", conector);
+        contexto.getBeanFactory().registerSingleton("referenciaAlhajaFactory", new ReferenciaAlhajaFactory());
+        contexto.getBeanFactory().registerSingleton("tablasDeReferenciaLocales", new TablasDeReferenciaLocales());
+        contexto.getBeanFactory().registerSingleton("interruptorConsultas", interruptor);
+        contexto.register(Configuracion.class);
+        contexto.refresh();
+
+        test = contexto.getBean(TablasDeReferenciaAlhajas.class);
+        cache = contexto.getBean(CacheManager.class).getCache(CACHE);
+    }
+
+    /**
+     * Se ejecuta después de cada prueba.
+     */
+    @After
+    public void tearDown() {
+        contexto.close();
+    }
+
+    /**
+     * Valida que, con el circuito abierto, se entregue el último valor conocido sin almacenarlo en el caché, y que
+     * la consulta de prueba del circuito llegue al servicio remoto y su valor sí se almacene.
+     */
+    @Test
+    public void valorObsoletoNoSeAlmacenaTest() {
+        CaracteristicasGramoOroProveedor proveedor = LlaveReferencia.valorGramoOro(crearProveedor());
+        when(ws.obtenerValorGramoOro(any(ObtenerValorGramoOroRequest.class)))
+            .thenReturn(crearRespuesta(BigDecimal.TEN))
+            .thenThrow(new WebServiceException("Error de comunicacion"))
+            .thenReturn(crearRespuesta(BigDecimal.ONE));
+
+        assertEquals(BigDecimal.TEN, test.obtenerValorGramoOro(proveedor).getValor());
+        cache.clear();
+
+        try {
+            test.obtenerValorGramoOro(proveedor);
+            fail("Se esperaba una excepción");
+        } catch (WebServiceException e) {
+            // EL CIRCUITO SE ABRE.
+        }
+
+        assertEquals(BigDecimal.TEN, test.obtenerValorGramoOro(proveedor).getValor());
+        assertNull(cache.get(proveedor));
+        verify(ws, times(2)).obtenerValorGramoOro(any(ObtenerValorGramoOroRequest.class));
+
+        propiedades.setTiempoAbierto(0L);
+        assertEquals(BigDecimal.ONE, test.obtenerValorGramoOro(proveedor).getValor());
+        assertEquals(BigDecimal.ONE, test.obtenerValorGramoOro(proveedor).getValor());
+        verify(ws, times(3)).obtenerValorGramoOro(any(ObtenerValorGramoOroRequest.class));
+    }
+
+    private static CaracteristicasGramoOroProveedor crearProveedor() {
+        return new CaracteristicasGramoOroProveedor() {
+            @Override
+            public String getColor() {
+                return "Amarillo";
+            }
+
+            @Override
+            public String getCalidad() {
+                return "14";
+            }
+        };
+    }
+
+    private static ObtenerValorGramoOroResponse crearRespuesta(BigDecimal valor) {
+        ObtenerValorGramoOroResponse respuesta = new ObtenerValorGramoOroResponse();
+        respuesta.setPrecioPorGramo(valor);
+
+        return respuesta;
+    }
+
+}
@@ -0,0 +1,158 @@
+/**
+ * Proyecto:        NMP - Microservicio de Motor de Valuación
+ * Quarksoft S.A.P.I. de C.V. – Todos los derechos reservados. Para uso exclusivo de Nacional Monte de Piedad.
+ */
+package mx.com.nmp.ms.sivad.valuacion.infrastructure.cache;
+
+import mx.com.nmp.ms.sivad.valuacion.config.InvalidacionCacheProperties;
+import mx.com.nmp.ms.sivad.valuacion.infrastructure.jpa.dominio.VersionCacheJPA;
+import mx.com.nmp.ms.sivad.valuacion.infrastructure.jpa.repository.VersionCacheJPARepository;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.Arrays;
+import java.util.Collections;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.fail;
+import static org.mockito.Matchers.any;
+import static org.mockito.Matchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyZeroInteractions;
+import static org.mockito.Mockito.when;
+
+/**
+ * Pruebas de unidad para la clase {@link InvalidacionCache}
+ */
+public class InvalidacionCacheUTest {
+
+    private static final String POLITICAS = "politicasCastigo";
+    private static final String MODIFICADORES = "modificadorCondicionPrenda";
+
+    @Mock
+    private VersionCacheJPARepository repositorio;
+
+    private InvalidacionCacheProperties propiedades;
+    private InvalidacionCache.Suscriptor politicas;
+    private InvalidacionCache.Suscriptor modificadores;
+    private InvalidacionCache test;
+
+    /**
+     * Se ejecuta antes de cada prueba.
+     */
+    @Before
+    public void setup() {
+        MockitoAnnotations.initMocks(this);
+
+        propiedades = new InvalidacionCacheProperties();
+        propiedades.setHabilitada(true);
+
+        test = new InvalidacionCache();
+        ReflectionTestUtils.setField(test, "propiedades", propiedades);
+        ReflectionTestUtils.setField(test, "repositorio", repositorio);
+
+        politicas = mock(InvalidacionCache.Suscriptor.class);
+        modificadores = mock(InvalidacionCache.Suscriptor.class);
+        test.suscribir(POLITICAS, politicas);
+        test.suscribir(MODIFICADORES, modificadores);
+    }
+
+    /**
+     * Valida que la primera consulta sólo obtenga las versiones iniciales y que posteriormente se notifique
+     * únicamente a los suscriptores de los recursos cuya versión avanzó.
+     */
+    @Test
+    public void sondearTest() {
+        when(repositorio.findAll()).thenReturn(Arrays.asList(
+            new VersionCacheJPA(POLITICAS, 3L), new VersionCacheJPA(MODIFICADORES, 7L)));
+        test.sondear();
+
+        verifyZeroInteractions(politicas, modificadores);
+        assertEquals(0L, test.getCambios());
+
+        when(repositorio.findAll()).thenReturn(Arrays.asList(
+            new VersionCacheJPA(POLITICAS, 4L), new VersionCacheJPA(MODIFICADORES, 7L)));
+        test.sondear();
+        test.sondear();
+
+        verify(politicas).invalidar(POLITICAS);
+        verify(modificadores, never()).invalidar(anyString());
+        assertEquals(1L, test.getCambios());
+    }
+
+    /**
+     * Valida que un recurso que obtiene su primera versión después de la consulta inicial se invalide.
+     */
+    @Test
+    public void sondearRecursoNuevoTest() {
+        when(repositorio.findAll()).thenReturn(Collections.singletonList(new VersionCacheJPA(POLITICAS, 1L)));
+        test.sondear();
+
+        when(repositorio.findAll()).thenReturn(Arrays.asList(
+            new VersionCacheJPA(POLITICAS, 1L), new VersionCacheJPA(MODIFICADORES, 1L)));
+        test.sondear();
+
+        verify(politicas, never()).invalidar(anyString());
+        verify(modificadores).invalidar(MODIFICADORES);
+    }
+
+    /**
+     * Valida que el cambio registrado por la propia instancia incremente la versión del recurso y no la invalide.
+     */
+    @Test
+    public void notificarCambioTest() {
+        when(repositorio.findAll()).thenReturn(Collections.singletonList(new VersionCacheJPA(POLITICAS, 0L)));
+        test.sondear();
+
+        when(repositorio.incrementar(POLITICAS)).thenReturn(1);
+        when(repositorio.findOne(POLITICAS)).thenReturn(new VersionCacheJPA(POLITICAS, 1L));
+        test.notificarCambio(POLITICAS);
+
+        verify(repositorio, never()).save(any(VersionCacheJPA.class));
+        assertEquals(1L, test.getCambios());
+
+        when(repositorio.findAll()).thenReturn(Collections.singletonList(new VersionCacheJPA(POLITICAS, 1L)));
+        test.sondear();
+
+        verify(politicas, never()).invalidar(anyString());
+        assertEquals(1L, test.getCambios());
+    }
+
+    /**
+     * Valida que el cambio de un recurso sin versión registrada falle, en lugar de crear la versión.
+     */
+    @Test
+    public void notificarCambioSinVersionTest() {
+        when(repositorio.incrementar(POLITICAS)).thenReturn(0);
+
+        try {
+            test.notificarCambio(POLITICAS);
+            fail("Se esperaba una excepción");
+        } catch (IllegalStateException e) {
+            // ESPERADA
+        }
+
+        verify(repositorio, never()).save(any(VersionCacheJPA.class));
+        assertEquals(0L, test.getCambios());
+    }
+
+    /**
+     * Valida que, deshabilitada, la invalidación no acceda a la base de datos y sólo cuente el cambio propio.
+     */
+    @Test
+    public void deshabilitadaTest() {
+        propiedades.setHabilitada(false);
+
+        test.notificarCambio(POLITICAS);
+        test.sondear();
+
+        verifyZeroInteractions(repositorio);
+        assertEquals(1L, test.getCambios());
+    }
+
+}
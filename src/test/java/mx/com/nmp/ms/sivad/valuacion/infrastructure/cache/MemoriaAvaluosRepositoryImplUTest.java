@@ -0,0 +1,208 @@
+/**
+ * Proyecto:        NMP - Microservicio de Motor de Valuación
+ * Quarksoft S.A.P.I. de C.V. – Todos los derechos reservados. Para uso exclusivo de Nacional Monte de Piedad.
+ */
+package mx.com.nmp.ms.sivad.valuacion.infrastructure.cache;
+
+import com.codahale.metrics.MetricRegistry;
+import mx.com.nmp.ms.sivad.valuacion.config.MemoriaAvaluosProperties;
+import mx.com.nmp.ms.sivad.valuacion.conector.consumidor.BigDecimalConsumidor;
+import mx.com.nmp.ms.sivad.valuacion.dominio.factory.AvaluoFactory;
+import mx.com.nmp.ms.sivad.valuacion.dominio.modelo.Complementario;
+import mx.com.nmp.ms.sivad.valuacion.dominio.modelo.FirmaPieza;
+import mx.com.nmp.ms.sivad.valuacion.dominio.modelo.vo.Avaluo;
+import mx.com.nmp.ms.sivad.valuacion.dominio.modelo.vo.ValorExperto;
+import mx.com.nmp.ms.sivad.valuacion.infrastructure.factory.ConstructorUtil;
+import org.junit.Before;
+import org.junit.Test;
+import org.springframework.cache.Cache;
+import org.springframework.cache.concurrent.ConcurrentMapCache;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.lang.invoke.MethodHandle;
+import java.math.BigDecimal;
+import java.util.concurrent.Callable;
+
+import static mx.com.nmp.ms.sivad.valuacion.conector.consumidor.ConsumidorFactory.crearBigDecimalConsumidor;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+
+/**
+ * Pruebas de unidad para la clase {@link MemoriaAvaluosRepositoryImpl}
+ */
+public class MemoriaAvaluosRepositoryImplUTest {
+
+    private static final MethodHandle COMPLEMENTARIO =
+        ConstructorUtil.getConstructor(Complementario.class, Complementario.Builder.class);
+
+    private static final Avaluo AVALUO = AvaluoFactory.crearCon(BigDecimal.ONE, BigDecimal.TEN, BigDecimal.TEN);
+
+    private MemoriaAvaluosProperties propiedades;
+    private MetricRegistry metricRegistry;
+    private VersionReferencias versionReferencias;
+    private Cache cache;
+    private MemoriaAvaluosRepositoryImpl test;
+
+    /**
+     * Se ejecuta antes de cada prueba.
+     */
+    @Before
+    public void setup() {
+        propiedades = new MemoriaAvaluosProperties();
+        propiedades.setHabilitada(true);
+
+        metricRegistry = new MetricRegistry();
+
+        versionReferencias = new VersionReferencias();
+        ReflectionTestUtils.setField(versionReferencias, "metricRegistry", metricRegistry);
+        versionReferencias.init();
+
+        cache = new VersionadoCache(new ConcurrentMapCache("TablasDeReferenciaAlhajas.obtenerFactor.cache"),
+            versionReferencias);
+
+        test = new MemoriaAvaluosRepositoryImpl();
+        ReflectionTestUtils.setField(test, "propiedades", propiedades);
+        ReflectionTestUtils.setField(test, "versionReferencias", versionReferencias);
+        ReflectionTestUtils.setField(test, "metricRegistry", metricRegistry);
+        test.init();
+    }
+
+    /**
+     * Valida que un avalúo registrado se entregue a las piezas con la misma firma.
+     */
+    @Test
+    public void consultarMismaFirmaTest() {
+        long version = test.getVersion();
+        test.guardar(crearFirma("100.00"), version, AVALUO);
+
+        assertSame(AVALUO, test.consultar(crearFirma("100.0"), version));
+        assertNull(test.consultar(crearFirma("200.00"), version));
+
+        assertEquals(1, metricRegistry.meter(
+            MetricRegistry.name(MemoriaAvaluosRepositoryImpl.class, "aciertos")).getCount());
+        assertEquals(1, metricRegistry.meter(
+            MetricRegistry.name(MemoriaAvaluosRepositoryImpl.class, "fallos")).getCount());
+    }
+
+    /**
+     * Valida que un valor distinto en las tablas de referencia invalide los avalúos, y que el mismo valor no.
+     */
+    @Test
+    public void cambioReferenciasTest() {
+        cache.get("AU|14|F1", crearCarga("1.10"));
+
+        long version = test.getVersion();
+        test.guardar(crearFirma("100.00"), version, AVALUO);
+
+        cache.put("AU|14|F1", crearBigDecimalConsumidor(new BigDecimal("1.10")));
+        assertEquals(version, test.getVersion());
+        assertSame(AVALUO, test.consultar(crearFirma("100.00"), test.getVersion()));
+
+        cache.put("AU|14|F1", crearBigDecimalConsumidor(new BigDecimal("1.20")));
+        assertNull(test.consultar(crearFirma("100.00"), test.getVersion()));
+
+        version = test.getVersion();
+        test.guardar(crearFirma("100.00"), version, AVALUO);
+        cache.evict("AU|14|F1");
+        assertSame(AVALUO, test.consultar(crearFirma("100.00"), test.getVersion()));
+
+        cache.get("AU|14|F1", crearCarga("1.20"));
+        assertSame(AVALUO, test.consultar(crearFirma("100.00"), test.getVersion()));
+
+        cache.evict("AU|14|F1");
+        cache.get("AU|14|F1", crearCarga("1.30"));
+        assertNull(test.consultar(crearFirma("100.00"), test.getVersion()));
+    }
+
+    /**
+     * Valida que la primera carga de una llave y el descarte de entradas no invaliden los avalúos.
+     */
+    @Test
+    public void cargaInicialTest() {
+        long version = test.getVersion();
+        test.guardar(crearFirma("100.00"), version, AVALUO);
+
+        cache.get("AU|14|F1", crearCarga("1.10"));
+        cache.get("AU|10|F1", crearCarga("1.05"));
+        cache.clear();
+
+        assertEquals(version, test.getVersion());
+        assertSame(AVALUO, test.consultar(crearFirma("100.00"), test.getVersion()));
+    }
+
+    /**
+     * Valida que no se registre un avalúo calculado mientras cambiaban las tablas de referencia.
+     */
+    @Test
+    public void guardarVersionAnteriorTest() {
+        cache.get("AU|14|F1", crearCarga("1.10"));
+        long version = test.getVersion();
+        cache.put("AU|14|F1", crearBigDecimalConsumidor(new BigDecimal("1.20")));
+        test.guardar(crearFirma("100.00"), version, AVALUO);
+
+        assertNull(test.consultar(crearFirma("100.00"), version));
+        assertNull(test.consultar(crearFirma("100.00"), test.getVersion()));
+    }
+
+    /**
+     * Valida que los avalúos vencidos no se entreguen y que la memoria llena sólo acepte entradas si puede
+     * descartar entradas vencidas.
+     */
+    @Test
+    public void vigenciaYCapacidadTest() {
+        long version = test.getVersion();
+
+        propiedades.setVigencia(-1L);
+        test.guardar(crearFirma("100.00"), version, AVALUO);
+        assertNull(test.consultar(crearFirma("100.00"), version));
+        test.guardar(crearFirma("100.00"), version, AVALUO);
+
+        propiedades.setVigencia(3600000L);
+        propiedades.setMaximoEntradas(1);
+        test.guardar(crearFirma("200.00"), version, AVALUO);
+        assertSame(AVALUO, test.consultar(crearFirma("200.00"), version));
+
+        test.guardar(crearFirma("300.00"), version, AVALUO);
+        assertNull(test.consultar(crearFirma("300.00"), version));
+    }
+
+    /**
+     * Valida que la memoria deshabilitada no conserve avalúos.
+     */
+    @Test
+    public void deshabilitadaTest() {
+        propiedades.setHabilitada(false);
+        long version = test.getVersion();
+        test.guardar(crearFirma("100.00"), version, AVALUO);
+
+        propiedades.setHabilitada(true);
+        assertNull(test.consultar(crearFirma("100.00"), version));
+    }
+
+    private static FirmaPieza crearFirma(final String valor) {
+        Complementario complementario = ConstructorUtil.getInstancia(COMPLEMENTARIO, new Complementario.Builder() {
+            @Override
+            public int getNumeroDePiezas() {
+                return 1;
+            }
+
+            @Override
+            public ValorExperto getValorExperto() {
+                return new ValorExperto(new BigDecimal(valor), ValorExperto.TipoEnum.UNITARIO);
+            }
+        });
+
+        return complementario.getFirma();
+    }
+
+    private static Callable<BigDecimalConsumidor> crearCarga(final String valor) {
+        return new Callable<BigDecimalConsumidor>() {
+            @Override
+            public BigDecimalConsumidor call() {
+                return crearBigDecimalConsumidor(new BigDecimal(valor));
+            }
+        };
+    }
+
+}
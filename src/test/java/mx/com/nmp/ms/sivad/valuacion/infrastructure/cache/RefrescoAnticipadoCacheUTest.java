@@ -0,0 +1,133 @@
+/**
+ * Proyecto:        NMP - Microservicio de Motor de Valuación
+ * Quarksoft S.A.P.I. de C.V. – Todos los derechos reservados. Para uso exclusivo de Nacional Monte de Piedad.
+ */
+package mx.com.nmp.ms.sivad.valuacion.infrastructure.cache;
+
+import com.codahale.metrics.MetricRegistry;
+import net.sf.ehcache.CacheManager;
+import net.sf.ehcache.config.CacheConfiguration;
+import net.sf.ehcache.config.Configuration;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.springframework.cache.Cache;
+import org.springframework.cache.ehcache.EhCacheCache;
+
+import java.util.concurrent.Callable;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.fail;
+
+/**
+ * Pruebas de unidad para la clase {@link RefrescoAnticipadoCache}
+ */
+public class RefrescoAnticipadoCacheUTest {
+
+    private static final String LLAVE = "Amarillo|14";
+
+    private final AtomicInteger recargas = new AtomicInteger();
+
+    private CacheManager cacheManager;
+    private MetricRegistry metricRegistry;
+    private RefrescoAnticipadoCache test;
+
+    /**
+     * Se ejecuta antes de cada prueba. El caché tiene un tiempo de vida de 4 segundos y se refresca al primer
+     * segundo; el recargador repite la consulta como lo haría el proxy del bean, con una nueva función de carga.
+     */
+    @Before
+    public void setup() {
+        cacheManager = CacheManager.newInstance(new Configuration().name("RefrescoAnticipadoCacheUTest"));
+        cacheManager.addCache(new net.sf.ehcache.Cache(new CacheConfiguration("prueba", 100).timeToLiveSeconds(4)));
+
+        metricRegistry = new MetricRegistry();
+        test = new RefrescoAnticipadoCache(new EhCacheCache(cacheManager.getEhcache("prueba")),
+            new RefrescoAnticipadoCache.Recargador() {
+                @Override
+                public boolean recargar(Object key) {
+                    test.get(key, crearCarga("v" + (recargas.get() + 2), recargas));
+                    return true;
+                }
+            }, 0.25D, 0L, 1, 10, metricRegistry);
+    }
+
+    /**
+     * Se ejecuta después de cada prueba.
+     */
+    @After
+    public void tearDown() {
+        test.detener();
+        cacheManager.shutdown();
+    }
+
+    /**
+     * Valida que una entrada reciente se entregue sin recargarse.
+     */
+    @Test
+    public void entradaVigenteTest() {
+        AtomicInteger cargas = new AtomicInteger();
+
+        assertEquals("v1", test.get(LLAVE, crearCarga("v1", cargas)));
+        assertEquals("v1", test.get(LLAVE, crearCarga("v2", cargas)));
+        assertEquals(1, cargas.get());
+    }
+
+    /**
+     * Valida que una entrada que supera el umbral se entregue mientras se recarga en segundo plano, repitiendo la
+     * consulta con el recargador en lugar de reutilizar la función de carga de la petición.
+     */
+    @Test
+    public void refrescoAnticipadoTest() throws Exception {
+        AtomicInteger cargas = new AtomicInteger();
+
+        assertEquals("v1", test.get(LLAVE, crearCarga("v1", cargas)));
+        Thread.sleep(1200L);
+
+        assertEquals("v1", test.get(LLAVE, crearCarga("peticion", cargas)));
+
+        long limite = System.currentTimeMillis() + 2000L;
+
+        while (!"v2".equals(test.get(LLAVE).get()) && System.currentTimeMillis() < limite) {
+            Thread.sleep(10L);
+        }
+
+        assertEquals("v2", test.get(LLAVE).get());
+        assertEquals(1, cargas.get());
+        assertEquals(1, recargas.get());
+        assertEquals(1, metricRegistry.meter(
+            MetricRegistry.name(RefrescoAnticipadoCache.class, "prueba", "refrescos")).getCount());
+    }
+
+    /**
+     * Valida que la falla de una carga síncrona se propague como {@link Cache.ValueRetrievalException}.
+     */
+    @Test
+    public void cargaFallidaTest() {
+        final IllegalStateException falla = new IllegalStateException("Error de comunicacion");
+
+        try {
+            test.get(LLAVE, new Callable<String>() {
+                @Override
+                public String call() {
+                    throw falla;
+                }
+            });
+            fail("Se esperaba una excepción");
+        } catch (Cache.ValueRetrievalException e) {
+            assertEquals(falla, e.getCause());
+        }
+    }
+
+    private static Callable<String> crearCarga(final String valor, final AtomicInteger cargas) {
+        return new Callable<String>() {
+            @Override
+            public String call() {
+                cargas.incrementAndGet();
+                return valor;
+            }
+        };
+    }
+
+}
@@ -0,0 +1,171 @@
+/**
+ * Proyecto:        NMP - Microservicio de Motor de Valuación
+ * Quarksoft S.A.P.I. de C.V. – Todos los derechos reservados. Para uso exclusivo de Nacional Monte de Piedad.
+ */
+package mx.com.nmp.ms.sivad.valuacion.infrastructure.cache;
+
+import com.codahale.metrics.MetricRegistry;
+import mx.com.nmp.ms.sivad.valuacion.config.CarteraProperties;
+import mx.com.nmp.ms.sivad.valuacion.dominio.repository.CarteraRepository;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.dao.QueryTimeoutException;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.math.BigDecimal;
+import java.util.Collections;
+
+import static org.junit.Assert.assertEquals;
+import static org.mockito.Matchers.anyCollectionOf;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Pruebas de unidad para la clase {@link RevaluacionCartera}
+ */
+public class RevaluacionCarteraUTest {
+
+    private static final String CACHE = "TablasDeReferenciaAlhajas.obtenerValorGramoOro.cache";
+    private static final String LLAVE = "ValorGramoOro[Amarillo, 14]";
+
+    @Mock
+    private CarteraRepository carteraRepository;
+
+    @Mock
+    private InvalidacionCache invalidacionCache;
+
+    private MetricRegistry metricRegistry;
+    private VersionReferencias versionReferencias;
+    private CarteraProperties propiedades;
+    private RevaluacionCartera test;
+
+    /**
+     * Se ejecuta antes de cada prueba.
+     */
+    @Before
+    public void setup() {
+        MockitoAnnotations.initMocks(this);
+
+        metricRegistry = new MetricRegistry();
+
+        versionReferencias = new VersionReferencias();
+        ReflectionTestUtils.setField(versionReferencias, "metricRegistry", metricRegistry);
+        versionReferencias.init();
+
+        propiedades = new CarteraProperties();
+        propiedades.setHabilitada(true);
+
+        test = new RevaluacionCartera();
+        ReflectionTestUtils.setField(test, "propiedades", propiedades);
+        ReflectionTestUtils.setField(test, "carteraRepository", carteraRepository);
+        ReflectionTestUtils.setField(test, "versionReferencias", versionReferencias);
+        ReflectionTestUtils.setField(test, "invalidacionCache", invalidacionCache);
+        ReflectionTestUtils.setField(test, "metricRegistry", metricRegistry);
+        test.init();
+    }
+
+    /**
+     * Valida que sólo se revalúen las llaves cuyo valor cambió, una sola vez.
+     */
+    @Test
+    public void revaluarLlavesCambiadasTest() {
+        versionReferencias.registrar(CACHE, LLAVE, new BigDecimal("700"));
+        test.revaluar();
+
+        verify(carteraRepository, never()).revaluar(anyCollectionOf(String.class));
+
+        versionReferencias.registrar(CACHE, LLAVE, new BigDecimal("700"));
+        test.revaluar();
+
+        verify(carteraRepository, never()).revaluar(anyCollectionOf(String.class));
+
+        versionReferencias.registrar(CACHE, LLAVE, new BigDecimal("710"));
+        test.revaluar();
+        test.revaluar();
+
+        verify(carteraRepository, times(1)).revaluar(Collections.singletonList(LLAVE));
+        verify(carteraRepository, never()).retotalizar();
+    }
+
+    /**
+     * Valida que el cambio de políticas de castigo o modificadores recalcule la cartera una sola vez.
+     */
+    @Test
+    public void retotalizarCambioRecursosTest() {
+        test.revaluar();
+        verify(carteraRepository, never()).retotalizar();
+
+        when(invalidacionCache.getCambios()).thenReturn(1L);
+        test.revaluar();
+        test.revaluar();
+
+        verify(carteraRepository, times(1)).retotalizar();
+    }
+
+    /**
+     * Valida que las llaves se conserven si la revaluación falla.
+     */
+    @Test
+    public void conservarLlavesFallaTest() {
+        when(carteraRepository.revaluar(anyCollectionOf(String.class)))
+            .thenThrow(new QueryTimeoutException("falla"))
+            .thenReturn(1);
+
+        versionReferencias.registrar(CACHE, LLAVE, new BigDecimal("700"));
+        versionReferencias.registrar(CACHE, LLAVE, new BigDecimal("710"));
+        test.revaluar();
+        test.revaluar();
+        test.revaluar();
+
+        verify(carteraRepository, times(2)).revaluar(Collections.singletonList(LLAVE));
+    }
+
+    /**
+     * Valida que la revaluación de toda la cartera descarte las llaves acumuladas antes de iniciar, ya que las
+     * cubre, y que las conserve si falla.
+     */
+    @Test
+    public void revaluarCarteraTest() {
+        when(carteraRepository.revaluarCartera())
+            .thenThrow(new QueryTimeoutException("falla"))
+            .thenReturn(1);
+
+        versionReferencias.registrar(CACHE, LLAVE, new BigDecimal("700"));
+        versionReferencias.registrar(CACHE, LLAVE, new BigDecimal("710"));
+
+        test.revaluarCartera();
+        test.revaluarCartera();
+        test.revaluar();
+
+        verify(carteraRepository, times(2)).revaluarCartera();
+        verify(carteraRepository, never()).revaluar(anyCollectionOf(String.class));
+        assertEquals(0, metricRegistry.getGauges()
+            .get(MetricRegistry.name(RevaluacionCartera.class, "llavesPendientes")).getValue());
+    }
+
+    /**
+     * Valida que, deshabilitada, no se acumulen llaves ni se revalúe.
+     */
+    @Test
+    public void deshabilitadaTest() {
+        propiedades.setHabilitada(false);
+        when(invalidacionCache.getCambios()).thenReturn(1L);
+
+        versionReferencias.registrar(CACHE, LLAVE, new BigDecimal("700"));
+        versionReferencias.registrar(CACHE, LLAVE, new BigDecimal("710"));
+        test.revaluar();
+        test.revaluarCartera();
+
+        propiedades.setHabilitada(true);
+        test.revaluar();
+
+        verify(carteraRepository, never()).revaluar(anyCollectionOf(String.class));
+        verify(carteraRepository, never()).revaluarCartera();
+        verify(carteraRepository, times(1)).retotalizar();
+    }
+
+}
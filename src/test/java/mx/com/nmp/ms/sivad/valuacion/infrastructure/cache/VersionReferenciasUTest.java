@@ -0,0 +1,81 @@
+/**
+ * Proyecto:        NMP - Microservicio de Motor de Valuación
+ * Quarksoft S.A.P.I. de C.V. – Todos los derechos reservados. Para uso exclusivo de Nacional Monte de Piedad.
+ */
+package mx.com.nmp.ms.sivad.valuacion.infrastructure.cache;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+
+import java.math.BigDecimal;
+
+import static org.junit.Assert.assertEquals;
+import static org.mockito.Matchers.anyObject;
+import static org.mockito.Matchers.anyString;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+
+/**
+ * Pruebas de unidad para la clase {@link VersionReferencias}
+ */
+public class VersionReferenciasUTest {
+
+    private static final String CACHE = "TablasDeReferenciaAlhajas.obtenerValorGramoOro.cache";
+
+    @Mock
+    private VersionReferencias.Observador observador;
+
+    private VersionReferencias test;
+
+    /**
+     * Se ejecuta antes de cada prueba.
+     */
+    @Before
+    public void setup() {
+        MockitoAnnotations.initMocks(this);
+
+        test = new VersionReferencias();
+        test.suscribir(observador);
+    }
+
+    /**
+     * Valida que la versión avance sólo cuando el valor de una llave cambia respecto del último conocido.
+     */
+    @Test
+    public void registrarCambioTest() {
+        test.registrar(CACHE, "A", new BigDecimal("700"));
+        test.registrar(CACHE, "A", new BigDecimal("700"));
+        assertEquals(0L, test.getVersion());
+
+        test.registrar(CACHE, "A", new BigDecimal("710"));
+        assertEquals(1L, test.getVersion());
+        verify(observador).cambio(CACHE, "A");
+    }
+
+    /**
+     * Valida que se conserve a lo más el número máximo de llaves, descartando la de uso menos reciente, y que
+     * descartarla avance la versión sin notificar a los observadores.
+     */
+    @Test
+    public void maximoLlavesTest() {
+        test.setMaximoLlaves(2);
+
+        test.registrar(CACHE, "A", new BigDecimal("700"));
+        test.registrar(CACHE, "B", new BigDecimal("800"));
+        test.registrar(CACHE, "A", new BigDecimal("700"));
+        assertEquals(0L, test.getVersion());
+
+        // SE DESCARTA "B", LA LLAVE DE USO MENOS RECIENTE.
+        test.registrar(CACHE, "C", new BigDecimal("900"));
+        assertEquals(1L, test.getVersion());
+        verify(observador, never()).cambio(anyString(), anyObject());
+
+        // "A" SE CONSERVÓ, POR LO QUE SU CAMBIO SE NOTIFICA.
+        test.registrar(CACHE, "A", new BigDecimal("710"));
+        assertEquals(2L, test.getVersion());
+        verify(observador).cambio(CACHE, "A");
+    }
+
+}
@@ -0,0 +1,105 @@
+/**
+ * Proyecto:        NMP - Microservicio de Motor de Valuación
+ * Quarksoft S.A.P.I. de C.V. – Todos los derechos reservados. Para uso exclusivo de Nacional Monte de Piedad.
+ */
+package mx.com.nmp.ms.sivad.valuacion.infrastructure.estrategia;
+
+import mx.com.nmp.ms.sivad.valuacion.dominio.estrategia.RedondeoEstrategias;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compara el costo de la cadena de multiplicaciones de la valuación de una alhaja y de un diamante, incluyendo la
+ * política de castigo, la condición física y el redondeo final, con la escala intermedia acotada por
+ * {@link PrecisionIntermediaUtil} y sin acotar.
+ *
+ * No se ejecuta con las pruebas; se ejecuta con
+ * {@code mvn test-compile exec:java -Dexec.classpathScope=test
+ * -Dexec.mainClass=mx.com.nmp.ms.sivad.valuacion.infrastructure.estrategia.PrecisionIntermediaBenchmark}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class PrecisionIntermediaBenchmark {
+
+    private static final int VALORES = 1024;
+    private static final int ESCALA = 10;
+
+    private final PrecisionIntermediaUtil acotada =
+        PrecisionIntermediaUtil.crear(ESCALA, PrecisionIntermediaUtil.REDONDEO_DEFAULT);
+    private final PrecisionIntermediaUtil exacta = PrecisionIntermediaUtil.crear(-1, RoundingMode.UNNECESSARY);
+
+    private final BigDecimal[] precios = new BigDecimal[VALORES];
+    private final BigDecimal[] pesos = new BigDecimal[VALORES];
+    private final BigDecimal[] factores = new BigDecimal[VALORES];
+    private final BigDecimal[] castigos = new BigDecimal[VALORES];
+    private final BigDecimal incremento = new BigDecimal("1.1250");
+    private final BigDecimal condicion = new BigDecimal("0.9500");
+
+    private int indice;
+
+    /**
+     * Genera los valores de entrada.
+     */
+    @Setup
+    public void setup() {
+        Random aleatorio = new Random(17L);
+
+        for (int i = 0; i < VALORES; i++) {
+            precios[i] = BigDecimal.valueOf(10000 + aleatorio.nextInt(490000), 2);
+            pesos[i] = BigDecimal.valueOf(1 + aleatorio.nextInt(100000), 3);
+            factores[i] = BigDecimal.valueOf(1000 + aleatorio.nextInt(19000), 4);
+            castigos[i] = BigDecimal.valueOf(1000 + aleatorio.nextInt(9000), 4);
+        }
+    }
+
+    @Benchmark
+    public BigDecimal sinAcotar() {
+        return valuar(exacta);
+    }
+
+    @Benchmark
+    public BigDecimal acotada() {
+        return valuar(acotada);
+    }
+
+    /**
+     * Reproduce las etapas de la valuación: precio por peso, incremento, factor, certificado, castigo y condición.
+     */
+    private BigDecimal valuar(PrecisionIntermediaUtil precision) {
+        int i = indice++ & (VALORES - 1);
+
+        BigDecimal valor = precision.multiplicar(precios[i], pesos[i]);
+        valor = precision.multiplicar(valor, incremento);
+        valor = precision.multiplicar(valor, factores[i]);
+        valor = precision.multiplicar(valor, factores[VALORES - 1 - i]);
+        valor = precision.multiplicar(valor, castigos[i]);
+        valor = precision.multiplicar(valor, condicion);
+
+        return RedondeoEstrategias.DOS_DECIMALES_ROUND_HALF_UP.redondear(valor);
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder().include(PrecisionIntermediaBenchmark.class.getSimpleName()).build()).run();
+    }
+
+}
@@ -0,0 +1,141 @@
+/**
+ * Proyecto:        NMP - Microservicio de Motor de Valuación
+ * Quarksoft S.A.P.I. de C.V. – Todos los derechos reservados. Para uso exclusivo de Nacional Monte de Piedad.
+ */
+package mx.com.nmp.ms.sivad.valuacion.infrastructure.estrategia;
+
+import mx.com.nmp.ms.sivad.valuacion.dominio.estrategia.RedondeoEstrategias;
+import org.junit.Test;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.Random;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+
+/**
+ * Pruebas de unidad para la clase {@link PrecisionIntermediaUtil}
+ */
+public class PrecisionIntermediaUtilUTest {
+
+    private static final BigDecimal CIEN = new BigDecimal(100);
+    private static final int CASOS = 200000;
+
+    private final PrecisionIntermediaUtil acotada =
+        PrecisionIntermediaUtil.crear(10, PrecisionIntermediaUtil.REDONDEO_DEFAULT);
+    private final PrecisionIntermediaUtil exacta = PrecisionIntermediaUtil.crear(-1, RoundingMode.UNNECESSARY);
+    private final PrecisionIntermediaUtil porDefault = PrecisionIntermediaUtil.crear(
+        PrecisionIntermediaUtil.ESCALA_DEFAULT, PrecisionIntermediaUtil.REDONDEO_DEFAULT);
+
+    /**
+     * Valida que los valores cuya escala no excede la escala intermedia no se modifiquen.
+     */
+    @Test
+    public void acotarSinExcederEscalaTest() {
+        BigDecimal valor = new BigDecimal("1234.0123456789");
+
+        assertSame(valor, acotada.acotar(valor));
+        assertEquals(new BigDecimal("1234.0123456789"), acotada.acotar(new BigDecimal("1234.01234567891")));
+    }
+
+    /**
+     * Valida que una escala negativa deshabilite el acotamiento.
+     */
+    @Test
+    public void acotarDeshabilitadoTest() {
+        BigDecimal valor = new BigDecimal("0.123456789012345678901234567890");
+
+        assertSame(valor, exacta.acotar(valor));
+    }
+
+    /**
+     * Valida que la política default no acote los valores intermedios.
+     */
+    @Test
+    public void politicaDefaultSinAcotarTest() {
+        assertEquals(new BigDecimal("100.014999999950"), alhaja(porDefault));
+    }
+
+    /**
+     * Valida que la política default produzca el mismo valor, con la misma escala, que la aritmética de
+     * {@link BigDecimal} en cada etapa de las cadenas de alhaja, diamante y castigo, y por lo tanto el mismo avalúo
+     * con ambas estrategias de redondeo.
+     */
+    @Test
+    public void politicaDefaultEquivalenteTest() {
+        Random aleatorio = new Random(17L);
+
+        for (int i = 0; i < CASOS; i++) {
+            BigDecimal[] factores = {
+                BigDecimal.valueOf(100 + aleatorio.nextInt(500000), 2),
+                BigDecimal.valueOf(1 + aleatorio.nextInt(100000), 1 + aleatorio.nextInt(4)),
+                BigDecimal.ONE.add(BigDecimal.valueOf(aleatorio.nextInt(10000), 4)),
+                BigDecimal.valueOf(1000 + aleatorio.nextInt(19000), 4),
+                BigDecimal.valueOf(1000 + aleatorio.nextInt(9001), 4)
+            };
+
+            BigDecimal esperado = factores[0];
+            BigDecimal actual = factores[0];
+
+            for (int j = 1; j < factores.length; j++) {
+                esperado = esperado.multiply(factores[j]);
+                actual = porDefault.multiplicar(actual, factores[j]);
+
+                assertEquals(esperado, actual);
+                assertEquals(redondear(esperado), redondear(actual));
+                assertEquals(RedondeoEstrategias.DOS_DECIMALES_ROUND_HALF_DOWN.redondear(esperado),
+                    RedondeoEstrategias.DOS_DECIMALES_ROUND_HALF_DOWN.redondear(actual));
+            }
+        }
+    }
+
+    /**
+     * Valida que, sin acotar, una alhaja cuyo valor queda justo debajo de medio centavo se redondee igual que con
+     * aritmética exacta y que el castigo se aplique sobre ese valor redondeado, como en {@code Prenda}.
+     */
+    @Test
+    public void alhajaSinAcotarTest() {
+        BigDecimal avaluo = redondear(alhaja(exacta));
+
+        assertEquals(new BigDecimal("100.01"), avaluo);
+        assertEquals(new BigDecimal("80.01"), redondear(castigar(exacta, avaluo)));
+    }
+
+    /**
+     * Documenta por qué el acotamiento está deshabilitado por default: acotar a diez decimales lleva el mismo valor
+     * a medio centavo y el avalúo redondeado cambia.
+     */
+    @Test
+    public void alhajaAcotadaCambiaRedondeoTest() {
+        BigDecimal valor = alhaja(acotada);
+
+        assertEquals(new BigDecimal("100.0150000000"), valor);
+        assertEquals(new BigDecimal("100.02"), redondear(valor));
+        assertEquals(new BigDecimal("80.02"), redondear(castigar(acotada, redondear(valor))));
+    }
+
+    /**
+     * Reproduce las etapas de {@code Alhaja.realizarValuacion}: precio por gramo 142.85, peso 0.70, incremento de
+     * 0.01% y factor 1.0001.
+     */
+    private static BigDecimal alhaja(PrecisionIntermediaUtil precision) {
+        BigDecimal precioMetal = precision.multiplicar(new BigDecimal("142.85"), new BigDecimal("0.70"));
+        BigDecimal facIncDes = BigDecimal.ONE.add(new BigDecimal("0.01").divide(CIEN, 4, BigDecimal.ROUND_HALF_UP));
+        BigDecimal conIncDes = precision.multiplicar(precioMetal, facIncDes);
+
+        return precision.multiplicar(conIncDes, new BigDecimal("1.0001"));
+    }
+
+    /**
+     * Reproduce {@code Prenda.aplicarPoliticaCastigo}, que recibe el avalúo de la pieza ya redondeado.
+     */
+    private static BigDecimal castigar(PrecisionIntermediaUtil precision, BigDecimal avaluo) {
+        return precision.multiplicar(avaluo, new BigDecimal("0.8000"));
+    }
+
+    private static BigDecimal redondear(BigDecimal valor) {
+        return RedondeoEstrategias.DOS_DECIMALES_ROUND_HALF_UP.redondear(valor);
+    }
+
+}
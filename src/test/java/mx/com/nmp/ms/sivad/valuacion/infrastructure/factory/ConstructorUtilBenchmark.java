@@ -0,0 +1,161 @@
+/**
+ * Proyecto:        NMP - Microservicio de Motor de Valuación
+ * Quarksoft S.A.P.I. de C.V. – Todos los derechos reservados. Para uso exclusivo de Nacional Monte de Piedad.
+ */
+package mx.com.nmp.ms.sivad.valuacion.infrastructure.factory;
+
+import mx.com.nmp.ms.sivad.valuacion.conector.TablasDeReferenciaAlhajas;
+import mx.com.nmp.ms.sivad.valuacion.dominio.modelo.Alhaja;
+import mx.com.nmp.ms.sivad.valuacion.dominio.modelo.vo.Avaluo;
+import mx.com.nmp.ms.sivad.valuacion.dominio.modelo.vo.ValorExperto;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.reflect.Constructor;
+import java.math.BigDecimal;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compara el costo de crear una instancia de {@link Avaluo} y de {@link Alhaja} entre la creación reflexiva
+ * utilizada anteriormente por {@link ConstructorUtil} (cambio de la bandera {@code accessible} y
+ * {@link Constructor#newInstance(Object...)} en cada llamada) y el {@link MethodHandle} precalculado actual.
+ *
+ * No se ejecuta con las pruebas; se ejecuta con
+ * {@code mvn test-compile exec:java -Dexec.classpathScope=test
+ * -Dexec.mainClass=mx.com.nmp.ms.sivad.valuacion.infrastructure.factory.ConstructorUtilBenchmark}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Threads(4)
+@Fork(1)
+public class ConstructorUtilBenchmark {
+
+    private static final MethodHandle AVALUO =
+        ConstructorUtil.getConstructor(Avaluo.class, BigDecimal.class, BigDecimal.class, BigDecimal.class);
+
+    private static final MethodHandle ALHAJA =
+        ConstructorUtil.getConstructor(Alhaja.class, Alhaja.Builder.class, TablasDeReferenciaAlhajas.class);
+
+    private final BigDecimal minimo = new BigDecimal("100.00");
+    private final BigDecimal promedio = new BigDecimal("150.00");
+    private final BigDecimal maximo = new BigDecimal("200.00");
+
+    private Constructor<Avaluo> avaluoReflexivo;
+    private Constructor<Alhaja> alhajaReflexivo;
+    private Alhaja.Builder builder;
+
+    /**
+     * Recupera los constructores reflexivos y el builder de la alhaja.
+     */
+    @Setup
+    public void setup() throws NoSuchMethodException {
+        avaluoReflexivo = Avaluo.class.getDeclaredConstructor(BigDecimal.class, BigDecimal.class, BigDecimal.class);
+        alhajaReflexivo = Alhaja.class.getDeclaredConstructor(Alhaja.Builder.class, TablasDeReferenciaAlhajas.class);
+        builder = new Builder();
+    }
+
+    @Benchmark
+    public Object avaluoReflexivo() throws Exception {
+        return crearReflexivo(avaluoReflexivo, minimo, promedio, maximo);
+    }
+
+    @Benchmark
+    public Object avaluoMethodHandle() {
+        return ConstructorUtil.getInstancia(AVALUO, minimo, promedio, maximo);
+    }
+
+    @Benchmark
+    public Object alhajaReflexivo() throws Exception {
+        return crearReflexivo(alhajaReflexivo, builder, null);
+    }
+
+    @Benchmark
+    public Object alhajaMethodHandle() {
+        return ConstructorUtil.getInstancia(ALHAJA, builder, null);
+    }
+
+    /**
+     * Reproduce la creación reflexiva anterior.
+     */
+    private static <T> T crearReflexivo(Constructor<T> constructor, Object... argumentos) throws Exception {
+        boolean isAccessible = constructor.isAccessible();
+
+        try {
+            if (!isAccessible) {
+                constructor.setAccessible(true);
+            }
+
+            return constructor.newInstance(argumentos);
+        } finally {
+            if (isAccessible != constructor.isAccessible()) {
+                constructor.setAccessible(isAccessible);
+            }
+        }
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder().include(ConstructorUtilBenchmark.class.getSimpleName()).build()).run();
+    }
+
+    /**
+     * Builder de alhaja de prueba.
+     */
+    private static final class Builder implements Alhaja.Builder {
+        @Override
+        public String getMetal() {
+            return "AU";
+        }
+
+        @Override
+        public String getColor() {
+            return "AMARILLO";
+        }
+
+        @Override
+        public String getCalidad() {
+            return "14";
+        }
+
+        @Override
+        public String getRango() {
+            return "R1";
+        }
+
+        @Override
+        public BigDecimal getPeso() {
+            return BigDecimal.TEN;
+        }
+
+        @Override
+        public BigDecimal getIncremento() {
+            return null;
+        }
+
+        @Override
+        public BigDecimal getDesplazamiento() {
+            return null;
+        }
+
+        @Override
+        public ValorExperto getValorExperto() {
+            return null;
+        }
+    }
+
+}
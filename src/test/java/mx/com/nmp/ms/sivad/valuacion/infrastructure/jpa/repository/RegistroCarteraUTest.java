@@ -0,0 +1,125 @@
+/**
+ * Proyecto:        NMP - Microservicio de Motor de Valuación
+ * Quarksoft S.A.P.I. de C.V. – Todos los derechos reservados. Para uso exclusivo de Nacional Monte de Piedad.
+ */
+package mx.com.nmp.ms.sivad.valuacion.infrastructure.jpa.repository;
+
+import com.codahale.metrics.MetricRegistry;
+import mx.com.nmp.ms.sivad.valuacion.config.CarteraProperties;
+import mx.com.nmp.ms.sivad.valuacion.dominio.modelo.Prenda;
+import mx.com.nmp.ms.sivad.valuacion.dominio.modelo.vo.Avaluo;
+import mx.com.nmp.ms.sivad.valuacion.dominio.repository.CarteraRepository;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.InOrder;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.dao.QueryTimeoutException;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verifyZeroInteractions;
+
+/**
+ * Pruebas de unidad para la clase {@link RegistroCartera}
+ */
+public class RegistroCarteraUTest {
+
+    @Mock
+    private CarteraRepository carteraRepository;
+
+    @Mock
+    private Prenda prenda;
+
+    @Mock
+    private Avaluo avaluo;
+
+    private MetricRegistry metricRegistry;
+    private CarteraProperties propiedades;
+    private RegistroCartera test;
+
+    /**
+     * Se ejecuta antes de cada prueba; el hilo escritor no se inicia y los lotes se escriben desde la prueba.
+     */
+    @Before
+    public void setup() {
+        MockitoAnnotations.initMocks(this);
+
+        metricRegistry = new MetricRegistry();
+
+        propiedades = new CarteraProperties();
+        propiedades.setCapacidad(3);
+        propiedades.setTamanoLote(2);
+
+        test = new RegistroCartera();
+        ReflectionTestUtils.setField(test, "propiedades", propiedades);
+        ReflectionTestUtils.setField(test, "carteraRepository", carteraRepository);
+        ReflectionTestUtils.setField(test, "metricRegistry", metricRegistry);
+        test.init();
+
+        propiedades.setHabilitada(true);
+    }
+
+    /**
+     * Valida que las prendas se registren en orden, en lotes, y que con la cola llena se descarte la nueva.
+     */
+    @Test
+    public void registrarEnLotesTest() {
+        assertTrue(test.registrar("A", prenda, avaluo));
+        assertTrue(test.registrar("B", prenda, avaluo));
+        assertTrue(test.registrar("C", prenda, avaluo));
+        assertFalse(test.registrar("D", prenda, avaluo));
+        assertEquals(1, metricRegistry.meter(nombre("descartados")).getCount());
+
+        assertEquals(2, test.escribirLote());
+        assertEquals(1, test.escribirLote());
+        assertEquals(0, test.escribirLote());
+
+        InOrder orden = inOrder(carteraRepository);
+        orden.verify(carteraRepository).registrar("A", prenda, avaluo);
+        orden.verify(carteraRepository).registrar("B", prenda, avaluo);
+        orden.verify(carteraRepository).registrar("C", prenda, avaluo);
+        assertEquals(3, metricRegistry.meter(nombre("escritos")).getCount());
+    }
+
+    /**
+     * Valida que la falla de una prenda no impida registrar las demás del lote.
+     */
+    @Test
+    public void fallaPrendaTest() {
+        Prenda fallida = mock(Prenda.class);
+        doThrow(new QueryTimeoutException("falla")).when(carteraRepository).registrar("A", fallida, avaluo);
+
+        test.registrar("A", fallida, avaluo);
+        test.registrar("B", prenda, avaluo);
+
+        assertEquals(1, test.escribirLote());
+        assertEquals(1, metricRegistry.meter(nombre("fallidos")).getCount());
+        assertEquals(1, metricRegistry.meter(nombre("escritos")).getCount());
+        assertEquals(0, metricRegistry.getGauges().get(nombre("pendientes")).getValue());
+    }
+
+    /**
+     * Valida que, deshabilitada o sin identificador, no se encolen prendas.
+     */
+    @Test
+    public void noRegistrarTest() {
+        assertFalse(test.registrar("", prenda, avaluo));
+
+        propiedades.setHabilitada(false);
+        assertFalse(test.registrar("A", prenda, avaluo));
+
+        assertEquals(0, test.escribirLote());
+        verifyZeroInteractions(carteraRepository);
+    }
+
+    private static String nombre(String indicador) {
+        return MetricRegistry.name(RegistroCartera.class, indicador);
+    }
+
+}
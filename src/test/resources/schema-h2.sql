@@ -149,3 +149,100 @@ FOREIGN KEY(LISTADO) REFERENCES CFG_DIAMANTE_LISTADO_MODIFICADOR_CONDICION_PREND
 ------------------------------------------------------------------------------------------------------------------------
 -- TERMINA - TABLAS: MODIFICADOR CONDICION PRENDA
 ------------------------------------------------------------------------------------------------------------------------
+
+
+
+------------------------------------------------------------------------------------------------------------------------
+-- INICIA - TABLAS: VERSIONES DE CACHE
+------------------------------------------------------------------------------------------------------------------------
+
+DROP TABLE IF EXISTS CFG_VERSION_CACHE;
+CREATE TABLE CFG_VERSION_CACHE
+(
+    NOMBRE VARCHAR(100) NOT NULL,
+    VERSION BIGINT NOT NULL,
+    PRIMARY KEY(NOMBRE)
+);
+
+INSERT INTO CFG_VERSION_CACHE (NOMBRE, VERSION) VALUES ('politicasCastigo', 0);
+INSERT INTO CFG_VERSION_CACHE (NOMBRE, VERSION) VALUES ('modificadorCondicionPrenda', 0);
+
+------------------------------------------------------------------------------------------------------------------------
+-- TERMINA - TABLAS: VERSIONES DE CACHE
+------------------------------------------------------------------------------------------------------------------------
+
+
+
+------------------------------------------------------------------------------------------------------------------------
+-- INICIA - TABLAS: CARTERA
+------------------------------------------------------------------------------------------------------------------------
+
+DROP TABLE IF EXISTS TR_CARTERA_PIEZA_DEPENDENCIA;
+DROP TABLE IF EXISTS TR_CARTERA_PIEZA;
+DROP TABLE IF EXISTS TR_CARTERA_PRENDA_ACUMULADO;
+DROP TABLE IF EXISTS TR_CARTERA_PRENDA;
+
+CREATE TABLE TR_CARTERA_PRENDA
+(
+    ID VARCHAR(100) NOT NULL,
+    CONDICION VARCHAR(50),
+    VALOR_MINIMO DECIMAL(30, 10) NOT NULL,
+    VALOR_PROMEDIO DECIMAL(30, 10) NOT NULL,
+    VALOR_MAXIMO DECIMAL(30, 10) NOT NULL,
+    FECHA_VALUACION TIMESTAMP NOT NULL,
+    PRIMARY KEY(ID)
+);
+
+CREATE TABLE TR_CARTERA_PRENDA_ACUMULADO
+(
+    PRENDA VARCHAR(100) NOT NULL,
+    TIPO VARCHAR(50) NOT NULL,
+    VALOR_MINIMO DECIMAL(30, 10) NOT NULL,
+    VALOR_PROMEDIO DECIMAL(30, 10) NOT NULL,
+    VALOR_MAXIMO DECIMAL(30, 10) NOT NULL,
+    PRIMARY KEY(PRENDA, TIPO)
+);
+ALTER TABLE TR_CARTERA_PRENDA_ACUMULADO ADD FOREIGN KEY (PRENDA) REFERENCES TR_CARTERA_PRENDA (ID);
+
+CREATE TABLE TR_CARTERA_PIEZA
+(
+    ID BIGINT AUTO_INCREMENT NOT NULL,
+    PRENDA VARCHAR(100) NOT NULL,
+    TIPO VARCHAR(50) NOT NULL,
+    NUMERO_PIEZAS INT NOT NULL,
+    METAL VARCHAR(50),
+    COLOR VARCHAR(50),
+    CALIDAD VARCHAR(50),
+    RANGO VARCHAR(50),
+    PESO DECIMAL(20, 4),
+    INCREMENTO DECIMAL(20, 4),
+    DESPLAZAMIENTO DECIMAL(20, 4),
+    CORTE VARCHAR(50),
+    SUBCORTE VARCHAR(50),
+    CLARIDAD VARCHAR(50),
+    QUILATES DECIMAL(20, 4),
+    CERTIFICADO VARCHAR(50),
+    QUILATES_DESDE DECIMAL(20, 4),
+    QUILATES_HASTA DECIMAL(20, 4),
+    VALOR_EXPERTO DECIMAL(20, 4),
+    TIPO_VALOR_EXPERTO VARCHAR(20),
+    VALOR_MINIMO DECIMAL(30, 10) NOT NULL,
+    VALOR_PROMEDIO DECIMAL(30, 10) NOT NULL,
+    VALOR_MAXIMO DECIMAL(30, 10) NOT NULL,
+    PRIMARY KEY(ID)
+);
+
+CREATE INDEX IDX_TR_CARTERA_PIEZA_PRENDA ON TR_CARTERA_PIEZA(PRENDA);
+
+CREATE TABLE TR_CARTERA_PIEZA_DEPENDENCIA
+(
+    PIEZA BIGINT NOT NULL,
+    LLAVE VARCHAR(255) NOT NULL
+);
+ALTER TABLE TR_CARTERA_PIEZA_DEPENDENCIA ADD FOREIGN KEY (PIEZA) REFERENCES TR_CARTERA_PIEZA (ID);
+
+CREATE INDEX IDX_TR_CARTERA_PIEZA_DEPENDENCIA_LLAVE ON TR_CARTERA_PIEZA_DEPENDENCIA(LLAVE);
+
+------------------------------------------------------------------------------------------------------------------------
+-- TERMINA - TABLAS: CARTERA
+------------------------------------------------------------------------------------------------------------------------